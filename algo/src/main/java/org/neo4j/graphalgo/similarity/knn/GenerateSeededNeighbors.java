@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity.knn;
+
+import com.carrotsearch.hppc.LongHashSet;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.utils.BiLongConsumer;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+
+import java.util.SplittableRandom;
+
+/**
+ * Initial step in KNN calculation when seeding from existing relationships.
+ *
+ * The targets of the seed relationships of a node are its initial neighbors,
+ * nodes without enough of them are filled up with random neighbors.
+ * Seed neighbors between two unchanged nodes are flagged as checked,
+ * so that they are not joined again in the first iteration.
+ */
+final class GenerateSeededNeighbors implements BiLongConsumer {
+    private final SplittableRandom random;
+    private final SimilarityComputer computer;
+    private final Graph seedGraph;
+    private final @Nullable NodeProperties changedNodes;
+    private final HugeObjectArray<NeighborList> neighbors;
+    private final long n;
+    private final int k;
+    private final int k2;
+
+    GenerateSeededNeighbors(
+        SplittableRandom random,
+        SimilarityComputer computer,
+        Graph seedGraph,
+        @Nullable NodeProperties changedNodes,
+        HugeObjectArray<NeighborList> neighbors,
+        long n,
+        int k,
+        int k2
+    ) {
+        this.random = random;
+        this.computer = computer;
+        this.seedGraph = seedGraph;
+        this.changedNodes = changedNodes;
+        this.neighbors = neighbors;
+        this.n = n;
+        this.k = k;
+        this.k2 = k2;
+    }
+
+    @Override
+    public void apply(long start, long end) {
+        var rng = random.split();
+        var seedGraph = this.seedGraph.concurrentCopy();
+        var computer = this.computer;
+        var n = this.n;
+        var k = this.k;
+        var k2 = this.k2;
+        var seeded = new LongHashSet(k2);
+        var chosen = new LongHashSet(k2);
+
+        for (long nodeId = start; nodeId < end; nodeId++) {
+            seeded.clear();
+            chosen.clear();
+
+            seedGraph.forEachRelationship(nodeId, (source, target) -> {
+                if (source != target) {
+                    seeded.add(target);
+                }
+                return true;
+            });
+            chosen.addAll(seeded);
+
+            for (int i = chosen.size(); i < k2; i++) {
+                var randomNode = rng.nextLong(n - 1);
+                if (randomNode >= nodeId) {
+                    ++randomNode;
+                }
+                assert nodeId != randomNode;
+                chosen.add(randomNode);
+            }
+
+            var neighbors = new NeighborList(k);
+            neighbors.addAll(chosen, nodeId, computer, rng);
+
+            assert neighbors.size() > 0; // because K > 0 and N > 1
+            assert neighbors.size() <= k;
+
+            if (!isChanged(nodeId)) {
+                for (int i = 0; i < neighbors.size(); i++) {
+                    var neighborNode = neighbors.elementAt(i);
+                    if (seeded.contains(neighborNode) && !isChanged(neighborNode)) {
+                        neighbors.getAndFlagAsChecked(i);
+                    }
+                }
+            }
+
+            this.neighbors.set(nodeId, neighbors);
+        }
+    }
+
+    private boolean isChanged(long nodeId) {
+        // nodes without a value for the property are treated as changed
+        return changedNodes == null || changedNodes.doubleValue(nodeId) != 0.0;
+    }
+}
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.Algorithm;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.BatchingProgressLogger;
 import org.neo4j.graphalgo.core.utils.BiLongConsumer;
@@ -32,6 +33,7 @@ import org.neo4j.graphalgo.core.utils.paged.HugeCursor;
 import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 import org.neo4j.graphalgo.similarity.SimilarityResult;
 
+import java.util.Objects;
 import java.util.SplittableRandom;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
@@ -49,13 +51,20 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
     private final KnnContext context;
     private final SplittableRandom random;
     private final SimilarityComputer computer;
+    private final @Nullable Graph seedGraph;
+    private final @Nullable NodeProperties changedNodes;
 
     public Knn(Graph graph, KnnBaseConfig config, KnnContext context) {
         this(
             graph.nodeCount(),
             config,
-            SimilarityComputer.ofProperty(graph, config.nodeWeightProperty()),
-            context
+            SimilarityComputer.ofProperty(graph, config.nodeWeightProperty(), graph.nodeCount(), context.tracker()),
+            context,
+            config.isIncremental() ? graph : null,
+            config.changedNodeProperty() == null ? null : Objects.requireNonNull(
+                graph.nodeProperties(config.changedNodeProperty()),
+                () -> formatWithLocale("The property `%s` has not been loaded", config.changedNodeProperty())
+            )
         );
     }
 
@@ -64,11 +73,28 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
         KnnBaseConfig config,
         SimilarityComputer similarityComputer,
         KnnContext context
+    ) {
+        this(nodeCount, config, similarityComputer, context, null, null);
+    }
+
+    /**
+     * @param seedGraph    if not null, the targets of its relationships are the initial neighbors of every node
+     * @param changedNodes if not null, the seed neighbors between nodes with a value of 0 are not compared again
+     */
+    public Knn(
+        long nodeCount,
+        KnnBaseConfig config,
+        SimilarityComputer similarityComputer,
+        KnnContext context,
+        @Nullable Graph seedGraph,
+        @Nullable NodeProperties changedNodes
     ) {
         this.nodeCount = nodeCount;
         this.config = config;
         this.context = context;
         this.computer = similarityComputer;
+        this.seedGraph = seedGraph;
+        this.changedNodes = changedNodes;
         this.random = this.config.randomSeed() == -1L
             ? new SplittableRandom()
             : new SplittableRandom(this.config.randomSeed());
@@ -93,12 +119,18 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
         HugeObjectArray<NeighborList> neighbors;
         try (var ignored1 = ProgressTimer.start(this::logOverallTime)) {
             try (var ignored2 = ProgressTimer.start(this::logInitTime)) {
-                neighbors = this.initializeRandomNeighbors();
+                neighbors = this.initializeNeighbors();
             }
             if (neighbors == null) {
                 return new EmptyResult();
             }
 
+            // the neighbor candidates of every iteration reuse the same buffers
+            var boundedK = this.config.boundedK(nodeCount);
+            var sampledK = this.config.sampledK(nodeCount);
+            var allOldNeighbors = new NeighborLists(nodeCount, boundedK, this.context.tracker());
+            var allNewNeighbors = new NeighborLists(nodeCount, sampledK, this.context.tracker());
+
             var maxIterations = this.config.maxIterations();
             var maxUpdates = (long) Math.ceil(config.sampleRate() * config.topK() * nodeCount);
             var updateThreshold = (long) Math.floor(this.config.deltaThreshold() * maxUpdates);
@@ -110,7 +142,7 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
                 int currentIteration = iteration;
                 try (var ignored3 = ProgressTimer.start(took -> logIterationTime(currentIteration, took))) {
                     progressLogger.logMessage("KNN-Graph starting iteration " + iteration + "/" + maxIterations);
-                    updateCount = this.iteration(neighbors);
+                    updateCount = this.iteration(neighbors, allOldNeighbors, allNewNeighbors);
                     progressLogger.logMessage("KNN-Graph ending iteration " + iteration + ": updated " + updateCount + "/" + maxUpdates + " nodes");
                 }
                 if (updateCount <= updateThreshold) {
@@ -124,7 +156,7 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
         }
     }
 
-    private @Nullable HugeObjectArray<NeighborList> initializeRandomNeighbors() {
+    private @Nullable HugeObjectArray<NeighborList> initializeNeighbors() {
         var nodeCount = this.nodeCount;
         var k = this.config.topK();
         // (int) is safe since it is at most k, which is an int
@@ -142,20 +174,35 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
             this.config.concurrency(),
             nodeCount,
             this.context.executor(),
-            new GenerateRandomNeighbors(
-                random,
-                this.computer,
-                neighbors,
-                nodeCount,
-                k,
-                boundedK
-            )
+            this.seedGraph == null
+                ? new GenerateRandomNeighbors(
+                    random,
+                    this.computer,
+                    neighbors,
+                    nodeCount,
+                    k,
+                    boundedK
+                )
+                : new GenerateSeededNeighbors(
+                    random,
+                    this.computer,
+                    this.seedGraph,
+                    this.changedNodes,
+                    neighbors,
+                    nodeCount,
+                    k,
+                    boundedK
+                )
         );
 
         return neighbors;
     }
 
-    private long iteration(HugeObjectArray<NeighborList> neighbors) {
+    private long iteration(
+        HugeObjectArray<NeighborList> neighbors,
+        NeighborLists allOldNeighbors,
+        NeighborLists allNewNeighbors
+    ) {
         // this is a sanity check
         // we check for this before any iteration and return
         // and just make sure that this invariant holds on every iteration
@@ -164,16 +211,11 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
             return NeighborList.NOT_INSERTED;
         }
 
-        var tracker = this.context.tracker();
         var concurrency = this.config.concurrency();
         var executor = this.context.executor();
 
         var sampledK = this.config.sampledK(n);
 
-        // TODO: init in ctor and reuse - benchmark against new allocations
-        var allOldNeighbors = HugeObjectArray.newArray(LongArrayList.class, n, tracker);
-        var allNewNeighbors = HugeObjectArray.newArray(LongArrayList.class, n, tracker);
-
         ParallelUtil.readParallel(concurrency, n, executor, new SplitOldAndNewNeighbors(
             this.random,
             neighbors,
@@ -182,11 +224,8 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
             sampledK
         ));
 
-        // TODO: init in ctor and reuse - benchmark against new allocations
-        var reverseOldNeighbors = HugeObjectArray.newArray(LongArrayList.class, n, tracker);
-        var reverseNewNeighbors = HugeObjectArray.newArray(LongArrayList.class, n, tracker);
-
-        reverseOldAndNewNeighbors(n, allOldNeighbors, allNewNeighbors, reverseOldNeighbors, reverseNewNeighbors);
+        allOldNeighbors.reverse(concurrency, executor);
+        allNewNeighbors.reverse(concurrency, executor);
 
         var neighborsJoiner = new JoinNeighbors(
             this.random,
@@ -194,12 +233,11 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
             neighbors,
             allOldNeighbors,
             allNewNeighbors,
-            reverseOldNeighbors,
-            reverseNewNeighbors,
             n,
             this.config.topK(),
             sampledK,
-            this.config.randomJoins()
+            this.config.randomJoins(),
+            this.seedGraph != null
         );
 
         ParallelUtil.readParallel(concurrency, n, executor, neighborsJoiner);
@@ -207,77 +245,41 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
         return neighborsJoiner.updateCount.sum();
     }
 
-    private static void reverseOldAndNewNeighbors(
-        long nodeCount,
-        HugeObjectArray<LongArrayList> allOldNeighbors,
-        HugeObjectArray<LongArrayList> allNewNeighbors,
-        HugeObjectArray<LongArrayList> reverseOldNeighbors,
-        HugeObjectArray<LongArrayList> reverseNewNeighbors
-    ) {
-        // TODO: cursors
-        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
-            reverseNeighbors(nodeId, allOldNeighbors, reverseOldNeighbors);
-            reverseNeighbors(nodeId, allNewNeighbors, reverseNewNeighbors);
-        }
-    }
-
-    static void reverseNeighbors(
-        long nodeId,
-        HugeObjectArray<LongArrayList> allNeighbors,
-        HugeObjectArray<LongArrayList> reverseNeighbors
-    ) {
-        var neighbors = allNeighbors.get(nodeId);
-        if (neighbors != null) {
-            for (var neighbor : neighbors) {
-                assert neighbor.value != nodeId;
-                var oldReverse = reverseNeighbors.get(neighbor.value);
-                if (oldReverse == null) {
-                    oldReverse = new LongArrayList();
-                    reverseNeighbors.set(neighbor.value, oldReverse);
-                }
-                oldReverse.add(nodeId);
-            }
-        }
-    }
-
     private static final class JoinNeighbors implements BiLongConsumer {
         private final SplittableRandom random;
         private final SimilarityComputer computer;
         private final HugeObjectArray<NeighborList> neighbors;
-        private final HugeObjectArray<LongArrayList> allOldNeighbors;
-        private final HugeObjectArray<LongArrayList> allNewNeighbors;
-        private final HugeObjectArray<LongArrayList> allReverseOldNeighbors;
-        private final HugeObjectArray<LongArrayList> allReverseNewNeighbors;
+        private final NeighborLists allOldNeighbors;
+        private final NeighborLists allNewNeighbors;
         private final long n;
         private final int k;
         private final int sampledK;
         private final int randomJoins;
+        private final boolean skipStableNodes;
         private final LongAdder updateCount;
 
         private JoinNeighbors(
             SplittableRandom random,
             SimilarityComputer computer,
             HugeObjectArray<NeighborList> neighbors,
-            HugeObjectArray<LongArrayList> allOldNeighbors,
-            HugeObjectArray<LongArrayList> allNewNeighbors,
-            HugeObjectArray<LongArrayList> allReverseOldNeighbors,
-            HugeObjectArray<LongArrayList> allReverseNewNeighbors,
+            NeighborLists allOldNeighbors,
+            NeighborLists allNewNeighbors,
             long n,
             int k,
             int sampledK,
-            int randomJoins
+            int randomJoins,
+            boolean skipStableNodes
         ) {
             this.random = random;
             this.computer = computer;
             this.neighbors = neighbors;
             this.allOldNeighbors = allOldNeighbors;
             this.allNewNeighbors = allNewNeighbors;
-            this.allReverseOldNeighbors = allReverseOldNeighbors;
-            this.allReverseNewNeighbors = allReverseNewNeighbors;
             this.n = n;
             this.k = k;
             this.sampledK = sampledK;
             this.randomJoins = randomJoins;
+            this.skipStableNodes = skipStableNodes;
             this.updateCount = new LongAdder();
         }
 
@@ -291,154 +293,153 @@ public class Knn extends Algorithm<Knn, Knn.Result> {
             var allNeighbors = this.neighbors;
             var allNewNeighbors = this.allNewNeighbors;
             var allOldNeighbors = this.allOldNeighbors;
-            var allReverseNewNeighbors = this.allReverseNewNeighbors;
-            var allReverseOldNeighbors = this.allReverseOldNeighbors;
+            var symmetric = computer.isSymmetric();
+            var oldNeighbors = new LongArrayList();
+            var newNeighbors = new LongArrayList();
+            var candidates = new LongArrayList();
+            var similarities = new double[0];
 
             long updateCount = 0;
             for (long nodeId = start; nodeId < end; nodeId++) {
                 // old[v] ∪ Sample(old′[v], ρK)
-                var oldNeighbors = allOldNeighbors.get(nodeId);
-                if (oldNeighbors != null) {
-                    var reverseOldNeighbors = allReverseOldNeighbors.get(nodeId);
-                    if (reverseOldNeighbors != null) {
-                        var numberOfReverseOldNeighbors = reverseOldNeighbors.size();
-                        for (var elem : reverseOldNeighbors) {
-                            if (rng.nextInt(numberOfReverseOldNeighbors) < sampledK) {
-                                // TODO: this could add nodes twice, maybe? should this be a set?
-                                oldNeighbors.add(elem.value);
-                            }
-                        }
-                    }
+                var hasOldNeighbors = sampleNeighbors(rng, allOldNeighbors, nodeId, sampledK, oldNeighbors);
+
+                // new[v] ∪ Sample(new′[v], ρK)
+                var hasNewNeighbors = sampleNeighbors(rng, allNewNeighbors, nodeId, sampledK, newNeighbors);
+                // when seeded incrementally, nodes without new neighbors did not change since the seed has been computed
+                if (!hasNewNeighbors && skipStableNodes) {
+                    continue;
                 }
 
+                var newNeighborElements = newNeighbors.buffer;
+                var newNeighborsCount = newNeighbors.elementsCount;
 
-                // new[v] ∪ Sample(new′[v], ρK)
-                var newNeighbors = allNewNeighbors.get(nodeId);
-                if (newNeighbors != null) {
-                    var reverseNewNeighbors = allReverseNewNeighbors.get(nodeId);
-                    if (reverseNewNeighbors != null) {
-                        var numberOfReverseNewNeighbors = reverseNewNeighbors.size();
-                        for (var elem : reverseNewNeighbors) {
-                            if (rng.nextInt(numberOfReverseNewNeighbors) < sampledK) {
-                                // TODO: this could add nodes twice, maybe? should this be a set?
-                                newNeighbors.add(elem.value);
-                            }
-                        }
-                    }
+                for (int i = 0; i < newNeighborsCount; i++) {
+                    var elem1 = newNeighborElements[i];
+                    assert elem1 != nodeId;
 
-                    var newNeighborElements = newNeighbors.buffer;
-                    var newNeighborsCount = newNeighbors.elementsCount;
-
-                    for (int i = 0; i < newNeighborsCount; i++) {
-                        var elem1 = newNeighborElements[i];
-                        assert elem1 != nodeId;
-
-                        // join(u1, v), this isn't in the paper
-                        updateCount += join(
-                            rng,
-                            computer,
-                            allNeighbors,
-                            n,
-                            k,
-                            elem1,
-                            nodeId
-                        );
-
-                        // join(new_nbd, new_ndb)
-                        for (int j = i + 1; j < newNeighborsCount; j++) {
-                            var elem2 = newNeighborElements[i];
-                            if (elem1 == elem2) {
-                                continue;
-                            }
+                    // join(u1, v), this isn't in the paper
+                    candidates.clear();
+                    candidates.add(nodeId);
 
-                            updateCount += join(
-                                rng,
-                                computer,
-                                allNeighbors,
-                                n,
-                                k,
-                                elem1,
-                                elem2
-                            );
-                            updateCount += join(
-                                rng,
-                                computer,
-                                allNeighbors,
-                                n,
-                                k,
-                                elem2,
-                                elem1
-                            );
+                    // join(new_nbd, new_ndb)
+                    for (int j = i + 1; j < newNeighborsCount; j++) {
+                        var elem2 = newNeighborElements[j];
+                        if (elem1 != elem2) {
+                            candidates.add(elem2);
                         }
+                    }
 
-                        // join(new_nbd, old_ndb)
-                        if (oldNeighbors != null) {
-                            for (var oldElemCursor : oldNeighbors) {
-                                var elem2 = oldElemCursor.value;
-
-                                if (elem1 == elem2) {
-                                    continue;
-                                }
-
-                                updateCount += join(
-                                    rng,
-                                    computer,
-                                    allNeighbors,
-                                    n,
-                                    k,
-                                    elem1,
-                                    elem2
-                                );
-                                updateCount += join(
-                                    rng,
-                                    computer,
-                                    allNeighbors,
-                                    n,
-                                    k,
-                                    elem2,
-                                    elem1
-                                );
+                    // join(new_nbd, old_ndb)
+                    if (hasOldNeighbors) {
+                        var oldNeighborElements = oldNeighbors.buffer;
+                        var oldNeighborsCount = oldNeighbors.elementsCount;
+                        for (int j = 0; j < oldNeighborsCount; j++) {
+                            var elem2 = oldNeighborElements[j];
+                            if (elem1 != elem2) {
+                                candidates.add(elem2);
                             }
                         }
                     }
+
+                    // all candidates of u1 are scored in one batch
+                    similarities = similarities(computer, elem1, candidates, similarities);
+                    var candidateElements = candidates.buffer;
+                    var candidatesCount = candidates.elementsCount;
+
+                    updateCount += join(rng, allNeighbors, n, k, elem1, nodeId, similarities[0]);
+                    for (int j = 1; j < candidatesCount; j++) {
+                        var elem2 = candidateElements[j];
+                        var similarity = similarities[j];
+                        updateCount += join(rng, allNeighbors, n, k, elem1, elem2, similarity);
+                        var reverseSimilarity = symmetric ? similarity : computer.safeSimilarity(elem2, elem1);
+                        updateCount += join(rng, allNeighbors, n, k, elem2, elem1, reverseSimilarity);
+                    }
                 }
 
                 // random_join, this isn't in the paper
                 var randomJoins = this.randomJoins;
+                candidates.clear();
                 for (int i = 0; i < randomJoins; i++) {
                     var randomNodeId = rng.nextLong(n - 1);
                     if (randomNodeId >= nodeId) {
                         ++randomNodeId;
                     }
+                    candidates.add(randomNodeId);
+                }
+                similarities = similarities(computer, nodeId, candidates, similarities);
+                for (int i = 0; i < randomJoins; i++) {
                     // random joins are not counted towards the actual update counter
-                    join(
-                        rng,
-                        computer,
-                        allNeighbors,
-                        n,
-                        k,
-                        nodeId,
-                        randomNodeId
-                    );
+                    join(rng, allNeighbors, n, k, nodeId, candidates.buffer[i], similarities[i]);
                 }
             }
 
             this.updateCount.add(updateCount);
         }
 
+        /**
+         * Collects the neighbors of the node and a sample of its reverse neighbors, without duplicates.
+         * Returns false if the node has no neighbors, in which case its reverse neighbors are not used either.
+         */
+        private static boolean sampleNeighbors(
+            SplittableRandom rng,
+            NeighborLists allNeighbors,
+            long nodeId,
+            int sampledK,
+            LongArrayList neighbors
+        ) {
+            neighbors.clear();
+            var neighborCount = allNeighbors.size(nodeId);
+            if (neighborCount == 0) {
+                return false;
+            }
+            for (int i = 0; i < neighborCount; i++) {
+                neighbors.add(allNeighbors.get(nodeId, i));
+            }
+
+            var reverseStart = allNeighbors.reverseStart(nodeId);
+            var reverseEnd = allNeighbors.reverseEnd(nodeId);
+            var numberOfReverseNeighbors = reverseEnd - reverseStart;
+            for (long position = reverseStart; position < reverseEnd; position++) {
+                if (rng.nextLong(numberOfReverseNeighbors) < sampledK) {
+                    var reverseNeighbor = allNeighbors.reverseNeighbor(position);
+                    // mutual neighbors are already collected
+                    if (!neighbors.contains(reverseNeighbor)) {
+                        neighbors.add(reverseNeighbor);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Computes the similarities of the node to all candidates, growing the given array if it is too small.
+         */
+        private static double[] similarities(
+            SimilarityComputer computer,
+            long nodeId,
+            LongArrayList candidates,
+            double[] similarities
+        ) {
+            if (similarities.length < candidates.elementsCount) {
+                similarities = new double[candidates.buffer.length];
+            }
+            computer.safeSimilarities(nodeId, candidates.buffer, candidates.elementsCount, similarities);
+            return similarities;
+        }
+
         private long join(
             SplittableRandom splittableRandom,
-            SimilarityComputer computer,
             HugeObjectArray<NeighborList> allNeighbors,
             long n,
             int k,
             long base,
-            long joiner
+            long joiner,
+            double similarity
         ) {
             assert base != joiner;
             assert n > 1 && k > 0;
 
-            var similarity = computer.safeSimilarity(base, joiner);
             var neighbors = allNeighbors.get(base);
             synchronized (neighbors) {
                 var k2 = neighbors.size();
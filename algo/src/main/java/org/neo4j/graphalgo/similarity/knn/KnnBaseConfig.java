@@ -21,12 +21,21 @@ package org.neo4j.graphalgo.similarity.knn;
 
 import org.immutables.value.Value;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.RelationshipType;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.GraphStore;
 import org.neo4j.graphalgo.config.AlgoBaseConfig;
 import org.neo4j.graphalgo.config.IterationsConfig;
 import org.neo4j.graphalgo.config.NodeWeightConfig;
 
+import java.util.Collection;
+import java.util.List;
+
+import static org.neo4j.graphalgo.ElementProjection.PROJECT_ALL;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
 @ValueClass
 @Configuration
 @SuppressWarnings("immutables:subtype")
@@ -78,6 +87,57 @@ public interface KnnBaseConfig extends AlgoBaseConfig, IterationsConfig, NodeWei
         return -1;
     }
 
+    /**
+     * The relationships of this type, e.g. the result of an earlier run, are the initial neighbors
+     * instead of randomly picked ones. Only these relationships are loaded for the algorithm.
+     */
+    @Value.Default
+    @Configuration.ConvertWith("org.apache.commons.lang3.StringUtils#trimToNull")
+    default @Nullable String seedRelationshipType() {
+        return null;
+    }
+
+    /**
+     * A node property that is not 0 for nodes whose {@link #nodeWeightProperty()} changed since
+     * the seed relationships have been computed. The seed relationships between unchanged nodes
+     * are not compared with each other again.
+     */
+    @Value.Default
+    @Configuration.ConvertWith("org.apache.commons.lang3.StringUtils#trimToNull")
+    default @Nullable String changedNodeProperty() {
+        return null;
+    }
+
+    @Configuration.Ignore
+    default boolean isIncremental() {
+        return seedRelationshipType() != null;
+    }
+
+    @Configuration.Ignore
+    @Override
+    default Collection<RelationshipType> internalRelationshipTypes(GraphStore graphStore) {
+        return isIncremental()
+            ? List.of(RelationshipType.of(seedRelationshipType()))
+            : AlgoBaseConfig.super.internalRelationshipTypes(graphStore);
+    }
+
+    @Value.Check
+    default void validate() {
+        if (changedNodeProperty() != null && !isIncremental()) {
+            throw new IllegalArgumentException("Specifying `changedNodeProperty` requires `seedRelationshipType` to be set.");
+        }
+        // the seed relationships are the only relationships that are used, other types would be ignored
+        if (isIncremental()
+            && !relationshipTypes().contains(PROJECT_ALL)
+            && !relationshipTypes().equals(List.of(seedRelationshipType()))) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Specifying `relationshipTypes` %s is not supported together with `seedRelationshipType` '%s'.",
+                relationshipTypes(),
+                seedRelationshipType()
+            ));
+        }
+    }
+
     @Configuration.Ignore
     default int sampledK(long nodeCount) {
         // (int) is safe because value is at most `topK`, which is an int
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity.knn;
+
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The old or the new neighbors of all nodes in one iteration of NN-Descent, together with their reverse neighbors.
+ * <p>
+ * The arrays are allocated once per run and reused in every iteration.
+ * Every node has room for {@code capacity} neighbors in a flat array.
+ * The reverse neighbors are stored in compressed sparse row format.
+ */
+final class NeighborLists {
+
+    private final int capacity;
+    private final HugeLongArray neighbors;
+    private final HugeIntArray neighborCounts;
+    private final HugeAtomicLongArray reverseOffsets;
+    private final HugeLongArray reverseNeighbors;
+
+    static MemoryEstimation memoryEstimation(int capacity) {
+        return MemoryEstimations.builder(NeighborLists.class)
+            .perNode("neighbors", nodeCount -> HugeLongArray.memoryEstimation(nodeCount * capacity))
+            .perNode("neighbor counts", HugeIntArray::memoryEstimation)
+            .perNode("reverse offsets", nodeCount -> HugeAtomicLongArray.memoryEstimation(nodeCount + 1))
+            .perNode("reverse neighbors", nodeCount -> HugeLongArray.memoryEstimation(nodeCount * capacity))
+            .build();
+    }
+
+    NeighborLists(long nodeCount, int capacity, AllocationTracker tracker) {
+        this.capacity = capacity;
+        this.neighbors = HugeLongArray.newArray(nodeCount * capacity, tracker);
+        this.neighborCounts = HugeIntArray.newArray(nodeCount, tracker);
+        this.reverseOffsets = HugeAtomicLongArray.newArray(nodeCount + 1, tracker);
+        this.reverseNeighbors = HugeLongArray.newArray(nodeCount * capacity, tracker);
+    }
+
+    void clear(long nodeId) {
+        neighborCounts.set(nodeId, 0);
+    }
+
+    void add(long nodeId, long neighbor) {
+        int count = neighborCounts.get(nodeId);
+        assert count < capacity;
+        neighbors.set(nodeId * capacity + count, neighbor);
+        neighborCounts.set(nodeId, count + 1);
+    }
+
+    int size(long nodeId) {
+        return neighborCounts.get(nodeId);
+    }
+
+    long get(long nodeId, int index) {
+        return neighbors.get(nodeId * capacity + index);
+    }
+
+    /**
+     * Indexes the reverse neighbors of all nodes. The reverse neighbors are counted per target first,
+     * the counts are summed up to the start offset of every target, and the reverse neighbors are then
+     * filled in from these start offsets, in no particular order.
+     */
+    void reverse(int concurrency, ExecutorService executor) {
+        long nodeCount = neighborCounts.size();
+        reverseOffsets.setAll(0L);
+
+        // the reverse neighbors of a node are counted at the offset of the next node
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                int count = neighborCounts.get(nodeId);
+                for (int i = 0; i < count; i++) {
+                    reverseOffsets.getAndAdd(get(nodeId, i) + 1, 1L);
+                }
+            }
+        });
+
+        long sum = 0L;
+        for (long nodeId = 1; nodeId <= nodeCount; nodeId++) {
+            long count = reverseOffsets.get(nodeId);
+            reverseOffsets.set(nodeId, sum);
+            sum += count;
+        }
+
+        // moves every offset from the start to the end of the reverse neighbors of the previous node
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                int count = neighborCounts.get(nodeId);
+                for (int i = 0; i < count; i++) {
+                    long position = reverseOffsets.getAndAdd(get(nodeId, i) + 1, 1L);
+                    reverseNeighbors.set(position, nodeId);
+                }
+            }
+        });
+    }
+
+    long reverseStart(long nodeId) {
+        return reverseOffsets.get(nodeId);
+    }
+
+    long reverseEnd(long nodeId) {
+        return reverseOffsets.get(nodeId + 1);
+    }
+
+    long reverseNeighbor(long position) {
+        return reverseNeighbors.get(position);
+    }
+}
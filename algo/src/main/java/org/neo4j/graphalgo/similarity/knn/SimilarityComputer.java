@@ -19,10 +19,13 @@
  */
 package org.neo4j.graphalgo.similarity.knn;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.NodePropertyContainer;
 import org.neo4j.graphalgo.api.nodeproperties.ValueType;
 import org.neo4j.graphalgo.core.utils.Intersections;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -38,12 +41,60 @@ public interface SimilarityComputer {
 
     double similarity(long firstNodeId, long secondNodeId);
 
+    /**
+     * Computes the safe similarities of one node to the first {@code count} candidates,
+     * which lets implementations look up the properties of the node only once.
+     */
+    default void safeSimilarities(long nodeId, long[] candidates, int count, double[] similarities) {
+        for (int i = 0; i < count; i++) {
+            similarities[i] = safeSimilarity(nodeId, candidates[i]);
+        }
+    }
+
+    /**
+     * Whether the similarity of two nodes does not depend on their order,
+     * so that it can be computed once for both of them.
+     */
+    default boolean isSymmetric() {
+        return true;
+    }
+
     static SimilarityComputer ofProperty(NodePropertyContainer graph, String propertyName) {
-        var nodeProperties = Objects.requireNonNull(
+        return ofProperty(loadedProperty(graph, propertyName), propertyName);
+    }
+
+    /**
+     * Like {@link #ofProperty(NodePropertyContainer, String)}, but computes the squared norms of array properties
+     * for all nodes up front, so that the cosine similarity of two nodes only takes their dot product.
+     */
+    static SimilarityComputer ofProperty(
+        NodePropertyContainer graph,
+        String propertyName,
+        long nodeCount,
+        AllocationTracker tracker
+    ) {
+        var nodeProperties = loadedProperty(graph, propertyName);
+        switch (nodeProperties.valueType()) {
+            case FLOAT_ARRAY:
+                return new FloatArrayPropertySimilarityComputer(
+                    nodeProperties,
+                    FloatArrayPropertySimilarityComputer.squaredNorms(nodeProperties, nodeCount, tracker)
+                );
+            case DOUBLE_ARRAY:
+                return new DoubleArrayPropertySimilarityComputer(
+                    nodeProperties,
+                    DoubleArrayPropertySimilarityComputer.squaredNorms(nodeProperties, nodeCount, tracker)
+                );
+            default:
+                return ofProperty(nodeProperties, propertyName);
+        }
+    }
+
+    private static NodeProperties loadedProperty(NodePropertyContainer graph, String propertyName) {
+        return Objects.requireNonNull(
             graph.nodeProperties(propertyName),
             () -> formatWithLocale("The property `%s` has not been loaded", propertyName)
         );
-        return ofProperty(nodeProperties, propertyName);
     }
 
     static SimilarityComputer ofProperty(NodeProperties nodeProperties, String propertyName) {
@@ -130,39 +181,105 @@ final class LongPropertySimilarityComputer implements SimilarityComputer {
 
 final class FloatArrayPropertySimilarityComputer implements SimilarityComputer {
     private final NodeProperties nodeProperties;
+    private final @Nullable HugeDoubleArray squaredNorms;
 
     FloatArrayPropertySimilarityComputer(NodeProperties nodeProperties) {
+        this(nodeProperties, null);
+    }
+
+    FloatArrayPropertySimilarityComputer(NodeProperties nodeProperties, @Nullable HugeDoubleArray squaredNorms) {
         if (nodeProperties.valueType() != ValueType.FLOAT_ARRAY) {
             throw new IllegalArgumentException("The property is not of type FLOAT_ARRAY");
         }
         this.nodeProperties = nodeProperties;
+        this.squaredNorms = squaredNorms;
+    }
+
+    static HugeDoubleArray squaredNorms(NodeProperties nodeProperties, long nodeCount, AllocationTracker tracker) {
+        var squaredNorms = HugeDoubleArray.newArray(nodeCount, tracker);
+        squaredNorms.setAll(nodeId -> {
+            var vector = nodeProperties.floatArrayValue(nodeId);
+            return Intersections.dotProduct(vector, vector, vector.length);
+        });
+        return squaredNorms;
     }
 
     @Override
     public double similarity(long firstNodeId, long secondNodeId) {
         var left = nodeProperties.floatArrayValue(firstNodeId);
         var right = nodeProperties.floatArrayValue(secondNodeId);
-        int len = Math.min(left.length, right.length);
-        return Intersections.cosine(left, right, len);
+        return similarity(left, firstNodeId, right, secondNodeId);
+    }
+
+    @Override
+    public void safeSimilarities(long nodeId, long[] candidates, int count, double[] similarities) {
+        var left = nodeProperties.floatArrayValue(nodeId);
+        for (int i = 0; i < count; i++) {
+            var candidate = candidates[i];
+            var similarity = similarity(left, nodeId, nodeProperties.floatArrayValue(candidate), candidate);
+            similarities[i] = Double.isFinite(similarity) ? similarity : 0.0;
+        }
+    }
+
+    private double similarity(float[] left, long leftNodeId, float[] right, long rightNodeId) {
+        if (squaredNorms == null || left.length != right.length) {
+            int len = Math.min(left.length, right.length);
+            return Intersections.cosine(left, right, len);
+        }
+        double dotProduct = Intersections.dotProduct(left, right, left.length);
+        return dotProduct / Math.sqrt(squaredNorms.get(leftNodeId) * squaredNorms.get(rightNodeId));
     }
 }
 
 final class DoubleArrayPropertySimilarityComputer implements SimilarityComputer {
     private final NodeProperties nodeProperties;
+    private final @Nullable HugeDoubleArray squaredNorms;
 
     DoubleArrayPropertySimilarityComputer(NodeProperties nodeProperties) {
+        this(nodeProperties, null);
+    }
+
+    DoubleArrayPropertySimilarityComputer(NodeProperties nodeProperties, @Nullable HugeDoubleArray squaredNorms) {
         if (nodeProperties.valueType() != ValueType.DOUBLE_ARRAY) {
             throw new IllegalArgumentException("The property is not of type DOUBLE_ARRAY");
         }
         this.nodeProperties = nodeProperties;
+        this.squaredNorms = squaredNorms;
+    }
+
+    static HugeDoubleArray squaredNorms(NodeProperties nodeProperties, long nodeCount, AllocationTracker tracker) {
+        var squaredNorms = HugeDoubleArray.newArray(nodeCount, tracker);
+        squaredNorms.setAll(nodeId -> {
+            var vector = nodeProperties.doubleArrayValue(nodeId);
+            return Intersections.dotProduct(vector, vector, vector.length);
+        });
+        return squaredNorms;
     }
 
     @Override
     public double similarity(long firstNodeId, long secondNodeId) {
         var left = nodeProperties.doubleArrayValue(firstNodeId);
         var right = nodeProperties.doubleArrayValue(secondNodeId);
-        int len = Math.min(left.length, right.length);
-        return Intersections.cosine(left, right, len);
+        return similarity(left, firstNodeId, right, secondNodeId);
+    }
+
+    @Override
+    public void safeSimilarities(long nodeId, long[] candidates, int count, double[] similarities) {
+        var left = nodeProperties.doubleArrayValue(nodeId);
+        for (int i = 0; i < count; i++) {
+            var candidate = candidates[i];
+            var similarity = similarity(left, nodeId, nodeProperties.doubleArrayValue(candidate), candidate);
+            similarities[i] = Double.isFinite(similarity) ? similarity : 0.0;
+        }
+    }
+
+    private double similarity(double[] left, long leftNodeId, double[] right, long rightNodeId) {
+        if (squaredNorms == null || left.length != right.length) {
+            int len = Math.min(left.length, right.length);
+            return Intersections.cosine(left, right, len);
+        }
+        double dotProduct = Intersections.dotProduct(left, right, left.length);
+        return dotProduct / Math.sqrt(squaredNorms.get(leftNodeId) * squaredNorms.get(rightNodeId));
     }
 }
 
@@ -186,4 +303,10 @@ final class LongArrayPropertySimilarityComputer implements SimilarityComputer {
         long differentElements = left.length - sameElements;
         return 1.0 / (1.0 + differentElements);
     }
+
+    @Override
+    public boolean isSymmetric() {
+        // only the elements of the first node count as different
+        return false;
+    }
 }
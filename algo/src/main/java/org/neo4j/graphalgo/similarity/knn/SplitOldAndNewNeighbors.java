@@ -20,7 +20,6 @@
 package org.neo4j.graphalgo.similarity.knn;
 
 import com.carrotsearch.hppc.IntArrayList;
-import com.carrotsearch.hppc.LongArrayList;
 import org.neo4j.graphalgo.core.utils.BiLongConsumer;
 import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 
@@ -37,15 +36,15 @@ import java.util.SplittableRandom;
 final class SplitOldAndNewNeighbors implements BiLongConsumer {
     private final SplittableRandom random;
     private final HugeObjectArray<NeighborList> neighbors;
-    private final HugeObjectArray<LongArrayList> allOldNeighbors;
-    private final HugeObjectArray<LongArrayList> allNewNeighbors;
+    private final NeighborLists allOldNeighbors;
+    private final NeighborLists allNewNeighbors;
     private final int sampledK;
 
     SplitOldAndNewNeighbors(
         SplittableRandom random,
         HugeObjectArray<NeighborList> neighbors,
-        HugeObjectArray<LongArrayList> allOldNeighbors,
-        HugeObjectArray<LongArrayList> allNewNeighbors,
+        NeighborLists allOldNeighbors,
+        NeighborLists allNewNeighbors,
         int sampledK
     ) {
         this.random = random;
@@ -69,7 +68,8 @@ final class SplitOldAndNewNeighbors implements BiLongConsumer {
             var neighbors = allNeighbors.get(nodeId);
             var k2 = neighbors.size();
             sampled.clear();
-            LongArrayList oldNeighbors = null;
+            allOldNeighbors.clear(nodeId);
+            allNewNeighbors.clear(nodeId);
 
             for (int neighborIndex = 0, newNeighborCount = 0; neighborIndex < k2; neighborIndex++) {
                 var neighborElement = neighbors.elementAt(neighborIndex);
@@ -77,13 +77,9 @@ final class SplitOldAndNewNeighbors implements BiLongConsumer {
                 // sort neighbor to old neighbors
                 // we use the sign bit to keep track of the checked state of a node
                 if (NeighborList.isChecked(neighborElement)) {
-                    if (oldNeighbors == null) {
-                        oldNeighbors = new LongArrayList();
-                        allOldNeighbors.set(nodeId, oldNeighbors);
-                    }
                     // unset the checked bit
                     var neighborNode = NeighborList.clearCheckedFlag(neighborElement);
-                    oldNeighbors.add(neighborNode);
+                    allOldNeighbors.add(nodeId, neighborNode);
                 } else {
                     // always start with the first `sampledK` elements
                     if (newNeighborCount < sampledK) {
@@ -99,18 +95,11 @@ final class SplitOldAndNewNeighbors implements BiLongConsumer {
                 }
             }
 
-            if (sampled.isEmpty()) {
-                continue;
-            }
-
-            var newNeighbors = new LongArrayList();
-            allNewNeighbors.set(nodeId, newNeighbors);
-
             for (var neighborIndex : sampled) {
                 var neighborNode = neighbors.getAndFlagAsChecked(neighborIndex.value);
                 assert nodeId != neighborNode;
                 assert neighborNode >= 0;
-                newNeighbors.add(neighborNode);
+                allNewNeighbors.add(nodeId, neighborNode);
             }
         }
     }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity.nodesim;
+
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+
+import java.util.stream.LongStream;
+
+/**
+ * An inverted index from neighbours to the compared nodes that have them in their vector.
+ * Two nodes without a common neighbour have a similarity of zero,
+ * which never passes a positive similarity cutoff, so only nodes that share an indexed neighbour are compared.
+ * <p>
+ * With prefix filtering, which only applies to unweighted Jaccard similarity,
+ * the index holds a prefix of every vector. The prefix is long enough that two vectors
+ * with a similarity of at least the cutoff share a neighbour in their prefixes.
+ * Nodes whose vector lengths alone rule out reaching the cutoff are skipped as well.
+ */
+final class CandidateIndex implements SimilarityCandidates {
+
+    // the computed similarity may be rounded up to the cutoff, the index must not prune such pairs
+    private static final double CUTOFF_SLACK = 1E-9;
+
+    private final HugeObjectArray<long[]> vectors;
+    private final HugeLongArray offsets;
+    private final HugeLongArray nodes;
+    private final double threshold;
+
+    static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(CandidateIndex.class)
+            .perNode("offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+            .rangePerGraphDimension("nodes", (dimensions, concurrency) -> MemoryRange.of(
+                HugeLongArray.memoryEstimation(0),
+                HugeLongArray.memoryEstimation(dimensions.maxRelCount())
+            ))
+            .build();
+    }
+
+    static CandidateIndex of(
+        HugeObjectArray<long[]> vectors,
+        BitSet nodeFilter,
+        double similarityCutoff,
+        boolean prefixFiltering,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = vectors.size();
+        double threshold = prefixFiltering ? similarityCutoff * (1 - CUTOFF_SLACK) : 0;
+
+        var offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        for (long node = 0; node < nodeCount; node++) {
+            if (nodeFilter.get(node)) {
+                long[] vector = vectors.get(node);
+                int prefixLength = prefixLength(vector.length, threshold);
+                for (int i = 0; i < prefixLength; i++) {
+                    offsets.addTo(vector[i], 1);
+                }
+            }
+        }
+
+        long indexSize = 0;
+        for (long neighbour = 0; neighbour < nodeCount; neighbour++) {
+            indexSize += offsets.get(neighbour);
+            offsets.set(neighbour, indexSize);
+        }
+        offsets.set(nodeCount, indexSize);
+
+        // filling backwards from the end of every list keeps the nodes of a list in ascending order
+        var nodes = HugeLongArray.newArray(indexSize, tracker);
+        for (long node = nodeCount - 1; node >= 0; node--) {
+            if (nodeFilter.get(node)) {
+                long[] vector = vectors.get(node);
+                int prefixLength = prefixLength(vector.length, threshold);
+                for (int i = 0; i < prefixLength; i++) {
+                    long position = offsets.get(vector[i]) - 1;
+                    offsets.set(vector[i], position);
+                    nodes.set(position, node);
+                }
+            }
+        }
+
+        return new CandidateIndex(vectors, offsets, nodes, threshold);
+    }
+
+    private CandidateIndex(
+        HugeObjectArray<long[]> vectors,
+        HugeLongArray offsets,
+        HugeLongArray nodes,
+        double threshold
+    ) {
+        this.vectors = vectors;
+        this.offsets = offsets;
+        this.nodes = nodes;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the nodes that share an indexed neighbour with {@code node}.
+     * These are the only nodes whose similarity to {@code node} can pass the cutoff.
+     */
+    @Override
+    public LongStream candidates(long node, long offset) {
+        long[] vector = vectors.get(node);
+        int prefixLength = prefixLength(vector.length, threshold);
+
+        var candidates = new LongArrayList();
+        for (int i = 0; i < prefixLength; i++) {
+            long end = offsets.get(vector[i] + 1);
+            for (long position = lowerBound(offsets.get(vector[i]), end, offset); position < end; position++) {
+                long candidate = nodes.get(position);
+                if (candidate != node && lengthsMatch(vector.length, vectors.get(candidate).length)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+
+        return SimilarityCandidates.sortedDistinct(candidates);
+    }
+
+    private boolean lengthsMatch(int length1, int length2) {
+        // the intersection cannot be larger than the smaller vector and the union not smaller than the larger one
+        return threshold == 0 || (length2 >= threshold * length1 && length1 >= threshold * length2);
+    }
+
+    private long lowerBound(long start, long end, long value) {
+        long low = start;
+        long high = end;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (nodes.get(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Two vectors with a similarity of at least the threshold intersect in at least
+     * {@code ceil(threshold * length)} neighbours of either vector.
+     * Leaving out fewer neighbours than that keeps at least one common neighbour in both prefixes.
+     */
+    private static int prefixLength(int length, double threshold) {
+        if (threshold == 0) {
+            return length;
+        }
+        int minOverlap = (int) Math.ceil(threshold * length);
+        return Math.min(length, length - minOverlap + 1);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity.nodesim;
+
+import com.carrotsearch.hppc.BitMixer;
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongLongMap;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongMatrix;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Locality sensitive hashing of the neighbour vectors with MinHash signatures.
+ * <p>
+ * The signature of a node holds the minimum hash of its neighbours for each of {@code bands * rowsPerBand}
+ * hash functions. Two signatures agree in a row with a probability of the Jaccard similarity of the vectors.
+ * The rows are split into bands, nodes whose signatures agree in all rows of a band land in the same bucket.
+ * Only nodes that share a bucket in at least one band are compared, which makes the results approximate:
+ * more bands increase the recall, more rows per band reduce the number of compared pairs.
+ * <p>
+ * Every bucket is a linked list of its nodes in ascending order. The signatures and the hash maps
+ * from bands to buckets are only needed to build the lists.
+ */
+final class MinHashIndex implements SimilarityCandidates {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long NO_NODE = 0L;
+
+    private final HugeObjectArray<long[]> vectors;
+    private final int bands;
+    // the first node + 1 of the bucket of a node in a band
+    private final HugeLongMatrix bucketHeads;
+    // the next node + 1 in the bucket of a node in a band
+    private final HugeLongMatrix bucketNext;
+
+    static MemoryEstimation memoryEstimation(int bands, int rowsPerBand) {
+        return MemoryEstimations.builder(MinHashIndex.class)
+            .perNode("signatures", nodeCount -> HugeLongArray.memoryEstimation(nodeCount * bands * rowsPerBand))
+            .perNode("bucket heads", nodeCount -> HugeLongArray.memoryEstimation(nodeCount * bands))
+            .perNode("bucket lists", nodeCount -> HugeLongArray.memoryEstimation(nodeCount * bands))
+            .perThread("buckets", HugeLongLongMap.memoryEstimation())
+            .build();
+    }
+
+    static MinHashIndex of(
+        HugeObjectArray<long[]> vectors,
+        BitSet nodeFilter,
+        int bands,
+        int rowsPerBand,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = vectors.size();
+        int signatureLength = bands * rowsPerBand;
+
+        var random = new SplittableRandom(SEED);
+        long[] hashSeeds = new long[signatureLength];
+        for (int i = 0; i < signatureLength; i++) {
+            hashSeeds[i] = random.nextLong();
+        }
+
+        var signatures = new HugeLongMatrix(nodeCount, signatureLength, tracker);
+        var signatureTasks = PartitionUtils
+            .rangePartition(concurrency, nodeCount)
+            .stream()
+            .map(partition -> (Runnable) () -> {
+                long end = partition.startNode() + partition.nodeCount();
+                for (long node = partition.startNode(); node < end; node++) {
+                    if (hasVector(nodeFilter, vectors, node)) {
+                        computeSignature(node, vectors.get(node), hashSeeds, signatures);
+                    }
+                }
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, signatureTasks, executorService);
+
+        var bucketHeads = new HugeLongMatrix(nodeCount, bands, tracker);
+        var bucketNext = new HugeLongMatrix(nodeCount, bands, tracker);
+        var bandTasks = IntStream
+            .range(0, bands)
+            .mapToObj(band -> (Runnable) () -> {
+                var buckets = new HugeLongLongMap(tracker);
+                // inserting at the head of the lists in descending order keeps the nodes of a bucket sorted
+                for (long node = nodeCount - 1; node >= 0; node--) {
+                    if (hasVector(nodeFilter, vectors, node)) {
+                        long bucket = bucket(signatures, node, band, rowsPerBand);
+                        long head = buckets.getOrDefault(bucket, NO_NODE);
+                        bucketNext.set(node, band, head);
+                        buckets.addTo(bucket, node + 1 - head);
+                    }
+                }
+                for (long node = 0; node < nodeCount; node++) {
+                    if (hasVector(nodeFilter, vectors, node)) {
+                        bucketHeads.set(node, band, buckets.getOrDefault(bucket(signatures, node, band, rowsPerBand), NO_NODE));
+                    }
+                }
+                buckets.release();
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, bandTasks, executorService);
+        // the buckets are indexed, the signatures are not needed anymore
+        signatures.release();
+
+        return new MinHashIndex(vectors, bands, bucketHeads, bucketNext);
+    }
+
+    private MinHashIndex(
+        HugeObjectArray<long[]> vectors,
+        int bands,
+        HugeLongMatrix bucketHeads,
+        HugeLongMatrix bucketNext
+    ) {
+        this.vectors = vectors;
+        this.bands = bands;
+        this.bucketHeads = bucketHeads;
+        this.bucketNext = bucketNext;
+    }
+
+    /**
+     * Returns the nodes that share a bucket with {@code node} in at least one band.
+     */
+    @Override
+    public LongStream candidates(long node, long offset) {
+        if (vectors.get(node).length == 0) {
+            return LongStream.empty();
+        }
+        var candidates = new LongArrayList();
+        for (int band = 0; band < bands; band++) {
+            for (long next = bucketHeads.get(node, band); next != NO_NODE; ) {
+                long candidate = next - 1;
+                if (candidate >= offset && candidate != node) {
+                    candidates.add(candidate);
+                }
+                next = bucketNext.get(candidate, band);
+            }
+        }
+        return SimilarityCandidates.sortedDistinct(candidates);
+    }
+
+    private static boolean hasVector(BitSet nodeFilter, HugeObjectArray<long[]> vectors, long node) {
+        return nodeFilter.get(node) && vectors.get(node).length > 0;
+    }
+
+    private static void computeSignature(long node, long[] vector, long[] hashSeeds, HugeLongMatrix signatures) {
+        for (int i = 0; i < hashSeeds.length; i++) {
+            long minHash = Long.MAX_VALUE;
+            for (long neighbour : vector) {
+                minHash = Math.min(minHash, BitMixer.mix64(neighbour ^ hashSeeds[i]));
+            }
+            signatures.set(node, i, minHash);
+        }
+    }
+
+    private static long bucket(HugeLongMatrix signatures, long node, int band, int rowsPerBand) {
+        long hash = band;
+        for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+            hash = BitMixer.mix64(hash * 31 + signatures.get(node, row));
+        }
+        // the hash map does not support a key of -1
+        return hash & Long.MAX_VALUE;
+    }
+}
@@ -53,6 +53,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
 
     private HugeObjectArray<long[]> vectors;
     private HugeObjectArray<double[]> weights;
+    private SimilarityCandidates similarityCandidates;
     private long nodesToCompare;
 
     private final boolean weighted;
@@ -181,6 +182,21 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
             progressLogger.logProgress(graph.degree(node));
             return null;
         });
+
+        if (config.approximate()) {
+            similarityCandidates = MinHashIndex.of(
+                vectors,
+                nodeFilter,
+                config.bands(),
+                config.rowsPerBand(),
+                config.concurrency(),
+                executorService,
+                tracker
+            );
+        } else if (config.similarityCutoff() > 0) {
+            // pairs without a common neighbour have a similarity of zero, which only passes a cutoff of zero
+            similarityCandidates = CandidateIndex.of(vectors, nodeFilter, config.similarityCutoff(), !weighted, tracker);
+        }
         progressLogger.logMessage("Finish :: NodeSimilarity#prepare");
     }
 
@@ -207,7 +223,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
             .boxed()
             .flatMap(node1 -> {
                 long[] vector1 = vectors.get(node1);
-                return nodeStream(node1 + 1)
+                return comparedNodes(node1, node1 + 1)
                     .mapToObj(node2 -> {
                         double similarity = weighted
                             ? weightedJaccard(vector1, vectors.get(node2), weights.get(node1), weights.get(node2))
@@ -226,7 +242,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
                 .boxed()
                 .flatMap(node1 -> {
                     long[] vector1 = vectors.get(node1);
-                    return nodeStream(node1 + 1)
+                    return comparedNodes(node1, node1 + 1)
                         .mapToObj(node2 -> {
                             double similarity = weighted
                                 ? weightedJaccard(vector1, vectors.get(node2), weights.get(node1), weights.get(node2))
@@ -246,7 +262,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
         loggableAndTerminatableNodeStream()
             .forEach(node1 -> {
                 long[] vector1 = vectors.get(node1);
-                nodeStream(node1 + 1)
+                comparedNodes(node1, node1 + 1)
                     .forEach(node2 -> {
                         double similarity = weighted
                             ? weightedJaccard(vector1, vectors.get(node2), weights.get(node1), weights.get(node2))
@@ -278,7 +294,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
                     // into these queues is not considered to be thread-safe.
                     // Hence, we need to ensure that down the stream, exactly one queue
                     // within the TopKMap processes all pairs for a single node.
-                    nodeStream()
+                    comparedNodes(node1, 0)
                         .filter(node2 -> node1 != node2)
                         .forEach(node2 -> {
                             double similarity = weighted
@@ -303,7 +319,7 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
             .forEach(node1 -> {
                 long[] vector1 = vectors.get(node1);
 
-                nodeStream(node1 + 1)
+                comparedNodes(node1, node1 + 1)
                     .forEach(node2 -> {
                         double similarity = weighted
                             ? weightedJaccard(vector1, vectors.get(node2), weights.get(node1), weights.get(node2))
@@ -395,6 +411,12 @@ public class NodeSimilarity extends Algorithm<NodeSimilarity, NodeSimilarityResu
         });
     }
 
+    private LongStream comparedNodes(long node1, long offset) {
+        return similarityCandidates == null
+            ? nodeStream(offset)
+            : similarityCandidates.candidates(node1, offset);
+    }
+
     private LongStream nodeStream(long offset) {
         return new SetBitsIterable(nodeFilter, offset).stream();
     }
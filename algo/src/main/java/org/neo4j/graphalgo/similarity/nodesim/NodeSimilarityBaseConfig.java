@@ -80,6 +80,23 @@ public interface NodeSimilarityBaseConfig extends AlgoBaseConfig, RelationshipWe
         return BOTTOM_N_DEFAULT;
     }
 
+    @Value.Default
+    default boolean approximate() {
+        return false;
+    }
+
+    @Value.Default
+    @Configuration.IntegerRange(min = 1)
+    default int bands() {
+        return 16;
+    }
+
+    @Value.Default
+    @Configuration.IntegerRange(min = 1)
+    default int rowsPerBand() {
+        return 3;
+    }
+
     @Configuration.Ignore
     @Value.Derived
     default int normalizedK() {
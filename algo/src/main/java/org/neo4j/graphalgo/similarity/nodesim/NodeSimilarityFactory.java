@@ -77,6 +77,11 @@ public class NodeSimilarityFactory<CONFIG extends NodeSimilarityBaseConfig> impl
                     .rangePerNode("array", nodeCount -> MemoryRange.of(0, nodeCount * averageVectorSize))
                     .build();
             }));
+        if (config.approximate()) {
+            builder.add("minHash index", MinHashIndex.memoryEstimation(config.bands(), config.rowsPerBand()));
+        } else if (config.similarityCutoff() > 0) {
+            builder.add("candidate index", CandidateIndex.memoryEstimation());
+        }
         if (config.computeToGraph() && !config.hasTopK()) {
             builder.add(
                 "similarity graph",
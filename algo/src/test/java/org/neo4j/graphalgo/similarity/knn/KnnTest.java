@@ -19,7 +19,6 @@
  */
 package org.neo4j.graphalgo.similarity.knn;
 
-import com.carrotsearch.hppc.LongArrayList;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.junit.jupiter.api.Nested;
@@ -32,19 +31,23 @@ import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.DoubleArrayNodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.DoubleNodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.FloatArrayNodeProperties;
+import org.neo4j.graphalgo.core.concurrency.Pools;
 import org.neo4j.graphalgo.core.loading.NullPropertyMap;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
-import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 import org.neo4j.graphalgo.extension.GdlExtension;
 import org.neo4j.graphalgo.extension.GdlGraph;
 import org.neo4j.graphalgo.extension.IdFunction;
 import org.neo4j.graphalgo.extension.Inject;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -186,70 +189,91 @@ class KnnTest {
     void testReverseEmptyList() {
         var nodeCount = 42;
 
-        var neighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
-        var reverseNeighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
+        var neighbors = new NeighborLists(nodeCount, nodeCount - 1, AllocationTracker.empty());
 
         // no old elements, don't add something to the reverse neighbors
-        Knn.reverseNeighbors(0, neighbors, reverseNeighbors);
-        assertThat(reverseNeighbors.get(0)).isNull();
-
-        var neighborsFrom0 = LongArrayList.from(LongStream.range(1, nodeCount).toArray());
-        neighbors.set(0, neighborsFrom0);
+        neighbors.reverse(1, Pools.DEFAULT);
+        for (int i = 0; i < nodeCount; i++) {
+            assertThat(reverseNeighbors(neighbors, i)).isEmpty();
+        }
     }
 
     @Test
     void testReverseAllAsNeighbor() {
         var nodeCount = 42;
 
-        var neighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
-        var reverseNeighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
+        var neighbors = new NeighborLists(nodeCount, nodeCount - 1, AllocationTracker.empty());
 
         // 0 is neighboring every other node
-        var neighborsFrom0 = LongArrayList.from(LongStream.range(1, nodeCount).toArray());
-        neighbors.set(0, neighborsFrom0);
+        LongStream.range(1, nodeCount).forEach(neighbor -> neighbors.add(0, neighbor));
 
-        Knn.reverseNeighbors(0, neighbors, reverseNeighbors);
+        neighbors.reverse(1, Pools.DEFAULT);
         // 0 has no reverse neighbors
-        assertThat(reverseNeighbors.get(0)).isNull();
+        assertThat(reverseNeighbors(neighbors, 0)).isEmpty();
         // every other node points to 0
         for (int i = 1; i < nodeCount; i++) {
-            var reversed = reverseNeighbors.get(i);
-            assertThat(reversed)
-                .isNotNull()
-                .singleElement()
-                // list returns hppc cursor, access value field
-                .extracting("value")
-                .isEqualTo(0L);
+            assertThat(reverseNeighbors(neighbors, i)).containsExactly(0L);
         }
-
     }
 
     @Test
     void testReverseSingleNeighbors() {
         var nodeCount = 42;
 
-        var neighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
-        var reverseNeighbors = HugeObjectArray.newArray(LongArrayList.class, nodeCount, AllocationTracker.empty());
+        var neighbors = new NeighborLists(nodeCount, 1, AllocationTracker.empty());
 
         // every node other than 0 has 0 as neighbor
-        neighbors.setAll(nodeId -> nodeId == 0 ? null : LongArrayList.from(0));
+        LongStream.range(1, nodeCount).forEach(nodeId -> neighbors.add(nodeId, 0));
 
-        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
-            Knn.reverseNeighbors(nodeId, neighbors, reverseNeighbors);
-        }
+        neighbors.reverse(1, Pools.DEFAULT);
 
         // all nodes point to 0
-        assertThat(reverseNeighbors.get(0))
-            .isNotNull()
-            .extracting(c -> c.value)
-            .containsExactly(LongStream.range(1, nodeCount).boxed().toArray(Long[]::new));
+        assertThat(reverseNeighbors(neighbors, 0))
+            .containsExactlyInAnyOrder(LongStream.range(1, nodeCount).toArray());
 
         // all other nodes have no reverse neighbors
         for (int i = 1; i < nodeCount; i++) {
-            assertThat(reverseNeighbors.get(i)).isNull();
+            assertThat(reverseNeighbors(neighbors, i)).isEmpty();
+        }
+    }
+
+    @Test
+    void testReverseInParallel() {
+        var nodeCount = 10_000;
+        var capacity = 3;
+
+        var neighbors = new NeighborLists(nodeCount, capacity, AllocationTracker.empty());
+
+        // every node has its next `capacity` nodes as neighbors
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            for (long neighbor = nodeId + 1; neighbor <= nodeId + capacity; neighbor++) {
+                neighbors.add(nodeId, neighbor % nodeCount);
+            }
+        }
+
+        // reversing twice clears the previous reverse neighbors
+        neighbors.reverse(4, Pools.DEFAULT);
+        neighbors.reverse(4, Pools.DEFAULT);
+
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            var expected = LongStream
+                .rangeClosed(nodeId - capacity, nodeId - 1)
+                .map(neighbor -> Math.floorMod(neighbor, nodeCount))
+                .sorted()
+                .toArray();
+            var actual = reverseNeighbors(neighbors, nodeId);
+            Arrays.sort(actual);
+            assertThat(actual).containsExactly(expected);
         }
     }
 
+    private static long[] reverseNeighbors(NeighborLists neighbors, long nodeId) {
+        return LongStream
+            .range(neighbors.reverseStart(nodeId), neighbors.reverseEnd(nodeId))
+            .map(neighbors::reverseNeighbor)
+            .toArray();
+    }
+
     @Nested
     class IterationsLimitTest {
 
@@ -309,4 +333,143 @@ class KnnTest {
         }
 
     }
+
+    @Nested
+    class SeedingTest {
+
+        @GdlGraph
+        private static final String DB_CYPHER =
+            "CREATE" +
+            "  (a { knn: 1.2, changed: 1 } )" +
+            ", (b { knn: 1.1, changed: 0 } )" +
+            ", (c { knn: 42.0, changed: 0 } )" +
+            ", (d { knn: 42.1, changed: 0 } )" +
+            ", (a)-[:SEED]->(c)" +
+            ", (b)-[:SEED]->(a)" +
+            ", (c)-[:SEED]->(d)" +
+            ", (d)-[:SEED]->(c)";
+
+        @Inject
+        private Graph graph;
+
+        @Inject
+        private IdFunction idFunction;
+
+        @Test
+        void shouldStartFromSeedRelationships() {
+            var config = ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .topK(1)
+                .randomJoins(0)
+                .seedRelationshipType("SEED")
+                .build();
+            var knn = new Knn(graph, config, KnnContext.empty());
+            var result = knn.compute();
+
+            assertThat(result.neighborsOf(idFunction.of("a"))).containsExactly(idFunction.of("b"));
+            assertThat(result.neighborsOf(idFunction.of("b"))).containsExactly(idFunction.of("a"));
+            assertThat(result.neighborsOf(idFunction.of("c"))).containsExactly(idFunction.of("d"));
+            assertThat(result.neighborsOf(idFunction.of("d"))).containsExactly(idFunction.of("c"));
+        }
+
+        @Test
+        void shouldOnlyJoinChangedNodes() {
+            var config = ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .topK(1)
+                .randomJoins(0)
+                .deltaThreshold(0)
+                .seedRelationshipType("SEED")
+                .changedNodeProperty("changed")
+                .build();
+            var knn = new Knn(graph, config, KnnContext.empty());
+            var result = knn.compute();
+
+            // b joins its changed neighbor a, which finds b as a better neighbor than c
+            assertThat(result.neighborsOf(idFunction.of("a"))).containsExactly(idFunction.of("b"));
+            assertThat(result.neighborsOf(idFunction.of("b"))).containsExactly(idFunction.of("a"));
+            assertThat(result.neighborsOf(idFunction.of("c"))).containsExactly(idFunction.of("d"));
+            assertThat(result.neighborsOf(idFunction.of("d"))).containsExactly(idFunction.of("c"));
+            assertTrue(result.didConverge());
+            assertEquals(2, result.ranIterations());
+        }
+
+        @Test
+        void shouldSkipStableNodes() {
+            var config = ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .topK(1)
+                .deltaThreshold(0)
+                .seedRelationshipType("SEED")
+                .changedNodeProperty("changed")
+                .build();
+            var comparedPairs = new LongAdder();
+            SimilarityComputer computer = (first, second) -> {
+                comparedPairs.increment();
+                return 1.0 / (1.0 + Math.abs(
+                    graph.nodeProperties("knn").doubleValue(first) - graph.nodeProperties("knn").doubleValue(second)
+                ));
+            };
+            var knn = new Knn(
+                graph.nodeCount(),
+                config,
+                computer,
+                KnnContext.empty(),
+                graph,
+                graph.nodeProperties("changed")
+            );
+            var result = knn.compute();
+
+            assertTrue(result.didConverge());
+            // c and d are stable from the start and skip their random joins in every iteration
+            assertThat(comparedPairs.sum()).isLessThan(graph.nodeCount() * (1 + config.randomJoins()));
+        }
+
+        @Test
+        void shouldNotSkipNodesWithoutNewNeighborsWhenNotSeeded() {
+            var config = ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .topK(1)
+                .randomJoins(2)
+                .deltaThreshold(0)
+                .maxIterations(5)
+                .build();
+            var comparedPairs = new LongAdder();
+            SimilarityComputer computer = (first, second) -> {
+                comparedPairs.increment();
+                return 1.0 / (1.0 + Math.abs(
+                    graph.nodeProperties("knn").doubleValue(first) - graph.nodeProperties("knn").doubleValue(second)
+                ));
+            };
+            var knn = new Knn(graph.nodeCount(), config, computer, KnnContext.empty());
+            var result = knn.compute();
+
+            // every node does its random joins in every iteration, even without new neighbors
+            assertThat(comparedPairs.sum())
+                .isGreaterThanOrEqualTo(result.ranIterations() * graph.nodeCount() * config.randomJoins());
+        }
+
+        @Test
+        void shouldRejectOtherRelationshipTypesWithSeedRelationshipType() {
+            assertThatThrownBy(() -> ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .relationshipTypes(List.of("OTHER"))
+                .seedRelationshipType("SEED")
+                .build()
+            )
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Specifying `relationshipTypes` [OTHER] is not supported together with `seedRelationshipType` 'SEED'.");
+        }
+
+        @Test
+        void shouldRequireSeedRelationshipTypeForChangedNodes() {
+            assertThatThrownBy(() -> ImmutableKnnBaseConfig.builder()
+                .nodeWeightProperty("knn")
+                .changedNodeProperty("changed")
+                .build()
+            )
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Specifying `changedNodeProperty` requires `seedRelationshipType` to be set.");
+        }
+    }
 }
@@ -29,6 +29,7 @@ import net.jqwik.api.Provide;
 import net.jqwik.api.constraints.Positive;
 import org.eclipse.collections.api.tuple.primitive.LongLongPair;
 import org.eclipse.collections.impl.tuple.primitive.PrimitiveTuples;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.neo4j.graphalgo.api.NodeProperties;
@@ -37,6 +38,7 @@ import org.neo4j.graphalgo.api.nodeproperties.DoubleNodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.FloatArrayNodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.LongArrayNodeProperties;
 import org.neo4j.graphalgo.api.nodeproperties.LongNodeProperties;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 
 import java.util.Random;
 import java.util.stream.Stream;
@@ -150,6 +152,66 @@ class SimilarityComputerTest {
         assertThat(sim.similarity(0, 1)).isCloseTo(1.0D, within(0.05));
     }
 
+    @Test
+    void floatArrayPropertySimilarityWithNormsMatchesCosine() {
+        NodeProperties props = (FloatArrayNodeProperties) nodeId -> {
+            var random = new Random(nodeId);
+            var vector = new float[256];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = random.nextFloat();
+            }
+            return vector;
+        };
+        var nodeCount = 10;
+        var cosine = SimilarityComputer.ofFloatArrayProperty(props);
+        var sim = new FloatArrayPropertySimilarityComputer(
+            props,
+            FloatArrayPropertySimilarityComputer.squaredNorms(props, nodeCount, AllocationTracker.empty())
+        );
+
+        for (long first = 0; first < nodeCount; first++) {
+            assertThat(sim.similarity(first, first)).isEqualTo(1.0);
+            for (long second = first + 1; second < nodeCount; second++) {
+                assertThat(sim.similarity(first, second)).isCloseTo(cosine.similarity(first, second), within(1E-5));
+            }
+        }
+    }
+
+    @Test
+    void doubleArrayPropertySimilarityWithNormsMatchesCosine() {
+        NodeProperties props = (DoubleArrayNodeProperties) nodeId -> new Random(nodeId).doubles(256, 0.0, 1.0).toArray();
+        var nodeCount = 10;
+        var cosine = SimilarityComputer.ofDoubleArrayProperty(props);
+        var sim = new DoubleArrayPropertySimilarityComputer(
+            props,
+            DoubleArrayPropertySimilarityComputer.squaredNorms(props, nodeCount, AllocationTracker.empty())
+        );
+
+        for (long first = 0; first < nodeCount; first++) {
+            assertThat(sim.similarity(first, first)).isEqualTo(1.0);
+            for (long second = first + 1; second < nodeCount; second++) {
+                assertThat(sim.similarity(first, second)).isCloseTo(cosine.similarity(first, second), within(1E-9));
+            }
+        }
+    }
+
+    @Test
+    void safeSimilaritiesMatchSafeSimilarity() {
+        NodeProperties props = (DoubleArrayNodeProperties) nodeId -> nodeId == 3
+            ? new double[0]
+            : new Random(nodeId).doubles(42, 0.0, 1.0).toArray();
+        var sim = SimilarityComputer.ofDoubleArrayProperty(props);
+
+        var candidates = new long[]{1, 2, 3, 4, 1337};
+        var similarities = new double[candidates.length + 1];
+        sim.safeSimilarities(0, candidates, candidates.length, similarities);
+
+        for (int i = 0; i < candidates.length; i++) {
+            assertThat(similarities[i]).isEqualTo(sim.safeSimilarity(0, candidates[i]));
+        }
+        assertThat(similarities[candidates.length]).isZero();
+    }
+
     @ParameterizedTest
     @MethodSource("nonFiniteSimilarities")
     void safeSimilaritySwallowsNonFiniteValues(SimilarityComputer sim) {
@@ -19,7 +19,6 @@
  */
 package org.neo4j.graphalgo.similarity.knn;
 
-import com.carrotsearch.hppc.LongArrayList;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.From;
 import net.jqwik.api.Property;
@@ -28,8 +27,8 @@ import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 
 import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
-import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -67,16 +66,8 @@ class SplitOldAndNewNeighborsTest extends RandomNodeCountAndKValues {
             return neighbors;
         });
 
-        var allOldNeighbors = HugeObjectArray.newArray(
-            LongArrayList.class,
-            nodeCount,
-            AllocationTracker.empty()
-        );
-        var allNewNeighbors = HugeObjectArray.newArray(
-            LongArrayList.class,
-            nodeCount,
-            AllocationTracker.empty()
-        );
+        var allOldNeighbors = new NeighborLists(nodeCount, k, AllocationTracker.empty());
+        var allNewNeighbors = new NeighborLists(nodeCount, sampledK, AllocationTracker.empty());
 
         var splitNeighbors = new SplitOldAndNewNeighbors(
             new SplittableRandom(),
@@ -91,11 +82,8 @@ class SplitOldAndNewNeighborsTest extends RandomNodeCountAndKValues {
         var possibleOldNeighbors = LongStream.range(0, nodeCount).filter(n -> n % 2 != 0).toArray();
 
         for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
-            var oldNeighbors = allOldNeighbors.get(nodeId);
-            if (oldNeighbors != null) {
-                var neighbors = StreamSupport.stream(oldNeighbors.spliterator(), false)
-                    .mapToLong(c -> c.value)
-                    .toArray();
+            if (allOldNeighbors.size(nodeId) > 0) {
+                var neighbors = neighbors(allOldNeighbors, nodeId);
                 assertThat(neighbors)
                     .hasSizeGreaterThanOrEqualTo(1)
                     .doesNotContain(nodeId)
@@ -103,11 +91,8 @@ class SplitOldAndNewNeighborsTest extends RandomNodeCountAndKValues {
                     .doesNotHaveDuplicates();
             }
 
-            var newNeighbors = allNewNeighbors.get(nodeId);
-            if (newNeighbors != null) {
-                var neighbors = StreamSupport.stream(newNeighbors.spliterator(), false)
-                    .mapToLong(c -> c.value)
-                    .toArray();
+            if (allNewNeighbors.size(nodeId) > 0) {
+                var neighbors = neighbors(allNewNeighbors, nodeId);
                 assertThat(neighbors)
                     .hasSizeBetween(1, sampledK)
                     .doesNotContain(nodeId)
@@ -116,4 +101,11 @@ class SplitOldAndNewNeighborsTest extends RandomNodeCountAndKValues {
             }
         }
     }
+
+    private static long[] neighbors(NeighborLists allNeighbors, long nodeId) {
+        return IntStream
+            .range(0, allNeighbors.size(nodeId))
+            .mapToLong(index -> allNeighbors.get(nodeId, index))
+            .toArray();
+    }
 }
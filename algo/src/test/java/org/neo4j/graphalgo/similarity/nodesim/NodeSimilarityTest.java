@@ -29,6 +29,9 @@ import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.TestProgressLogger;
 import org.neo4j.graphalgo.TestSupport;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.beta.generator.PropertyProducer;
+import org.neo4j.graphalgo.beta.generator.RandomGraphGenerator;
+import org.neo4j.graphalgo.beta.generator.RelationshipDistribution;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.concurrency.Pools;
@@ -55,6 +58,7 @@ import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -427,6 +431,120 @@ final class NodeSimilarityTest {
         );
     }
 
+    static Stream<Arguments> similarityCutoffsAndConcurrencies() {
+        Stream<Double> similarityCutoffs = Stream.of(0.1, 0.3, 0.6);
+        return crossArguments(
+            toArguments(() -> similarityCutoffs),
+            () -> Stream.of(arguments(false), arguments(true)),
+            toArguments(NodeSimilarityTest::concurrencies)
+        );
+    }
+
+    @ParameterizedTest(name = "similarityCutoff: {0}, weighted: {1}, concurrency: {2}")
+    @MethodSource("similarityCutoffsAndConcurrencies")
+    void shouldOnlyPruneNodePairsBelowSimilarityCutoff(double similarityCutoff, boolean weighted, int concurrency) {
+        Graph graph = RandomGraphGenerator.builder()
+            .nodeCount(300)
+            .averageDegree(4)
+            .relationshipDistribution(RelationshipDistribution.POWER_LAW)
+            .relationshipPropertyProducer(PropertyProducer.random("weight", 0.0, 1.0))
+            .seed(42L)
+            .build()
+            .generate();
+
+        var allPairsConfig = configBuilder().concurrency(concurrency).topK(300);
+        var prunedConfig = configBuilder().concurrency(concurrency).topK(300).similarityCutoff(similarityCutoff);
+        if (weighted) {
+            allPairsConfig.relationshipWeightProperty("weight");
+            prunedConfig.relationshipWeightProperty("weight");
+        }
+
+        Set<String> expected = new NodeSimilarity(
+            graph,
+            allPairsConfig.build(),
+            Pools.DEFAULT,
+            ProgressLogger.NULL_LOGGER,
+            AllocationTracker.empty()
+        )
+            .computeToStream()
+            .filter(result -> result.similarity >= similarityCutoff)
+            .map(NodeSimilarityTest::resultString)
+            .collect(Collectors.toSet());
+
+        Set<String> result = new NodeSimilarity(
+            graph,
+            prunedConfig.build(),
+            Pools.DEFAULT,
+            ProgressLogger.NULL_LOGGER,
+            AllocationTracker.empty()
+        )
+            .computeToStream()
+            .map(NodeSimilarityTest::resultString)
+            .collect(Collectors.toSet());
+
+        assertThat(expected.isEmpty(), is(false));
+        assertEquals(expected, result);
+    }
+
+    @ParameterizedTest(name = "concurrency: {0}")
+    @MethodSource("concurrencies")
+    void shouldOnlyComputeExactSimilaritiesInApproximateMode(int concurrency) {
+        Graph graph = RandomGraphGenerator.builder()
+            .nodeCount(300)
+            .averageDegree(4)
+            .relationshipDistribution(RelationshipDistribution.POWER_LAW)
+            .seed(42L)
+            .build()
+            .generate();
+
+        Set<String> exact = new NodeSimilarity(
+            graph,
+            configBuilder().concurrency(concurrency).topK(300).build(),
+            Pools.DEFAULT,
+            ProgressLogger.NULL_LOGGER,
+            AllocationTracker.empty()
+        )
+            .computeToStream()
+            .map(NodeSimilarityTest::resultString)
+            .collect(Collectors.toSet());
+
+        Set<String> approximate = new NodeSimilarity(
+            graph,
+            configBuilder().concurrency(concurrency).topK(300).approximate(true).bands(8).rowsPerBand(2).build(),
+            Pools.DEFAULT,
+            ProgressLogger.NULL_LOGGER,
+            AllocationTracker.empty()
+        )
+            .computeToStream()
+            .map(NodeSimilarityTest::resultString)
+            .collect(Collectors.toSet());
+
+        assertTrue(exact.containsAll(approximate));
+        assertThat(approximate.size() < exact.size(), is(true));
+    }
+
+    @ParameterizedTest(name = "concurrency: {0}")
+    @MethodSource("concurrencies")
+    void shouldFindNodesWithEqualNeighboursInApproximateMode(int concurrency) {
+        NodeSimilarity nodeSimilarity = new NodeSimilarity(
+            naturalGraph,
+            configBuilder().concurrency(concurrency).approximate(true).bands(1).rowsPerBand(16).build(),
+            Pools.DEFAULT,
+            ProgressLogger.NULL_LOGGER,
+            AllocationTracker.empty()
+        );
+
+        Set<String> result = nodeSimilarity
+            .computeToStream()
+            .map(NodeSimilarityTest::resultString)
+            .collect(Collectors.toSet());
+        nodeSimilarity.release();
+
+        // equal neighbours have equal signatures
+        assertTrue(result.contains(resultString(0, 3, 1.0)));
+        assertTrue(result.contains(resultString(3, 0, 1.0)));
+    }
+
     @ParameterizedTest(name = "orientation: {0}, concurrency: {1}")
     @MethodSource("supportedLoadAndComputeDirections")
     void shouldComputeWithDegreeCutoffForSupportedDirections(Orientation orientation, int concurrency) {
@@ -33,12 +33,15 @@ public class WeightedInput implements Comparable<WeightedInput>, SimilarityInput
     private int itemCount;
     private final double[] weights;
     private final int initialSize;
+    // only meaningful for weights that are not run-length encoded
+    private final double squaredNorm;
 
     public WeightedInput(long id, double[] weights, int fullSize, int itemCount) {
         this.initialSize = fullSize;
         this.id = id;
         this.weights = weights;
         this.itemCount = itemCount;
+        this.squaredNorm = Intersections.dotProduct(weights, weights, weights.length);
     }
 
     public WeightedInput(long id, double[] weights, double skipValue) {
@@ -168,7 +171,16 @@ public class WeightedInput implements Comparable<WeightedInput>, SimilarityInput
         }
 
         int len = Math.min(thisWeights.length, otherWeights.length);
-        double cosineSquares = Intersections.cosineSquare(thisWeights, otherWeights, len);
+        double cosineSquares;
+        if (decoder == null && thisWeights.length == otherWeights.length) {
+            // the norms of both vectors are known already, only the dot product is left
+            double dotProduct = Intersections.dotProduct(thisWeights, otherWeights, len);
+            cosineSquares = squaredNorm == 0D || other.squaredNorm == 0D
+                ? 0D
+                : dotProduct * dotProduct / squaredNorm / other.squaredNorm;
+        } else {
+            cosineSquares = Intersections.cosineSquare(thisWeights, otherWeights, len);
+        }
         long intersection = 0;
 
         if (similarityCutoff >= 0D && (cosineSquares == 0 || cosineSquares < similarityCutoff)) return null;
@@ -39,8 +39,18 @@ final class AllocationTrackerAdapter42 implements AllocationTrackerAdapter {
         memoryTracker.releaseHeap(bytes);
     }
 
+    @Override
+    public void addNative(long bytes) {
+        memoryTracker.allocateNative(bytes);
+    }
+
+    @Override
+    public void removeNative(long bytes) {
+        memoryTracker.releaseNative(bytes);
+    }
+
     @Override
     public long trackedBytes() {
-        return memoryTracker.estimatedHeapMemory();
+        return memoryTracker.estimatedHeapMemory() + memoryTracker.usedNativeMemory();
     }
 }
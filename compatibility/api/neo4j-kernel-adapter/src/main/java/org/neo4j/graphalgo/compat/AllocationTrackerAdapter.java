@@ -31,6 +31,16 @@ public interface AllocationTrackerAdapter {
      */
     void remove(long bytes);
 
+    /**
+     * Add the given number of bytes of native memory to the total tracked amount.
+     */
+    void addNative(long bytes);
+
+    /**
+     * Remove the given number of bytes of native memory from the total tracked amount.
+     */
+    void removeNative(long bytes);
+
     /**
      * Return the current total of tracked bytes.
      */
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.DataClass;
 import org.neo4j.graphalgo.core.Aggregation;
 import org.neo4j.graphalgo.core.ConfigKeyValidation;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,27 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         return Aggregation.DEFAULT;
     }
 
+    /**
+     * Whether to build an index of the incoming relationships next to the outgoing ones,
+     * which is accessible through {@link org.neo4j.graphalgo.api.Graph#forEachInverseRelationship}.
+     * Undirected projections are their own inverse and never build a separate index.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    public boolean indexInverse() {
+        return false;
+    }
+
+    /**
+     * The codec that compresses the target ids of the adjacency lists of this projection.
+     * Defaults to {@link AdjacencyCodec#defaultCodec()}.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    public AdjacencyCodec adjacencyCodec() {
+        return AdjacencyCodec.defaultCodec();
+    }
+
     @Value.Default
     @Value.Parameter(false)
     @Override
@@ -65,6 +87,8 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
     public static final String TYPE_KEY = "type";
     public static final String ORIENTATION_KEY = "orientation";
     public static final String AGGREGATION_KEY = "aggregation";
+    public static final String INDEX_INVERSE_KEY = "indexInverse";
+    public static final String ADJACENCY_CODEC_KEY = "adjacencyCodec";
 
     public static RelationshipProjection fromMap(Map<String, Object> map, RelationshipType relationshipType) {
         RelationshipProjection.Builder builder = RelationshipProjection.builder();
@@ -76,6 +100,12 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         if (map.containsKey(ORIENTATION_KEY)) {
             builder.orientation(Orientation.of(nonEmptyString(map, ORIENTATION_KEY)));
         }
+        if (map.containsKey(INDEX_INVERSE_KEY)) {
+            builder.indexInverse(booleanValue(map, INDEX_INVERSE_KEY));
+        }
+        if (map.containsKey(ADJACENCY_CODEC_KEY)) {
+            builder.adjacencyCodec(AdjacencyCodec.of(nonEmptyString(map, ADJACENCY_CODEC_KEY)));
+        }
         if (map.containsKey(AGGREGATION_KEY)) {
             Aggregation aggregation = Aggregation.lookup(nonEmptyString(map, AGGREGATION_KEY));
             builder.aggregation(aggregation);
@@ -131,6 +161,12 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         value.put(TYPE_KEY, type());
         value.put(ORIENTATION_KEY, orientation().name());
         value.put(AGGREGATION_KEY, aggregation().name());
+        if (indexInverse()) {
+            value.put(INDEX_INVERSE_KEY, true);
+        }
+        if (adjacencyCodec() != AdjacencyCodec.VAR_LONG) {
+            value.put(ADJACENCY_CODEC_KEY, adjacencyCodec().name());
+        }
     }
 
     @Override
@@ -167,7 +203,21 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
     }
 
     private static void validateConfigKeys(Map<String, Object> map) {
-        ConfigKeyValidation.requireOnlyKeysFrom(List.of(TYPE_KEY, ORIENTATION_KEY, AGGREGATION_KEY, PROPERTIES_KEY), map.keySet());
+        ConfigKeyValidation.requireOnlyKeysFrom(
+            List.of(TYPE_KEY, ORIENTATION_KEY, AGGREGATION_KEY, INDEX_INVERSE_KEY, ADJACENCY_CODEC_KEY, PROPERTIES_KEY),
+            map.keySet()
+        );
+    }
+
+    private static boolean booleanValue(Map<String, Object> map, String key) {
+        @Nullable Object value = map.get(key);
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "'%s' is not a valid value for the key '%s', expected a boolean",
+                value, key
+            ));
+        }
+        return (Boolean) value;
     }
 
     @org.immutables.builder.Builder.AccessibleFields
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.api.DefaultValue;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyCompression;
 
 import java.util.AbstractMap;
 import java.util.Collections;
@@ -39,6 +40,7 @@ public abstract class PropertyMapping {
 
     public static final String PROPERTY_KEY = "property";
     public static final String DEFAULT_VALUE_KEY = "defaultValue";
+    public static final String COMPRESSION_KEY = "compression";
 
     /**
      * property key in the result map Graph.nodeProperties(`propertyKey`)
@@ -63,6 +65,15 @@ public abstract class PropertyMapping {
         return Aggregation.DEFAULT;
     }
 
+    /**
+     * How the values of a relationship property are stored in the in-memory graph.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    public PropertyCompression compression() {
+        return PropertyCompression.NONE;
+    }
+
     @Value.Check
     public void validateProperties() {
         if (neoPropertyKey().equals(PROJECT_ALL) && aggregation() != Aggregation.COUNT) {
@@ -104,12 +115,27 @@ public abstract class PropertyMapping {
                 ));
             }
 
-            return PropertyMapping.of(
-                propertyKey,
-                neoPropertyKey,
-                relPropertyMap.get(DEFAULT_VALUE_KEY),
-                aggregation
-            );
+            final Object compressionValue = relPropertyMap.get(COMPRESSION_KEY);
+            PropertyCompression compression;
+            if (compressionValue == null) {
+                compression = PropertyCompression.NONE;
+            } else if (compressionValue instanceof String) {
+                compression = PropertyCompression.lookup((String) compressionValue);
+            } else {
+                throw new IllegalStateException(formatWithLocale(
+                    "Expected the value of '%s' to be of type String, but was '%s'",
+                    COMPRESSION_KEY, compressionValue.getClass().getSimpleName()
+                ));
+            }
+
+            return ImmutablePropertyMapping
+                .builder()
+                .propertyKey(propertyKey)
+                .neoPropertyKey(neoPropertyKey)
+                .defaultValue(DefaultValue.of(relPropertyMap.get(DEFAULT_VALUE_KEY)))
+                .aggregation(aggregation)
+                .compression(compression)
+                .build();
         } else {
             throw new IllegalStateException(formatWithLocale(
                 "Expected stringOrMap to be of type String or Map, but got %s",
@@ -134,6 +160,9 @@ public abstract class PropertyMapping {
         if (includeAggregation) {
             value.put(RelationshipProjection.AGGREGATION_KEY, aggregation().name());
         }
+        if (compression() != PropertyCompression.NONE) {
+            value.put(COMPRESSION_KEY, compression().name());
+        }
         return new AbstractMap.SimpleImmutableEntry<>(propertyKey(), value);
     }
 
@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.api;
 
+import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjection;
 import org.neo4j.graphalgo.RelationshipType;
@@ -26,6 +27,8 @@ import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.loading.CSRGraphStore;
 import org.neo4j.graphalgo.core.loading.IdsAndProperties;
+import org.neo4j.graphalgo.core.loading.NodeReordering;
+import org.neo4j.graphalgo.core.loading.RelationshipsBuilder;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 
@@ -57,21 +60,16 @@ public abstract class CSRGraphStoreFactory<CONFIG extends GraphCreateConfig> ext
         Map<RelationshipType, Map<String, Relationships.Properties>> relationshipProperties = new HashMap<>(relTypeCount);
 
         relationshipImportResult.builders().forEach((relationshipType, relationshipsBuilder) -> {
-            AdjacencyList adjacencyList = relationshipsBuilder.adjacencyList();
-            AdjacencyOffsets adjacencyOffsets = relationshipsBuilder.globalAdjacencyOffsets();
             long relationshipCount = relationshipImportResult.counts().getOrDefault(relationshipType, 0L);
-
             RelationshipProjection projection = relationshipsBuilder.projection();
 
+            var inverseBuilder = relationshipsBuilder.inverse();
             relationships.put(
                 relationshipType,
-                ImmutableTopology.of(
-                    adjacencyList,
-                    adjacencyOffsets,
-                    relationshipCount,
-                    projection.orientation(),
-                    projection.isMultiGraph()
-                )
+                ImmutableTopology.builder()
+                    .from(topology(relationshipsBuilder, relationshipCount, projection))
+                    .inverse(inverseBuilder.map(inverse -> topology(inverse, relationshipCount, projection)))
+                    .build()
             );
 
             PropertyMappings propertyMappings = projection.properties();
@@ -80,20 +78,28 @@ public abstract class CSRGraphStoreFactory<CONFIG extends GraphCreateConfig> ext
                     .enumerate()
                     .collect(Collectors.toMap(
                         propertyIndexAndMapping -> propertyIndexAndMapping.getTwo().propertyKey(),
-                        propertyIndexAndMapping -> ImmutableProperties.of(
-                            relationshipsBuilder.properties(propertyIndexAndMapping.getOne()),
-                            relationshipsBuilder.globalPropertyOffsets(propertyIndexAndMapping.getOne()),
-                            relationshipCount,
-                            projection.orientation(),
-                            projection.isMultiGraph(),
-                            propertyIndexAndMapping.getTwo().defaultValue().doubleValue() // This is fine because relationships currently only support doubles
-                        )
+                        propertyIndexAndMapping -> ImmutableProperties.builder()
+                            .from(properties(
+                                relationshipsBuilder,
+                                propertyIndexAndMapping.getOne(),
+                                propertyIndexAndMapping.getTwo(),
+                                relationshipCount,
+                                projection
+                            ))
+                            .inverse(inverseBuilder.map(inverse -> properties(
+                                inverse,
+                                propertyIndexAndMapping.getOne(),
+                                propertyIndexAndMapping.getTwo(),
+                                relationshipCount,
+                                projection
+                            )))
+                            .build()
                     ));
                 relationshipProperties.put(relationshipType, propertyMap);
             }
         });
 
-        return CSRGraphStore.of(
+        CSRGraphStore graphStore = CSRGraphStore.of(
             loadingContext.api().databaseId(),
             idsAndProperties.idMap(),
             idsAndProperties.properties(),
@@ -102,6 +108,44 @@ public abstract class CSRGraphStoreFactory<CONFIG extends GraphCreateConfig> ext
             graphCreateConfig.readConcurrency(),
             tracker
         );
+
+        return NodeReordering.reorder(
+            graphStore,
+            graphCreateConfig.nodeOrder(),
+            graphCreateConfig.readConcurrency(),
+            tracker
+        );
+    }
+
+    private static Relationships.Topology topology(
+        RelationshipsBuilder relationshipsBuilder,
+        long relationshipCount,
+        RelationshipProjection projection
+    ) {
+        return ImmutableTopology.of(
+            relationshipsBuilder.adjacencyList(),
+            relationshipsBuilder.globalAdjacencyOffsets(),
+            relationshipCount,
+            projection.orientation(),
+            projection.isMultiGraph()
+        );
+    }
+
+    private static Relationships.Properties properties(
+        RelationshipsBuilder relationshipsBuilder,
+        int propertyIndex,
+        PropertyMapping propertyMapping,
+        long relationshipCount,
+        RelationshipProjection projection
+    ) {
+        return ImmutableProperties.of(
+            relationshipsBuilder.properties(propertyIndex),
+            relationshipsBuilder.globalPropertyOffsets(propertyIndex),
+            relationshipCount,
+            projection.orientation(),
+            projection.isMultiGraph(),
+            propertyMapping.defaultValue().doubleValue() // This is fine because relationships currently only support doubles
+        );
     }
 
     protected void logLoadingSummary(GraphStore graphStore, Optional<AllocationTracker> tracker) {
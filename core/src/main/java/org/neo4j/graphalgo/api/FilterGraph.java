@@ -167,6 +167,26 @@ public abstract class FilterGraph implements Graph {
         graph.forEachRelationship(nodeId, fallbackValue, consumer);
     }
 
+    @Override
+    public boolean isInverseIndexed() {
+        return graph.isInverseIndexed();
+    }
+
+    @Override
+    public int degreeInverse(long nodeId) {
+        return graph.degreeInverse(nodeId);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        graph.forEachInverseRelationship(nodeId, consumer);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        graph.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+    }
+
     @Override
     public Stream<RelationshipCursor> streamRelationships(long nodeId, double fallbackValue) {
         return graph.streamRelationships(nodeId, fallbackValue);
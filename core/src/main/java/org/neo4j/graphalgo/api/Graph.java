@@ -24,6 +24,8 @@ import org.neo4j.graphalgo.api.schema.GraphSchema;
 
 import java.util.Set;
 
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
 public interface Graph extends NodeMapping, NodePropertyContainer, Degrees, RelationshipIterator, RelationshipProperties, RelationshipAccess {
 
     GraphSchema schema();
@@ -78,6 +80,53 @@ public interface Graph extends NodeMapping, NodePropertyContainer, Degrees, Rela
 
     boolean hasRelationshipProperty();
 
+    /**
+     * Whether the incoming relationships of each node can be accessed through
+     * {@link #forEachInverseRelationship} and {@link #degreeInverse}.
+     * This is the case for undirected graphs and for graphs projected with {@code indexInverse}.
+     */
+    default boolean isInverseIndexed() {
+        return isUndirected();
+    }
+
+    /**
+     * @return the number of relationships pointing to the given node.
+     * @throws UnsupportedOperationException if the graph is not {@link #isInverseIndexed() inverse indexed}.
+     */
+    default int degreeInverse(long nodeId) {
+        if (isUndirected()) {
+            return degree(nodeId);
+        }
+        throw missingInverseIndex();
+    }
+
+    /**
+     * Calls the given consumer with {@code (nodeId, sourceNodeId)} for every relationship pointing to the given node.
+     *
+     * @throws UnsupportedOperationException if the graph is not {@link #isInverseIndexed() inverse indexed}.
+     */
+    default void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        if (isUndirected()) {
+            forEachRelationship(nodeId, consumer);
+            return;
+        }
+        throw missingInverseIndex();
+    }
+
+    /**
+     * Calls the given consumer with {@code (nodeId, sourceNodeId, property)} for every relationship pointing to the given node.
+     * If the graph was loaded without a relationship property, the given fallback value is used.
+     *
+     * @throws UnsupportedOperationException if the graph is not {@link #isInverseIndexed() inverse indexed}.
+     */
+    default void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        if (isUndirected()) {
+            forEachRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        throw missingInverseIndex();
+    }
+
     void canRelease(boolean canRelease);
 
     default RelationshipIntersect intersection() {
@@ -88,4 +137,11 @@ public interface Graph extends NodeMapping, NodePropertyContainer, Degrees, Rela
 
     @Override
     Graph concurrentCopy();
+
+    private UnsupportedOperationException missingInverseIndex() {
+        return new UnsupportedOperationException(formatWithLocale(
+            "%s does not index incoming relationships, the relationships must be projected with `indexInverse: true`.",
+            getClass().getSimpleName()
+        ));
+    }
 }
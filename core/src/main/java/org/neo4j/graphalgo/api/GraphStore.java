@@ -38,6 +38,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static java.util.Collections.singletonList;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
 
 public interface GraphStore {
 
@@ -167,6 +168,41 @@ public interface GraphStore {
         Optional<String> maybeRelationshipProperty
     );
 
+    /**
+     * Returns the same relationships as {@link #getGraph(Collection, Collection, Optional)},
+     * copied into adjacency lists over the ids of the filtered graph.
+     * Repeated traversals of the copy avoid translating ids and skipping filtered neighbours.
+     * The relationships of several types are merged into a single adjacency list.
+     * Implementations may cache the copy until the graph store is modified.
+     */
+    default Graph getMaterializedGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty
+    ) {
+        return getGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty);
+    }
+
+    /**
+     * Same as {@link #getMaterializedGraph(Collection, Collection, Optional)}.
+     * If {@code deduplicateRelationships} is set, parallel relationships are merged as well,
+     * only the first of them and its property are kept.
+     */
+    default Graph getMaterializedGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        boolean deduplicateRelationships
+    ) {
+        if (deduplicateRelationships) {
+            throw new UnsupportedOperationException(formatWithLocale(
+                "Graph stores of type %s cannot deduplicate relationships.",
+                getClass().getSimpleName()
+            ));
+        }
+        return getMaterializedGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty);
+    }
+
     Graph getUnion();
 
     void canRelease(boolean canRelease);
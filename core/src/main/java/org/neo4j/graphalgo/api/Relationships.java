@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.api;
 
+import org.immutables.value.Value;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.annotation.ValueClass;
@@ -63,6 +64,34 @@ public interface Relationships {
         return ImmutableRelationships.of(topology, maybePropertyCSR);
     }
 
+    /**
+     * @return the same relationships, indexed by their target node, if an inverse index was built.
+     */
+    default Optional<Relationships> inverse() {
+        return topology().inverse().map(inverseTopology -> ImmutableRelationships.of(
+            inverseTopology,
+            properties().flatMap(properties -> properties.inverse().map(inverseProperties -> ImmutableProperties.of(
+                inverseProperties.list(),
+                inverseProperties.offsets(),
+                inverseProperties.elementCount(),
+                inverseProperties.orientation(),
+                inverseProperties.isMultiGraph(),
+                properties.defaultPropertyValue()
+            )))
+        ));
+    }
+
+    /**
+     * Returns a copy of these relationships which uses the given relationships as inverse index.
+     * Both must contain the same relationships, the inverse ones indexed by their target node.
+     */
+    default Relationships withInverse(Relationships inverse) {
+        return ImmutableRelationships.of(
+            ImmutableTopology.copyOf(topology()).withInverse(inverse.topology()),
+            properties().map(properties -> ImmutableProperties.copyOf(properties).withInverse(inverse.properties()))
+        );
+    }
+
     @ValueClass
     interface Topology {
         AdjacencyList list();
@@ -74,6 +103,14 @@ public interface Relationships {
         Orientation orientation();
 
         boolean isMultiGraph();
+
+        /**
+         * The inverse index of a directed topology, i.e. the lists of incoming relationships.
+         * It shares the id space of the topology and is only present if it was requested
+         * by the projection.
+         */
+        @Value.Parameter(false)
+        Optional<Topology> inverse();
     }
 
     @ValueClass
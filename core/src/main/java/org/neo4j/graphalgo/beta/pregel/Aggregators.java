@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Global aggregators of a Pregel computation.
+ * <p>
+ * During a superstep, each compute step reduces the values it aggregates
+ * into its own partial array, which requires no synchronization. At the
+ * superstep barrier, the partial arrays are merged into the global values,
+ * which are readable by all nodes in the next superstep and by the master
+ * compute step.
+ */
+final class Aggregators {
+
+    private final Map<String, Integer> indices;
+    private final Reducer[] reducers;
+    private final double[] values;
+    private final List<double[]> partials;
+
+    Aggregators(Map<String, Reducer> aggregators) {
+        this.indices = new HashMap<>();
+        this.reducers = new Reducer[aggregators.size()];
+        this.values = new double[aggregators.size()];
+        this.partials = new ArrayList<>();
+
+        int index = 0;
+        for (var entry : aggregators.entrySet()) {
+            indices.put(entry.getKey(), index);
+            reducers[index] = entry.getValue();
+            values[index] = entry.getValue().identity();
+            index++;
+        }
+    }
+
+    /**
+     * Creates the partial aggregates for a single compute step.
+     * Must not be called concurrently with {@link #merge()}.
+     */
+    double[] newPartial() {
+        var partial = new double[reducers.length];
+        resetPartial(partial);
+        partials.add(partial);
+        return partial;
+    }
+
+    void aggregate(double[] partial, String name, double value) {
+        int index = index(name);
+        partial[index] = reducers[index].reduce(partial[index], value);
+    }
+
+    double value(String name) {
+        return values[index(name)];
+    }
+
+    /**
+     * Merges the partial aggregates of all compute steps into the
+     * global values and resets the partial aggregates.
+     */
+    void merge() {
+        for (int i = 0; i < reducers.length; i++) {
+            var reducer = reducers[i];
+            double value = reducer.identity();
+            for (double[] partial : partials) {
+                value = reducer.reduce(value, partial[i]);
+            }
+            values[i] = value;
+        }
+        partials.forEach(this::resetPartial);
+    }
+
+    private void resetPartial(double[] partial) {
+        for (int i = 0; i < reducers.length; i++) {
+            partial[i] = reducers[i].identity();
+        }
+    }
+
+    private int index(String name) {
+        var index = indices.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Aggregator with name %s does not exist. Available aggregators are: %s",
+                name,
+                indices.keySet()
+            ));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.jctools.queues.MpscLinkedQueue;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.stream.LongStream;
+
+/**
+ * A messenger for asynchronous Pregel computations.
+ * <p>
+ * In asynchronous mode, a node can read messages that have been sent
+ * in the current superstep, which requires a concurrent queue per node.
+ * The queues store the raw 64 bits of double and long messages.
+ * Double array messages are not supported, as the values of concurrently
+ * sent messages would be interleaved.
+ */
+final class AsyncQueueMessenger implements Messenger {
+
+    private final HugeObjectArray<MpscLinkedQueue<Long>> messageQueues;
+
+    static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.setup("", (dimensions, concurrency) ->
+            MemoryEstimations.builder(AsyncQueueMessenger.class)
+                .fixed(HugeObjectArray.class.getSimpleName(), MemoryUsage.sizeOfInstance(HugeObjectArray.class))
+                .perNode("node queue", MemoryEstimations.builder(MpscLinkedQueue.class)
+                    .fixed("messages", dimensions.averageDegree() * Long.BYTES)
+                    .build()
+                )
+                .build()
+        );
+    }
+
+    AsyncQueueMessenger(long nodeCount, int concurrency, AllocationTracker tracker) {
+        this.messageQueues = initLinkedQueues(nodeCount, concurrency, tracker);
+    }
+
+    @Override
+    public void initIteration(int iteration) {
+        // messages are delivered immediately
+    }
+
+    @Override
+    public Mailbox newMailbox() {
+        return new Mailbox() {
+            private final Iterator iterator = new Iterator();
+
+            @Override
+            public void sendTo(long targetNodeId, double message) {
+                messageQueues.get(targetNodeId).add(Double.doubleToRawLongBits(message));
+            }
+
+            @Override
+            public void sendLongTo(long targetNodeId, long message) {
+                messageQueues.get(targetNodeId).add(message);
+            }
+
+            @Override
+            public void sendTo(long targetNodeId, double[] message) {
+                throw new UnsupportedOperationException("Double array messages are not supported in asynchronous mode.");
+            }
+
+            @Override
+            public Pregel.MessageIterator messageIterator() {
+                return iterator;
+            }
+
+            @Override
+            public void initMessageIterator(long nodeId) {
+                iterator.init(messageQueues.get(nodeId));
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+        messageQueues.release();
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static HugeObjectArray<MpscLinkedQueue<Long>> initLinkedQueues(
+        long nodeCount,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        // sad java 😞
+        Class<MpscLinkedQueue<Long>> queueClass = (Class<MpscLinkedQueue<Long>>) new MpscLinkedQueue<Long>().getClass();
+
+        HugeObjectArray<MpscLinkedQueue<Long>> messageQueues = HugeObjectArray.newArray(
+            queueClass,
+            nodeCount,
+            tracker
+        );
+
+        ParallelUtil.parallelStreamConsume(
+            LongStream.range(0, nodeCount),
+            concurrency,
+            nodeIds -> nodeIds.forEach(nodeId -> messageQueues.set(nodeId, new MpscLinkedQueue<>()))
+        );
+
+        return messageQueues;
+    }
+
+    static final class Iterator extends Pregel.MessageIterator {
+
+        private @Nullable Queue<Long> queue;
+
+        private @Nullable Long next;
+
+        void init(@Nullable Queue<Long> queue) {
+            this.queue = queue;
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (queue == null) {
+                return false;
+            }
+            return (next = queue.poll()) != null;
+        }
+
+        @Override
+        long nextBits() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long message = next;
+            next = null;
+            return message;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return next == null && (queue == null || queue.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.partition.Partition;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * An inverse index over the relationships of a directed graph, which
+ * allows Pregel computations to access the incoming relationships of
+ * a node without projecting the graph a second time.
+ * <p>
+ * The index is built once before the first superstep and stored in
+ * CSR format: the sources of all relationships pointing to node n are
+ * stored at sources[offsets[n], offsets[n + 1]). If the graph has a
+ * relationship property, the weights are stored in the same layout.
+ */
+final class IncomingRelationships {
+
+    private final HugeLongArray offsets;
+    private final HugeLongArray sources;
+    private final @Nullable HugeDoubleArray weights;
+
+    static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(IncomingRelationships.class)
+            .perNode("offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+            .perNode("cursors", HugeAtomicLongArray::memoryEstimation)
+            .perGraphDimension("sources", (dimensions, concurrency) ->
+                MemoryRange.of(HugeLongArray.memoryEstimation(dimensions.maxRelCount()))
+            )
+            .perGraphDimension("weights", (dimensions, concurrency) ->
+                MemoryRange.of(0, HugeDoubleArray.memoryEstimation(dimensions.maxRelCount()))
+            )
+            .build();
+    }
+
+    static IncomingRelationships of(
+        Graph graph,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = graph.nodeCount();
+        boolean hasWeights = graph.hasRelationshipProperty();
+        List<Partition> partitions = PartitionUtils.rangePartition(concurrency, nodeCount);
+
+        // count the incoming relationships per node
+        var cursors = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        RelationshipConsumer countRelationship = (source, target) -> {
+            cursors.getAndAdd(target, 1L);
+            return true;
+        };
+        ParallelUtil.runWithConcurrency(concurrency, partitions.stream().map(partition -> (Runnable) () -> {
+            var relationshipIterator = graph.concurrentCopy();
+            forEachNode(partition, nodeId -> relationshipIterator.forEachRelationship(nodeId, countRelationship));
+        }).collect(Collectors.toList()), executor);
+
+        // exclusive prefix sum, the cursors become the write positions
+        var offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        long offset = 0;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long degree = cursors.get(nodeId);
+            offsets.set(nodeId, offset);
+            cursors.set(nodeId, offset);
+            offset += degree;
+        }
+        offsets.set(nodeCount, offset);
+
+        var sources = HugeLongArray.newArray(offset, tracker);
+        var weights = hasWeights ? HugeDoubleArray.newArray(offset, tracker) : null;
+
+        // move the sources (and weights) into the slots of their targets
+        RelationshipConsumer addRelationship = (source, target) -> {
+            sources.set(cursors.getAndAdd(target, 1L), source);
+            return true;
+        };
+        RelationshipWithPropertyConsumer addWeightedRelationship = (source, target, weight) -> {
+            long position = cursors.getAndAdd(target, 1L);
+            sources.set(position, source);
+            weights.set(position, weight);
+            return true;
+        };
+        ParallelUtil.runWithConcurrency(concurrency, partitions.stream().map(partition -> (Runnable) () -> {
+            var relationshipIterator = graph.concurrentCopy();
+            forEachNode(partition, hasWeights
+                ? nodeId -> relationshipIterator.forEachRelationship(nodeId, 1.0, addWeightedRelationship)
+                : nodeId -> relationshipIterator.forEachRelationship(nodeId, addRelationship)
+            );
+        }).collect(Collectors.toList()), executor);
+
+        tracker.remove(cursors.release());
+
+        return new IncomingRelationships(offsets, sources, weights);
+    }
+
+    private IncomingRelationships(HugeLongArray offsets, HugeLongArray sources, @Nullable HugeDoubleArray weights) {
+        this.offsets = offsets;
+        this.sources = sources;
+        this.weights = weights;
+    }
+
+    int degree(long nodeId) {
+        return (int) (offsets.get(nodeId + 1) - offsets.get(nodeId));
+    }
+
+    /**
+     * Calls the consumer with (nodeId, source) for each relationship (source)-->(nodeId).
+     */
+    void forEachRelationship(long nodeId, RelationshipConsumer consumer) {
+        long end = offsets.get(nodeId + 1);
+        for (long position = offsets.get(nodeId); position < end; position++) {
+            if (!consumer.accept(nodeId, sources.get(position))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer with (nodeId, source, weight) for each relationship (source)-->(nodeId).
+     * If the graph has no relationship property, the fallback value is used as weight.
+     */
+    void forEachRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        long end = offsets.get(nodeId + 1);
+        for (long position = offsets.get(nodeId); position < end; position++) {
+            double weight = weights == null ? fallbackValue : weights.get(position);
+            if (!consumer.accept(nodeId, sources.get(position), weight)) {
+                return;
+            }
+        }
+    }
+
+    void release(AllocationTracker tracker) {
+        tracker.remove(offsets.release());
+        tracker.remove(sources.release());
+        if (weights != null) {
+            tracker.remove(weights.release());
+        }
+    }
+
+    private static void forEachNode(Partition partition, LongConsumer consumer) {
+        long end = partition.startNode() + partition.nodeCount();
+        for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+            consumer.accept(nodeId);
+        }
+    }
+}
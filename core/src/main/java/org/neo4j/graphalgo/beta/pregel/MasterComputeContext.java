@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+/**
+ * A context that is used by {@link PregelComputation#masterCompute(MasterComputeContext)},
+ * which is called once after each superstep. It allows reading the global aggregates
+ * of the completed superstep and the node values of all nodes.
+ */
+public final class MasterComputeContext<CONFIG extends PregelConfig> {
+
+    private final CONFIG config;
+    private final long nodeCount;
+    private final Pregel.CompositeNodeValue nodeValues;
+    private final Aggregators aggregators;
+
+    private int superstep;
+
+    MasterComputeContext(
+        CONFIG config,
+        long nodeCount,
+        Pregel.CompositeNodeValue nodeValues,
+        Aggregators aggregators
+    ) {
+        this.config = config;
+        this.nodeCount = nodeCount;
+        this.nodeValues = nodeValues;
+        this.aggregators = aggregators;
+    }
+
+    void setSuperstep(int superstep) {
+        this.superstep = superstep;
+    }
+
+    /**
+     * Allows access to the user-defined Pregel configuration.
+     */
+    public CONFIG config() {
+        return config;
+    }
+
+    /**
+     * Number of nodes in the input graph.
+     */
+    public long nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the superstep (0-based) that has just been completed.
+     */
+    public int superstep() {
+        return superstep;
+    }
+
+    /**
+     * Indicates if the completed superstep is the first superstep.
+     */
+    public boolean isInitialSuperstep() {
+        return superstep == 0;
+    }
+
+    /**
+     * Returns the value of the given aggregator, reduced over
+     * all values that have been aggregated in the completed superstep.
+     *
+     * @throws java.lang.IllegalArgumentException if the aggregator does not exist
+     */
+    public double aggregatedValue(String name) {
+        return aggregators.value(name);
+    }
+
+    /**
+     * Returns the node value for the given node id and node schema key.
+     *
+     * @throws java.lang.IllegalArgumentException if the key does not exist or the value is not a double
+     */
+    public double doubleNodeValue(long nodeId, String key) {
+        return nodeValues.doubleValue(key, nodeId);
+    }
+
+    /**
+     * Returns the node value for the given node id and node schema key.
+     *
+     * @throws java.lang.IllegalArgumentException if the key does not exist or the value is not a long
+     */
+    public long longNodeValue(long nodeId, String key) {
+        return nodeValues.longValue(key, nodeId);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.immutables.value.Value;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.nodeproperties.ValueType;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * The message schema describes the type of the messages that are
+ * sent between nodes. Messages are either single double or long
+ * values or double arrays of a fixed dimension.
+ * <br>
+ * Example:
+ * <pre>
+ * public MessageSchema messageSchema() {
+ *      return MessageSchema.doubleArrays(64);
+ * }
+ * </pre>
+ *
+ * @see PregelComputation#messageSchema()
+ */
+@ValueClass
+public interface MessageSchema {
+
+    ValueType valueType();
+
+    /**
+     * The number of values per message, which is {@code 1}
+     * for double and long messages.
+     */
+    int dimension();
+
+    static MessageSchema doubles() {
+        return ImmutableMessageSchema.of(ValueType.DOUBLE, 1);
+    }
+
+    static MessageSchema longs() {
+        return ImmutableMessageSchema.of(ValueType.LONG, 1);
+    }
+
+    static MessageSchema doubleArrays(int dimension) {
+        return ImmutableMessageSchema.of(ValueType.DOUBLE_ARRAY, dimension);
+    }
+
+    @Value.Check
+    default void validate() {
+        switch (valueType()) {
+            case DOUBLE:
+            case LONG:
+                if (dimension() != 1) {
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "Messages of type %s must have a dimension of 1, got %d.",
+                        valueType(),
+                        dimension()
+                    ));
+                }
+                break;
+            case DOUBLE_ARRAY:
+                if (dimension() < 1) {
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "The message dimension must be at least 1, got %d.",
+                        dimension()
+                    ));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Unsupported message type: %s",
+                    valueType()
+                ));
+        }
+    }
+}
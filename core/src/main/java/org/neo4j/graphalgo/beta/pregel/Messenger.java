@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+/**
+ * A messenger stores the messages that are sent between nodes
+ * during a Pregel computation and provides access to the messages
+ * that a node received in the previous superstep.
+ */
+interface Messenger {
+
+    /**
+     * Called by the framework before a superstep is executed.
+     * Implementations can use this hook to make the messages
+     * sent in the previous superstep available to the receivers.
+     */
+    void initIteration(int iteration);
+
+    /**
+     * Creates a new mailbox which is used by a single compute step
+     * to send and receive messages. Must not be called concurrently
+     * with {@link #initIteration(int)}.
+     */
+    Mailbox newMailbox();
+
+    void release();
+
+    /**
+     * Thread-local view on a messenger. A mailbox is not thread-safe
+     * and must only be used by the compute step that created it.
+     */
+    interface Mailbox {
+
+        void sendTo(long targetNodeId, double message);
+
+        void sendLongTo(long targetNodeId, long message);
+
+        /**
+         * Sends a double array message. The array is copied into
+         * the message store and can be re-used by the caller.
+         */
+        void sendTo(long targetNodeId, double[] message);
+
+        /**
+         * Returns the message iterator that is re-used for all
+         * nodes processed by the owning compute step.
+         */
+        Pregel.MessageIterator messageIterator();
+
+        /**
+         * Initializes the message iterator with the messages
+         * that have been sent to the given node in the previous
+         * superstep.
+         */
+        void initMessageIterator(long nodeId);
+    }
+}
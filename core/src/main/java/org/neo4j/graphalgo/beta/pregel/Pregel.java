@@ -20,15 +20,17 @@
 package org.neo4j.graphalgo.beta.pregel;
 
 import org.immutables.value.Value;
-import org.jctools.queues.MpscLinkedQueue;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.api.DefaultValue;
 import org.neo4j.graphalgo.api.Degrees;
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.api.nodeproperties.ValueType;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.BitUtil;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
@@ -37,17 +39,16 @@ import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
-import org.neo4j.graphalgo.core.utils.partition.Partition;
-import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import java.util.stream.LongStream;
 
 import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
@@ -55,8 +56,8 @@ import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
 @Value.Style(builderVisibility = Value.Style.BuilderVisibility.PUBLIC, depluralize = true, deepImmutablesDetection = true)
 public final class Pregel<CONFIG extends PregelConfig> {
 
-    // Marks the end of messages from the previous iteration in synchronous mode.
-    private static final Double TERMINATION_SYMBOL = Double.NaN;
+    // Number of 64-bit words of the active node set a compute step claims at once.
+    private static final long ACTIVE_WORDS_PER_BATCH = 64;
 
     private final CONFIG config;
 
@@ -66,7 +67,12 @@ public final class Pregel<CONFIG extends PregelConfig> {
 
     private final CompositeNodeValue nodeValues;
 
-    private final HugeObjectArray<MpscLinkedQueue<Double>> messageQueues;
+    private final Messenger messenger;
+
+    private final Aggregators aggregators;
+
+    // Only present if the computation requires incoming relationships of a directed graph
+    private final @Nullable IncomingRelationships incomingRelationships;
 
     private final int concurrency;
     private final ExecutorService executor;
@@ -84,6 +90,7 @@ public final class Pregel<CONFIG extends PregelConfig> {
         // Creating a copy of the user config triggers the
         // concurrency validations.
         ImmutablePregelConfig.copyOf(config);
+        validateMessageSchema(config, computation);
 
         return new Pregel<>(
                 graph,
@@ -95,23 +102,53 @@ public final class Pregel<CONFIG extends PregelConfig> {
         );
     }
 
-    public static MemoryEstimation memoryEstimation(PregelSchema pregelSchema) {
+    public static MemoryEstimation memoryEstimation(PregelSchema pregelSchema, boolean isAsynchronous) {
+        return memoryEstimation(pregelSchema, isAsynchronous, false);
+    }
+
+    public static MemoryEstimation memoryEstimation(
+        PregelSchema pregelSchema,
+        boolean isAsynchronous,
+        boolean isReducing
+    ) {
+        return memoryEstimation(pregelSchema, MessageSchema.doubles(), isAsynchronous, isReducing);
+    }
+
+    public static MemoryEstimation memoryEstimation(
+        PregelSchema pregelSchema,
+        MessageSchema messageSchema,
+        boolean isAsynchronous,
+        boolean isReducing
+    ) {
+        return memoryEstimation(pregelSchema, messageSchema, isAsynchronous, isReducing, false);
+    }
+
+    public static MemoryEstimation memoryEstimation(PregelComputation<?> computation, boolean isAsynchronous) {
+        return memoryEstimation(
+            computation.schema(),
+            computation.messageSchema(),
+            isAsynchronous,
+            computation.reducer().isPresent(),
+            computation.requiresIncomingRelationships()
+        );
+    }
+
+    public static MemoryEstimation memoryEstimation(
+        PregelSchema pregelSchema,
+        MessageSchema messageSchema,
+        boolean isAsynchronous,
+        boolean isReducing,
+        boolean requiresIncomingRelationships
+    ) {
         return MemoryEstimations.builder(Pregel.class)
             .perNode("message bits", MemoryUsage::sizeOfHugeAtomicBitset)
             .perNode("previous message bits", MemoryUsage::sizeOfHugeAtomicBitset)
             .perNode("vote bits", MemoryUsage::sizeOfHugeAtomicBitset)
             .perThread("compute steps", MemoryEstimations.builder(ComputeStep.class).build())
-            .add(
-                "message queues",
-                MemoryEstimations.setup("", (dimensions, concurrency) ->
-                    MemoryEstimations.builder()
-                        .fixed(HugeObjectArray.class.getSimpleName(), MemoryUsage.sizeOfInstance(HugeObjectArray.class))
-                        .perNode("node queue", MemoryEstimations.builder(MpscLinkedQueue.class)
-                            .fixed("messages", dimensions.averageDegree() * Double.BYTES)
-                            .build()
-                        )
-                        .build()
-                )
+            .add("messages", messengerEstimation(messageSchema, isAsynchronous, isReducing))
+            .add("incoming relationships", requiresIncomingRelationships
+                ? IncomingRelationships.memoryEstimation()
+                : MemoryEstimations.empty()
             )
             .add(
                 "composite node value",
@@ -151,6 +188,49 @@ public final class Pregel<CONFIG extends PregelConfig> {
             .build();
     }
 
+    private static MemoryEstimation messengerEstimation(
+        MessageSchema messageSchema,
+        boolean isAsynchronous,
+        boolean isReducing
+    ) {
+        if (isAsynchronous) {
+            return AsyncQueueMessenger.memoryEstimation();
+        }
+        return isReducing
+            ? ReducingMessenger.memoryEstimation()
+            : SyncMessenger.memoryEstimation(messageSchema.dimension());
+    }
+
+    private static <CONFIG extends PregelConfig> void validateMessageSchema(
+        CONFIG config,
+        PregelComputation<CONFIG> computation
+    ) {
+        var messageType = computation.messageSchema().valueType();
+        if (config.isAsynchronous() && messageType == ValueType.DOUBLE_ARRAY) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Messages of type %s are not supported in asynchronous mode.",
+                messageType
+            ));
+        }
+        if (!config.isAsynchronous() && computation.reducer().isPresent() && messageType != ValueType.DOUBLE) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "A reducer can only be applied to messages of type %s, got %s.",
+                ValueType.DOUBLE,
+                messageType
+            ));
+        }
+    }
+
+    private static void validateMessageType(ValueType declaredType, ValueType usedType) {
+        if (declaredType != usedType) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Messages of type %s cannot be used, the message schema of the computation declares %s.",
+                usedType,
+                declaredType
+            ));
+        }
+    }
+
     private Pregel(
             final Graph graph,
             final CONFIG config,
@@ -166,7 +246,27 @@ public final class Pregel<CONFIG extends PregelConfig> {
         this.executor = executor;
         this.tracker = tracker;
 
-        this.messageQueues = initLinkedQueues(graph, tracker);
+        this.messenger = createMessenger();
+        this.aggregators = new Aggregators(computation.aggregators());
+        // undirected graphs and graphs with a projected inverse index provide the incoming relationships themselves
+        this.incomingRelationships = computation.requiresIncomingRelationships() && !graph.isInverseIndexed()
+            ? IncomingRelationships.of(graph, concurrency, executor, tracker)
+            : null;
+    }
+
+    private Messenger createMessenger() {
+        if (config.isAsynchronous()) {
+            return new AsyncQueueMessenger(graph.nodeCount(), concurrency, tracker);
+        }
+        return computation.reducer()
+            .<Messenger>map(reducer -> new ReducingMessenger(graph.nodeCount(), reducer, tracker))
+            .orElseGet(() -> new SyncMessenger(
+                graph.nodeCount(),
+                computation.messageSchema().dimension(),
+                concurrency,
+                executor,
+                tracker
+            ));
     }
 
     public PregelResult run() {
@@ -178,7 +278,12 @@ public final class Pregel<CONFIG extends PregelConfig> {
         // Tracks if a node voted to halt in the previous iteration
         HugeAtomicBitSet voteBits = HugeAtomicBitSet.create(graph.nodeCount(), tracker);
 
-        List<ComputeStep<CONFIG>> computeSteps = createComputeSteps(voteBits);
+        // Shared cursor over the active node words, compute steps claim batches from it
+        AtomicLong wordCursor = new AtomicLong();
+
+        List<ComputeStep<CONFIG>> computeSteps = createComputeSteps(voteBits, wordCursor);
+
+        var masterComputeContext = new MasterComputeContext<>(config, graph.nodeCount(), nodeValues, aggregators);
 
         int iterations;
         for (iterations = 0; iterations < config.maxIterations(); iterations++) {
@@ -191,7 +296,17 @@ public final class Pregel<CONFIG extends PregelConfig> {
                 computeStep.init(iterations, messageBits, prevMessageBits);
             }
 
-            runComputeSteps(computeSteps, iterations, prevMessageBits);
+            messenger.initIteration(iterations);
+            wordCursor.set(0);
+            ParallelUtil.runWithConcurrency(concurrency, computeSteps, executor);
+
+            aggregators.merge();
+
+            masterComputeContext.setSuperstep(iterations);
+            if (computation.masterCompute(masterComputeContext)) {
+                didConverge = true;
+                break;
+            }
 
             // No messages have been sent and all nodes voted to halt
             if (messageBits.isEmpty() && voteBits.allSet()) {
@@ -213,86 +328,51 @@ public final class Pregel<CONFIG extends PregelConfig> {
     }
 
     public void release() {
-        messageQueues.release();
+        messenger.release();
+        if (incomingRelationships != null) {
+            incomingRelationships.release(tracker);
+        }
     }
 
-    private List<ComputeStep<CONFIG>> createComputeSteps(HugeAtomicBitSet voteBits) {
-        List<Partition> partitions = PartitionUtils.rangePartition(concurrency, graph.nodeCount());
-
+    private List<ComputeStep<CONFIG>> createComputeSteps(HugeAtomicBitSet voteBits, AtomicLong wordCursor) {
         List<ComputeStep<CONFIG>> computeSteps = new ArrayList<>(concurrency);
 
-        for (Partition partition : partitions) {
+        for (int i = 0; i < concurrency; i++) {
             computeSteps.add(new ComputeStep<>(
                 graph,
                 computation,
                 config,
                 0,
-                partition,
+                wordCursor,
                 nodeValues,
-                messageQueues,
+                messenger.newMailbox(),
+                aggregators,
                 voteBits,
+                incomingRelationships,
                 graph
             ));
         }
         return computeSteps;
     }
 
-    private void runComputeSteps(
-        Collection<ComputeStep<CONFIG>> computeSteps,
-        final int iteration,
-        HugeAtomicBitSet messageBits
-    ) {
-
-        if (!config.isAsynchronous()) {
-            // Synchronization barrier:
-            // Add termination flag to message queues that
-            // received messages in the previous iteration.
-            if (iteration > 0) {
-                ParallelUtil.parallelStreamConsume(
-                        LongStream.range(0, graph.nodeCount()),
-                        concurrency,
-                        nodeIds -> nodeIds.forEach(nodeId -> {
-                            if (messageBits.get(nodeId)) {
-                                messageQueues.get(nodeId).add(TERMINATION_SYMBOL);
-                            }
-                        }));
-            }
-        }
-
-        ParallelUtil.runWithConcurrency(concurrency, computeSteps, executor);
-    }
-
-    @SuppressWarnings({"unchecked"})
-    private HugeObjectArray<MpscLinkedQueue<Double>> initLinkedQueues(Graph graph, AllocationTracker tracker) {
-        // sad java 😞
-        Class<MpscLinkedQueue<Double>> queueClass = (Class<MpscLinkedQueue<Double>>) new MpscLinkedQueue<Double>().getClass();
-
-        HugeObjectArray<MpscLinkedQueue<Double>> messageQueues = HugeObjectArray.newArray(
-                queueClass,
-                graph.nodeCount(),
-                tracker);
-
-        ParallelUtil.parallelStreamConsume(
-                LongStream.range(0, graph.nodeCount()),
-                concurrency,
-                nodeIds -> nodeIds.forEach(nodeId -> messageQueues.set(nodeId, new MpscLinkedQueue<Double>())));
-
-        return messageQueues;
-    }
-
     public static final class ComputeStep<CONFIG extends PregelConfig> implements Runnable {
 
         private final long nodeCount;
         private final long relationshipCount;
-        private final boolean isAsync;
         private final PregelComputation<CONFIG> computation;
         private final PregelContext.InitContext<CONFIG> initContext;
         private final PregelContext.ComputeContext<CONFIG> computeContext;
-        private final Partition nodeBatch;
+        private final AtomicLong wordCursor;
         private final Degrees degrees;
         private final CompositeNodeValue nodeValues;
-        private final HugeObjectArray<? extends Queue<Double>> messageQueues;
-        private final RelationshipIterator relationshipIterator;
+        private final Messenger.Mailbox mailbox;
+        private final Messages messages;
+        private final Aggregators aggregators;
+        private final double[] partialAggregates;
+        private final ValueType messageType;
+        private final Graph relationshipIterator;
+        private final @Nullable IncomingRelationships incomingRelationships;
+        private final boolean isInverseIndexed;
 
         private int iteration;
         private HugeAtomicBitSet messageBits;
@@ -304,23 +384,30 @@ public final class Pregel<CONFIG extends PregelConfig> {
             PregelComputation<CONFIG> computation,
             CONFIG config,
             int iteration,
-            Partition nodeBatch,
+            AtomicLong wordCursor,
             CompositeNodeValue nodeValues,
-            HugeObjectArray<? extends Queue<Double>> messageQueues,
+            Messenger.Mailbox mailbox,
+            Aggregators aggregators,
             HugeAtomicBitSet voteBits,
-            RelationshipIterator relationshipIterator
+            @Nullable IncomingRelationships incomingRelationships,
+            Graph relationshipIterator
         ) {
             this.iteration = iteration;
             this.nodeCount = graph.nodeCount();
             this.relationshipCount = graph.relationshipCount();
-            this.isAsync = config.isAsynchronous();
             this.computation = computation;
             this.voteBits = voteBits;
-            this.nodeBatch = nodeBatch;
+            this.wordCursor = wordCursor;
             this.degrees = graph;
             this.nodeValues = nodeValues;
-            this.messageQueues = messageQueues;
+            this.mailbox = mailbox;
+            this.messageType = computation.messageSchema().valueType();
+            this.messages = new Messages(mailbox.messageIterator(), messageType);
+            this.aggregators = aggregators;
+            this.partialAggregates = aggregators.newPartial();
             this.relationshipIterator = relationshipIterator.concurrentCopy();
+            this.incomingRelationships = incomingRelationships;
+            this.isInverseIndexed = graph.isInverseIndexed();
             this.computeContext = PregelContext.computeContext(this, config);
             this.initContext = PregelContext.initContext(this, config, graph);
         }
@@ -335,31 +422,48 @@ public final class Pregel<CONFIG extends PregelConfig> {
             this.prevMessageBits = prevMessageBits;
         }
 
+        /**
+         * Computes all active nodes, i.e. nodes that received messages in the
+         * previous superstep or did not vote to halt. The active set is scanned
+         * one 64-bit word at a time, which skips inactive regions of the graph
+         * without touching the individual nodes. Batches of words are claimed
+         * from a shared cursor, so the active nodes of each superstep are
+         * balanced across all compute steps.
+         */
         @Override
         public void run() {
-            var messageIterator = isAsync
-                ? new MessageIterator.Async()
-                : new MessageIterator.Sync();
-            var messages = new Messages(messageIterator);
+            long wordCount = BitUtil.ceilDiv(nodeCount, Long.SIZE);
 
-            long batchStart = nodeBatch.startNode();
-            long batchEnd = batchStart + nodeBatch.nodeCount();
+            long batchStart;
+            while ((batchStart = wordCursor.getAndAdd(ACTIVE_WORDS_PER_BATCH)) < wordCount) {
+                long batchEnd = Math.min(batchStart + ACTIVE_WORDS_PER_BATCH, wordCount);
 
-            for (long nodeId = batchStart; nodeId < batchEnd; nodeId++) {
+                for (long wordIndex = batchStart; wordIndex < batchEnd; wordIndex++) {
+                    long activeWord = prevMessageBits.word(wordIndex) | ~voteBits.word(wordIndex);
+                    long offset = wordIndex * Long.SIZE;
 
-                if (computeContext.isInitialSuperstep()) {
-                    initContext.setNodeId(nodeId);
-                    computation.init(initContext);
+                    while (activeWord != 0) {
+                        long nodeId = offset + Long.numberOfTrailingZeros(activeWord);
+                        if (nodeId >= nodeCount) {
+                            break;
+                        }
+                        activeWord &= activeWord - 1;
+                        computeNode(nodeId);
+                    }
                 }
+            }
+        }
 
-                if (prevMessageBits.get(nodeId) || !voteBits.get(nodeId)) {
-                    voteBits.clear(nodeId);
-                    computeContext.setNodeId(nodeId);
-
-                    messageIterator.init(receiveMessages(nodeId));
-                    computation.compute(computeContext, messages);
-                }
+        private void computeNode(long nodeId) {
+            if (computeContext.isInitialSuperstep()) {
+                initContext.setNodeId(nodeId);
+                computation.init(initContext);
             }
+
+            voteBits.clear(nodeId);
+            computeContext.setNodeId(nodeId);
+
+            computation.compute(computeContext, receiveMessages(nodeId));
         }
 
         public int iteration() {
@@ -378,10 +482,67 @@ public final class Pregel<CONFIG extends PregelConfig> {
             return degrees.degree(nodeId);
         }
 
+        int incomingDegree(long nodeId) {
+            return isInverseIndexed
+                ? relationshipIterator.degreeInverse(nodeId)
+                : incomingRelationships().degree(nodeId);
+        }
+
+        void forEachIncomingNeighbor(long nodeId, LongConsumer consumer) {
+            forEachIncomingRelationship(nodeId, (ignored, sourceNodeId) -> {
+                consumer.accept(sourceNodeId);
+                return true;
+            });
+        }
+
+        void sendToIncomingNeighbors(long targetNodeId, double message) {
+            forEachIncomingRelationship(targetNodeId, (ignored, sourceNodeId) -> {
+                sendTo(sourceNodeId, message);
+                return true;
+            });
+        }
+
+        void sendToIncomingNeighborsWeighted(long targetNodeId, double message) {
+            RelationshipWithPropertyConsumer consumer = (ignored, sourceNodeId, weight) -> {
+                sendTo(sourceNodeId, computation.applyRelationshipWeight(message, weight));
+                return true;
+            };
+            if (isInverseIndexed) {
+                relationshipIterator.forEachInverseRelationship(targetNodeId, 1.0, consumer);
+            } else {
+                incomingRelationships().forEachRelationship(targetNodeId, 1.0, consumer);
+            }
+        }
+
+        private void forEachIncomingRelationship(long nodeId, RelationshipConsumer consumer) {
+            if (isInverseIndexed) {
+                relationshipIterator.forEachInverseRelationship(nodeId, consumer);
+            } else {
+                incomingRelationships().forEachRelationship(nodeId, consumer);
+            }
+        }
+
+        private IncomingRelationships incomingRelationships() {
+            if (incomingRelationships == null) {
+                throw new UnsupportedOperationException(
+                    "Incoming relationships are not available, the computation must override `requiresIncomingRelationships`."
+                );
+            }
+            return incomingRelationships;
+        }
+
         void voteToHalt(long nodeId) {
             voteBits.set(nodeId);
         }
 
+        void aggregate(String name, double value) {
+            aggregators.aggregate(partialAggregates, name, value);
+        }
+
+        double aggregatedValue(String name) {
+            return aggregators.value(name);
+        }
+
         void sendToNeighbors(long sourceNodeId, double message) {
             relationshipIterator.forEachRelationship(sourceNodeId, (ignored, targetNodeId) -> {
                 sendTo(targetNodeId, message);
@@ -390,20 +551,50 @@ public final class Pregel<CONFIG extends PregelConfig> {
         }
 
         void sendTo(long targetNodeId, double message) {
-            messageQueues.get(targetNodeId).add(message);
+            validateMessageType(messageType, ValueType.DOUBLE);
+            mailbox.sendTo(targetNodeId, message);
+            messageBits.set(targetNodeId);
+        }
+
+        void sendLongToNeighbors(long sourceNodeId, long message) {
+            relationshipIterator.forEachRelationship(sourceNodeId, (ignored, targetNodeId) -> {
+                sendLongTo(targetNodeId, message);
+                return true;
+            });
+        }
+
+        void sendLongTo(long targetNodeId, long message) {
+            validateMessageType(messageType, ValueType.LONG);
+            mailbox.sendLongTo(targetNodeId, message);
+            messageBits.set(targetNodeId);
+        }
+
+        void sendToNeighbors(long sourceNodeId, double[] message) {
+            relationshipIterator.forEachRelationship(sourceNodeId, (ignored, targetNodeId) -> {
+                sendTo(targetNodeId, message);
+                return true;
+            });
+        }
+
+        void sendTo(long targetNodeId, double[] message) {
+            validateMessageType(messageType, ValueType.DOUBLE_ARRAY);
+            mailbox.sendTo(targetNodeId, message);
             messageBits.set(targetNodeId);
         }
 
         void sendToNeighborsWeighted(long sourceNodeId, double message) {
             relationshipIterator.forEachRelationship(sourceNodeId, 1.0, (source, target, weight) -> {
-                messageQueues.get(target).add(computation.applyRelationshipWeight(message, weight));
-                messageBits.set(target);
+                sendTo(target, computation.applyRelationshipWeight(message, weight));
                 return true;
             });
         }
 
-        private @Nullable Queue<Double> receiveMessages(long nodeId) {
-            return prevMessageBits.get(nodeId) ? messageQueues.get(nodeId) : null;
+        private Messages receiveMessages(long nodeId) {
+            if (prevMessageBits.get(nodeId)) {
+                mailbox.initMessageIterator(nodeId);
+                return messages;
+            }
+            return Messages.EMPTY;
         }
 
         double doubleNodeValue(String key, long nodeId) {
@@ -573,53 +764,121 @@ public final class Pregel<CONFIG extends PregelConfig> {
         }
     }
 
+    /**
+     * The messages a node received in the previous superstep.
+     * Messages can be read as primitive doubles by using
+     * {@link MessageIterator#nextDouble()}, which avoids boxing.
+     * Long and double array messages are read via
+     * {@link MessageIterator#nextLong()} and
+     * {@link MessageIterator#nextDoubleArray(double[])}.
+     */
     public static class Messages implements Iterable<Double> {
 
+        static final Messages EMPTY = new Messages(new MessageIterator.Empty(), ValueType.DOUBLE);
+
         private final MessageIterator iterator;
 
-        Messages(MessageIterator iterator) {
+        Messages(MessageIterator iterator, ValueType messageType) {
             this.iterator = iterator;
+            iterator.messageType = messageType;
         }
 
         @NotNull
         @Override
-        public Iterator<Double> iterator() {
+        public MessageIterator iterator() {
             return iterator;
         }
+
+        /**
+         * Indicates if there are (more) messages to read.
+         */
+        public boolean isEmpty() {
+            return iterator.isEmpty();
+        }
     }
 
-    abstract static class MessageIterator implements Iterator<Double> {
+    public abstract static class MessageIterator implements PrimitiveIterator.OfDouble {
 
-        Queue<Double> queue;
+        // the message type declared by the computation, messages are only read as that type
+        ValueType messageType = ValueType.DOUBLE;
 
-        @Nullable Double next;
+        /**
+         * Returns true, iff there are no more messages to read.
+         */
+        public abstract boolean isEmpty();
 
-        @Override
-        public @Nullable Double next() {
-            return next;
-        }
+        /**
+         * Returns the raw 64 bits of the next message value.
+         */
+        abstract long nextBits();
 
-        void init(@Nullable Queue<Double> queue) {
-            this.queue = queue;
+        /**
+         * Returns the next message of a computation that sends double messages.
+         *
+         * @throws IllegalArgumentException if the computation declares another message type
+         */
+        @Override
+        public double nextDouble() {
+            validateMessageType(messageType, ValueType.DOUBLE);
+            return Double.longBitsToDouble(nextBits());
+        }
+
+        /**
+         * Returns the next message of a computation that sends long messages.
+         *
+         * @throws IllegalArgumentException if the computation declares another message type
+         * @see MessageSchema#longs()
+         */
+        public long nextLong() {
+            validateMessageType(messageType, ValueType.LONG);
+            return nextBits();
+        }
+
+        /**
+         * Copies the next message of a computation that sends double array
+         * messages into the given array. The length of the array must match
+         * the dimension of the message schema.
+         *
+         * @throws IllegalArgumentException if the computation declares another message type
+         * @see MessageSchema#doubleArrays(int)
+         */
+        public void nextDoubleArray(double[] target) {
+            validateMessageType(messageType, ValueType.DOUBLE_ARRAY);
+            for (int i = 0; i < target.length; i++) {
+                target[i] = Double.longBitsToDouble(nextBits());
+            }
         }
 
-        static class Sync extends MessageIterator {
+        static final class Empty extends MessageIterator {
             @Override
             public boolean hasNext() {
-                if (queue == null) {
-                    return false;
-                }
-                return !Double.isNaN(next = queue.poll());
+                return false;
             }
-        }
 
-        static class Async extends MessageIterator {
             @Override
-            public boolean hasNext() {
-                if (queue == null) {
-                    return false;
-                }
-                return (next = queue.poll()) != null;
+            long nextBits() {
+                throw new NoSuchElementException();
+            }
+
+            // an empty iterator is shared by all computations and has no message type
+            @Override
+            public double nextDouble() {
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public long nextLong() {
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public void nextDoubleArray(double[] target) {
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return true;
             }
         }
     }
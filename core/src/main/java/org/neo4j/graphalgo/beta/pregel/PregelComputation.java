@@ -19,6 +19,9 @@
  */
 package org.neo4j.graphalgo.beta.pregel;
 
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Main interface to express user-defined logic using the
  * Pregel framework. An algorithm is expressed using a
@@ -51,6 +54,26 @@ public interface PregelComputation<C extends PregelConfig> {
      */
     PregelSchema schema();
 
+    /**
+     * The message schema describes the type of the messages that
+     * are sent between nodes. By default, messages are single double
+     * values. Long messages are not subject to the precision loss of
+     * doubles and double array messages of a fixed dimension allow
+     * sending vectors, e.g. to propagate node embeddings.
+     * <br>
+     * Example:
+     * <pre>
+     * public MessageSchema messageSchema() {
+     *      return MessageSchema.longs();
+     * }
+     * </pre>
+     *
+     * @see org.neo4j.graphalgo.beta.pregel.MessageSchema
+     */
+    default MessageSchema messageSchema() {
+        return MessageSchema.doubles();
+    }
+
     /**
      * The init method is called in the beginning of the first
      * superstep (iteration) of the Pregel computation and allows
@@ -86,4 +109,61 @@ public interface PregelComputation<C extends PregelConfig> {
     default double applyRelationshipWeight(double nodeValue, double relationshipWeight) {
         return nodeValue;
     }
+
+    /**
+     * Indicates if the computation accesses the incoming relationships
+     * of a node, e.g. via {@link PregelContext.ComputeContext#sendToIncomingNeighbors(double)}.
+     * <br>
+     * For directed graphs, an inverse index of the relationships is built
+     * once before the first superstep, which requires O(relationships)
+     * additional memory. For undirected graphs, incoming and outgoing
+     * relationships are the same and no index is built.
+     */
+    default boolean requiresIncomingRelationships() {
+        return false;
+    }
+
+    /**
+     * A reducer is used to combine the messages sent to a single node.
+     * Based on the reduce function, multiple messages are condensed into
+     * a single one, e.g. by computing their sum, minimum or maximum.
+     * In that case, the {@code messages} passed to {@link #compute}
+     * contain at most one message.
+     * <br>
+     * Specifying a reducer reduces the memory consumption of the
+     * message store from O(relationships) to O(nodes). The reducer
+     * is only applied in synchronous mode.
+     *
+     * @see org.neo4j.graphalgo.beta.pregel.Reducer
+     */
+    default Optional<Reducer> reducer() {
+        return Optional.empty();
+    }
+
+    /**
+     * Aggregators compute global values over all nodes in a superstep,
+     * e.g. the sum of value changes or the number of active nodes. Each
+     * aggregator is identified by a unique name and combines the values
+     * using the given reducer.
+     * <br>
+     * Values are aggregated via {@link PregelContext.ComputeContext#aggregate(String, double)}.
+     * The aggregated value of a superstep can be read in the next superstep via
+     * {@link PregelContext.ComputeContext#aggregatedValue(String)} and in
+     * {@link #masterCompute(MasterComputeContext)}.
+     */
+    default Map<String, Reducer> aggregators() {
+        return Map.of();
+    }
+
+    /**
+     * The master compute method is called once after each superstep,
+     * when all nodes have been processed and the aggregators have been
+     * merged. It can be used to check for global convergence criteria.
+     * <br>
+     * If the method returns true, the computation is stopped and
+     * considered converged.
+     */
+    default boolean masterCompute(MasterComputeContext<C> context) {
+        return false;
+    }
 }
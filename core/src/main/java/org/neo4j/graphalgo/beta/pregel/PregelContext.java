@@ -23,6 +23,7 @@ import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.NodePropertyContainer;
 
 import java.util.Set;
+import java.util.function.LongConsumer;
 
 public abstract class PregelContext<CONFIG extends PregelConfig> {
 
@@ -134,6 +135,16 @@ public abstract class PregelContext<CONFIG extends PregelConfig> {
         return computeStep.degree(nodeId);
     }
 
+    /**
+     * Returns the number of relationships pointing to the currently processed node.
+     *
+     * @throws java.lang.UnsupportedOperationException if the computation does not require incoming relationships
+     * @see PregelComputation#requiresIncomingRelationships()
+     */
+    public int incomingDegree() {
+        return computeStep.incomingDegree(nodeId);
+    }
+
     /**
      * A context that is used during the initialization phase, which is before the
      * first superstep is being executed. The init context allows accessing node
@@ -183,9 +194,13 @@ public abstract class PregelContext<CONFIG extends PregelConfig> {
             this.sendMessagesFunction = config.relationshipWeightProperty() == null
                 ? computeStep::sendToNeighbors
                 : computeStep::sendToNeighborsWeighted;
+            this.sendIncomingMessagesFunction = config.relationshipWeightProperty() == null
+                ? computeStep::sendToIncomingNeighbors
+                : computeStep::sendToIncomingNeighborsWeighted;
         }
 
         private final SendMessagesFunction sendMessagesFunction;
+        private final SendMessagesFunction sendIncomingMessagesFunction;
 
         /**
          * Returns the node value for the given node schema key.
@@ -258,6 +273,29 @@ public abstract class PregelContext<CONFIG extends PregelConfig> {
             return computeStep.iteration();
         }
 
+        /**
+         * Aggregates the given value using the reducer of the aggregator
+         * with the given name. The aggregated value is available in the
+         * next superstep.
+         *
+         * @throws java.lang.IllegalArgumentException if the aggregator does not exist
+         */
+        public void aggregate(String name, double value) {
+            computeStep.aggregate(name, value);
+        }
+
+        /**
+         * Returns the value of the given aggregator, reduced over all
+         * values that have been aggregated in the previous superstep.
+         * In the first superstep, the identity of the aggregator's
+         * reducer is returned.
+         *
+         * @throws java.lang.IllegalArgumentException if the aggregator does not exist
+         */
+        public double aggregatedValue(String name) {
+            return computeStep.aggregatedValue(name);
+        }
+
         /**
          * Sends the given message to all neighbors of the node.
          */
@@ -265,6 +303,28 @@ public abstract class PregelContext<CONFIG extends PregelConfig> {
             sendMessagesFunction.sendToNeighbors(nodeId, message);
         }
 
+        /**
+         * Sends the given message to all nodes that have a relationship
+         * pointing to the node, i.e. along the incoming relationships.
+         *
+         * @throws java.lang.UnsupportedOperationException if the computation does not require incoming relationships
+         * @see PregelComputation#requiresIncomingRelationships()
+         */
+        public void sendToIncomingNeighbors(double message) {
+            sendIncomingMessagesFunction.sendToNeighbors(nodeId, message);
+        }
+
+        /**
+         * Calls the consumer for each node that has a relationship
+         * pointing to the node.
+         *
+         * @throws java.lang.UnsupportedOperationException if the computation does not require incoming relationships
+         * @see PregelComputation#requiresIncomingRelationships()
+         */
+        public void forEachIncomingNeighbor(LongConsumer consumer) {
+            computeStep.forEachIncomingNeighbor(nodeId, consumer);
+        }
+
         /**
          * Sends the given message to the target node. The target
          * node can be any existing node id in the graph.
@@ -275,6 +335,51 @@ public abstract class PregelContext<CONFIG extends PregelConfig> {
             computeStep.sendTo(targetNodeId, message);
         }
 
+        /**
+         * Sends the given long message to all neighbors of the node.
+         * Requires the computation to declare {@link MessageSchema#longs()}.
+         * Relationship weights are not applied to long messages.
+         * <br>
+         * Unlike {@link #sendToNeighbors(double)}, the method is not an
+         * overload, as existing computations rely on long values being
+         * widened to double messages.
+         */
+        public void sendLongToNeighbors(long message) {
+            computeStep.sendLongToNeighbors(nodeId, message);
+        }
+
+        /**
+         * Sends the given long message to the target node.
+         * Requires the computation to declare {@link MessageSchema#longs()}.
+         *
+         * @throws ArrayIndexOutOfBoundsException if the node is in the not in id space
+         */
+        public void sendLongTo(long targetNodeId, long message) {
+            computeStep.sendLongTo(targetNodeId, message);
+        }
+
+        /**
+         * Sends the given double array message to all neighbors of the node.
+         * Requires the computation to declare {@link MessageSchema#doubleArrays(int)}.
+         * The array is copied and can be re-used by the caller.
+         * Relationship weights are not applied to double array messages.
+         */
+        public void sendToNeighbors(double[] message) {
+            computeStep.sendToNeighbors(nodeId, message);
+        }
+
+        /**
+         * Sends the given double array message to the target node.
+         * Requires the computation to declare {@link MessageSchema#doubleArrays(int)}.
+         * The array is copied and can be re-used by the caller.
+         *
+         * @throws ArrayIndexOutOfBoundsException if the node is in the not in id space
+         * @throws IllegalArgumentException if the array length does not match the message dimension
+         */
+        public void sendTo(long targetNodeId, double[] message) {
+            computeStep.sendTo(targetNodeId, message);
+        }
+
         @FunctionalInterface
         interface SendMessagesFunction {
             void sendToNeighbors(long sourceNodeId, double message);
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * A reducer is used to combine all messages that are sent to a single
+ * node into a single value. Instead of storing each message until the
+ * next superstep, messages are folded into a per-node slot right away.
+ *
+ * @see PregelComputation#reducer()
+ */
+public interface Reducer {
+
+    /**
+     * The identity element is used as the initial value of the
+     * reduction, e.g. {@code 0} for a sum.
+     */
+    double identity();
+
+    /**
+     * Computes a new value based on the current value and the message.
+     * The function must be commutative and associative, as messages
+     * are reduced in no particular order.
+     */
+    double reduce(double current, double message);
+
+    /**
+     * Creates a reducer from the given identity element and reduce function.
+     */
+    static Reducer of(double identity, DoubleBinaryOperator reduceFunction) {
+        return new Reducer() {
+            @Override
+            public double identity() {
+                return identity;
+            }
+
+            @Override
+            public double reduce(double current, double message) {
+                return reduceFunction.applyAsDouble(current, message);
+            }
+        };
+    }
+
+    class Sum implements Reducer {
+
+        @Override
+        public double identity() {
+            return 0.0;
+        }
+
+        @Override
+        public double reduce(double current, double message) {
+            return current + message;
+        }
+    }
+
+    class Min implements Reducer {
+
+        @Override
+        public double identity() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double reduce(double current, double message) {
+            return Math.min(current, message);
+        }
+    }
+
+    class Max implements Reducer {
+
+        @Override
+        public double identity() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double reduce(double current, double message) {
+            return Math.max(current, message);
+        }
+    }
+}
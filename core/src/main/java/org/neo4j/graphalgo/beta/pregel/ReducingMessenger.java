@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicDoubleArray;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A messenger for synchronous Pregel computations that declare a {@link Reducer}.
+ * <p>
+ * Messages are folded into a single value per receiver as soon as they are
+ * sent, which requires O(n) memory instead of O(m). The arrays for sending
+ * and receiving are swapped at the superstep barrier.
+ */
+final class ReducingMessenger implements Messenger {
+
+    private final Reducer reducer;
+    private final AllocationTracker tracker;
+
+    private HugeAtomicDoubleArray sendArray;
+    private HugeAtomicDoubleArray receiveArray;
+
+    static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(ReducingMessenger.class)
+            .perNode("send array", HugeAtomicDoubleArray::memoryEstimation)
+            .perNode("receive array", HugeAtomicDoubleArray::memoryEstimation)
+            .build();
+    }
+
+    ReducingMessenger(long nodeCount, Reducer reducer, AllocationTracker tracker) {
+        this.reducer = reducer;
+        this.tracker = tracker;
+        this.sendArray = HugeAtomicDoubleArray.newArray(nodeCount, tracker);
+        this.receiveArray = HugeAtomicDoubleArray.newArray(nodeCount, tracker);
+        this.sendArray.setAll(reducer.identity());
+        this.receiveArray.setAll(reducer.identity());
+    }
+
+    @Override
+    public void initIteration(int iteration) {
+        var tmp = receiveArray;
+        receiveArray = sendArray;
+        sendArray = tmp;
+        sendArray.setAll(reducer.identity());
+    }
+
+    @Override
+    public Mailbox newMailbox() {
+        return new Mailbox() {
+            private final Iterator iterator = new Iterator();
+
+            @Override
+            public void sendTo(long targetNodeId, double message) {
+                var sendArray = ReducingMessenger.this.sendArray;
+                double current = sendArray.get(targetNodeId);
+                while (true) {
+                    double reduced = reducer.reduce(current, message);
+                    double witness = sendArray.compareAndExchange(targetNodeId, current, reduced);
+                    // compareAndExchange compares the raw bits of the values
+                    if (Double.doubleToRawLongBits(witness) == Double.doubleToRawLongBits(current)) {
+                        break;
+                    }
+                    current = witness;
+                }
+            }
+
+            @Override
+            public void sendLongTo(long targetNodeId, long message) {
+                throw new UnsupportedOperationException("A reducer can only be applied to double messages.");
+            }
+
+            @Override
+            public void sendTo(long targetNodeId, double[] message) {
+                throw new UnsupportedOperationException("A reducer can only be applied to double messages.");
+            }
+
+            @Override
+            public Pregel.MessageIterator messageIterator() {
+                return iterator;
+            }
+
+            @Override
+            public void initMessageIterator(long nodeId) {
+                iterator.init(receiveArray.get(nodeId));
+            }
+        };
+    }
+
+    @Override
+    public void release() {
+        tracker.remove(sendArray.release());
+        tracker.remove(receiveArray.release());
+    }
+
+    static final class Iterator extends Pregel.MessageIterator {
+
+        private double message;
+        private boolean hasNext;
+
+        void init(double message) {
+            this.message = message;
+            this.hasNext = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            hasNext = false;
+            return message;
+        }
+
+        @Override
+        long nextBits() {
+            return Double.doubleToRawLongBits(nextDouble());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !hasNext;
+        }
+    }
+}
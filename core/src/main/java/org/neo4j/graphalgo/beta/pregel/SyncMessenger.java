@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.HugeArrays;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PageUtil;
+import org.neo4j.graphalgo.core.utils.partition.Partition;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * A messenger for synchronous Pregel computations that stores
+ * messages in primitive arrays.
+ * <p>
+ * During a superstep, each compute step appends the messages it
+ * sends to its own {@link Outbox}. At the superstep barrier, the
+ * messages of all outboxes are grouped by their receiver into a
+ * single, CSR-style inbox using a parallel count-then-fill pass.
+ * The outbox and inbox pages are re-used across supersteps, so
+ * no objects are allocated per message.
+ * <p>
+ * Message values are stored as raw 64 bits, which allows storing
+ * double and long messages in the same arrays. Double array messages
+ * occupy {@code dimension} consecutive slots.
+ */
+final class SyncMessenger implements Messenger {
+
+    private final long nodeCount;
+    private final int dimension;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private final List<Outbox> outboxes;
+    private final List<Partition> partitions;
+
+    // The messages of node n are stored at inbox[offsets[n], offsets[n + 1])
+    private final HugeLongArray offsets;
+    // Counts the messages per receiver and is later used as write position into the inbox
+    private final HugeAtomicLongArray cursors;
+    private HugeLongArray inbox;
+    private boolean inboxIsEmpty;
+
+    static MemoryEstimation memoryEstimation(int dimension) {
+        return MemoryEstimations.builder(SyncMessenger.class)
+            .perNode("offsets", nodeCount -> HugeLongArray.memoryEstimation(nodeCount + 1))
+            .perNode("cursors", HugeAtomicLongArray::memoryEstimation)
+            .perGraphDimension("inbox", (dimensions, concurrency) ->
+                MemoryRange.of(HugeLongArray.memoryEstimation(dimensions.maxRelCount() * dimension))
+            )
+            .perThread("outbox", MemoryEstimations.builder(Outbox.class).build())
+            .perGraphDimension("outbox messages", (dimensions, concurrency) ->
+                MemoryRange.of(Outbox.memoryEstimation(dimensions.maxRelCount(), dimension))
+            )
+            .build();
+    }
+
+    SyncMessenger(
+        long nodeCount,
+        int dimension,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        this.nodeCount = nodeCount;
+        this.dimension = dimension;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+        this.outboxes = new ArrayList<>(concurrency);
+        this.partitions = PartitionUtils.rangePartition(concurrency, nodeCount);
+        this.offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        this.cursors = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        this.inbox = HugeLongArray.newArray(0, tracker);
+        this.inboxIsEmpty = true;
+    }
+
+    @Override
+    public void initIteration(int iteration) {
+        long messageCount = 0;
+        for (Outbox outbox : outboxes) {
+            messageCount += outbox.size();
+        }
+
+        inboxIsEmpty = messageCount == 0;
+        if (inboxIsEmpty) {
+            return;
+        }
+
+        long valueCount = messageCount * dimension;
+        if (inbox.size() < valueCount) {
+            tracker.remove(inbox.release());
+            inbox = HugeLongArray.newArray(HugeArrays.oversize(valueCount, Long.BYTES), tracker);
+        }
+
+        // count messages per receiver
+        cursors.setAll(0L);
+        ParallelUtil.runWithConcurrency(
+            concurrency,
+            outboxes.stream().map(outbox -> (Runnable) () -> outbox.countMessages(cursors)).collect(Collectors.toList()),
+            executor
+        );
+
+        computeOffsets();
+
+        // move messages into their receiver slots
+        var inbox = this.inbox;
+        ParallelUtil.runWithConcurrency(
+            concurrency,
+            outboxes.stream().map(outbox -> (Runnable) () -> outbox.flushMessages(cursors, inbox)).collect(Collectors.toList()),
+            executor
+        );
+
+        for (Outbox outbox : outboxes) {
+            outbox.clear();
+        }
+    }
+
+    @Override
+    public Mailbox newMailbox() {
+        var outbox = new Outbox(dimension, tracker);
+        outboxes.add(outbox);
+        return new SyncMailbox(outbox);
+    }
+
+    @Override
+    public void release() {
+        tracker.remove(offsets.release());
+        tracker.remove(cursors.release());
+        tracker.remove(inbox.release());
+        outboxes.forEach(Outbox::release);
+    }
+
+    /**
+     * Parallel exclusive prefix sum over the message counts.
+     * The first pass computes the message count per partition,
+     * the second pass writes the offsets within each partition.
+     */
+    private void computeOffsets() {
+        var partitionCounts = new long[partitions.size()];
+
+        ParallelUtil.runWithConcurrency(concurrency, partitionTasks((partitionIndex, partition) -> {
+            long count = 0;
+            long end = partition.startNode() + partition.nodeCount();
+            for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                count += cursors.get(nodeId);
+            }
+            partitionCounts[partitionIndex] = count;
+        }), executor);
+
+        var partitionOffsets = new long[partitions.size()];
+        long offset = 0;
+        for (int i = 0; i < partitionCounts.length; i++) {
+            partitionOffsets[i] = offset;
+            offset += partitionCounts[i];
+        }
+        offsets.set(nodeCount, offset);
+
+        ParallelUtil.runWithConcurrency(concurrency, partitionTasks((partitionIndex, partition) -> {
+            long partitionOffset = partitionOffsets[partitionIndex];
+            long end = partition.startNode() + partition.nodeCount();
+            for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                long count = cursors.get(nodeId);
+                offsets.set(nodeId, partitionOffset);
+                cursors.set(nodeId, partitionOffset);
+                partitionOffset += count;
+            }
+        }), executor);
+    }
+
+    private List<Runnable> partitionTasks(PartitionTask task) {
+        var tasks = new ArrayList<Runnable>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            int partitionIndex = i;
+            tasks.add(() -> task.run(partitionIndex, partitions.get(partitionIndex)));
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(int partitionIndex, Partition partition);
+    }
+
+    private final class SyncMailbox implements Mailbox {
+
+        private final Outbox outbox;
+        private final Iterator iterator;
+
+        SyncMailbox(Outbox outbox) {
+            this.outbox = outbox;
+            this.iterator = new Iterator();
+        }
+
+        @Override
+        public void sendTo(long targetNodeId, double message) {
+            outbox.add(targetNodeId, Double.doubleToRawLongBits(message));
+        }
+
+        @Override
+        public void sendLongTo(long targetNodeId, long message) {
+            outbox.add(targetNodeId, message);
+        }
+
+        @Override
+        public void sendTo(long targetNodeId, double[] message) {
+            if (message.length != dimension) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Expected a message of dimension %d, got %d.",
+                    dimension,
+                    message.length
+                ));
+            }
+            outbox.add(targetNodeId, message);
+        }
+
+        @Override
+        public Pregel.MessageIterator messageIterator() {
+            return iterator;
+        }
+
+        @Override
+        public void initMessageIterator(long nodeId) {
+            if (inboxIsEmpty) {
+                iterator.init(inbox, 0, 0);
+            } else {
+                iterator.init(inbox, offsets.get(nodeId) * dimension, offsets.get(nodeId + 1) * dimension);
+            }
+        }
+    }
+
+    /**
+     * Append-only, paged buffer of (receiver, message) pairs.
+     * Each message consists of {@code dimension} raw 64-bit values.
+     * Pages are kept when the outbox is emptied and re-used
+     * in the next superstep.
+     */
+    static final class Outbox {
+
+        private static final int PAGE_SIZE = PageUtil.pageSizeFor(Long.BYTES);
+        private static final int PAGE_SHIFT = Integer.numberOfTrailingZeros(PAGE_SIZE);
+        private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+        private final int dimension;
+        private final AllocationTracker tracker;
+        private long[][] targetPages;
+        private long[][] valuePages;
+        private long size;
+
+        static long memoryEstimation(long messageCount, int dimension) {
+            int numTargetPages = PageUtil.numPagesFor(messageCount, PAGE_SHIFT, PAGE_MASK);
+            int numValuePages = PageUtil.numPagesFor(messageCount * dimension, PAGE_SHIFT, PAGE_MASK);
+            return MemoryUsage.sizeOfObjectArray(numTargetPages) +
+                   MemoryUsage.sizeOfObjectArray(numValuePages) +
+                   (numTargetPages + numValuePages) * MemoryUsage.sizeOfLongArray(PAGE_SIZE);
+        }
+
+        Outbox(int dimension, AllocationTracker tracker) {
+            this.dimension = dimension;
+            this.tracker = tracker;
+            this.targetPages = new long[0][];
+            this.valuePages = new long[0][];
+            this.size = 0;
+        }
+
+        long size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(long target, long value) {
+            addTarget(target);
+            addValue(size, value);
+            size++;
+        }
+
+        void add(long target, double[] values) {
+            addTarget(target);
+            long valueIndex = size * dimension;
+            for (double value : values) {
+                addValue(valueIndex++, Double.doubleToRawLongBits(value));
+            }
+            size++;
+        }
+
+        private void addTarget(long target) {
+            int pageIndex = (int) (size >>> PAGE_SHIFT);
+            if (pageIndex == targetPages.length) {
+                targetPages = grow(targetPages);
+            }
+            targetPages[pageIndex][(int) (size & PAGE_MASK)] = target;
+        }
+
+        private void addValue(long valueIndex, long value) {
+            int pageIndex = (int) (valueIndex >>> PAGE_SHIFT);
+            if (pageIndex == valuePages.length) {
+                valuePages = grow(valuePages);
+            }
+            valuePages[pageIndex][(int) (valueIndex & PAGE_MASK)] = value;
+        }
+
+        private long[][] grow(long[][] pages) {
+            int numPages = pages.length;
+            pages = Arrays.copyOf(pages, numPages + 1);
+            pages[numPages] = new long[PAGE_SIZE];
+            tracker.add(MemoryUsage.sizeOfLongArray(PAGE_SIZE));
+            return pages;
+        }
+
+        void countMessages(HugeAtomicLongArray cursors) {
+            for (long i = 0; i < size; i++) {
+                cursors.getAndAdd(targetPages[(int) (i >>> PAGE_SHIFT)][(int) (i & PAGE_MASK)], 1L);
+            }
+        }
+
+        void flushMessages(HugeAtomicLongArray cursors, HugeLongArray inbox) {
+            for (long i = 0; i < size; i++) {
+                long target = targetPages[(int) (i >>> PAGE_SHIFT)][(int) (i & PAGE_MASK)];
+                long position = cursors.getAndAdd(target, 1L) * dimension;
+                long valueIndex = i * dimension;
+                for (int j = 0; j < dimension; j++, valueIndex++) {
+                    inbox.set(position + j, valuePages[(int) (valueIndex >>> PAGE_SHIFT)][(int) (valueIndex & PAGE_MASK)]);
+                }
+            }
+        }
+
+        void release() {
+            tracker.remove((targetPages.length + valuePages.length) * MemoryUsage.sizeOfLongArray(PAGE_SIZE));
+            targetPages = new long[0][];
+            valuePages = new long[0][];
+            size = 0;
+        }
+    }
+
+    static final class Iterator extends Pregel.MessageIterator {
+
+        private HugeLongArray inbox;
+        private long position;
+        private long end;
+
+        void init(HugeLongArray inbox, long start, long end) {
+            this.inbox = inbox;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        long nextBits() {
+            if (position >= end) {
+                throw new NoSuchElementException();
+            }
+            return inbox.get(position++);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return position >= end;
+        }
+    }
+}
@@ -64,6 +64,25 @@ public interface AlgoBaseConfig extends BaseConfig, ConcurrencyConfig {
             : nodeLabels().stream().map(NodeLabel::of).collect(Collectors.toList());
     }
 
+    /**
+     * Runs the algorithm on a copy of the filtered graph with its own adjacency lists,
+     * see {@link GraphStore#getMaterializedGraph(Collection, Collection, Optional)}.
+     */
+    @Value.Default
+    default boolean materializeSubgraph() {
+        return false;
+    }
+
+    /**
+     * Merges parallel relationships of the filtered graph before running the algorithm.
+     * Implies {@link #materializeSubgraph()},
+     * see {@link GraphStore#getMaterializedGraph(Collection, Collection, Optional, boolean)}.
+     */
+    @Value.Default
+    default boolean deduplicateRelationships() {
+        return false;
+    }
+
     @Configuration.Parameter
     Optional<GraphCreateConfig> implicitCreateConfig();
 
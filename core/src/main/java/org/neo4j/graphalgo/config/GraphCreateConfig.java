@@ -23,6 +23,7 @@ import org.immutables.value.Value;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.api.GraphStoreFactory;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.NodeOrder;
 import org.neo4j.graphalgo.core.utils.TimeUtil;
 
 import java.time.ZonedDateTime;
@@ -38,6 +39,7 @@ public interface GraphCreateConfig extends BaseConfig {
     String NODE_COUNT_KEY = "nodeCount";
     String RELATIONSHIP_COUNT_KEY = "relationshipCount";
     String READ_CONCURRENCY_KEY = "readConcurrency";
+    String NODE_ORDER_KEY = "nodeOrder";
 
     @Configuration.Parameter
     String graphName();
@@ -81,6 +83,15 @@ public interface GraphCreateConfig extends BaseConfig {
         return false;
     }
 
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.Key(NODE_ORDER_KEY)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.NodeOrder#parse")
+    @Configuration.ToMapValue("org.neo4j.graphalgo.core.NodeOrder#toString")
+    default NodeOrder nodeOrder() {
+        return NodeOrder.NONE;
+    }
+
     @Configuration.Ignore
     GraphStoreFactory.Supplier graphStoreFactory();
 
@@ -113,6 +124,8 @@ public interface GraphCreateConfig extends BaseConfig {
         R cypher(GraphCreateFromCypherConfig cypherConfig);
 
         R random(RandomGraphGeneratorConfig randomGraphConfig);
+
+        R file(GraphCreateFromFileConfig fileConfig);
     }
 
     interface Visitor extends Cases<Void> {
@@ -135,11 +148,19 @@ public interface GraphCreateConfig extends BaseConfig {
             return null;
         };
 
+        @Override
+        default Void file(GraphCreateFromFileConfig fileConfig) {
+            visit(fileConfig);
+            return null;
+        }
+
         default void visit(GraphCreateFromStoreConfig storeConfig) {}
 
         default void visit(GraphCreateFromCypherConfig cypherConfig) {}
 
         default void visit(RandomGraphGeneratorConfig randomGraphConfig) {}
+
+        default void visit(GraphCreateFromFileConfig fileConfig) {}
     }
 
     interface Rewriter extends Cases<GraphCreateConfig> {
@@ -159,6 +180,11 @@ public interface GraphCreateConfig extends BaseConfig {
             return randomGraphConfig;
         }
 
+        @Override
+        default GraphCreateConfig file(GraphCreateFromFileConfig fileConfig) {
+            return fileConfig;
+        }
+
         default GraphCreateConfig apply(GraphCreateConfig config) {
             return config.accept(this);
         }
@@ -28,12 +28,14 @@ import org.neo4j.graphalgo.api.GraphStore;
 import org.neo4j.graphalgo.api.GraphStoreFactory;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.loading.CypherFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import static org.neo4j.graphalgo.config.GraphCreateFromStoreConfig.NODE_PROJECTION_KEY;
 import static org.neo4j.graphalgo.config.GraphCreateFromStoreConfig.NODE_PROPERTIES_KEY;
@@ -46,6 +48,8 @@ import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
 @SuppressWarnings("immutables:subtype")
 public interface GraphCreateFromCypherConfig extends GraphCreateConfig {
 
+    Pattern PARTITION_PATTERN = Pattern.compile("\\$partition\\b");
+
     List<String> FORBIDDEN_KEYS = Arrays.asList(NODE_PROJECTION_KEY, RELATIONSHIP_PROJECTION_KEY, NODE_PROPERTIES_KEY, RELATIONSHIP_PROPERTIES_KEY);
 
     String NODE_QUERY_KEY = "nodeQuery";
@@ -53,6 +57,9 @@ public interface GraphCreateFromCypherConfig extends GraphCreateConfig {
     String ALL_NODES_QUERY = "MATCH (n) RETURN id(n) AS id";
     String ALL_RELATIONSHIPS_QUERY = "MATCH (a)-->(b) RETURN id(a) AS source, id(b) AS target";
     String ALL_RELATIONSHIPS_UNDIRECTED_QUERY = "MATCH (a)--(b) RETURN id(a) AS source, id(b) AS target";
+    String PARTITION_COUNT_KEY = "partitionCount";
+    String PARTITION_PARAMETER = "partition";
+    String PARTITION_COUNT_PARAMETER = "partitionCount";
 
     @Configuration.ConvertWith("org.apache.commons.lang3.StringUtils#trimToNull")
     String nodeQuery();
@@ -72,6 +79,53 @@ public interface GraphCreateFromCypherConfig extends GraphCreateConfig {
         return true;
     }
 
+    /**
+     * The number of partitions the relationship query is split into.
+     * Each partition runs the query concurrently with the parameters {@code $partition}
+     * and {@code $partitionCount}, the query is expected to return a disjoint subset of
+     * the relationships for every partition, e.g. by filtering on {@code id(a) % $partitionCount = $partition}.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.Key(PARTITION_COUNT_KEY)
+    @Configuration.IntegerRange(min = 1)
+    default int partitionCount() {
+        return 1;
+    }
+
+    /**
+     * The codec of the adjacency lists of all loaded relationship types,
+     * see {@link org.neo4j.graphalgo.AbstractRelationshipProjection#adjacencyCodec()}.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.huge.AdjacencyCodec#parse")
+    default AdjacencyCodec adjacencyCodec() {
+        return AdjacencyCodec.defaultCodec();
+    }
+
+    @Value.Check
+    default void validatePartitionedQuery() {
+        if (partitionCount() == 1) {
+            return;
+        }
+        if (!PARTITION_PATTERN.matcher(relationshipQuery()).find()) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "The relationship query must use the `$%s` parameter when `%s` is greater than 1.",
+                PARTITION_PARAMETER,
+                PARTITION_COUNT_KEY
+            ));
+        }
+        for (String parameter : List.of(PARTITION_PARAMETER, PARTITION_COUNT_PARAMETER)) {
+            if (parameters().containsKey(parameter)) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "The query parameter `%s` is reserved for partitioned loading.",
+                    parameter
+                ));
+            }
+        }
+    }
+
     @Configuration.Ignore
     @Override
     default GraphStoreFactory.Supplier graphStoreFactory() {
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.config;
+
+import org.immutables.value.Value;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.annotation.Configuration;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.GraphStoreFactory;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.loading.FileFactory;
+
+import java.util.List;
+
+@ValueClass
+@Configuration
+@SuppressWarnings("immutables:subtype")
+public interface GraphCreateFromFileConfig extends GraphCreateConfig {
+
+    /**
+     * CSV files with one node per line. If empty, the nodes are
+     * the distinct node ids referenced by the relationship files.
+     */
+    @Configuration.Parameter
+    List<String> nodeFiles();
+
+    /**
+     * CSV files or binary edge lists with one relationship per line or record.
+     */
+    @Configuration.Parameter
+    List<String> relationshipFiles();
+
+    @Value.Default
+    @Configuration.ConvertWith("org.neo4j.graphalgo.Orientation#parse")
+    default Orientation orientation() {
+        return Orientation.NATURAL;
+    }
+
+    @Value.Default
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.Aggregation#parse")
+    default Aggregation aggregation() {
+        return Aggregation.NONE;
+    }
+
+    /**
+     * The codec of the adjacency lists of all loaded relationship types,
+     * see {@link org.neo4j.graphalgo.AbstractRelationshipProjection#adjacencyCodec()}.
+     */
+    @Value.Default
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.huge.AdjacencyCodec#parse")
+    default AdjacencyCodec adjacencyCodec() {
+        return AdjacencyCodec.defaultCodec();
+    }
+
+    @Value.Check
+    default void validateFiles() {
+        if (nodeFiles().isEmpty() && relationshipFiles().isEmpty()) {
+            throw new IllegalArgumentException("At least one node or relationship file is required.");
+        }
+    }
+
+    @Configuration.Ignore
+    @Override
+    default GraphStoreFactory.Supplier graphStoreFactory() {
+        return loaderContext -> new FileFactory(this, loaderContext);
+    }
+
+    @Override
+    @Configuration.Ignore
+    default <R> R accept(Cases<R> visitor) {
+        return visitor.file(this);
+    }
+
+    static GraphCreateFromFileConfig of(
+        String userName,
+        String graphName,
+        List<String> nodeFiles,
+        List<String> relationshipFiles,
+        CypherMapWrapper config
+    ) {
+        return new GraphCreateFromFileConfigImpl(
+            nodeFiles,
+            relationshipFiles,
+            graphName,
+            userName,
+            config
+        );
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Describes how the internal node ids of a projected graph are assigned.
+ * Any order other than {@link #NONE} renumbers the nodes after loading,
+ * so that nodes which are accessed together are stored close to each other.
+ */
+public enum NodeOrder {
+    /**
+     * Keeps the order in which the nodes have been scanned.
+     */
+    NONE,
+    /**
+     * Sorts the nodes by descending degree, which keeps the high degree nodes
+     * and their values in a small and cache resident part of the id space.
+     */
+    DEGREE,
+    /**
+     * Numbers the nodes in breadth-first order, starting from a node of minimum degree
+     * and visiting neighbours by ascending degree (Cuthill-McKee).
+     * Neighbours receive close ids, which results in small gaps in the adjacency lists.
+     */
+    CUTHILL_MCKEE,
+    /**
+     * Groups the nodes of communities into consecutive ranges and uses the Cuthill-McKee order
+     * within and across the communities. Communities are found by greedily moving the nodes
+     * to the neighbouring community with the largest modularity gain.
+     */
+    COMMUNITY;
+
+    public static NodeOrder lookup(String name) {
+        try {
+            return NodeOrder.valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            String availableOrders = Arrays
+                .stream(NodeOrder.values())
+                .map(NodeOrder::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(formatWithLocale(
+                "Node order `%s` is not supported. Must be one of: %s.",
+                name,
+                availableOrders
+            ));
+        }
+    }
+
+    public static NodeOrder parse(Object object) {
+        if (object instanceof NodeOrder) {
+            return (NodeOrder) object;
+        }
+        if (object instanceof String) {
+            return lookup((String) object);
+        }
+        throw new IllegalArgumentException(formatWithLocale(
+            "Expected a node order, but got `%s`.",
+            object
+        ));
+    }
+
+    public static String toString(NodeOrder nodeOrder) {
+        return nodeOrder.name();
+    }
+}
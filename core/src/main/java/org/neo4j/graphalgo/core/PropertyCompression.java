@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Describes how the values of a relationship property are stored in the in-memory graph.
+ */
+public enum PropertyCompression {
+    /**
+     * Stores the full 8 byte double value.
+     */
+    NONE(Long.BYTES),
+    /**
+     * Stores the value as 4 byte float, which loses precision.
+     */
+    FLOAT(Float.BYTES),
+    /**
+     * Stores a 2 byte code per value and the distinct values in a dictionary.
+     * Supports at most {@link #MAX_DICTIONARY_SIZE} distinct values per relationship property.
+     */
+    DICTIONARY(Short.BYTES);
+
+    public static final int MAX_DICTIONARY_SIZE = 1 << Short.SIZE;
+
+    private final int bytesPerValue;
+
+    PropertyCompression(int bytesPerValue) {
+        this.bytesPerValue = bytesPerValue;
+    }
+
+    public int bytesPerValue() {
+        return bytesPerValue;
+    }
+
+    public static PropertyCompression lookup(String name) {
+        try {
+            return PropertyCompression.valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            String availableCompressions = Arrays
+                .stream(PropertyCompression.values())
+                .map(PropertyCompression::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(formatWithLocale(
+                "Property compression `%s` is not supported. Must be one of: %s.",
+                name,
+                availableCompressions
+            ));
+        }
+    }
+}
@@ -117,6 +117,10 @@ public final class Settings {
         return GraphDatabaseSettings.load_csv_file_url_root;
     }
 
+    public static Setting<Boolean> allowFileUrls() {
+        return GraphDatabaseSettings.allow_file_urls;
+    }
+
     public static Setting<Long> memoryTransactionMaxSize() {
         return Neo4jProxy.memoryTransactionMaxSize();
     }
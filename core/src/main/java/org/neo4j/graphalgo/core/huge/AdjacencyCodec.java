@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_PACKED_ADJACENCY_BLOCKS;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * The encoding of the delta-encoded target ids of a {@link TransientAdjacencyList}.
+ */
+public enum AdjacencyCodec {
+    /**
+     * Every delta is stored as a variable length long, see {@link org.neo4j.graphalgo.core.loading.VarLongEncoding}.
+     */
+    VAR_LONG,
+    /**
+     * Deltas are stored in blocks with a fixed bit width per block,
+     * see {@link org.neo4j.graphalgo.core.loading.PackedBlockEncoding}.
+     */
+    PACKED_BLOCKS;
+
+    /**
+     * The codec of projections that do not specify one,
+     * {@link #PACKED_BLOCKS} if {@link org.neo4j.graphalgo.utils.GdsFeatureToggles#USE_PACKED_ADJACENCY_BLOCKS} is enabled.
+     */
+    public static AdjacencyCodec defaultCodec() {
+        return USE_PACKED_ADJACENCY_BLOCKS.isEnabled() ? PACKED_BLOCKS : VAR_LONG;
+    }
+
+    public static AdjacencyCodec of(String value) {
+        try {
+            return AdjacencyCodec.valueOf(value.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            String availableCodecs = Arrays
+                .stream(AdjacencyCodec.values())
+                .map(AdjacencyCodec::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(formatWithLocale(
+                "Adjacency codec `%s` is not supported. Must be one of: %s.",
+                value,
+                availableCodecs
+            ));
+        }
+    }
+
+    public static AdjacencyCodec parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof String) {
+            return of((String) object);
+        }
+        if (object instanceof AdjacencyCodec) {
+            return (AdjacencyCodec) object;
+        }
+        return null;
+    }
+}
@@ -19,62 +19,89 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
 
 import java.util.Arrays;
 
+import static org.neo4j.graphalgo.core.huge.PackedBlockDecoding.decodeDeltaBlock;
 import static org.neo4j.graphalgo.core.huge.VarLongDecoding.decodeDeltaVLongs;
+import static org.neo4j.graphalgo.core.utils.mem.OffHeapMemory.getByte;
 
 final class AdjacencyDecompressingReader {
 
+    // must be equal to PackedBlockEncoding.BLOCK_SIZE, packed blocks are always decoded as a whole
     static final int CHUNK_SIZE = 64;
 
     private final long[] block;
+    private final boolean packedBlocks;
     private int pos;
-    private byte[] array;
-    private int offset;
+    // the heap page, indexed by the address, or null if the address points to off-heap memory
+    private @Nullable byte[] page;
+    private long address;
 
     private boolean blockAlreadyDecoded;
 
-    AdjacencyDecompressingReader() {
+    AdjacencyDecompressingReader(AdjacencyCodec codec) {
         this.block = new long[CHUNK_SIZE];
+        this.packedBlocks = codec == AdjacencyCodec.PACKED_BLOCKS;
         this.blockAlreadyDecoded = false;
     }
 
+    /**
+     * Reads a byte from a heap page, where the address is an index into the page, or from off-heap memory.
+     * Heap pages are read with bounds checks, only off-heap addresses are read without.
+     */
+    static byte readByte(@Nullable byte[] page, long address) {
+        return page != null ? page[(int) address] : getByte(address);
+    }
+
     //@formatter:off
-    static int readInt(byte[] array, int offset) {
-        return   array[    offset] & 255        |
-                (array[1 + offset] & 255) <<  8 |
-                (array[2 + offset] & 255) << 16 |
-                (array[3 + offset] & 255) << 24;
+    static int readInt(@Nullable byte[] page, long address) {
+        return   readByte(page,     address) & 255        |
+                (readByte(page, 1 + address) & 255) <<  8 |
+                (readByte(page, 2 + address) & 255) << 16 |
+                (readByte(page, 3 + address) & 255) << 24;
     }
     //@formatter:on
 
     //@formatter:off
-    static long readLong(byte[] array, int offset) {
-        return   array[    offset] & 255L        |
-                (array[1 + offset] & 255L) <<  8 |
-                (array[2 + offset] & 255L) << 16 |
-                (array[3 + offset] & 255L) << 24 |
-                (array[4 + offset] & 255L) << 32 |
-                (array[5 + offset] & 255L) << 40 |
-                (array[6 + offset] & 255L) << 48 |
-                (array[7 + offset] & 255L) << 56;
+    static long readLong(@Nullable byte[] page, long address) {
+        return   readByte(page,     address) & 255L        |
+                (readByte(page, 1 + address) & 255L) <<  8 |
+                (readByte(page, 2 + address) & 255L) << 16 |
+                (readByte(page, 3 + address) & 255L) << 24 |
+                (readByte(page, 4 + address) & 255L) << 32 |
+                (readByte(page, 5 + address) & 255L) << 40 |
+                (readByte(page, 6 + address) & 255L) << 48 |
+                (readByte(page, 7 + address) & 255L) << 56;
     }
     //@formatter:on
 
+    static long decodeChunk(AdjacencyCodec codec, long startValue, @Nullable byte[] page, long address, int limit, long[] out) {
+        return codec == AdjacencyCodec.PACKED_BLOCKS
+            ? decodeDeltaBlock(startValue, page, address, limit, out)
+            : decodeDeltaVLongs(startValue, page, address, limit, out);
+    }
+
+    private long decodeChunk(long startValue, @Nullable byte[] page, long address, int limit, long[] out) {
+        return packedBlocks
+            ? decodeDeltaBlock(startValue, page, address, limit, out)
+            : decodeDeltaVLongs(startValue, page, address, limit, out);
+    }
+
     void copyFrom(AdjacencyDecompressingReader other) {
         System.arraycopy(other.block, 0, block, 0, CHUNK_SIZE);
         pos = other.pos;
-        array = other.array;
-        offset = other.offset;
+        page = other.page;
+        address = other.address;
     }
 
-    int reset(byte[] adjacencyPage, int offset) {
-        this.array = adjacencyPage;
-        int numAdjacencies = readInt(adjacencyPage, offset); // offset should not be 0
-        this.offset = decodeDeltaVLongs(0L, adjacencyPage, Integer.BYTES + offset, Math.min(numAdjacencies, CHUNK_SIZE), block);
+    int reset(@Nullable byte[] adjacencyPage, long address) {
+        this.page = adjacencyPage;
+        int numAdjacencies = readInt(adjacencyPage, address); // offset should not be 0
+        this.address = decodeChunk(0L, adjacencyPage, Integer.BYTES + address, Math.min(numAdjacencies, CHUNK_SIZE), block);
         pos = 0;
         return numAdjacencies;
     }
@@ -102,7 +129,7 @@ final class AdjacencyDecompressingReader {
 
     private long readNextBlock(int remaining) {
         if (!blockAlreadyDecoded) {
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, Math.min(remaining, CHUNK_SIZE), block);
+            address = decodeChunk(block[CHUNK_SIZE - 1], page, address, Math.min(remaining, CHUNK_SIZE), block);
             return block[0];
         }
         blockAlreadyDecoded = false;
@@ -118,7 +145,7 @@ final class AdjacencyDecompressingReader {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] <= target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            address = decodeChunk(block[CHUNK_SIZE - 1], page, address, needToDecode, block);
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -145,7 +172,7 @@ final class AdjacencyDecompressingReader {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] < target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            address = decodeChunk(block[CHUNK_SIZE - 1], page, address, needToDecode, block);
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.neo4j.graphalgo.core.huge.AdjacencyDecompressingReader.CHUNK_SIZE;
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * A sparse index over the compressed adjacency lists of high degree nodes,
+ * which allows looking up a single target without decoding the full list.
+ * <p>
+ * Targets are sorted and delta-encoded, so decoding can only start at a
+ * position if the previous target is known. The index splits each indexed
+ * adjacency list into chunks of {@link AdjacencyDecompressingReader#CHUNK_SIZE}
+ * targets and stores, per chunk, the byte index of its first encoded target
+ * and the last target of the previous chunk. A lookup is a binary search over
+ * the chunks followed by decoding a single chunk, i.e. O(log(degree)) instead
+ * of O(degree).
+ * <p>
+ * Only nodes with at least {@link #MIN_DEGREE} relationships are indexed,
+ * for all other nodes a linear scan is bounded by that degree.
+ * <p>
+ * The index is split into segments of {@link #SEGMENT_SIZE} consecutive nodes.
+ * A segment is built on the first lookup of one of its nodes and only decodes
+ * the adjacency lists of its own nodes, so concurrent lookups of nodes in other
+ * segments are not blocked by it. Threads that build the same segment at the
+ * same time race for it, the losing copy is dropped.
+ * <p>
+ * The index is only used if {@link org.neo4j.graphalgo.utils.GdsFeatureToggles#USE_ADJACENCY_SKIP_INDEX}
+ * is enabled. It is owned by the graph store, which shares it between all graphs of a relationship type
+ * and releases it together with the topology.
+ */
+public final class AdjacencySkipIndex {
+
+    static final int MIN_DEGREE = 4 * CHUNK_SIZE;
+
+    static final int NOT_FOUND = -1;
+
+    static final int SEGMENT_SHIFT = 14;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    private final TransientAdjacencyList adjacencyList;
+    private final TransientAdjacencyOffsets adjacencyOffsets;
+    private final long nodeCount;
+    private final AllocationTracker tracker;
+    private final AtomicReferenceArray<Segment> segments;
+
+    // segments that are built after the index has been released are not kept
+    private volatile boolean released;
+
+    /**
+     * Creates an empty index over the given topology, its segments are built on demand.
+     */
+    public static AdjacencySkipIndex of(Relationships.Topology topology, long nodeCount, AllocationTracker tracker) {
+        return new AdjacencySkipIndex(
+            (TransientAdjacencyList) topology.list(),
+            (TransientAdjacencyOffsets) topology.offsets(),
+            nodeCount,
+            tracker
+        );
+    }
+
+    AdjacencySkipIndex(
+        TransientAdjacencyList adjacencyList,
+        TransientAdjacencyOffsets adjacencyOffsets,
+        long nodeCount,
+        AllocationTracker tracker
+    ) {
+        this.adjacencyList = adjacencyList;
+        this.adjacencyOffsets = adjacencyOffsets;
+        this.nodeCount = nodeCount;
+        this.tracker = tracker;
+        this.segments = new AtomicReferenceArray<>(Math.toIntExact(ceilDiv(nodeCount, SEGMENT_SIZE)));
+    }
+
+    /**
+     * Returns the position of the first occurrence of the target in the
+     * adjacency list of the given node or {@link #NOT_FOUND}. The node
+     * must have a degree of at least {@link #MIN_DEGREE}.
+     *
+     * @param buffer a buffer of size {@link AdjacencyDecompressingReader#CHUNK_SIZE}
+     */
+    int findPosition(long nodeId, int degree, long target, long[] buffer) {
+        return segment(nodeId).findPosition(adjacencyList, nodeId, degree, target, buffer);
+    }
+
+    /**
+     * Returns the target at the given position in the adjacency list of the given node.
+     * The node must have a degree of at least {@link #MIN_DEGREE}.
+     *
+     * @param buffer a buffer of size {@link AdjacencyDecompressingReader#CHUNK_SIZE}
+     */
+    long getTarget(long nodeId, int degree, int position, long[] buffer) {
+        return segment(nodeId).getTarget(adjacencyList, nodeId, degree, position, buffer);
+    }
+
+    /**
+     * Drops the built segments and untracks their memory. Graphs that still use the index
+     * after it has been released build the segments they need for every lookup.
+     */
+    public void release() {
+        released = true;
+        for (int i = 0; i < segments.length(); i++) {
+            var segment = segments.getAndSet(i, null);
+            if (segment != null) {
+                tracker.remove(segment.sizeOf());
+            }
+        }
+    }
+
+    private Segment segment(long nodeId) {
+        int segmentIndex = (int) (nodeId >>> SEGMENT_SHIFT);
+        var segment = segments.get(segmentIndex);
+        if (segment != null) {
+            return segment;
+        }
+
+        long start = (long) segmentIndex << SEGMENT_SHIFT;
+        long end = Math.min(start + SEGMENT_SIZE, nodeCount);
+        var newSegment = Segment.create(adjacencyList, adjacencyOffsets, start, end, tracker);
+        if (!released && segments.compareAndSet(segmentIndex, null, newSegment)) {
+            // the index might have been released before the segment was published
+            if (released && segments.compareAndSet(segmentIndex, newSegment, null)) {
+                tracker.remove(newSegment.sizeOf());
+            }
+            return newSegment;
+        }
+
+        // another thread built the segment first or the index has been released
+        tracker.remove(newSegment.sizeOf());
+        segment = segments.get(segmentIndex);
+        return segment != null ? segment : newSegment;
+    }
+
+    private static final class Segment {
+
+        // Sorted ids of the indexed nodes
+        private final HugeLongArray nodes;
+        // The chunks of nodes[i] are stored at [firstChunks[i], firstChunks[i + 1])
+        private final HugeLongArray firstChunks;
+        // The start value for decoding a chunk, i.e. the last target of the previous chunk
+        private final HugeLongArray chunkStartValues;
+        // The byte index of the first target of a chunk in the adjacency list
+        private final HugeLongArray chunkIndices;
+
+        static Segment create(
+            TransientAdjacencyList adjacencyList,
+            TransientAdjacencyOffsets adjacencyOffsets,
+            long startNode,
+            long endNode,
+            AllocationTracker tracker
+        ) {
+            long nodeCountInIndex = 0;
+            long chunkCount = 0;
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                int degree = degree(adjacencyList, adjacencyOffsets, nodeId);
+                if (degree >= MIN_DEGREE) {
+                    nodeCountInIndex++;
+                    chunkCount += ceilDiv(degree, CHUNK_SIZE);
+                }
+            }
+
+            var nodes = HugeLongArray.newArray(nodeCountInIndex, tracker);
+            var firstChunks = HugeLongArray.newArray(nodeCountInIndex + 1, tracker);
+            var chunkStartValues = HugeLongArray.newArray(chunkCount, tracker);
+            var chunkIndices = HugeLongArray.newArray(chunkCount, tracker);
+
+            long[] buffer = new long[CHUNK_SIZE];
+            long indexedNode = 0;
+            long chunk = 0;
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                int degree = degree(adjacencyList, adjacencyOffsets, nodeId);
+                if (degree < MIN_DEGREE) {
+                    continue;
+                }
+                nodes.set(indexedNode, nodeId);
+                firstChunks.set(indexedNode, chunk);
+                indexedNode++;
+
+                long index = adjacencyOffsets.get(nodeId) + Integer.BYTES;
+                long startValue = 0L;
+                for (int decoded = 0; decoded < degree; decoded += CHUNK_SIZE) {
+                    int count = Math.min(CHUNK_SIZE, degree - decoded);
+                    chunkStartValues.set(chunk, startValue);
+                    chunkIndices.set(chunk, index);
+                    chunk++;
+                    index = adjacencyList.decodeTargets(index, startValue, count, buffer);
+                    startValue = buffer[count - 1];
+                }
+            }
+            firstChunks.set(nodeCountInIndex, chunk);
+
+            return new Segment(nodes, firstChunks, chunkStartValues, chunkIndices);
+        }
+
+        private static int degree(
+            TransientAdjacencyList adjacencyList,
+            TransientAdjacencyOffsets adjacencyOffsets,
+            long nodeId
+        ) {
+            long offset = adjacencyOffsets.get(nodeId);
+            return offset == 0L ? 0 : adjacencyList.degree(offset);
+        }
+
+        private Segment(
+            HugeLongArray nodes,
+            HugeLongArray firstChunks,
+            HugeLongArray chunkStartValues,
+            HugeLongArray chunkIndices
+        ) {
+            this.nodes = nodes;
+            this.firstChunks = firstChunks;
+            this.chunkStartValues = chunkStartValues;
+            this.chunkIndices = chunkIndices;
+        }
+
+        int findPosition(TransientAdjacencyList adjacencyList, long nodeId, int degree, long target, long[] buffer) {
+            long indexedNode = indexOf(nodeId);
+            long firstChunk = firstChunks.get(indexedNode);
+            long lastChunk = firstChunks.get(indexedNode + 1) - 1;
+
+            // find the last chunk that starts before the target,
+            // the first chunk is the fallback as it starts at 0
+            long low = firstChunk + 1;
+            long high = lastChunk;
+            long chunk = firstChunk;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                if (chunkStartValues.get(mid) < target) {
+                    chunk = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            int chunkPosition = (int) (chunk - firstChunk) * CHUNK_SIZE;
+            int count = decodeChunk(adjacencyList, chunk, degree - chunkPosition, buffer);
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == target) {
+                    return chunkPosition + i;
+                }
+                if (buffer[i] > target) {
+                    break;
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        long getTarget(TransientAdjacencyList adjacencyList, long nodeId, int degree, int position, long[] buffer) {
+            long chunk = firstChunks.get(indexOf(nodeId)) + position / CHUNK_SIZE;
+            int chunkPosition = position - position % CHUNK_SIZE;
+            decodeChunk(adjacencyList, chunk, degree - chunkPosition, buffer);
+            return buffer[position % CHUNK_SIZE];
+        }
+
+        long sizeOf() {
+            return nodes.sizeOf() + firstChunks.sizeOf() + chunkStartValues.sizeOf() + chunkIndices.sizeOf();
+        }
+
+        private int decodeChunk(TransientAdjacencyList adjacencyList, long chunk, int remaining, long[] buffer) {
+            int count = Math.min(CHUNK_SIZE, remaining);
+            adjacencyList.decodeTargets(chunkIndices.get(chunk), chunkStartValues.get(chunk), count, buffer);
+            return count;
+        }
+
+        private long indexOf(long nodeId) {
+            long low = 0;
+            long high = nodes.size() - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                long midNode = nodes.get(mid);
+                if (midNode < nodeId) {
+                    low = mid + 1;
+                } else if (midNode > nodeId) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            throw new IllegalArgumentException(formatWithLocale("Node %d is not indexed.", nodeId));
+        }
+    }
+}
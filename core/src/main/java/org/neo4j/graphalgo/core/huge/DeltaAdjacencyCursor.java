@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
+import org.neo4j.graphalgo.api.AdjacencyOffsets;
+import org.neo4j.graphalgo.api.PropertyCursor;
+
+/**
+ * Merges the targets of an underlying adjacency list with the inserted targets of a {@link RelationshipsDelta}
+ * and skips the tombstoned ones. The targets are returned in ascending order; for equal targets, the ones
+ * of the underlying adjacency list come first.
+ *
+ * If the cursor is created for a relationship property, the property of the last returned target
+ * is available via {@link #property()} or, for consumers that expect a separate cursor, via {@link #propertyCursor()}.
+ */
+public final class DeltaAdjacencyCursor implements AdjacencyCursor {
+
+    private static final long[] NO_TARGETS = new long[0];
+    private static final double[] NO_PROPERTIES = new double[0];
+
+    private final RelationshipsDelta delta;
+    private final AdjacencyOffsets offsets;
+    private final TransientAdjacencyList.DecompressingCursor baseCursor;
+    private final TransientAdjacencyList.DecompressingCursor emptyCursor;
+    private final int propertyIndex;
+    private final @Nullable TransientAdjacencyList properties;
+    private final @Nullable AdjacencyOffsets propertyOffsets;
+
+    private TransientAdjacencyList.DecompressingCursor base;
+    private @Nullable PropertyCursor baseProperties;
+
+    private long[] insertedTargets;
+    private double[] insertedProperties;
+    private int insertedIndex;
+    private long[] removedTargets;
+    private int removedIndex;
+
+    private int size;
+    private int consumed;
+    private boolean hasNext;
+    private long next;
+    private double nextProperty;
+    private double property;
+
+    DeltaAdjacencyCursor(
+        RelationshipsDelta delta,
+        TransientAdjacencyList adjacencyList,
+        AdjacencyOffsets offsets,
+        int propertyIndex,
+        @Nullable TransientAdjacencyList properties,
+        @Nullable AdjacencyOffsets propertyOffsets
+    ) {
+        this.delta = delta;
+        this.offsets = offsets;
+        this.baseCursor = adjacencyList.rawDecompressingCursor();
+        this.emptyCursor = adjacencyList.rawDecompressingCursor();
+        this.propertyIndex = propertyIndex;
+        this.properties = properties;
+        this.propertyOffsets = propertyOffsets;
+        this.base = emptyCursor;
+        this.insertedTargets = NO_TARGETS;
+        this.insertedProperties = NO_PROPERTIES;
+        this.removedTargets = NO_TARGETS;
+    }
+
+    DeltaAdjacencyCursor init(long nodeId) {
+        long offset = offsets.get(nodeId);
+        base = offset == 0L ? emptyCursor : TransientAdjacencyList.decompressingCursor(baseCursor, offset);
+
+        baseProperties = null;
+        if (properties != null && propertyOffsets != null) {
+            long propertyOffset = propertyOffsets.get(nodeId);
+            if (propertyOffset != 0L) {
+                baseProperties = properties.cursor(propertyOffset);
+            }
+        }
+
+        var nodeDelta = delta.get(nodeId);
+        if (nodeDelta != null) {
+            insertedTargets = nodeDelta.insertedTargets();
+            insertedProperties = propertyIndex >= 0 ? nodeDelta.insertedProperties(propertyIndex) : NO_PROPERTIES;
+            removedTargets = nodeDelta.removedTargets();
+            size = nodeDelta.degree(base.size());
+        } else {
+            insertedTargets = NO_TARGETS;
+            insertedProperties = NO_PROPERTIES;
+            removedTargets = NO_TARGETS;
+            size = base.size();
+        }
+        insertedIndex = 0;
+        removedIndex = 0;
+        consumed = 0;
+        property = Double.NaN;
+        computeNext();
+        return this;
+    }
+
+    /**
+     * Copy iteration state from another cursor without changing {@code other}.
+     * The base property cursor is not copied, this is only used for intersecting topologies.
+     */
+    void copyFrom(DeltaAdjacencyCursor other) {
+        if (other.base == other.emptyCursor) {
+            base = emptyCursor;
+        } else {
+            baseCursor.copyFrom(other.base);
+            base = baseCursor;
+        }
+        baseProperties = null;
+        insertedTargets = other.insertedTargets;
+        insertedProperties = other.insertedProperties;
+        insertedIndex = other.insertedIndex;
+        removedTargets = other.removedTargets;
+        removedIndex = other.removedIndex;
+        size = other.size;
+        consumed = other.consumed;
+        hasNext = other.hasNext;
+        next = other.next;
+        nextProperty = other.nextProperty;
+        property = other.property;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int remaining() {
+        return size - consumed;
+    }
+
+    @Override
+    public boolean hasNextVLong() {
+        return hasNext;
+    }
+
+    @Override
+    public long nextVLong() {
+        long target = next;
+        property = nextProperty;
+        consumed++;
+        computeNext();
+        return target;
+    }
+
+    @Override
+    public long peekVLong() {
+        return next;
+    }
+
+    /**
+     * The relationship property of the target that has last been returned by {@link #nextVLong()}.
+     */
+    public double property() {
+        return property;
+    }
+
+    /**
+     * A view of the relationship properties, aligned with the targets of this cursor.
+     */
+    public PropertyCursor propertyCursor() {
+        return new PropertyCursor() {
+            @Override
+            public boolean hasNextLong() {
+                return consumed > 0;
+            }
+
+            @Override
+            public long nextLong() {
+                return Double.doubleToRawLongBits(property);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void computeNext() {
+        while (base.hasNextVLong()) {
+            if (insertedIndex < insertedTargets.length && insertedTargets[insertedIndex] < base.peekVLong()) {
+                break;
+            }
+            long target = base.nextVLong();
+            double baseProperty = baseProperties != null
+                ? Double.longBitsToDouble(baseProperties.nextLong())
+                : Double.NaN;
+            if (!isRemoved(target)) {
+                setNext(target, baseProperty);
+                return;
+            }
+        }
+
+        if (insertedIndex < insertedTargets.length) {
+            double insertedProperty = insertedIndex < insertedProperties.length
+                ? insertedProperties[insertedIndex]
+                : Double.NaN;
+            setNext(insertedTargets[insertedIndex++], insertedProperty);
+        } else {
+            hasNext = false;
+        }
+    }
+
+    private void setNext(long target, double targetProperty) {
+        hasNext = true;
+        next = target;
+        nextProperty = targetProperty;
+    }
+
+    private boolean isRemoved(long target) {
+        // the targets of the underlying adjacency list are sorted, the tombstones can be visited in a single pass
+        while (removedIndex < removedTargets.length && removedTargets[removedIndex] < target) {
+            removedIndex++;
+        }
+        return removedIndex < removedTargets.length && removedTargets[removedIndex] == target;
+    }
+}
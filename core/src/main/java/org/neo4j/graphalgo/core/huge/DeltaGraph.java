@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.CSRFilterGraph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipCursor;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.core.loading.DeltaCompaction;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.neo4j.graphalgo.core.huge.HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND;
+
+/**
+ * A {@link HugeGraph} with a {@link RelationshipsDelta} applied on top of it.
+ *
+ * Nodes without changes are served by the underlying graph, the adjacency of changed nodes is
+ * read through a {@link DeltaAdjacencyCursor}. Degrees are O(1), point lookups are O(log(degree)).
+ * The delta is immutable, so the graph keeps showing the same relationships while further batches are applied.
+ * The inverse index of a directed graph is read the same way, with the {@link RelationshipsDelta#inverse() inverse delta}
+ * on top of the inverse adjacency lists.
+ *
+ * Direct access to the {@link #relationshipTopology() topology} compacts the delta into a new adjacency list
+ * on first use.
+ */
+public class DeltaGraph extends CSRFilterGraph {
+
+    private final HugeGraph baseGraph;
+    private final RelationshipsDelta delta;
+    private final Optional<String> maybePropertyKey;
+    private final int propertyIndex;
+    private final double defaultPropertyValue;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+
+    private final DeltaAdjacencyCursor cursorCache;
+    private final @Nullable DeltaAdjacencyCursor inverseCursorCache;
+    private @Nullable Relationships compactedRelationships;
+
+    public DeltaGraph(
+        HugeGraph baseGraph,
+        RelationshipsDelta delta,
+        Optional<String> maybePropertyKey,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        super(baseGraph);
+        this.baseGraph = baseGraph;
+        this.delta = delta;
+        this.maybePropertyKey = maybePropertyKey;
+        this.propertyIndex = maybePropertyKey.map(delta.propertyKeys()::indexOf).orElse(-1);
+        this.defaultPropertyValue = baseGraph
+            .relationships()
+            .properties()
+            .map(Relationships.Properties::defaultPropertyValue)
+            .orElse(Double.NaN);
+        this.concurrency = concurrency;
+        this.tracker = tracker;
+        this.cursorCache = newCursor();
+        this.inverseCursorCache = hasInverseDelta() ? newInverseCursor() : null;
+    }
+
+    public HugeGraph baseGraph() {
+        return baseGraph;
+    }
+
+    public RelationshipsDelta delta() {
+        return delta;
+    }
+
+    @Override
+    public long relationshipCount() {
+        return baseGraph.relationshipCount() + delta.insertedCount() - delta.removedCount();
+    }
+
+    @Override
+    public boolean isMultiGraph() {
+        return delta.isMultiGraph();
+    }
+
+    @Override
+    public int degree(long nodeId) {
+        var nodeDelta = delta.get(nodeId);
+        return nodeDelta == null
+            ? baseGraph.degree(nodeId)
+            : nodeDelta.degree(baseGraph.degree(nodeId));
+    }
+
+    @Override
+    public int degreeWithoutParallelRelationships(long nodeId) {
+        if (delta.get(nodeId) == null) {
+            return baseGraph.degreeWithoutParallelRelationships(nodeId);
+        }
+        if (!isMultiGraph()) {
+            return degree(nodeId);
+        }
+        var cursor = cursorCache.init(nodeId);
+        int degree = 0;
+        long previousTarget = -1L;
+        while (cursor.hasNextVLong()) {
+            long target = cursor.nextVLong();
+            if (target != previousTarget) {
+                degree++;
+                previousTarget = target;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public void forEachRelationship(long nodeId, RelationshipConsumer consumer) {
+        if (delta.get(nodeId) == null) {
+            baseGraph.forEachRelationship(nodeId, consumer);
+            return;
+        }
+        var cursor = cursorCache.init(nodeId);
+        while (cursor.hasNextVLong()) {
+            if (!consumer.accept(nodeId, cursor.nextVLong())) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void forEachRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        if (delta.get(nodeId) == null) {
+            baseGraph.forEachRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        if (!hasRelationshipProperty()) {
+            forEachRelationship(nodeId, (source, target) -> consumer.accept(source, target, fallbackValue));
+            return;
+        }
+        var cursor = cursorCache.init(nodeId);
+        while (cursor.hasNextVLong()) {
+            long target = cursor.nextVLong();
+            if (!consumer.accept(nodeId, target, cursor.property())) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public boolean isInverseIndexed() {
+        return isUndirected() || hasInverseDelta();
+    }
+
+    @Override
+    public int degreeInverse(long nodeId) {
+        if (isUndirected()) {
+            return degree(nodeId);
+        }
+        requireInverseDelta();
+        var nodeDelta = delta.inverse().get(nodeId);
+        return nodeDelta == null
+            ? baseGraph.degreeInverse(nodeId)
+            : nodeDelta.degree(baseGraph.degreeInverse(nodeId));
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        if (isUndirected()) {
+            forEachRelationship(nodeId, consumer);
+            return;
+        }
+        requireInverseDelta();
+        if (delta.inverse().get(nodeId) == null) {
+            baseGraph.forEachInverseRelationship(nodeId, consumer);
+            return;
+        }
+        var cursor = inverseCursorCache.init(nodeId);
+        while (cursor.hasNextVLong()) {
+            if (!consumer.accept(nodeId, cursor.nextVLong())) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        if (isUndirected()) {
+            forEachRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        requireInverseDelta();
+        if (delta.inverse().get(nodeId) == null) {
+            baseGraph.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        if (!hasRelationshipProperty()) {
+            forEachInverseRelationship(nodeId, (source, target) -> consumer.accept(source, target, fallbackValue));
+            return;
+        }
+        var cursor = inverseCursorCache.init(nodeId);
+        while (cursor.hasNextVLong()) {
+            long target = cursor.nextVLong();
+            if (!consumer.accept(nodeId, target, cursor.property())) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public Stream<RelationshipCursor> streamRelationships(long nodeId, double fallbackValue) {
+        if (delta.get(nodeId) == null) {
+            return baseGraph.streamRelationships(nodeId, fallbackValue);
+        }
+        // the stream is consumed lazily, it cannot share the cached cursor
+        var cursor = newCursor().init(nodeId);
+        var spliterator = !hasRelationshipProperty()
+            ? AdjacencySpliterator.of(cursor, nodeId, fallbackValue)
+            : AdjacencySpliterator.of(cursor, cursor.propertyCursor(), nodeId);
+
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public long getTarget(long nodeId, long index) {
+        if (delta.get(nodeId) == null) {
+            return baseGraph.getTarget(nodeId, index);
+        }
+        if (index < 0 || index >= degree(nodeId)) {
+            return TARGET_NOT_FOUND;
+        }
+        var consumer = new HugeGraph.GetTargetConsumer(index);
+        forEachRelationship(nodeId, consumer);
+        return consumer.target;
+    }
+
+    @Override
+    public boolean exists(long sourceNodeId, long targetNodeId) {
+        var nodeDelta = delta.get(sourceNodeId);
+        if (nodeDelta == null) {
+            return baseGraph.exists(sourceNodeId, targetNodeId);
+        }
+        return nodeDelta.isInserted(targetNodeId)
+               || (!nodeDelta.isRemoved(targetNodeId) && baseGraph.exists(sourceNodeId, targetNodeId));
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId) {
+        return relationshipProperty(sourceNodeId, targetNodeId, defaultPropertyValue);
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId, double fallbackValue) {
+        var nodeDelta = delta.get(sourceNodeId);
+        if (nodeDelta == null || !hasRelationshipProperty()) {
+            return baseGraph.relationshipProperty(sourceNodeId, targetNodeId, fallbackValue);
+        }
+        // for parallel relationships, the ones of the underlying graph come first
+        if (!nodeDelta.isRemoved(targetNodeId) && baseGraph.exists(sourceNodeId, targetNodeId)) {
+            return baseGraph.relationshipProperty(sourceNodeId, targetNodeId, fallbackValue);
+        }
+        long[] insertedTargets = nodeDelta.insertedTargets();
+        for (int i = 0; i < insertedTargets.length && insertedTargets[i] <= targetNodeId; i++) {
+            if (insertedTargets[i] == targetNodeId) {
+                return nodeDelta.insertedProperties(propertyIndex)[i];
+            }
+        }
+        return fallbackValue;
+    }
+
+    @Override
+    public RelationshipIntersect intersection() {
+        return intersection(Long.MAX_VALUE);
+    }
+
+    @Override
+    public RelationshipIntersect intersection(long maxDegree) {
+        return new DeltaGraphIntersect(this, this::newCursor, maxDegree);
+    }
+
+    @Override
+    public DeltaGraph concurrentCopy() {
+        return new DeltaGraph(baseGraph.concurrentCopy(), delta, maybePropertyKey, concurrency, tracker);
+    }
+
+    @Override
+    public synchronized Relationships.Topology relationshipTopology() {
+        if (compactedRelationships == null) {
+            compactedRelationships = DeltaCompaction.compact(List.of(this), concurrency, tracker).get(0);
+        }
+        return compactedRelationships.topology();
+    }
+
+    private boolean hasInverseDelta() {
+        return delta.inverse() != null && baseGraph.isInverseIndexed();
+    }
+
+    private void requireInverseDelta() {
+        if (!hasInverseDelta()) {
+            throw new UnsupportedOperationException(
+                "Cannot access incoming relationships, the relationships have not been projected with an inverse index."
+            );
+        }
+    }
+
+    private DeltaAdjacencyCursor newCursor() {
+        return newCursor(delta, baseGraph.relationships());
+    }
+
+    private DeltaAdjacencyCursor newInverseCursor() {
+        // .get() is safe, since the base graph is inverse indexed
+        return newCursor(delta.inverse(), baseGraph.relationships().inverse().get());
+    }
+
+    private DeltaAdjacencyCursor newCursor(RelationshipsDelta delta, Relationships relationships) {
+        var maybeProperties = relationships.properties().filter(ignored -> propertyIndex >= 0);
+        return new DeltaAdjacencyCursor(
+            delta,
+            (TransientAdjacencyList) relationships.topology().list(),
+            relationships.topology().offsets(),
+            propertyIndex,
+            maybeProperties.map(properties -> (TransientAdjacencyList) properties.list()).orElse(null),
+            maybeProperties.map(Relationships.Properties::offsets).orElse(null)
+        );
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.AdjacencyCursor;
+
+import java.util.function.Supplier;
+
+class DeltaGraphIntersect extends GraphIntersect<DeltaAdjacencyCursor> {
+
+    private final DeltaGraph graph;
+
+    DeltaGraphIntersect(DeltaGraph graph, Supplier<DeltaAdjacencyCursor> cursors, long maxDegree) {
+        super(
+            cursors.get(),
+            cursors.get(),
+            cursors.get(),
+            cursors.get(),
+            maxDegree
+        );
+        this.graph = graph;
+    }
+
+    @Override
+    protected long skipUntil(DeltaAdjacencyCursor cursor, long target) {
+        while (cursor.hasNextVLong() && cursor.peekVLong() <= target) {
+            cursor.nextVLong();
+        }
+        return cursor.hasNextVLong() ? cursor.nextVLong() : AdjacencyCursor.NOT_FOUND;
+    }
+
+    @Override
+    protected long advance(DeltaAdjacencyCursor cursor, long target) {
+        while (cursor.hasNextVLong() && cursor.peekVLong() < target) {
+            cursor.nextVLong();
+        }
+        return cursor.hasNextVLong() ? cursor.nextVLong() : AdjacencyCursor.NOT_FOUND;
+    }
+
+    @Override
+    protected void copyFrom(DeltaAdjacencyCursor sourceCursor, DeltaAdjacencyCursor targetCursor) {
+        targetCursor.copyFrom(sourceCursor);
+    }
+
+    @Override
+    protected DeltaAdjacencyCursor cursor(long node, DeltaAdjacencyCursor reuse) {
+        return reuse.init(node);
+    }
+
+    @Override
+    protected int degree(long node) {
+        return graph.degree(node);
+    }
+}
@@ -77,6 +77,15 @@ import static org.neo4j.graphalgo.core.utils.GenericUtil.castOrThrow;
  * and gives access to this data during import. Synchronization between threads only
  * has to happen when a new chunk has to be pre-allocated. This is similar to
  * what most garbage collectors do with TLAB allocations.
+ * <p>
+ * Point lookups, i.e. {@link #exists}, {@link #getTarget} and {@link #relationshipProperty},
+ * can use an {@link AdjacencySkipIndex} for high degree nodes. The index is owned by the graph store
+ * and shared by all graphs of a relationship type, each of its segments is built on the first lookup
+ * of a node in it.
+ * <p>
+ * Directed graphs can carry an inverse index in the same format, which stores the incoming
+ * relationships of every node. It shares the id space of the graph and is read through
+ * {@link #forEachInverseRelationship} and {@link #degreeInverse}.
  *
  * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">more abount vlong</a>
  * @see <a href="https://shipilev.net/jvm-anatomy-park/4-tlab-allocation/">more abount TLAB allocation</a>
@@ -102,8 +111,19 @@ public class HugeGraph implements CSRGraph {
     private @Nullable TransientAdjacencyList properties;
     private @Nullable TransientAdjacencyOffsets propertyOffsets;
 
+    // only present if the incoming relationships of a directed graph were projected
+    private @Nullable TransientAdjacencyList inverseAdjacencyList;
+    private @Nullable TransientAdjacencyOffsets inverseAdjacencyOffsets;
+    private @Nullable TransientAdjacencyList inverseProperties;
+    private @Nullable TransientAdjacencyOffsets inversePropertyOffsets;
+
     private DecompressingCursor emptyCursor;
     private DecompressingCursor cursorCache;
+    private DecompressingCursor inverseCursorCache;
+
+    // owned by the graph store, only present if the skip index is enabled
+    private final @Nullable AdjacencySkipIndex skipIndex;
+    private final long[] skipIndexBuffer;
 
     private boolean canRelease = true;
 
@@ -118,6 +138,24 @@ public class HugeGraph implements CSRGraph {
         Optional<Relationships.Properties> maybeProperties,
         AllocationTracker tracker
     ) {
+        return create(nodes, schema, nodeProperties, topology, maybeProperties, null, tracker);
+    }
+
+    /**
+     * @param skipIndex an index over the given topology for point lookups on high degree nodes,
+     *                  which is not released together with the graph
+     */
+    public static HugeGraph create(
+        IdMap nodes,
+        GraphSchema schema,
+        Map<String, NodeProperties> nodeProperties,
+        Relationships.Topology topology,
+        Optional<Relationships.Properties> maybeProperties,
+        @Nullable AdjacencySkipIndex skipIndex,
+        AllocationTracker tracker
+    ) {
+        var maybeInverseTopology = topology.inverse();
+        var maybeInverseProperties = maybeProperties.flatMap(Relationships.Topology::inverse);
         return new HugeGraph(
             nodes,
             schema,
@@ -129,8 +167,13 @@ public class HugeGraph implements CSRGraph {
             maybeProperties.map(Relationships.Properties::defaultPropertyValue).orElse(Double.NaN),
             maybeProperties.map(Relationships.Properties::list).map(castOrThrow(TransientAdjacencyList.class)).orElse(null),
             maybeProperties.map(Relationships.Properties::offsets).map(castOrThrow(TransientAdjacencyOffsets.class)).orElse(null),
+            maybeInverseTopology.map(Relationships.Topology::list).map(castOrThrow(TransientAdjacencyList.class)).orElse(null),
+            maybeInverseTopology.map(Relationships.Topology::offsets).map(castOrThrow(TransientAdjacencyOffsets.class)).orElse(null),
+            maybeInverseProperties.map(Relationships.Topology::list).map(castOrThrow(TransientAdjacencyList.class)).orElse(null),
+            maybeInverseProperties.map(Relationships.Topology::offsets).map(castOrThrow(TransientAdjacencyOffsets.class)).orElse(null),
             topology.orientation(),
             topology.isMultiGraph(),
+            skipIndex,
             tracker
         );
     }
@@ -149,6 +192,48 @@ public class HugeGraph implements CSRGraph {
         Orientation orientation,
         boolean isMultiGraph,
         AllocationTracker tracker
+    ) {
+        this(
+            idMapping,
+            schema,
+            nodeProperties,
+            relationshipCount,
+            adjacencyList,
+            adjacencyOffsets,
+            hasRelationshipProperty,
+            defaultPropertyValue,
+            properties,
+            propertyOffsets,
+            null,
+            null,
+            null,
+            null,
+            orientation,
+            isMultiGraph,
+            null,
+            tracker
+        );
+    }
+
+    private HugeGraph(
+        IdMap idMapping,
+        GraphSchema schema,
+        Map<String, NodeProperties> nodeProperties,
+        long relationshipCount,
+        TransientAdjacencyList adjacencyList,
+        TransientAdjacencyOffsets adjacencyOffsets,
+        boolean hasRelationshipProperty,
+        double defaultPropertyValue,
+        @Nullable TransientAdjacencyList properties,
+        @Nullable TransientAdjacencyOffsets propertyOffsets,
+        @Nullable TransientAdjacencyList inverseAdjacencyList,
+        @Nullable TransientAdjacencyOffsets inverseAdjacencyOffsets,
+        @Nullable TransientAdjacencyList inverseProperties,
+        @Nullable TransientAdjacencyOffsets inversePropertyOffsets,
+        Orientation orientation,
+        boolean isMultiGraph,
+        @Nullable AdjacencySkipIndex skipIndex,
+        AllocationTracker tracker
     ) {
         this.idMapping = idMapping;
         this.schema = schema;
@@ -161,10 +246,17 @@ public class HugeGraph implements CSRGraph {
         this.defaultPropertyValue = defaultPropertyValue;
         this.properties = properties;
         this.propertyOffsets = propertyOffsets;
+        this.inverseAdjacencyList = inverseAdjacencyList;
+        this.inverseAdjacencyOffsets = inverseAdjacencyOffsets;
+        this.inverseProperties = inverseProperties;
+        this.inversePropertyOffsets = inversePropertyOffsets;
         this.orientation = orientation;
         this.hasRelationshipProperty = hasRelationshipProperty;
         this.cursorCache = newAdjacencyCursor(this.adjacencyList);
         this.emptyCursor = newAdjacencyCursor(this.adjacencyList);
+        this.inverseCursorCache = newAdjacencyCursor(this.inverseAdjacencyList);
+        this.skipIndex = skipIndex;
+        this.skipIndexBuffer = new long[AdjacencyDecompressingReader.CHUNK_SIZE];
     }
 
     @Override
@@ -232,25 +324,47 @@ public class HugeGraph implements CSRGraph {
     }
 
     private double findPropertyValue(long fromId, long toId) {
-        long relOffset = adjacencyOffsets.get(fromId);
-        if (relOffset == NO_SUCH_NODE) {
+        int position = findPosition(fromId, toId);
+        if (position == AdjacencySkipIndex.NOT_FOUND) {
             return NO_PROPERTY_VALUE;
         }
         long propertyOffset = propertyOffsets.get(fromId);
+        if (propertyOffset == NO_SUCH_NODE) {
+            return NO_PROPERTY_VALUE;
+        }
 
-        DecompressingCursor relDecompressingCursor = adjacencyList.decompressingCursor(relOffset);
-        Cursor propertyCursor = properties.cursor(propertyOffset);
+        long doubleBits = properties.readLong(propertyOffset, position);
+        return Double.longBitsToDouble(doubleBits);
+    }
 
-        while (relDecompressingCursor.hasNextVLong() && propertyCursor.hasNextLong() && relDecompressingCursor.nextVLong() != toId) {
-            propertyCursor.nextLong();
+    /**
+     * Returns the position of the first relationship to the target node
+     * in the sorted adjacency list of the source node, or
+     * {@link AdjacencySkipIndex#NOT_FOUND}.
+     */
+    private int findPosition(long sourceId, long targetId) {
+        long offset = adjacencyOffsets.get(sourceId);
+        if (offset == NO_SUCH_NODE) {
+            return AdjacencySkipIndex.NOT_FOUND;
         }
-
-        if (!propertyCursor.hasNextLong()) {
-            return NO_PROPERTY_VALUE;
+        int degree = adjacencyList.degree(offset);
+        if (skipIndex != null && degree >= AdjacencySkipIndex.MIN_DEGREE) {
+            return skipIndex.findPosition(sourceId, degree, targetId, skipIndexBuffer);
         }
 
-        long doubleBits = propertyCursor.nextLong();
-        return Double.longBitsToDouble(doubleBits);
+        var adjacencyCursor = TransientAdjacencyList.decompressingCursor(cursorCache, offset);
+        int position = 0;
+        while (adjacencyCursor.hasNextVLong()) {
+            long target = adjacencyCursor.nextVLong();
+            if (target == targetId) {
+                return position;
+            }
+            if (target > targetId) {
+                break;
+            }
+            position++;
+        }
+        return AdjacencySkipIndex.NOT_FOUND;
     }
 
     @Override
@@ -295,6 +409,54 @@ public class HugeGraph implements CSRGraph {
         return adjacencyList.degree(offset);
     }
 
+    @Override
+    public boolean isInverseIndexed() {
+        return isUndirected() || inverseAdjacencyOffsets != null;
+    }
+
+    @Override
+    public int degreeInverse(long nodeId) {
+        if (inverseAdjacencyOffsets == null) {
+            return CSRGraph.super.degreeInverse(nodeId);
+        }
+        long offset = inverseAdjacencyOffsets.get(nodeId);
+        if (offset == 0L) {
+            return 0;
+        }
+        return inverseAdjacencyList.degree(offset);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        if (inverseAdjacencyOffsets == null) {
+            CSRGraph.super.forEachInverseRelationship(nodeId, consumer);
+            return;
+        }
+        consumeAdjacentNodes(nodeId, inverseAdjacencyCursorForIteration(nodeId), consumer);
+    }
+
+    @Override
+    public void forEachInverseRelationship(
+        long nodeId,
+        double fallbackValue,
+        RelationshipWithPropertyConsumer consumer
+    ) {
+        if (inverseAdjacencyOffsets == null) {
+            CSRGraph.super.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+        } else if (!hasRelationshipProperty()) {
+            forEachInverseRelationship(nodeId, (s, t) -> consumer.accept(s, t, fallbackValue));
+        } else {
+            try (var propertyCursor = inversePropertyCursorForIteration(nodeId)) {
+                consumeAdjacentNodesWithProperty(
+                    nodeId,
+                    inverseAdjacencyCursorForIteration(nodeId),
+                    propertyCursor,
+                    consumer
+                );
+            }
+        }
+    }
+
     @Override
     public int degreeWithoutParallelRelationships(long nodeId) {
         if (!isMultiGraph()) {
@@ -333,8 +495,13 @@ public class HugeGraph implements CSRGraph {
             defaultPropertyValue,
             properties,
             propertyOffsets,
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
             orientation,
             isMultiGraph,
+            skipIndex,
             tracker
         );
     }
@@ -345,20 +512,25 @@ public class HugeGraph implements CSRGraph {
     }
 
     /**
-     * O(n) !
+     * O(log(degree)) for high degree nodes if the graph has an {@link AdjacencySkipIndex}.
      */
     @Override
     public boolean exists(long sourceNodeId, long targetNodeId) {
-        ExistsConsumer consumer = new ExistsConsumer(targetNodeId);
-        runForEach(sourceNodeId, consumer);
-        return consumer.found;
+        return findPosition(sourceNodeId, targetNodeId) != AdjacencySkipIndex.NOT_FOUND;
     }
 
     /*
-     * O(n) !
+     * O(1) for high degree nodes if the graph has an {@link AdjacencySkipIndex}.
      */
     @Override
     public long getTarget(long sourceNodeId, long index) {
+        int degree = degree(sourceNodeId);
+        if (index < 0 || index >= degree) {
+            return GetTargetConsumer.TARGET_NOT_FOUND;
+        }
+        if (skipIndex != null && degree >= AdjacencySkipIndex.MIN_DEGREE) {
+            return skipIndex.getTarget(sourceNodeId, degree, (int) index, skipIndexBuffer);
+        }
         GetTargetConsumer consumer = new GetTargetConsumer(index);
         runForEach(sourceNodeId, consumer);
         return consumer.target;
@@ -374,8 +546,10 @@ public class HugeGraph implements CSRGraph {
             runForEach(sourceId, (s, t) -> consumer.accept(s, t, fallbackValue));
         } else {
             var adjacencyCursor = adjacencyCursorForIteration(sourceId);
-            var propertyCursor = propertyCursorForIteration(sourceId);
-            consumeAdjacentNodesWithProperty(sourceId, adjacencyCursor, propertyCursor, consumer);
+            // property cursors are not cached, closing them releases their reference to off-heap pages
+            try (var propertyCursor = propertyCursorForIteration(sourceId)) {
+                consumeAdjacentNodesWithProperty(sourceId, adjacencyCursor, propertyCursor, consumer);
+            }
         }
     }
 
@@ -391,6 +565,27 @@ public class HugeGraph implements CSRGraph {
 
     }
 
+    private DecompressingCursor inverseAdjacencyCursorForIteration(long targetNodeId) {
+        long offset = inverseAdjacencyOffsets.get(targetNodeId);
+        if (offset == 0L) {
+            return emptyCursor;
+        }
+        return TransientAdjacencyList.decompressingCursor(inverseCursorCache, offset);
+    }
+
+    private Cursor inversePropertyCursorForIteration(long targetNodeId) {
+        if (inversePropertyOffsets == null) {
+            throw new UnsupportedOperationException(
+                "Can not create inverse property cursor on a graph without inverse relationship property");
+        }
+
+        long offset = inversePropertyOffsets.get(targetNodeId);
+        if (offset == 0L) {
+            return Cursor.EMPTY;
+        }
+        return inverseProperties.cursor(offset);
+    }
+
     private Cursor propertyCursorForIteration(long sourceNodeId) {
         if (!hasRelationshipProperty()) {
             throw new UnsupportedOperationException(
@@ -427,8 +622,33 @@ public class HugeGraph implements CSRGraph {
                 propertyOffsets = null;
             }
         }
+        if (inverseAdjacencyList != null) {
+            inverseAdjacencyList.close();
+            inverseAdjacencyList = null;
+            inverseAdjacencyOffsets.close();
+            inverseAdjacencyOffsets = null;
+            if (inverseProperties != null) {
+                inverseProperties.close();
+                inverseProperties = null;
+            }
+            if (inversePropertyOffsets != null) {
+                inversePropertyOffsets.close();
+                inversePropertyOffsets = null;
+            }
+        }
+        // the cursors keep off-heap pages alive, which are freed once the lists and all their cursors are closed
+        closeCursor(emptyCursor);
+        closeCursor(cursorCache);
+        closeCursor(inverseCursorCache);
         emptyCursor = null;
         cursorCache = null;
+        inverseCursorCache = null;
+    }
+
+    private static void closeCursor(@Nullable DecompressingCursor cursor) {
+        if (cursor != null) {
+            cursor.close();
+        }
     }
 
     @Override
@@ -451,7 +671,7 @@ public class HugeGraph implements CSRGraph {
     }
 
     public Relationships relationships() {
-        return Relationships.of(
+        var relationships = Relationships.of(
             relationshipCount,
             orientation,
             isMultiGraph(),
@@ -461,6 +681,19 @@ public class HugeGraph implements CSRGraph {
             propertyOffsets,
             defaultPropertyValue
         );
+        if (inverseAdjacencyList == null) {
+            return relationships;
+        }
+        return relationships.withInverse(Relationships.of(
+            relationshipCount,
+            orientation,
+            isMultiGraph(),
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
+            defaultPropertyValue
+        ));
     }
 
     @Override
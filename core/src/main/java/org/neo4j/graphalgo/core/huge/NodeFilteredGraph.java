@@ -35,6 +35,7 @@ import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterable
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterator;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.LongPredicate;
 
@@ -82,6 +83,11 @@ public class NodeFilteredGraph extends CSRFilterGraph {
         return super.degreeWithoutParallelRelationships(filteredIdMap.toOriginalNodeId(nodeId));
     }
 
+    @Override
+    public int degreeInverse(long nodeId) {
+        return super.degreeInverse(filteredIdMap.toOriginalNodeId(nodeId));
+    }
+
     @Override
     public long nodeCount() {
         return filteredIdMap.nodeCount();
@@ -114,6 +120,18 @@ public class NodeFilteredGraph extends CSRFilterGraph {
         super.forEachRelationship(filteredIdMap.toOriginalNodeId(nodeId), fallbackValue, (s, t, p) -> filterAndConsume(s, t, p, consumer));
     }
 
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        super.forEachInverseRelationship(filteredIdMap.toOriginalNodeId(nodeId), (s, t) -> filterAndConsume(s, t, consumer));
+    }
+
+    @Override
+    public void forEachInverseRelationship(
+        long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer
+    ) {
+        super.forEachInverseRelationship(filteredIdMap.toOriginalNodeId(nodeId), fallbackValue, (s, t, p) -> filterAndConsume(s, t, p, consumer));
+    }
+
     @Override
     public long getTarget(long sourceNodeId, long index) {
         HugeGraph.GetTargetConsumer consumer = new HugeGraph.GetTargetConsumer(index);
@@ -187,9 +205,11 @@ public class NodeFilteredGraph extends CSRFilterGraph {
             topology.offsets()
         );
 
+        // the inverse index is not filtered, it is only accessible through the graph
         return ImmutableTopology.builder()
             .from(topology)
             .offsets(offsets)
+            .inverse(Optional.empty())
             .build();
     }
 
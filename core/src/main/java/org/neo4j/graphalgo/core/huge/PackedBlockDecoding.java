@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+
+import static org.neo4j.graphalgo.core.huge.AdjacencyDecompressingReader.readByte;
+
+/**
+ * Decodes values written by {@link org.neo4j.graphalgo.core.loading.PackedBlockEncoding}.
+ */
+final class PackedBlockDecoding {
+
+    // maximum number of bits that can be added to the buffer without losing any of them
+    private static final int MAX_REFILL_BITS = Long.SIZE - Byte.SIZE;
+
+    /**
+     * Decodes a single block of {@code limit} delta-encoded values starting at the given address.
+     * The page is a heap page, indexed by the address, or {@code null} if the address points to off-heap memory.
+     *
+     * @return the address after the decoded block
+     */
+    static long decodeDeltaBlock(
+        long startValue,
+        @Nullable byte[] adjacencyPage,
+        long address,
+        int limit,
+        long[] out
+    ) {
+        int bits = readByte(adjacencyPage, address++);
+        if (bits == 0) {
+            for (int i = 0; i < limit; i++) {
+                out[i] = startValue;
+            }
+            return address;
+        }
+        long end = address + ((long) limit * bits + Byte.SIZE - 1) / Byte.SIZE;
+        if (bits > MAX_REFILL_BITS) {
+            return decodeWideBlock(startValue, adjacencyPage, address, limit, bits, out);
+        }
+
+        long mask = (1L << bits) - 1;
+        long buffer = 0L;
+        int bufferedBits = 0;
+        for (int i = 0; i < limit; i++) {
+            if (bufferedBits < bits) {
+                while (bufferedBits <= MAX_REFILL_BITS && address < end) {
+                    buffer |= (readByte(adjacencyPage, address++) & 255L) << bufferedBits;
+                    bufferedBits += Byte.SIZE;
+                }
+            }
+            startValue += buffer & mask;
+            out[i] = startValue;
+            buffer >>>= bits;
+            bufferedBits -= bits;
+        }
+        return end;
+    }
+
+    // values with more than 56 bits, which only happens for huge id spaces
+    private static long decodeWideBlock(
+        long startValue,
+        @Nullable byte[] adjacencyPage,
+        long address,
+        int limit,
+        int bits,
+        long[] out
+    ) {
+        long bitPosition = 0L;
+        for (int i = 0; i < limit; i++) {
+            long value = 0L;
+            for (int bit = 0; bit < bits; bit++, bitPosition++) {
+                long currentByte = readByte(adjacencyPage, address + (bitPosition >>> 3)) & 255L;
+                value |= ((currentByte >>> (bitPosition & 7)) & 1L) << bit;
+            }
+            startValue += value;
+            out[i] = startValue;
+        }
+        return address + (bitPosition + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    private PackedBlockDecoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
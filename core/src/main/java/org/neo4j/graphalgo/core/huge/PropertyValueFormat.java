@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.PropertyCompression;
+
+import static org.neo4j.graphalgo.core.huge.AdjacencyDecompressingReader.readByte;
+
+/**
+ * Describes how relationship property values are stored in a {@link TransientAdjacencyList}.
+ * Values are always returned as {@link Double#doubleToRawLongBits(double)}, independent of the format.
+ */
+public final class PropertyValueFormat {
+
+    public static final PropertyValueFormat DOUBLE = new PropertyValueFormat(PropertyCompression.NONE, null);
+    public static final PropertyValueFormat FLOAT = new PropertyValueFormat(PropertyCompression.FLOAT, null);
+
+    private final PropertyCompression compression;
+    private final int bytesPerValue;
+    private final @Nullable long[] dictionary;
+
+    /**
+     * @param dictionary the double bits of all distinct values, indexed by their code
+     */
+    public static PropertyValueFormat dictionary(long[] dictionary) {
+        return new PropertyValueFormat(PropertyCompression.DICTIONARY, dictionary);
+    }
+
+    private PropertyValueFormat(PropertyCompression compression, @Nullable long[] dictionary) {
+        this.compression = compression;
+        this.bytesPerValue = compression.bytesPerValue();
+        this.dictionary = dictionary;
+    }
+
+    public PropertyCompression compression() {
+        return compression;
+    }
+
+    public int bytesPerValue() {
+        return bytesPerValue;
+    }
+
+    public @Nullable long[] dictionary() {
+        return dictionary;
+    }
+
+    long read(@Nullable byte[] page, long address) {
+        switch (compression) {
+            case FLOAT:
+                return Double.doubleToRawLongBits(Float.intBitsToFloat(AdjacencyDecompressingReader.readInt(page, address)));
+            case DICTIONARY:
+                int code = readByte(page, address) & 255 | (readByte(page, 1 + address) & 255) << 8;
+                return dictionary[code];
+            default:
+                return AdjacencyDecompressingReader.readLong(page, address);
+        }
+    }
+}
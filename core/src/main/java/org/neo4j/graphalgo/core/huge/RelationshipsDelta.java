@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.api.Graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * An immutable overlay of relationship inserts and deletes on top of the adjacency list of a single relationship type.
+ *
+ * For every changed source node, the delta stores the inserted targets in ascending order, together with
+ * one value per relationship property, and the sorted tombstones of targets that are removed from the
+ * underlying adjacency list. A tombstone removes all (parallel) relationships to that target from the
+ * underlying adjacency list, but none of the inserted ones.
+ *
+ * Applying a batch creates a new delta and leaves the current one untouched, so that graphs created from an
+ * earlier delta keep seeing a consistent snapshot. See {@link DeltaGraph} for how the overlay is read.
+ *
+ * If the underlying adjacency list has an inverse index, the delta keeps an {@link #inverse() inverse delta}
+ * with the same changes indexed by their target node, which is applied on top of the inverse index.
+ */
+public final class RelationshipsDelta {
+
+    private static final long[] NO_TARGETS = new long[0];
+
+    private final List<String> propertyKeys;
+    private final LongObjectHashMap<NodeDelta> nodeDeltas;
+    private final long insertedCount;
+    private final long removedCount;
+    private final boolean isMultiGraph;
+    private final @Nullable RelationshipsDelta inverse;
+
+    public static RelationshipsDelta empty(List<String> propertyKeys, boolean isMultiGraph) {
+        return empty(propertyKeys, isMultiGraph, false);
+    }
+
+    /**
+     * @param indexInverse whether the underlying adjacency list has an inverse index the delta is applied to
+     */
+    public static RelationshipsDelta empty(List<String> propertyKeys, boolean isMultiGraph, boolean indexInverse) {
+        return new RelationshipsDelta(
+            propertyKeys,
+            new LongObjectHashMap<>(),
+            0,
+            0,
+            isMultiGraph,
+            indexInverse ? empty(propertyKeys, isMultiGraph) : null
+        );
+    }
+
+    private RelationshipsDelta(
+        List<String> propertyKeys,
+        LongObjectHashMap<NodeDelta> nodeDeltas,
+        long insertedCount,
+        long removedCount,
+        boolean isMultiGraph,
+        @Nullable RelationshipsDelta inverse
+    ) {
+        this.propertyKeys = propertyKeys;
+        this.nodeDeltas = nodeDeltas;
+        this.insertedCount = insertedCount;
+        this.removedCount = removedCount;
+        this.isMultiGraph = isMultiGraph;
+        this.inverse = inverse;
+    }
+
+    /**
+     * The relationship property keys, in the order in which inserted property values are stored.
+     */
+    public List<String> propertyKeys() {
+        return propertyKeys;
+    }
+
+    public @Nullable NodeDelta get(long nodeId) {
+        return nodeDeltas.get(nodeId);
+    }
+
+    /**
+     * Number of relationships that have been inserted.
+     */
+    public long insertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * Number of relationships of the underlying adjacency list that have been removed.
+     */
+    public long removedCount() {
+        return removedCount;
+    }
+
+    /**
+     * Number of inserted and removed relationships, used to decide when the delta should be compacted.
+     */
+    public long size() {
+        return insertedCount + removedCount;
+    }
+
+    public boolean isEmpty() {
+        return nodeDeltas.isEmpty();
+    }
+
+    public boolean isMultiGraph() {
+        return isMultiGraph;
+    }
+
+    /**
+     * The changes indexed by their target node, i.e. the delta of the inverse index.
+     * The inserted targets of the inverse delta are the source nodes of the inserted relationships.
+     */
+    public @Nullable RelationshipsDelta inverse() {
+        return inverse;
+    }
+
+    /**
+     * Returns a builder for the next delta, the changes are resolved against the given graph,
+     * which needs to contain the underlying adjacency list of this delta.
+     */
+    public Builder builder(Graph baseGraph) {
+        return builder(baseGraph, null);
+    }
+
+    /**
+     * Returns a builder for the next delta and its inverse delta. The changes of the inverse delta are resolved
+     * against the given inverse graph, whose adjacency lists are the inverse index of the base graph.
+     */
+    public Builder builder(Graph baseGraph, @Nullable Graph inverseBaseGraph) {
+        if (inverse != null && inverseBaseGraph == null) {
+            throw new IllegalArgumentException("The inverse delta requires a graph of the inverse index.");
+        }
+        return new Builder(this, baseGraph, inverseBaseGraph);
+    }
+
+    public static final class NodeDelta {
+        private final long[] insertedTargets;
+        private final double[][] insertedProperties;
+        private final long[] removedTargets;
+        private final int removedCount;
+
+        NodeDelta(long[] insertedTargets, double[][] insertedProperties, long[] removedTargets, int removedCount) {
+            this.insertedTargets = insertedTargets;
+            this.insertedProperties = insertedProperties;
+            this.removedTargets = removedTargets;
+            this.removedCount = removedCount;
+        }
+
+        /**
+         * The inserted targets in ascending order.
+         */
+        public long[] insertedTargets() {
+            return insertedTargets;
+        }
+
+        /**
+         * The values of the given relationship property for the inserted targets.
+         */
+        public double[] insertedProperties(int propertyIndex) {
+            return insertedProperties[propertyIndex];
+        }
+
+        /**
+         * The tombstoned targets of the underlying adjacency list in ascending order.
+         */
+        public long[] removedTargets() {
+            return removedTargets;
+        }
+
+        /**
+         * Number of relationships of the underlying adjacency list that are hidden by the tombstones.
+         */
+        public int removedCount() {
+            return removedCount;
+        }
+
+        public int degree(int baseDegree) {
+            return baseDegree - removedCount + insertedTargets.length;
+        }
+
+        boolean isRemoved(long target) {
+            return Arrays.binarySearch(removedTargets, target) >= 0;
+        }
+
+        boolean isInserted(long target) {
+            return Arrays.binarySearch(insertedTargets, target) >= 0;
+        }
+
+        boolean isEmpty() {
+            return insertedTargets.length == 0 && removedTargets.length == 0;
+        }
+    }
+
+    /**
+     * Collects the changes of a single batch. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final RelationshipsDelta previous;
+        private final Graph baseGraph;
+        private final int propertyCount;
+        private final LongObjectHashMap<NodeChanges> changes;
+        private final LongHashSet deletedNodes;
+        private final @Nullable Builder inverse;
+
+        private Builder(RelationshipsDelta previous, Graph baseGraph, @Nullable Graph inverseBaseGraph) {
+            this.previous = previous;
+            this.baseGraph = baseGraph;
+            this.propertyCount = previous.propertyKeys.size();
+            this.changes = new LongObjectHashMap<>();
+            this.deletedNodes = new LongHashSet();
+            this.inverse = previous.inverse != null
+                ? new Builder(previous.inverse, inverseBaseGraph, null)
+                : null;
+        }
+
+        public Builder insert(long sourceNodeId, long targetNodeId, double[] propertyValues) {
+            if (propertyValues.length != propertyCount) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Expected %d relationship property values, but got %d.",
+                    propertyCount,
+                    propertyValues.length
+                ));
+            }
+            changes(sourceNodeId).insert(targetNodeId, propertyValues);
+            if (inverse != null) {
+                inverse.insert(targetNodeId, sourceNodeId, propertyValues);
+            }
+            return this;
+        }
+
+        /**
+         * Removes all relationships between the given nodes, including previously inserted ones.
+         */
+        public Builder delete(long sourceNodeId, long targetNodeId) {
+            changes(sourceNodeId).delete(targetNodeId);
+            if (inverse != null) {
+                inverse.delete(targetNodeId, sourceNodeId);
+            }
+            return this;
+        }
+
+        /**
+         * Removes all relationships from and to the given node. The node itself is kept, but becomes isolated.
+         * Deletions are resolved when the delta is built, after all relationship changes of the batch.
+         */
+        public Builder deleteNode(long nodeId) {
+            deletedNodes.add(nodeId);
+            if (inverse != null) {
+                inverse.deleteNode(nodeId);
+            }
+            return this;
+        }
+
+        public RelationshipsDelta build() {
+            if (!deletedNodes.isEmpty()) {
+                detachDeletedNodes();
+            }
+
+            var nodeDeltas = previous.nodeDeltas.clone();
+            long insertedCount = previous.insertedCount;
+            long removedCount = previous.removedCount;
+            boolean isMultiGraph = previous.isMultiGraph;
+
+            for (LongObjectCursor<NodeChanges> cursor : changes) {
+                long nodeId = cursor.key;
+                var previousDelta = nodeDeltas.get(nodeId);
+                if (previousDelta != null) {
+                    insertedCount -= previousDelta.insertedTargets.length;
+                    removedCount -= previousDelta.removedCount;
+                }
+
+                var nodeDelta = cursor.value.build(nodeId);
+                if (nodeDelta.isEmpty()) {
+                    nodeDeltas.remove(nodeId);
+                } else {
+                    nodeDeltas.put(nodeId, nodeDelta);
+                    insertedCount += nodeDelta.insertedTargets.length;
+                    removedCount += nodeDelta.removedCount;
+                    isMultiGraph = isMultiGraph || cursor.value.createsParallelRelationships(nodeId, nodeDelta);
+                }
+            }
+
+            return new RelationshipsDelta(
+                previous.propertyKeys,
+                nodeDeltas,
+                insertedCount,
+                removedCount,
+                isMultiGraph,
+                inverse != null ? inverse.build() : null
+            );
+        }
+
+        private void detachDeletedNodes() {
+            LongPredicate isDeleted = deletedNodes::contains;
+
+            // undirected relationships are stored in both directions, so the
+            // neighbours of a deleted node are the sources of its incoming relationships
+            var sources = new LongHashSet();
+            if (baseGraph.isUndirected()) {
+                for (var deletedNode : deletedNodes) {
+                    sources.add(deletedNode.value);
+                    baseGraph.forEachRelationship(deletedNode.value, (source, target) -> {
+                        sources.add(target);
+                        return true;
+                    });
+                }
+            } else {
+                baseGraph.forEachNode(nodeId -> {
+                    sources.add(nodeId);
+                    return true;
+                });
+            }
+            for (var cursor : previous.nodeDeltas) {
+                sources.add(cursor.key);
+            }
+            for (var cursor : changes) {
+                sources.add(cursor.key);
+            }
+
+            for (var source : sources) {
+                long sourceNodeId = source.value;
+                if (isDeleted.test(sourceNodeId)) {
+                    var nodeChanges = changes(sourceNodeId);
+                    nodeChanges.removeInsertedIf(target -> true);
+                    baseGraph.forEachRelationship(sourceNodeId, (ignored, target) -> {
+                        nodeChanges.removedTargets.add(target);
+                        return true;
+                    });
+                } else {
+                    var nodeChanges = changes.get(sourceNodeId);
+                    if (nodeChanges != null) {
+                        nodeChanges.removeInsertedIf(isDeleted);
+                    } else {
+                        var previousDelta = previous.nodeDeltas.get(sourceNodeId);
+                        if (previousDelta != null && Arrays.stream(previousDelta.insertedTargets).anyMatch(isDeleted::test)) {
+                            changes(sourceNodeId).removeInsertedIf(isDeleted);
+                        }
+                    }
+                    baseGraph.forEachRelationship(sourceNodeId, (ignored, target) -> {
+                        if (isDeleted.test(target)) {
+                            changes(sourceNodeId).removedTargets.add(target);
+                        }
+                        return true;
+                    });
+                }
+            }
+        }
+
+        private NodeChanges changes(long nodeId) {
+            var nodeChanges = changes.get(nodeId);
+            if (nodeChanges == null) {
+                nodeChanges = new NodeChanges(previous.nodeDeltas.get(nodeId));
+                changes.put(nodeId, nodeChanges);
+            }
+            return nodeChanges;
+        }
+
+        private final class NodeChanges {
+            private final LongArrayList insertedTargets;
+            private final DoubleArrayList[] insertedProperties;
+            private final LongHashSet removedTargets;
+
+            NodeChanges(@Nullable NodeDelta previousDelta) {
+                this.insertedTargets = new LongArrayList();
+                this.insertedProperties = new DoubleArrayList[propertyCount];
+                for (int i = 0; i < propertyCount; i++) {
+                    insertedProperties[i] = new DoubleArrayList();
+                }
+                this.removedTargets = new LongHashSet();
+
+                if (previousDelta != null) {
+                    insertedTargets.add(previousDelta.insertedTargets);
+                    for (int i = 0; i < propertyCount; i++) {
+                        insertedProperties[i].add(previousDelta.insertedProperties[i]);
+                    }
+                    removedTargets.addAll(previousDelta.removedTargets);
+                }
+            }
+
+            void insert(long target, double[] propertyValues) {
+                insertedTargets.add(target);
+                for (int i = 0; i < propertyCount; i++) {
+                    insertedProperties[i].add(propertyValues[i]);
+                }
+            }
+
+            void delete(long target) {
+                removeInsertedIf(insertedTarget -> insertedTarget == target);
+                removedTargets.add(target);
+            }
+
+            void removeInsertedIf(LongPredicate predicate) {
+                int write = 0;
+                for (int read = 0; read < insertedTargets.size(); read++) {
+                    long target = insertedTargets.get(read);
+                    if (!predicate.test(target)) {
+                        insertedTargets.set(write, target);
+                        for (var properties : insertedProperties) {
+                            properties.set(write, properties.get(read));
+                        }
+                        write++;
+                    }
+                }
+                insertedTargets.elementsCount = write;
+                for (var properties : insertedProperties) {
+                    properties.elementsCount = write;
+                }
+            }
+
+            NodeDelta build(long sourceNodeId) {
+                long[] unsortedTargets = insertedTargets.toArray();
+                int insertCount = unsortedTargets.length;
+                // the merge sort is stable, parallel relationships keep their insertion order
+                int[] order = IndirectSort.mergesort(
+                    0,
+                    insertCount,
+                    (a, b) -> Long.compare(unsortedTargets[a], unsortedTargets[b])
+                );
+
+                long[] targets = insertCount == 0 ? NO_TARGETS : new long[insertCount];
+                double[][] properties = new double[propertyCount][insertCount];
+                for (int i = 0; i < insertCount; i++) {
+                    targets[i] = unsortedTargets[order[i]];
+                    for (int p = 0; p < propertyCount; p++) {
+                        properties[p][i] = insertedProperties[p].get(order[i]);
+                    }
+                }
+
+                // only keep tombstones for targets of the underlying adjacency list
+                var removedCount = new int[]{0};
+                var removed = new LongHashSet();
+                if (!removedTargets.isEmpty()) {
+                    baseGraph.forEachRelationship(sourceNodeId, (ignored, target) -> {
+                        if (removedTargets.contains(target)) {
+                            removed.add(target);
+                            removedCount[0]++;
+                        }
+                        return true;
+                    });
+                }
+                long[] tombstones = removed.isEmpty() ? NO_TARGETS : removed.toArray();
+                Arrays.sort(tombstones);
+
+                return new NodeDelta(targets, properties, tombstones, removedCount[0]);
+            }
+
+            boolean createsParallelRelationships(long sourceNodeId, NodeDelta nodeDelta) {
+                long[] targets = nodeDelta.insertedTargets;
+                for (int i = 0; i < targets.length; i++) {
+                    if (i > 0 && targets[i - 1] == targets[i]) {
+                        return true;
+                    }
+                    if (!nodeDelta.isRemoved(targets[i]) && baseGraph.exists(sourceNodeId, targets[i])) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+}
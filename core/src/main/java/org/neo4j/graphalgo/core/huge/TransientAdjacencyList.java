@@ -19,15 +19,19 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.RelationshipType;
 import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.AdjacencyList;
 import org.neo4j.graphalgo.api.PropertyCursor;
+import org.neo4j.graphalgo.core.PropertyCompression;
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
+import org.neo4j.graphalgo.core.loading.PackedBlockEncoding;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.OffHeapPages;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
 import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
@@ -43,21 +47,31 @@ public final class TransientAdjacencyList implements AdjacencyList {
     public static final long PAGE_MASK = PAGE_SIZE - 1;
 
     private final long allocatedMemory;
+    private final AdjacencyCodec codec;
+    private final PropertyValueFormat valueFormat;
+    // heap pages or null entries for off-heap pages, null once the list is closed
     private byte[][] pages;
+    // the address of the first byte of each off-heap page or 0 for heap pages, which are indexed from their start
+    private long[] pageAddresses;
+    private final @Nullable OffHeapPages offHeapPages;
 
     public static MemoryEstimation compressedMemoryEstimation(long avgDegree, long nodeCount) {
+        return compressedMemoryEstimation(avgDegree, nodeCount, AdjacencyCodec.defaultCodec());
+    }
+
+    public static MemoryEstimation compressedMemoryEstimation(long avgDegree, long nodeCount, AdjacencyCodec codec) {
         // Best case scenario:
         // Difference between node identifiers in each adjacency list is 1.
         // This leads to ideal compression through delta encoding.
         int deltaBestCase = 1;
-        long bestCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaBestCase);
+        long bestCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaBestCase, codec);
 
         // Worst case scenario:
         // Relationships are equally distributed across nodes, i.e. each node has the same number of rels.
         // Within each adjacency list, all identifiers have the highest possible difference between each other.
         // Highest possible difference is the number of nodes divided by the average degree.
         long deltaWorstCase = (avgDegree > 0) ? ceilDiv(nodeCount, avgDegree) : 0L;
-        long worstCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaWorstCase);
+        long worstCaseAdjacencySize = computeAdjacencyByteSize(avgDegree, nodeCount, deltaWorstCase, codec);
 
         int minPages = PageUtil.numPagesFor(bestCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
         int maxPages = PageUtil.numPagesFor(worstCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
@@ -79,12 +93,20 @@ public final class TransientAdjacencyList implements AdjacencyList {
     }
 
     public static MemoryEstimation compressedMemoryEstimation(RelationshipType relationshipType, boolean undirected) {
+        return compressedMemoryEstimation(relationshipType, undirected, AdjacencyCodec.defaultCodec());
+    }
+
+    public static MemoryEstimation compressedMemoryEstimation(
+        RelationshipType relationshipType,
+        boolean undirected,
+        AdjacencyCodec codec
+    ) {
         return MemoryEstimations.setup("", dimensions -> {
             long nodeCount = dimensions.nodeCount();
             long relCountForType = dimensions.relationshipCounts().getOrDefault(relationshipType, dimensions.maxRelCount());
             long relCount = undirected ? relCountForType * 2 : relCountForType;
             long avgDegree = (nodeCount > 0) ? ceilDiv(relCount, nodeCount) : 0L;
-            return TransientAdjacencyList.compressedMemoryEstimation(avgDegree, nodeCount);
+            return TransientAdjacencyList.compressedMemoryEstimation(avgDegree, nodeCount, codec);
         });
     }
 
@@ -93,21 +115,74 @@ public final class TransientAdjacencyList implements AdjacencyList {
     }
 
     public static MemoryEstimation uncompressedMemoryEstimation(RelationshipType relationshipType, boolean undirected) {
+        return uncompressedMemoryEstimation(relationshipType, undirected, PropertyCompression.NONE);
+    }
 
-        return MemoryEstimations
+    public static MemoryEstimation uncompressedMemoryEstimation(
+        RelationshipType relationshipType,
+        boolean undirected,
+        PropertyCompression compression
+    ) {
+        var builder = MemoryEstimations
             .builder(TransientAdjacencyList.class)
             .perGraphDimension("pages", (dimensions, concurrency) -> {
                 long nodeCount = dimensions.nodeCount();
                 long relCountForType = dimensions.relationshipCounts().getOrDefault(relationshipType, dimensions.maxRelCount());
                 long relCount = undirected ? relCountForType * 2 : relCountForType;
 
-                long uncompressedAdjacencySize = relCount * Long.BYTES + nodeCount * Integer.BYTES;
+                long uncompressedAdjacencySize = relCount * compression.bytesPerValue() + nodeCount * Integer.BYTES;
                 int pages = PageUtil.numPagesFor(uncompressedAdjacencySize, PAGE_SHIFT, PAGE_MASK);
                 long bytesPerPage = MemoryUsage.sizeOfByteArray(PAGE_SIZE);
 
                 return MemoryRange.of(pages * bytesPerPage + MemoryUsage.sizeOfObjectArray(pages));
-            })
-            .build();
+            });
+
+        if (compression == PropertyCompression.DICTIONARY) {
+            builder.fixed(
+                "dictionary",
+                MemoryRange.of(
+                    MemoryUsage.sizeOfLongArray(0),
+                    MemoryUsage.sizeOfLongArray(PropertyCompression.MAX_DICTIONARY_SIZE)
+                )
+            );
+        }
+
+        return builder.build();
+    }
+
+    private static long computeAdjacencyByteSize(long avgDegree, long nodeCount, long delta, AdjacencyCodec codec) {
+        return codec == AdjacencyCodec.PACKED_BLOCKS
+            ? computePackedAdjacencyByteSize(avgDegree, nodeCount, delta)
+            : computeAdjacencyByteSize(avgDegree, nodeCount, delta);
+    }
+
+    /* test private */
+    static long computePackedAdjacencyByteSize(long avgDegree, long nodeCount, long delta) {
+        if (avgDegree <= 0) {
+            return Integer.BYTES * nodeCount;
+        }
+        // the first block contains the first target id, which is not a delta and determines the width of the block
+        long firstBlockSize = Math.min(avgDegree, PackedBlockEncoding.BLOCK_SIZE);
+        int firstBlockBits = bitsRequired(Math.max(nodeCount, delta));
+        int deltaBits = bitsRequired(delta);
+        long remaining = avgDegree - firstBlockSize;
+        long fullBlocks = remaining / PackedBlockEncoding.BLOCK_SIZE;
+        long lastBlockSize = remaining % PackedBlockEncoding.BLOCK_SIZE;
+
+        long blocks = ceilDiv(avgDegree, PackedBlockEncoding.BLOCK_SIZE);
+        long packedBytes = packedByteSize(firstBlockSize, firstBlockBits)
+                           + fullBlocks * packedByteSize(PackedBlockEncoding.BLOCK_SIZE, deltaBits)
+                           + packedByteSize(lastBlockSize, deltaBits);
+        // sizeOf(degree) + one bit width byte per block + packed deltas
+        return (Integer.BYTES + blocks + packedBytes) * nodeCount;
+    }
+
+    private static int bitsRequired(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long packedByteSize(long count, int bits) {
+        return ceilDiv(count * bits, Byte.SIZE);
     }
 
     /* test private */
@@ -120,10 +195,38 @@ public final class TransientAdjacencyList implements AdjacencyList {
     }
 
     public TransientAdjacencyList(byte[][] pages) {
+        this(pages, AdjacencyCodec.VAR_LONG);
+    }
+
+    public TransientAdjacencyList(byte[][] pages, AdjacencyCodec codec) {
+        this(pages, codec, PropertyValueFormat.DOUBLE);
+    }
+
+    /**
+     * @param valueFormat the format of the values if this list stores relationship properties
+     */
+    public TransientAdjacencyList(byte[][] pages, AdjacencyCodec codec, PropertyValueFormat valueFormat) {
+        this.codec = codec;
+        this.valueFormat = valueFormat;
         this.pages = pages;
+        this.pageAddresses = new long[pages.length];
+        this.offHeapPages = null;
         this.allocatedMemory = memoryOfPages(pages);
     }
 
+    /**
+     * Creates a list that reads from off-heap pages and takes over their reference.
+     * The reference is released when the list is closed, cursors of the list retain their own reference.
+     */
+    public TransientAdjacencyList(OffHeapPages offHeapPages, AdjacencyCodec codec, PropertyValueFormat valueFormat) {
+        this.codec = codec;
+        this.valueFormat = valueFormat;
+        this.pages = new byte[offHeapPages.pageCount()][];
+        this.pageAddresses = offHeapPages.addresses();
+        this.offHeapPages = offHeapPages;
+        this.allocatedMemory = MemoryUsage.sizeOfObjectArray(pages.length);
+    }
+
     private static long memoryOfPages(byte[][] pages) {
         long memory = MemoryUsage.sizeOfObjectArray(pages.length);
         for (byte[] page : pages) {
@@ -136,31 +239,146 @@ public final class TransientAdjacencyList implements AdjacencyList {
 
     @Override
     public int degree(long index) {
+        checkNotClosed();
+        int pageIndex = pageIndex(index, PAGE_SHIFT);
         return AdjacencyDecompressingReader.readInt(
-                pages[pageIndex(index, PAGE_SHIFT)],
-                indexInPage(index, PAGE_MASK));
+                pages[pageIndex],
+                pageAddresses[pageIndex] + indexInPage(index, PAGE_MASK));
     }
 
+    /**
+     * Closes the list and releases its reference to the off-heap pages.
+     * The pages are freed once all cursors of the list are closed as well.
+     * Reading from the list afterwards throws an {@link IllegalStateException}.
+     */
     @Override
     public void close() {
+        releasePages(pages, offHeapPages);
         pages = null;
+        pageAddresses = null;
+    }
+
+    private void checkNotClosed() {
+        if (pages == null) {
+            throw new IllegalStateException("The adjacency list has already been closed.");
+        }
+    }
+
+    private static void checkCursorNotClosed(byte[][] pages) {
+        if (pages == null) {
+            throw new IllegalStateException("The cursor has already been closed.");
+        }
+    }
+
+    private void retainPages() {
+        if (offHeapPages != null) {
+            offHeapPages.retain();
+        }
+    }
+
+    // releases the reference of an open list or cursor, which is closed if its pages are null
+    private static void releasePages(byte[][] pages, @Nullable OffHeapPages offHeapPages) {
+        if (pages != null && offHeapPages != null) {
+            offHeapPages.release();
+        }
+    }
+
+    public AdjacencyCodec codec() {
+        return codec;
+    }
+
+    public PropertyValueFormat valueFormat() {
+        return valueFormat;
+    }
+
+    public boolean isOffHeap() {
+        return offHeapPages != null;
+    }
+
+    /**
+     * @return the heap memory of this list. Off-heap pages untrack their memory themselves once they are freed.
+     */
+    public long memoryUsage() {
+        return allocatedMemory;
+    }
+
+    public int pageCount() {
+        checkNotClosed();
+        return pages.length;
+    }
+
+    /**
+     * Returns the page at the given index, e.g. to persist it, or {@code null} if the page does not exist.
+     * Heap pages must not be modified, off-heap pages are copied.
+     */
+    public byte[] page(int pageIndex) {
+        checkNotClosed();
+        return offHeapPages != null ? offHeapPages.copyPage(pageIndex) : pages[pageIndex];
+    }
+
+    /**
+     * Decodes {@code count} delta-encoded targets, starting at the given byte index,
+     * into the buffer. The {@code startValue} is the base of the delta decoding,
+     * i.e. the last target before the byte index or {@code 0}.
+     * The byte index must be the start of a chunk of {@link AdjacencyDecompressingReader#CHUNK_SIZE} targets
+     * and {@code count} must be the size of that chunk.
+     *
+     * @return the byte index after the last decoded target
+     */
+    long decodeTargets(long index, long startValue, int count, long[] buffer) {
+        checkNotClosed();
+        int pageIndex = pageIndex(index, PAGE_SHIFT);
+        long address = pageAddresses[pageIndex] + indexInPage(index, PAGE_MASK);
+        long end = AdjacencyDecompressingReader.decodeChunk(
+            codec,
+            startValue,
+            pages[pageIndex],
+            address,
+            count,
+            buffer
+        );
+        return index + (end - address);
+    }
+
+    /**
+     * Reads the property value at the given position of the list
+     * that starts at the given offset, without creating a cursor.
+     */
+    long readLong(long offset, int position) {
+        checkNotClosed();
+        long index = offset + Integer.BYTES + (long) position * valueFormat.bytesPerValue();
+        int pageIndex = pageIndex(index, PAGE_SHIFT);
+        return valueFormat.read(
+            pages[pageIndex],
+            pageAddresses[pageIndex] + indexInPage(index, PAGE_MASK)
+        );
     }
 
     // Cursors
 
+    /**
+     * Creates a cursor that keeps off-heap pages alive until it is closed.
+     */
     @Override
     public Cursor rawCursor() {
-        return new Cursor(pages);
+        checkNotClosed();
+        retainPages();
+        return new Cursor(pages, pageAddresses, offHeapPages, valueFormat);
     }
 
     @Override
     public Cursor cursor(long offset) {
-        return new Cursor(pages).init(offset);
+        return rawCursor().init(offset);
     }
 
+    /**
+     * Creates a cursor that keeps off-heap pages alive until it is closed.
+     */
     @Override
     public DecompressingCursor rawDecompressingCursor() {
-        return new DecompressingCursor(pages);
+        checkNotClosed();
+        retainPages();
+        return new DecompressingCursor(pages, pageAddresses, offHeapPages, codec);
     }
 
     @Override
@@ -184,17 +402,31 @@ public final class TransientAdjacencyList implements AdjacencyList {
 
     public static final class Cursor extends MutableIntValue implements PropertyCursor {
 
-        static final Cursor EMPTY = new Cursor(new byte[0][]);
+        // an already closed cursor without values, closing it again has no effect
+        static final Cursor EMPTY = new Cursor(null, null, null, PropertyValueFormat.DOUBLE);
 
         private byte[][] pages;
+        private long[] pageAddresses;
+        private final @Nullable OffHeapPages offHeapPages;
+        private final PropertyValueFormat valueFormat;
+        private final int bytesPerValue;
 
         private byte[] currentPage;
         private int degree;
-        private int offset;
-        private int limit;
-
-        private Cursor(byte[][] pages) {
+        private long address;
+        private long limit;
+
+        private Cursor(
+            byte[][] pages,
+            long[] pageAddresses,
+            @Nullable OffHeapPages offHeapPages,
+            PropertyValueFormat valueFormat
+        ) {
             this.pages = pages;
+            this.pageAddresses = pageAddresses;
+            this.offHeapPages = offHeapPages;
+            this.valueFormat = valueFormat;
+            this.bytesPerValue = valueFormat.bytesPerValue();
         }
 
         public int length() {
@@ -203,48 +435,65 @@ public final class TransientAdjacencyList implements AdjacencyList {
 
         @Override
         public boolean hasNextLong() {
-            return offset < limit;
+            return address < limit;
         }
 
         @Override
         public long nextLong() {
-            long value = AdjacencyDecompressingReader.readLong(currentPage, offset);
-            offset += Long.BYTES;
+            long value = valueFormat.read(currentPage, address);
+            address += bytesPerValue;
             return value;
         }
 
         Cursor init(long fromIndex) {
-            this.currentPage = pages[pageIndex(fromIndex, PAGE_SHIFT)];
-            this.offset = indexInPage(fromIndex, PAGE_MASK);
-            this.degree = AdjacencyDecompressingReader.readInt(currentPage, offset);
-            this.offset += Integer.BYTES;
-            this.limit = offset + degree * Long.BYTES;
+            checkCursorNotClosed(pages);
+            int pageIndex = pageIndex(fromIndex, PAGE_SHIFT);
+            this.currentPage = pages[pageIndex];
+            this.address = pageAddresses[pageIndex] + indexInPage(fromIndex, PAGE_MASK);
+            this.degree = AdjacencyDecompressingReader.readInt(currentPage, address);
+            this.address += Integer.BYTES;
+            this.limit = address + (long) degree * bytesPerValue;
             return this;
         }
 
         @Override
         public void close() {
+            releasePages(pages, offHeapPages);
             pages = null;
+            pageAddresses = null;
+            currentPage = null;
+            limit = address;
         }
     }
 
     public static final class DecompressingCursor extends MutableIntValue implements AdjacencyCursor {
 
         private byte[][] pages;
+        private long[] pageAddresses;
+        private final @Nullable OffHeapPages offHeapPages;
         private final AdjacencyDecompressingReader decompress;
 
         private int maxTargets;
         private int currentPosition;
 
-        private DecompressingCursor(byte[][] pages) {
+        private DecompressingCursor(
+            byte[][] pages,
+            long[] pageAddresses,
+            @Nullable OffHeapPages offHeapPages,
+            AdjacencyCodec codec
+        ) {
             this.pages = pages;
-            this.decompress = new AdjacencyDecompressingReader();
+            this.pageAddresses = pageAddresses;
+            this.offHeapPages = offHeapPages;
+            this.decompress = new AdjacencyDecompressingReader(codec);
         }
 
         DecompressingCursor init(long fromIndex) {
+            checkCursorNotClosed(pages);
+            int pageIndex = pageIndex(fromIndex, PAGE_SHIFT);
             maxTargets = decompress.reset(
-                pages[pageIndex(fromIndex, PAGE_SHIFT)],
-                indexInPage(fromIndex, PAGE_MASK));
+                pages[pageIndex],
+                pageAddresses[pageIndex] + indexInPage(fromIndex, PAGE_MASK));
             currentPosition = 0;
             return this;
         }
@@ -320,7 +569,10 @@ public final class TransientAdjacencyList implements AdjacencyList {
 
         @Override
         public void close() {
+            releasePages(pages, offHeapPages);
             pages = null;
+            pageAddresses = null;
+            maxTargets = currentPosition;
         }
     }
 }
@@ -63,6 +63,11 @@ public abstract class TransientAdjacencyOffsets implements AdjacencyOffsets {
         return new SinglePageOffsets(page);
     }
 
+    /**
+     * @return the memory of the offset pages or {@code 0} if the offsets are closed.
+     */
+    public abstract long memoryUsage();
+
     private static final class PagedOffsets extends TransientAdjacencyOffsets {
 
         private final int pageShift;
@@ -90,6 +95,18 @@ public abstract class TransientAdjacencyOffsets implements AdjacencyOffsets {
             return pages[pageIndex][indexInPage];
         }
 
+        @Override
+        public long memoryUsage() {
+            if (pages == null) {
+                return 0L;
+            }
+            long memory = sizeOfObjectArray(pages.length);
+            for (long[] page : pages) {
+                memory += sizeOfLongArray(page.length);
+            }
+            return memory;
+        }
+
         @Override
         public void close() {
             pages = null;
@@ -115,6 +132,11 @@ public abstract class TransientAdjacencyOffsets implements AdjacencyOffsets {
             return page[(int) index];
         }
 
+        @Override
+        public long memoryUsage() {
+            return page == null ? 0L : sizeOfLongArray(page.length);
+        }
+
         @Override
         public void close() {
             page = null;
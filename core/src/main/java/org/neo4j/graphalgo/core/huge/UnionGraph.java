@@ -167,6 +167,36 @@ public final class UnionGraph implements CSRGraph {
         return  degree;
     }
 
+    @Override
+    public boolean isInverseIndexed() {
+        return graphs.stream().allMatch(Graph::isInverseIndexed);
+    }
+
+    @Override
+    public int degreeInverse(long nodeId) {
+        int degree = 0;
+
+        for (CSRGraph graph : graphs) {
+            degree += graph.degreeInverse(nodeId);
+        }
+
+        return degree;
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        for (Graph graph : graphs) {
+            graph.forEachInverseRelationship(nodeId, consumer);
+        }
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        for (Graph graph : graphs) {
+            graph.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+        }
+    }
+
     @Override
     public int degreeWithoutParallelRelationships(long nodeId) {
         if (!isMultiGraph()) {
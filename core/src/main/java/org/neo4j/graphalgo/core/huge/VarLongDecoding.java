@@ -19,19 +19,29 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.jetbrains.annotations.Nullable;
+
+import static org.neo4j.graphalgo.core.huge.AdjacencyDecompressingReader.readByte;
+
 final class VarLongDecoding {
 
-    static int decodeDeltaVLongs(
+    /**
+     * Decodes {@code limit} delta-encoded values starting at the given address.
+     * The page is a heap page, indexed by the address, or {@code null} if the address points to off-heap memory.
+     *
+     * @return the address after the last decoded value
+     */
+    static long decodeDeltaVLongs(
         long startValue,
-        byte[] adjacencyPage,
-        int offset,
+        @Nullable byte[] adjacencyPage,
+        long address,
         int limit,
         long[] out
     ) {
         long input, value = 0L;
         int into = 0, shift = 0;
         while (into < limit) {
-            input = adjacencyPage[offset++];
+            input = readByte(adjacencyPage, address++);
             value += (input & 127L) << shift;
             if ((input & 128L) == 128L) {
                 startValue += value;
@@ -43,7 +53,7 @@ final class VarLongDecoding {
             }
         }
 
-        return offset;
+        return address;
     }
 
     private VarLongDecoding() {
@@ -64,6 +64,19 @@ public final class AdjacencyBuilder {
             .stream(propertyKeyIds)
             .anyMatch(keyId -> keyId != NO_SUCH_PROPERTY_KEY);
 
+        // the inverse index contains the same relationships, they must not be counted twice
+        AdjacencyBuilder inverse = globalBuilder.inverse().map(inverseBuilder -> compressing(
+            inverseBuilder,
+            numPages,
+            pageSize,
+            tracker,
+            new LongAdder(),
+            propertyKeyIds,
+            defaultValues,
+            aggregations,
+            preAggregate
+        )).orElse(null);
+
         var compressingPagedAdjacency = new AdjacencyBuilder(
             globalBuilder,
             localBuilders,
@@ -77,7 +90,8 @@ public final class AdjacencyBuilder {
             defaultValues,
             aggregations,
             atLeastOnePropertyToLoad,
-            preAggregate
+            preAggregate,
+            inverse
         );
         for (int idx = 0; idx < numPages; idx++) {
             compressingPagedAdjacency.addAdjacencyImporter(tracker, idx);
@@ -103,6 +117,7 @@ public final class AdjacencyBuilder {
     private final Aggregation[] aggregations;
     private final boolean atLeastOnePropertyToLoad;
     private final boolean preAggregate;
+    private final @Nullable AdjacencyBuilder inverse;
 
     private AdjacencyBuilder(
         RelationshipsBuilder globalBuilder,
@@ -117,7 +132,8 @@ public final class AdjacencyBuilder {
         double[] defaultValues,
         Aggregation[] aggregations,
         boolean atLeastOnePropertyToLoad,
-        boolean preAggregate
+        boolean preAggregate,
+        @Nullable AdjacencyBuilder inverse
     ) {
         this.globalBuilder = globalBuilder;
         this.localBuilders = localBuilders;
@@ -136,6 +152,7 @@ public final class AdjacencyBuilder {
         this.aggregations = aggregations;
         this.atLeastOnePropertyToLoad = atLeastOnePropertyToLoad;
         this.preAggregate = preAggregate;
+        this.inverse = inverse;
     }
 
     /**
@@ -238,9 +255,19 @@ public final class AdjacencyBuilder {
         var tasks = new ArrayList<>(Arrays.asList(runnables));
         // Final task to make sure that all property builders are flushed as well.
         tasks.add(unchecked(this.globalBuilder::flush));
+        if (inverse != null) {
+            tasks.addAll(inverse.flushTasks());
+        }
         return tasks;
     }
 
+    /**
+     * The builder for the inverse index, which receives the same relationships grouped by target node.
+     */
+    @Nullable AdjacencyBuilder inverse() {
+        return inverse;
+    }
+
     int[] getPropertyKeyIds() {
         return propertyKeyIds;
     }
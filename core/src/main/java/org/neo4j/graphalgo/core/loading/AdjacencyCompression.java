@@ -26,6 +26,7 @@ import org.neo4j.graphalgo.core.utils.AscendingLongComparator;
 
 import java.util.Arrays;
 
+import static org.neo4j.graphalgo.core.loading.PackedBlockEncoding.encodePackedBlocks;
 import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodeVLongs;
 
 public final class AdjacencyCompression {
@@ -88,6 +89,10 @@ public final class AdjacencyCompression {
         return encodeVLongs(data, length, out, 0);
     }
 
+    public static int compressPackedBlocks(LongsRef data, byte[] out) {
+        return encodePackedBlocks(data.longs, data.length, out, 0);
+    }
+
     //@formatter:off
     static void writeDegree(byte[] out, int offset, int degree) {
         out[    offset] = (byte) (degree);
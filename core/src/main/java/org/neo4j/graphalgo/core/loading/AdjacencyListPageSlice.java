@@ -19,6 +19,8 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
+
 public interface AdjacencyListPageSlice {
 
     /**
@@ -45,8 +47,9 @@ public interface AdjacencyListPageSlice {
 
     /**
      * The current page. Only writes starting at {@link #offset} are safe.
+     * Slices of off-heap pages return {@code null} and must be written with {@link #writeInt(int)} and {@link #insert(byte[], int, int)}.
      */
-    byte[] page();
+    @Nullable byte[] page();
 
     /**
      * Start offset for safe writes into the {@link #page}.
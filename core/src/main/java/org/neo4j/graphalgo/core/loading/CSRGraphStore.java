@@ -19,11 +19,16 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import com.carrotsearch.hppc.LongHashSet;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipType;
 import org.neo4j.graphalgo.api.CSRGraph;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphStore;
+import org.neo4j.graphalgo.api.ImmutableProperties;
+import org.neo4j.graphalgo.api.ImmutableTopology;
 import org.neo4j.graphalgo.api.NodeMapping;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.NodeProperty;
@@ -37,8 +42,14 @@ import org.neo4j.graphalgo.api.schema.GraphSchema;
 import org.neo4j.graphalgo.api.schema.NodeSchema;
 import org.neo4j.graphalgo.api.schema.RelationshipSchema;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencySkipIndex;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.NodeFilteredGraph;
+import org.neo4j.graphalgo.core.huge.RelationshipsDelta;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
 import org.neo4j.graphalgo.core.huge.UnionGraph;
 import org.neo4j.graphalgo.core.utils.TimeUtil;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
@@ -47,17 +58,22 @@ import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.values.storable.NumberType;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -65,15 +81,29 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toMap;
 import static org.neo4j.graphalgo.NodeLabel.ALL_NODES;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.FILTERED_ID_MAP_CACHE_BYTES;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.MATERIALIZED_GRAPH_CACHE_BYTES;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_ADJACENCY_SKIP_INDEX;
 import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
 
 public final class CSRGraphStore implements GraphStore {
 
+    // a delta is compacted in the background once it contains more changes than
+    // this fraction of the relationships of its type, but not before it reaches the minimum size
+    static final double DELTA_COMPACTION_RATIO = 0.01;
+    static final long MIN_DELTA_COMPACTION_SIZE = 100_000;
+
     private final int concurrency;
 
     private final NamedDatabaseId databaseId;
 
-    private final IdMap nodes;
+    // nodes are only appended, graphs that have been created before keep their id map
+    private volatile IdMap nodes;
+
+    // filtered views of the id map are dropped when nodes are added
+    private final FilteredIdMapCache filteredIdMaps;
+
+    private final MaterializedGraphCache materializedGraphs;
 
     private final Map<NodeLabel, NodePropertyStore> nodeProperties;
 
@@ -81,6 +111,18 @@ public final class CSRGraphStore implements GraphStore {
 
     private final Map<RelationshipType, RelationshipPropertyStore> relationshipProperties;
 
+    private final Map<RelationshipType, RelationshipsDelta> relationshipDeltas;
+
+    // shared by all graphs of a relationship type and released when its topology is replaced
+    private final Map<RelationshipType, AdjacencySkipIndex> skipIndexes;
+
+    private final Set<RelationshipType> runningCompactions;
+
+    // batches that are applied while the delta of a type is compacted, they are replayed on top of the compacted lists
+    private final Map<RelationshipType, List<GraphDelta>> batchesDuringCompaction;
+
+    private final Object compactionLock;
+
     private final Set<Graph> createdGraphs;
 
     private final AllocationTracker tracker;
@@ -170,9 +212,17 @@ public final class CSRGraphStore implements GraphStore {
     ) {
         this.databaseId = databaseId;
         this.nodes = nodes;
+        this.filteredIdMaps = new FilteredIdMapCache(FILTERED_ID_MAP_CACHE_BYTES::get, tracker);
+        this.materializedGraphs = new MaterializedGraphCache(MATERIALIZED_GRAPH_CACHE_BYTES::get, tracker);
         this.nodeProperties = nodeProperties;
-        this.relationships = relationships;
+        // topologies are replaced when their delta is compacted
+        this.relationships = new HashMap<>(relationships);
         this.relationshipProperties = relationshipProperties;
+        this.relationshipDeltas = new ConcurrentHashMap<>();
+        this.skipIndexes = new ConcurrentHashMap<>();
+        this.runningCompactions = ConcurrentHashMap.newKeySet();
+        this.batchesDuringCompaction = new HashMap<>();
+        this.compactionLock = new Object();
         this.concurrency = concurrency;
         this.createdGraphs = new HashSet<>();
         this.modificationTime = TimeUtil.now();
@@ -295,14 +345,18 @@ public final class CSRGraphStore implements GraphStore {
 
     @Override
     public long relationshipCount() {
-        return relationships.values().stream()
-            .mapToLong(Relationships.Topology::elementCount)
+        return relationships.keySet().stream()
+            .mapToLong(this::relationshipCount)
             .sum();
     }
 
     @Override
     public long relationshipCount(RelationshipType relationshipType) {
-        return relationships.get(relationshipType).elementCount();
+        long elementCount = relationships.get(relationshipType).elementCount();
+        var delta = relationshipDeltas.get(relationshipType);
+        return delta == null
+            ? elementCount
+            : elementCount + delta.insertedCount() - delta.removedCount();
     }
 
     @Override
@@ -365,18 +419,133 @@ public final class CSRGraphStore implements GraphStore {
     public DeletionResult deleteRelationships(RelationshipType relationshipType) {
         return DeletionResult.of(builder ->
             updateGraphStore(graphStore -> {
-                builder.deletedRelationships(graphStore.relationships.get(relationshipType).elementCount());
+                long relationshipCount = graphStore.relationshipCount(relationshipType);
+                builder.deletedRelationships(relationshipCount);
                 graphStore.relationshipProperties
                     .getOrDefault(relationshipType, RelationshipPropertyStore.empty())
                     .relationshipProperties().values().forEach(property -> {
-                    builder.putDeletedProperty(property.key(), property.values().elementCount());
+                    builder.putDeletedProperty(property.key(), relationshipCount);
                 });
                 graphStore.relationships.remove(relationshipType);
+                graphStore.releaseSkipIndex(relationshipType);
                 graphStore.relationshipProperties.remove(relationshipType);
+                graphStore.relationshipDeltas.remove(relationshipType);
             })
         );
     }
 
+    /**
+     * Applies a batch of node and relationship inserts and deletes to the graph.
+     * <p>
+     * The changes of every relationship type are kept in a {@link RelationshipsDelta} on top of the loaded
+     * adjacency list. Graphs that have been created before keep seeing the nodes and relationships at their creation,
+     * graphs that are created afterwards include the batch. Once a delta has grown large enough,
+     * it is compacted into new adjacency lists in the background.
+     * <p>
+     * Inserted nodes are appended to the id map. They have no relationships in the existing adjacency lists
+     * and no values for the existing node properties.
+     */
+    public void applyDelta(GraphDelta graphDelta) {
+        graphDelta.relationshipTypes().forEach(relationshipType -> {
+            if (!hasRelationshipType(relationshipType)) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "No relationships have been loaded for relationship type '%s'",
+                    relationshipType
+                ));
+            }
+        });
+
+        updateGraphStore(graphStore -> {
+            // the batch is validated before anything is changed, an invalid batch leaves the graph unchanged
+            validateDelta(graphDelta);
+            if (!graphDelta.insertedNodes().isEmpty()) {
+                appendNodes(graphDelta.insertedNodes());
+            }
+
+            long[] deletedNodes = Arrays.stream(graphDelta.deletedNodes()).map(this::mappedNodeId).toArray();
+            var relationshipTypes = deletedNodes.length == 0
+                ? graphDelta.relationshipTypes()
+                : relationships.keySet();
+            for (RelationshipType relationshipType : relationshipTypes) {
+                relationshipDeltas.put(relationshipType, applyDelta(relationshipType, graphDelta, deletedNodes));
+                var pendingBatches = batchesDuringCompaction.get(relationshipType);
+                if (pendingBatches != null) {
+                    pendingBatches.add(graphDelta);
+                }
+            }
+        });
+
+        scheduleCompactions();
+    }
+
+    /**
+     * Compacts the deltas of all relationship types into new adjacency lists.
+     */
+    public void compactDeltas() {
+        new ArrayList<>(relationshipDeltas.keySet()).forEach(this::compactDelta);
+    }
+
+    /**
+     * Returns the relationships of all types including their pending deltas, without compacting the deltas
+     * into the graph store. Nodes, topologies, properties and deltas are read under the same lock,
+     * batches that are applied afterwards are not part of the snapshot.
+     * Deltas are compacted into adjacency lists that only belong to the snapshot and are released when it is closed.
+     */
+    RelationshipsSnapshot relationshipsSnapshot() {
+        NodeMapping snapshotNodes;
+        Map<RelationshipType, List<String>> propertyKeys = new LinkedHashMap<>();
+        Map<RelationshipType, List<CSRGraph>> graphs = new LinkedHashMap<>();
+        synchronized (this) {
+            snapshotNodes = nodes;
+            relationships.keySet().forEach(relationshipType -> {
+                var typePropertyKeys = new ArrayList<>(relationshipPropertyKeys(relationshipType));
+                var delta = relationshipDeltas.get(relationshipType);
+                List<Optional<String>> maybePropertyKeys = typePropertyKeys.isEmpty()
+                    ? List.of(Optional.empty())
+                    : typePropertyKeys.stream().map(Optional::of).collect(Collectors.toList());
+                propertyKeys.put(relationshipType, typePropertyKeys);
+                graphs.put(relationshipType, maybePropertyKeys
+                    .stream()
+                    .map(maybePropertyKey -> delta == null || delta.isEmpty()
+                        ? baseGraph(relationshipType, maybePropertyKey)
+                        : deltaGraph(relationshipType, maybePropertyKey, delta))
+                    .collect(Collectors.toList()));
+            });
+        }
+
+        // the deltas are compacted without holding the lock, like in #compactDelta
+        Map<RelationshipType, List<Relationships>> snapshotRelationships = new LinkedHashMap<>();
+        List<List<Relationships>> compactedRelationships = new ArrayList<>();
+        Runnable releaseCompacted = () -> compactedRelationships.forEach(compacted -> {
+            // the topology is shared by the relationships of all properties
+            release(compacted.get(0).topology());
+            compacted.forEach(relationships -> relationships.properties().ifPresent(this::release));
+        });
+        try {
+            graphs.forEach((relationshipType, typeGraphs) -> {
+                if (typeGraphs.get(0) instanceof DeltaGraph) {
+                    var compacted = DeltaCompaction.compact(
+                        typeGraphs.stream().map(graph -> (DeltaGraph) graph).collect(Collectors.toList()),
+                        concurrency,
+                        tracker
+                    );
+                    compactedRelationships.add(compacted);
+                    snapshotRelationships.put(relationshipType, compacted);
+                } else {
+                    snapshotRelationships.put(relationshipType, typeGraphs
+                        .stream()
+                        .map(graph -> ((HugeGraph) graph).relationships())
+                        .collect(Collectors.toList()));
+                }
+            });
+        } catch (RuntimeException e) {
+            releaseCompacted.run();
+            throw e;
+        }
+
+        return new RelationshipsSnapshot(snapshotNodes, propertyKeys, snapshotRelationships, releaseCompacted);
+    }
+
     @Override
     public CSRGraph getGraph(
         Collection<NodeLabel> nodeLabels,
@@ -384,11 +553,72 @@ public final class CSRGraphStore implements GraphStore {
         Optional<String> maybeRelationshipProperty
     ) {
         validateInput(relationshipTypes, maybeRelationshipProperty);
-        return createGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty);
+        var materializedGraph = materializedGraphs.get(graphKey(
+            nodeLabels,
+            relationshipTypes,
+            maybeRelationshipProperty,
+            false
+        ));
+        return materializedGraph.orElseGet(() -> createGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty));
+    }
+
+    @Override
+    public CSRGraph getMaterializedGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty
+    ) {
+        return getMaterializedGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty, false);
+    }
+
+    /**
+     * Returns a graph whose relationships of all given types are merged into a single adjacency list,
+     * see {@link GraphStore#getMaterializedGraph(Collection, Collection, Optional, boolean)}.
+     * <p>
+     * The graph is cached until the graph store is modified. As long as it is cached, a non-deduplicated graph
+     * is also returned by {@link #getGraph(Collection, Collection, Optional)} and, if it covers all relationship types,
+     * by {@link #getUnion()}.
+     */
+    @Override
+    public CSRGraph getMaterializedGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        boolean deduplicateRelationships
+    ) {
+        validateInput(relationshipTypes, maybeRelationshipProperty);
+        var key = graphKey(nodeLabels, relationshipTypes, maybeRelationshipProperty, deduplicateRelationships);
+        var cachedGraph = materializedGraphs.get(key);
+        if (cachedGraph.isPresent()) {
+            return cachedGraph.get();
+        }
+
+        long generation = materializedGraphs.generation();
+        var materializationTracker = AllocationTracker.create();
+        var graph = materializeGraph(
+            nodeLabels,
+            relationshipTypes,
+            maybeRelationshipProperty,
+            deduplicateRelationships,
+            materializationTracker
+        );
+        materializedGraphs.put(key, generation, graph, materializationTracker.trackedBytes());
+        return graph;
     }
 
     @Override
     public CSRGraph getUnion() {
+        if (relationshipPropertyKeys().isEmpty()) {
+            var materializedGraph = materializedGraphs.get(graphKey(
+                nodeLabels(),
+                relationshipTypes(),
+                Optional.empty(),
+                false
+            ));
+            if (materializedGraph.isPresent()) {
+                return materializedGraph.get();
+            }
+        }
         return UnionGraph.of(relationships
             .keySet()
             .stream()
@@ -414,6 +644,9 @@ public final class CSRGraphStore implements GraphStore {
     @Override
     public void release() {
         createdGraphs.forEach(Graph::release);
+        filteredIdMaps.invalidate();
+        materializedGraphs.invalidate();
+        Set.copyOf(skipIndexes.keySet()).forEach(this::releaseSkipIndex);
     }
 
     @Override
@@ -423,6 +656,7 @@ public final class CSRGraphStore implements GraphStore {
 
     private synchronized void updateGraphStore(Consumer<CSRGraphStore> updateFunction) {
         updateFunction.accept(this);
+        materializedGraphs.invalidate();
         this.modificationTime = TimeUtil.now();
     }
 
@@ -474,6 +708,391 @@ public final class CSRGraphStore implements GraphStore {
         });
     }
 
+    private void validateDelta(GraphDelta graphDelta) {
+        var insertedNodes = new LongHashSet();
+        var availableLabels = nodes.availableNodeLabels();
+        for (GraphDelta.NodeInsert nodeInsert : graphDelta.insertedNodes()) {
+            if (nodes.contains(nodeInsert.nodeId) || !insertedNodes.add(nodeInsert.nodeId)) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Node with id %d cannot be inserted, it is already part of the graph.",
+                    nodeInsert.nodeId
+                ));
+            }
+            nodeInsert.nodeLabels.forEach(nodeLabel -> {
+                if (!availableLabels.contains(nodeLabel)) {
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "Node label '%s' does not exist in the graph. Available node labels: %s",
+                        nodeLabel.name,
+                        StringJoining.join(availableLabels.stream().map(NodeLabel::name))
+                    ));
+                }
+            });
+        }
+
+        LongConsumer validateNode = nodeId -> {
+            if (!nodes.contains(nodeId) && !insertedNodes.contains(nodeId)) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Node with id %d is not part of the graph.",
+                    nodeId
+                ));
+            }
+        };
+        for (RelationshipType relationshipType : graphDelta.relationshipTypes()) {
+            var propertyKeys = relationshipPropertyKeys(relationshipType);
+            for (GraphDelta.RelationshipChange change : graphDelta.relationshipChanges(relationshipType)) {
+                validateNode.accept(change.sourceNodeId);
+                validateNode.accept(change.targetNodeId);
+                change.properties.keySet().forEach(propertyKey -> {
+                    if (!propertyKeys.contains(propertyKey)) {
+                        throw new IllegalArgumentException(formatWithLocale(
+                            "Property '%s' does not exist for relationships with type '%s'.",
+                            propertyKey,
+                            relationshipType
+                        ));
+                    }
+                });
+            }
+        }
+        Arrays.stream(graphDelta.deletedNodes()).forEach(validateNode);
+    }
+
+    /**
+     * Appends the nodes to the id map. The node properties and adjacency lists of the existing nodes are kept,
+     * they are padded so that the new nodes have no values and no relationships.
+     */
+    private void appendNodes(List<GraphDelta.NodeInsert> insertedNodes) {
+        long nodeCount = nodes.nodeCount();
+
+        // node properties are padded first, since that fails for unsupported property types
+        Map<NodeLabel, NodePropertyStore> paddedNodeProperties = new HashMap<>();
+        nodeProperties.forEach((nodeLabel, propertyStore) -> {
+            NodePropertyStore.Builder builder = NodePropertyStore.builder();
+            propertyStore.nodeProperties().forEach((propertyKey, property) -> builder.putNodeProperty(
+                propertyKey,
+                NodeProperty.of(propertyKey, property.state(), PaddedNodeProperties.of(property.values(), nodeCount))
+            ));
+            paddedNodeProperties.put(nodeLabel, builder.build());
+        });
+        nodeProperties.putAll(paddedNodeProperties);
+
+        relationships.replaceAll((relationshipType, topology) -> paddedTopology(topology, nodeCount));
+        Set.copyOf(skipIndexes.keySet()).forEach(this::releaseSkipIndex);
+        relationshipProperties.replaceAll((relationshipType, propertyStore) -> {
+            Map<String, RelationshipProperty> properties = new HashMap<>();
+            propertyStore.relationshipProperties().forEach((propertyKey, property) ->
+                properties.put(propertyKey, RelationshipProperty.of(
+                    propertyKey,
+                    property.type(),
+                    property.state(),
+                    paddedProperties(property.values(), nodeCount)
+                )));
+            return RelationshipPropertyStore.builder().relationshipProperties(properties).build();
+        });
+
+        long[] originalNodeIds = insertedNodes.stream().mapToLong(nodeInsert -> nodeInsert.nodeId).toArray();
+        List<List<NodeLabel>> nodeLabels = insertedNodes.stream()
+            .map(nodeInsert -> nodeInsert.nodeLabels)
+            .collect(Collectors.toList());
+        nodes = nodes.withAddedNodes(originalNodeIds, nodeLabels, concurrency);
+        filteredIdMaps.invalidate();
+    }
+
+    private static Relationships.Topology paddedTopology(Relationships.Topology topology, long nodeCount) {
+        return ImmutableTopology.copyOf(topology)
+            .withOffsets(PaddedAdjacencyOffsets.of(topology.offsets(), nodeCount))
+            .withInverse(topology.inverse().map(inverse -> paddedTopology(inverse, nodeCount)));
+    }
+
+    private static Relationships.Properties paddedProperties(Relationships.Properties properties, long nodeCount) {
+        return ImmutableProperties.copyOf(properties)
+            .withOffsets(PaddedAdjacencyOffsets.of(properties.offsets(), nodeCount))
+            .withInverse(properties.inverse().map(inverse -> paddedTopology(inverse, nodeCount)));
+    }
+
+    private RelationshipsDelta applyDelta(
+        RelationshipType relationshipType,
+        GraphDelta graphDelta,
+        long[] deletedNodes
+    ) {
+        var topology = relationships.get(relationshipType);
+        var delta = relationshipDeltas.getOrDefault(
+            relationshipType,
+            RelationshipsDelta.empty(
+                new ArrayList<>(relationshipPropertyKeys(relationshipType)),
+                topology.isMultiGraph(),
+                topology.inverse().isPresent()
+            )
+        );
+        var builder = delta.builder(
+            baseGraph(relationshipType, Optional.empty()),
+            topology.inverse().map(inverse -> inverseBaseGraph(relationshipType, inverse)).orElse(null)
+        );
+        // undirected relationships are stored in both directions
+        boolean isUndirected = topology.orientation() == Orientation.UNDIRECTED;
+
+        for (GraphDelta.RelationshipChange change : graphDelta.relationshipChanges(relationshipType)) {
+            long sourceNodeId = mappedNodeId(change.sourceNodeId);
+            long targetNodeId = mappedNodeId(change.targetNodeId);
+            if (change.isInsert) {
+                double[] propertyValues = propertyValues(relationshipType, delta.propertyKeys(), change.properties);
+                builder.insert(sourceNodeId, targetNodeId, propertyValues);
+                if (isUndirected) {
+                    builder.insert(targetNodeId, sourceNodeId, propertyValues);
+                }
+            } else {
+                builder.delete(sourceNodeId, targetNodeId);
+                if (isUndirected) {
+                    builder.delete(targetNodeId, sourceNodeId);
+                }
+            }
+        }
+        for (long nodeId : deletedNodes) {
+            builder.deleteNode(nodeId);
+        }
+
+        return builder.build();
+    }
+
+    private double[] propertyValues(
+        RelationshipType relationshipType,
+        List<String> propertyKeys,
+        Map<String, Double> properties
+    ) {
+        double[] values = new double[propertyKeys.size()];
+        for (int i = 0; i < values.length; i++) {
+            var propertyKey = propertyKeys.get(i);
+            values[i] = properties.containsKey(propertyKey)
+                ? properties.get(propertyKey)
+                : relationshipProperties.get(relationshipType).get(propertyKey).values().defaultPropertyValue();
+        }
+        return values;
+    }
+
+    private long mappedNodeId(long nodeId) {
+        return nodes.toMappedNodeId(nodeId);
+    }
+
+    private synchronized void scheduleCompactions() {
+        relationshipDeltas.forEach((relationshipType, delta) -> {
+            var topology = relationships.get(relationshipType);
+            if (topology == null) {
+                return;
+            }
+            long threshold = Math.max(
+                MIN_DELTA_COMPACTION_SIZE,
+                (long) (topology.elementCount() * DELTA_COMPACTION_RATIO)
+            );
+            if (delta.size() >= threshold && runningCompactions.add(relationshipType)) {
+                Pools.DEFAULT.execute(() -> {
+                    try {
+                        compactDelta(relationshipType);
+                    } finally {
+                        runningCompactions.remove(relationshipType);
+                    }
+                });
+            }
+        });
+    }
+
+    private void compactDelta(RelationshipType relationshipType) {
+        // a compaction replaces the topology it started from, so compactions must not overlap
+        synchronized (compactionLock) {
+            RelationshipsDelta delta;
+            Relationships.Topology baseTopology;
+            List<String> propertyKeys;
+            List<DeltaGraph> graphs;
+            synchronized (this) {
+                delta = relationshipDeltas.get(relationshipType);
+                if (delta == null) {
+                    return;
+                }
+                baseTopology = relationships.get(relationshipType);
+                propertyKeys = new ArrayList<>(relationshipPropertyKeys(relationshipType));
+                graphs = propertyKeys.isEmpty()
+                    ? List.of(deltaGraph(relationshipType, Optional.empty(), delta))
+                    : propertyKeys
+                        .stream()
+                        .map(propertyKey -> deltaGraph(relationshipType, Optional.of(propertyKey), delta))
+                        .collect(Collectors.toList());
+                batchesDuringCompaction.put(relationshipType, new ArrayList<>());
+            }
+
+            try {
+                // the adjacency lists are rewritten without holding the lock,
+                // batches can still be applied and graphs be created on top of the current delta
+                var compacted = DeltaCompaction.compact(graphs, concurrency, tracker);
+                long compactedNodeCount = graphs.get(0).nodeCount();
+                updateGraphStore(graphStore -> replaceCompacted(
+                    relationshipType,
+                    baseTopology,
+                    propertyKeys,
+                    compacted,
+                    compactedNodeCount
+                ));
+            } finally {
+                synchronized (this) {
+                    batchesDuringCompaction.remove(relationshipType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the topology and properties of the type with the compacted ones.
+     * The batches that have been applied during the compaction are replayed on top of them.
+     */
+    private void replaceCompacted(
+        RelationshipType relationshipType,
+        Relationships.Topology baseTopology,
+        List<String> propertyKeys,
+        List<Relationships> compacted,
+        long compactedNodeCount
+    ) {
+        var pendingBatches = batchesDuringCompaction.remove(relationshipType);
+
+        // the type has been deleted meanwhile, nobody has seen the compacted lists;
+        // appending nodes only pads the offsets of the topology, but keeps its adjacency list
+        var currentTopology = relationships.get(relationshipType);
+        if (currentTopology == null || currentTopology.list() != baseTopology.list()) {
+            // the topology is shared by the relationships of all properties
+            release(compacted.get(0).topology());
+            compacted.forEach(compactedRelationships -> compactedRelationships.properties().ifPresent(this::release));
+            return;
+        }
+
+        // nodes that have been appended meanwhile are not part of the compacted lists
+        boolean nodesAppended = nodes.nodeCount() > compactedNodeCount;
+        var topology = compacted.get(0).topology();
+        untrack(relationships.put(
+            relationshipType,
+            nodesAppended ? paddedTopology(topology, compactedNodeCount) : topology
+        ));
+        releaseSkipIndex(relationshipType);
+        if (!propertyKeys.isEmpty()) {
+            Map<String, RelationshipProperty> properties = new HashMap<>();
+            relationshipProperties.get(relationshipType).relationshipProperties().forEach((propertyKey, property) -> {
+                untrack(property.values());
+                // .get() is safe, since the graph has a property
+                var compactedProperties = compacted.get(propertyKeys.indexOf(propertyKey)).properties().get();
+                properties.put(propertyKey, RelationshipProperty.of(
+                    propertyKey,
+                    property.type(),
+                    property.state(),
+                    nodesAppended ? paddedProperties(compactedProperties, compactedNodeCount) : compactedProperties
+                ));
+            });
+            relationshipProperties.put(
+                relationshipType,
+                RelationshipPropertyStore.builder().relationshipProperties(properties).build()
+            );
+        }
+
+        relationshipDeltas.remove(relationshipType);
+        for (GraphDelta graphDelta : pendingBatches) {
+            long[] deletedNodes = Arrays.stream(graphDelta.deletedNodes()).map(this::mappedNodeId).toArray();
+            relationshipDeltas.put(relationshipType, applyDelta(relationshipType, graphDelta, deletedNodes));
+        }
+    }
+
+    /**
+     * Untracks the heap memory of a replaced topology. Graphs that have been created before
+     * can still read it, the memory is reclaimed once they are gone.
+     */
+    private void untrack(Relationships.Topology topology) {
+        if (topology.list() instanceof TransientAdjacencyList) {
+            tracker.remove(((TransientAdjacencyList) topology.list()).memoryUsage());
+        }
+        if (topology.offsets() instanceof TransientAdjacencyOffsets) {
+            tracker.remove(((TransientAdjacencyOffsets) topology.offsets()).memoryUsage());
+        }
+        topology.inverse().ifPresent(this::untrack);
+    }
+
+    private void release(Relationships.Topology topology) {
+        untrack(topology);
+        topology.list().close();
+        topology.offsets().close();
+        topology.inverse().ifPresent(this::release);
+    }
+
+    private HugeGraph baseGraph(RelationshipType relationshipType, Optional<String> maybeRelationshipProperty) {
+        return HugeGraph.create(
+            nodes,
+            GraphSchema.of(
+                schema().nodeSchema(),
+                schema().relationshipSchema().singleTypeAndProperty(relationshipType, maybeRelationshipProperty)
+            ),
+            Collections.emptyMap(),
+            relationships.get(relationshipType),
+            maybeRelationshipProperty.map(propertyKey -> relationshipProperties
+                .get(relationshipType)
+                .get(propertyKey).values()),
+            skipIndex(relationshipType),
+            tracker
+        );
+    }
+
+    /**
+     * Returns the skip index of the current topology of the given type, if the index is enabled.
+     * Needs to be called while holding the lock of the graph store, see {@link #updateGraphStore}.
+     */
+    private @Nullable AdjacencySkipIndex skipIndex(RelationshipType relationshipType) {
+        if (!USE_ADJACENCY_SKIP_INDEX.isEnabled()) {
+            return null;
+        }
+        return skipIndexes.computeIfAbsent(
+            relationshipType,
+            type -> AdjacencySkipIndex.of(relationships.get(type), nodes.nodeCount(), tracker)
+        );
+    }
+
+    private void releaseSkipIndex(RelationshipType relationshipType) {
+        var skipIndex = skipIndexes.remove(relationshipType);
+        if (skipIndex != null) {
+            skipIndex.release();
+        }
+    }
+
+    private HugeGraph inverseBaseGraph(RelationshipType relationshipType, Relationships.Topology inverseTopology) {
+        return HugeGraph.create(
+            nodes,
+            GraphSchema.of(
+                schema().nodeSchema(),
+                schema().relationshipSchema().singleTypeAndProperty(relationshipType, Optional.empty())
+            ),
+            Collections.emptyMap(),
+            inverseTopology,
+            Optional.empty(),
+            tracker
+        );
+    }
+
+    private DeltaGraph deltaGraph(
+        RelationshipType relationshipType,
+        Optional<String> maybeRelationshipProperty,
+        RelationshipsDelta delta
+    ) {
+        return new DeltaGraph(
+            baseGraph(relationshipType, maybeRelationshipProperty),
+            delta,
+            maybeRelationshipProperty,
+            concurrency,
+            tracker
+        );
+    }
+
+    private CSRGraph withDelta(
+        HugeGraph graph,
+        RelationshipType relationshipType,
+        Optional<String> maybeRelationshipProperty
+    ) {
+        var delta = relationshipDeltas.get(relationshipType);
+        if (delta == null || delta.isEmpty()) {
+            return graph;
+        }
+        return new DeltaGraph(graph, delta, maybeRelationshipProperty, concurrency, tracker);
+    }
+
     private CSRGraph createGraph(
         Collection<NodeLabel> nodeLabels,
         RelationshipType relationshipType,
@@ -489,46 +1108,130 @@ public final class CSRGraphStore implements GraphStore {
     ) {
         boolean loadAllNodes = filteredLabels.containsAll(nodeLabels());
 
-        Optional<IdMap> filteredNodes = loadAllNodes || nodes.containsOnlyAllNodesLabel()
-            ? Optional.empty()
-            : Optional.of(nodes.withFilteredLabels(filteredLabels, concurrency));
-
-        List<CSRGraph> filteredGraphs = relationships.entrySet().stream()
-            .filter(relTypeAndCSR -> relationshipTypes.contains(relTypeAndCSR.getKey()))
-            .map(relTypeAndCSR -> {
-                Map<String, NodeProperties> filteredNodeProperties = filterNodeProperties(filteredLabels);
-
-                var graphSchema = GraphSchema.of(
-                    schema().nodeSchema(),
-                    schema()
-                        .relationshipSchema()
-                        .singleTypeAndProperty(relTypeAndCSR.getKey(), maybeRelationshipProperty)
-                );
+        List<CSRGraph> filteredGraphs;
+        // nodes, topologies, properties and deltas are replaced together, see #applyDelta and #compactDelta
+        synchronized (this) {
+            Optional<IdMap> filteredNodes = loadAllNodes || nodes.containsOnlyAllNodesLabel()
+                ? Optional.empty()
+                : Optional.of(filteredIdMap(filteredLabels));
+
+            filteredGraphs = relationships.entrySet().stream()
+                .filter(relTypeAndCSR -> relationshipTypes.contains(relTypeAndCSR.getKey()))
+                .map(relTypeAndCSR -> {
+                    Map<String, NodeProperties> filteredNodeProperties = filterNodeProperties(filteredLabels);
+
+                    var graphSchema = GraphSchema.of(
+                        schema().nodeSchema(),
+                        schema()
+                            .relationshipSchema()
+                            .singleTypeAndProperty(relTypeAndCSR.getKey(), maybeRelationshipProperty)
+                    );
 
-                HugeGraph initialGraph = HugeGraph.create(
-                    nodes,
-                    graphSchema,
-                    filteredNodeProperties,
-                    relTypeAndCSR.getValue(),
-                    maybeRelationshipProperty.map(propertyKey -> relationshipProperties
-                        .get(relTypeAndCSR.getKey())
-                        .get(propertyKey).values()),
-                    tracker
-                );
+                    CSRGraph initialGraph = withDelta(
+                        HugeGraph.create(
+                            nodes,
+                            graphSchema,
+                            filteredNodeProperties,
+                            relTypeAndCSR.getValue(),
+                            maybeRelationshipProperty.map(propertyKey -> relationshipProperties
+                                .get(relTypeAndCSR.getKey())
+                                .get(propertyKey).values()),
+                            skipIndex(relTypeAndCSR.getKey()),
+                            tracker
+                        ),
+                        relTypeAndCSR.getKey(),
+                        maybeRelationshipProperty
+                    );
 
-                if (filteredNodes.isPresent()) {
-                    return new NodeFilteredGraph(initialGraph, filteredNodes.get());
-                } else {
-                    return initialGraph;
-                }
-            })
-            .collect(Collectors.toList());
+                    if (filteredNodes.isPresent()) {
+                        return new NodeFilteredGraph(initialGraph, filteredNodes.get());
+                    } else {
+                        return initialGraph;
+                    }
+                })
+                .collect(Collectors.toList());
+        }
 
         filteredGraphs.forEach(graph -> graph.canRelease(false));
         createdGraphs.addAll(filteredGraphs);
         return UnionGraph.of(filteredGraphs);
     }
 
+    /**
+     * A graph of a single type that is neither filtered by label nor has a delta is used as it is,
+     * all others are copied into a {@link HugeGraph} over the filtered nodes.
+     * The relationships of several types are merged into the adjacency list of a single {@link HugeGraph}.
+     */
+    private CSRGraph materializeGraph(
+        Collection<NodeLabel> filteredLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        boolean deduplicateRelationships,
+        AllocationTracker materializationTracker
+    ) {
+        List<CSRGraph> graphs = new ArrayList<>();
+        double[] defaultPropertyValues = new double[relationshipTypes.size()];
+        for (RelationshipType relationshipType : relationshipTypes) {
+            defaultPropertyValues[graphs.size()] = maybeRelationshipProperty
+                .map(propertyKey -> relationshipProperties
+                    .get(relationshipType)
+                    .get(propertyKey)
+                    .values()
+                    .defaultPropertyValue())
+                .orElse(Double.NaN);
+            graphs.add(createGraph(filteredLabels, relationshipType, maybeRelationshipProperty));
+        }
+
+        var firstGraph = graphs.get(0);
+        if (graphs.size() == 1 && firstGraph instanceof HugeGraph && !(deduplicateRelationships && firstGraph.isMultiGraph())) {
+            return firstGraph;
+        }
+
+        var materializedNodes = firstGraph.nodeCount() == nodes.nodeCount()
+            ? nodes
+            : GraphMaterialization.materializeNodes(firstGraph, concurrency, materializationTracker);
+        var graph = GraphMaterialization.materialize(
+            graphs,
+            defaultPropertyValues,
+            materializedNodes,
+            deduplicateRelationships,
+            concurrency,
+            materializationTracker
+        );
+        // the adjacency lists are shared by all users of the cached graph
+        graph.canRelease(false);
+        return graph;
+    }
+
+    private static MaterializedGraphCache.GraphKey graphKey(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        boolean deduplicateRelationships
+    ) {
+        return ImmutableGraphKey.of(
+            Set.copyOf(nodeLabels),
+            Set.copyOf(relationshipTypes),
+            maybeRelationshipProperty,
+            deduplicateRelationships
+        );
+    }
+
+    private IdMap filteredIdMap(Collection<NodeLabel> filteredLabels) {
+        var labels = Set.copyOf(filteredLabels);
+        var cachedIdMap = filteredIdMaps.get(labels);
+        if (cachedIdMap.isPresent()) {
+            return cachedIdMap.get();
+        }
+
+        // read the generation first, so that an id map of replaced nodes is not cached
+        long generation = filteredIdMaps.generation();
+        var allNodes = nodes;
+        var idMap = allNodes.withFilteredLabels(labels, concurrency);
+        filteredIdMaps.put(labels, generation, idMap, idMap == allNodes ? 0L : idMap.sizeOfIds());
+        return idMap;
+    }
+
     private Map<String, NodeProperties> filterNodeProperties(Collection<NodeLabel> labels) {
         if (this.nodeProperties.isEmpty()) {
             return Collections.emptyMap();
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * A comma separated file with a header line that names the columns.
+ * <p>
+ * The columns {@code id} and {@code labels} identify a node file, the columns {@code source},
+ * {@code target} and {@code type} a relationship file. All other columns are numeric properties,
+ * empty values are treated as missing. Multiple labels are separated by {@code ;}.
+ * Relationship files without a {@code type} column contain relationships of a single, unnamed type.
+ * Values can be enclosed in double quotes, but must not contain the column separator.
+ */
+final class CsvGraphFile extends GraphFile {
+
+    private static final byte SEPARATOR = ',';
+    private static final String LABEL_SEPARATOR = ";";
+    private static final int SAMPLE_SIZE = 1 << 16;
+    private static final int SCAN_SIZE = 1 << 13;
+    private static final int NO_COLUMN = -1;
+
+    private final long fileSize;
+    private final long dataOffset;
+    private final long estimatedRecordCount;
+    private final String[] columns;
+    private final int idColumn;
+    private final int labelsColumn;
+    private final int sourceColumn;
+    private final int targetColumn;
+    private final int typeColumn;
+    private final int[] propertyColumns;
+    private final List<String> propertyKeys;
+
+    static CsvGraphFile open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            long fileSize = channel.size();
+            var sample = ByteBuffer.allocate((int) Math.min(fileSize, SAMPLE_SIZE));
+            while (sample.hasRemaining()) {
+                if (channel.read(sample, sample.position()) < 0) {
+                    break;
+                }
+            }
+            sample.flip();
+
+            int headerEnd = indexOf(sample, 0, '\n');
+            if (headerEnd == -1 && fileSize > sample.limit()) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "The header of file `%s` exceeds %d bytes.",
+                    path,
+                    SAMPLE_SIZE
+                ));
+            }
+            int dataOffset = headerEnd == -1 ? sample.limit() : headerEnd + 1;
+            String header = new String(
+                sample.array(),
+                0,
+                headerEnd == -1 ? sample.limit() : headerEnd,
+                StandardCharsets.UTF_8
+            ).strip();
+            if (header.isEmpty()) {
+                throw new IllegalArgumentException(formatWithLocale("File `%s` has no header.", path));
+            }
+            String[] columns = Arrays
+                .stream(header.split(String.valueOf((char) SEPARATOR), -1))
+                .map(column -> unquote(column.strip()))
+                .toArray(String[]::new);
+
+            // extrapolate the number of lines in the sample to the whole file
+            long sampledLines = 0;
+            for (int position = dataOffset; position < sample.limit(); position++) {
+                if (sample.get(position) == '\n') {
+                    sampledLines++;
+                }
+            }
+            long sampledBytes = sample.limit() - dataOffset;
+            long estimatedRecordCount = sampledBytes == 0
+                ? 0
+                : Math.max(1, (long) Math.ceil((double) sampledLines * (fileSize - dataOffset) / sampledBytes));
+
+            return new CsvGraphFile(path, fileSize, dataOffset, estimatedRecordCount, columns);
+        }
+    }
+
+    private CsvGraphFile(Path path, long fileSize, long dataOffset, long estimatedRecordCount, String[] columns) {
+        super(path);
+        this.fileSize = fileSize;
+        this.dataOffset = dataOffset;
+        this.estimatedRecordCount = estimatedRecordCount;
+        this.columns = columns;
+        this.idColumn = column(ID_COLUMN);
+        this.labelsColumn = column(LABELS_COLUMN);
+        this.sourceColumn = column(SOURCE_COLUMN);
+        this.targetColumn = column(TARGET_COLUMN);
+        this.typeColumn = column(TYPE_COLUMN);
+
+        if (idColumn == NO_COLUMN && (sourceColumn == NO_COLUMN || targetColumn == NO_COLUMN)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "File `%s` must either have an `%s` column for nodes or `%s` and `%s` columns for relationships, but has columns %s.",
+                path,
+                ID_COLUMN,
+                SOURCE_COLUMN,
+                TARGET_COLUMN,
+                Arrays.toString(columns)
+            ));
+        }
+
+        var propertyColumns = new ArrayList<Integer>();
+        var propertyKeys = new ArrayList<String>();
+        for (int column = 0; column < columns.length; column++) {
+            if (!isReserved(columns[column])) {
+                propertyColumns.add(column);
+                propertyKeys.add(columns[column]);
+            }
+        }
+        this.propertyColumns = propertyColumns.stream().mapToInt(Integer::intValue).toArray();
+        this.propertyKeys = propertyKeys;
+    }
+
+    @Override
+    boolean containsNodes() {
+        return idColumn != NO_COLUMN;
+    }
+
+    @Override
+    boolean hasLabels() {
+        return labelsColumn != NO_COLUMN;
+    }
+
+    @Override
+    List<String> propertyKeys() {
+        return propertyKeys;
+    }
+
+    @Override
+    long estimatedRecordCount() {
+        return estimatedRecordCount;
+    }
+
+    @Override
+    List<Chunk> chunks(long chunkSize) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        try (var channel = FileChannel.open(path, READ)) {
+            var scanBuffer = ByteBuffer.allocate(SCAN_SIZE);
+            long start = dataOffset;
+            while (start < fileSize) {
+                long end = Math.min(start + chunkSize, fileSize);
+                if (end < fileSize) {
+                    end = nextLineStart(channel, scanBuffer, end);
+                }
+                chunks.add(new Chunk(start, end - start));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    @Override
+    Cursor cursor(Chunk chunk) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            return new CsvCursor(channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset, chunk.length));
+        }
+    }
+
+    private int column(String name) {
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column].equals(name)) {
+                return column;
+            }
+        }
+        return NO_COLUMN;
+    }
+
+    private boolean isReserved(String column) {
+        if (containsNodes()) {
+            return column.equals(ID_COLUMN) || column.equals(LABELS_COLUMN);
+        }
+        return column.equals(SOURCE_COLUMN) || column.equals(TARGET_COLUMN) || column.equals(TYPE_COLUMN);
+    }
+
+    // returns the position after the first line break at or after the given position
+    private long nextLineStart(FileChannel channel, ByteBuffer scanBuffer, long position) throws IOException {
+        while (position < fileSize) {
+            scanBuffer.clear();
+            int read = channel.read(scanBuffer, position);
+            if (read <= 0) {
+                break;
+            }
+            int lineBreak = indexOf(scanBuffer.flip(), 0, '\n');
+            if (lineBreak != -1) {
+                return position + lineBreak + 1;
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, char value) {
+        for (int position = from; position < buffer.limit(); position++) {
+            if (buffer.get(position) == value) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private final class CsvCursor implements Cursor {
+
+        private final ByteBuffer buffer;
+        private final int[] fieldStarts;
+        private final int[] fieldEnds;
+        private byte[] scratch;
+
+        CsvCursor(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.fieldStarts = new int[columns.length];
+            this.fieldEnds = new int[columns.length];
+            this.scratch = new byte[64];
+        }
+
+        @Override
+        public boolean next() {
+            int limit = buffer.limit();
+            int position = buffer.position();
+            while (position < limit) {
+                int lineStart = position;
+                int field = 0;
+                fieldStarts[0] = lineStart;
+                while (position < limit) {
+                    byte value = buffer.get(position);
+                    if (value == '\n') {
+                        break;
+                    }
+                    if (value == SEPARATOR) {
+                        if (field < columns.length) {
+                            fieldEnds[field] = position;
+                        }
+                        if (++field < columns.length) {
+                            fieldStarts[field] = position + 1;
+                        }
+                    }
+                    position++;
+                }
+                int lineEnd = position;
+                position = Math.min(position + 1, limit);
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd == lineStart) {
+                    continue;
+                }
+                if (field != columns.length - 1) {
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "Expected %d columns, but found %d in line `%s` of file `%s`.",
+                        columns.length,
+                        field + 1,
+                        string(lineStart, lineEnd),
+                        path
+                    ));
+                }
+                fieldEnds[field] = lineEnd;
+                buffer.position(position);
+                return true;
+            }
+            buffer.position(limit);
+            return false;
+        }
+
+        @Override
+        public long id() {
+            return longValue(idColumn);
+        }
+
+        @Override
+        public String[] labels() {
+            return Arrays
+                .stream(stringValue(labelsColumn).split(LABEL_SEPARATOR))
+                .map(String::strip)
+                .filter(label -> !label.isEmpty())
+                .toArray(String[]::new);
+        }
+
+        @Override
+        public long source() {
+            return longValue(sourceColumn);
+        }
+
+        @Override
+        public long target() {
+            return longValue(targetColumn);
+        }
+
+        @Override
+        public String type() {
+            return typeColumn == NO_COLUMN ? ALL_RELATIONSHIPS.name : stringValue(typeColumn);
+        }
+
+        @Override
+        public double property(int index) {
+            int column = propertyColumns[index];
+            int start = valueStart(column);
+            int end = valueEnd(column, start);
+            if (start == end) {
+                return Double.NaN;
+            }
+            if (isInteger(start, end)) {
+                return parseLong(start, end);
+            }
+            String value = string(start, end);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Unsupported value `%s` in column `%s` of file `%s`, only numeric properties are supported.",
+                    value,
+                    columns[column],
+                    path
+                ));
+            }
+        }
+
+        private long longValue(int column) {
+            int start = valueStart(column);
+            int end = valueEnd(column, start);
+            if (!isInteger(start, end)) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Expected an integer in column `%s` of file `%s`, but found `%s`.",
+                    columns[column],
+                    path,
+                    string(start, end)
+                ));
+            }
+            return parseLong(start, end);
+        }
+
+        private String stringValue(int column) {
+            int start = valueStart(column);
+            return string(start, valueEnd(column, start));
+        }
+
+        private int valueStart(int column) {
+            int start = fieldStarts[column];
+            int end = fieldEnds[column];
+            while (start < end && isPadding(buffer.get(start))) {
+                start++;
+            }
+            return start;
+        }
+
+        private int valueEnd(int column, int start) {
+            int end = fieldEnds[column];
+            while (end > start && isPadding(buffer.get(end - 1))) {
+                end--;
+            }
+            return end;
+        }
+
+        private boolean isPadding(byte value) {
+            return value == ' ' || value == '"';
+        }
+
+        private boolean isInteger(int start, int end) {
+            if (start < end && buffer.get(start) == '-') {
+                start++;
+            }
+            // longer values would overflow
+            if (start == end || end - start > 18) {
+                return false;
+            }
+            for (int position = start; position < end; position++) {
+                byte value = buffer.get(position);
+                if (value < '0' || value > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long parseLong(int start, int end) {
+            boolean negative = buffer.get(start) == '-';
+            long value = 0;
+            for (int position = negative ? start + 1 : start; position < end; position++) {
+                value = value * 10 + (buffer.get(position) - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        private String string(int start, int end) {
+            int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(start + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
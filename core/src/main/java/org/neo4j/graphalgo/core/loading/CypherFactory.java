@@ -105,6 +105,7 @@ public class CypherFactory extends CSRGraphStoreFactory<GraphCreateFromCypherCon
         var relationshipProjection = RelationshipProjection
             .builder()
             .type(PROJECT_ALL)
+            .adjacencyCodec(cypherConfig.adjacencyCodec())
             .addAllProperties(getRelationshipEstimation().propertyMappings())
             .build();
 
@@ -44,17 +44,20 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
+import static org.neo4j.graphalgo.config.GraphCreateFromCypherConfig.PARTITION_COUNT_PARAMETER;
+import static org.neo4j.graphalgo.config.GraphCreateFromCypherConfig.PARTITION_PARAMETER;
 import static org.neo4j.graphalgo.core.loading.CypherNodePropertyImporter.NO_PROPERTY_VALUE;
 import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_PRE_AGGREGATION;
+import static org.neo4j.internal.kernel.api.security.AccessMode.Static.READ;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_RELATIONSHIP_TYPE;
 
 @Value.Enclosing
@@ -137,30 +140,37 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
 
     @Override
     BatchLoadResult loadSingleBatch(Transaction tx, int bufferSize) {
-        Result queryResult = runLoadingQuery(tx);
+        int partitionCount = cypherConfig.partitionCount();
+        if (partitionCount == 1) {
+            return loadPartition(tx, cypherConfig.parameters(), bufferSize);
+        }
 
-        List<String> allColumns = queryResult.columns();
+        // every partition runs the query in its own transaction and imports
+        // into the shared relationship builders using thread-local buffers
+        var transaction = loadingContext.transaction().withRestrictedAccess(READ);
+        var rows = new LongAdder();
+        var tasks = IntStream.range(0, partitionCount)
+            .mapToObj(partition -> (Runnable) () -> transaction.accept((partitionTx, ktx) -> rows.add(
+                loadPartition(partitionTx, partitionParameters(partition, partitionCount), bufferSize).rows()
+            )))
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(cypherConfig.readConcurrency(), tasks, loadingContext.executor());
 
-        // If the user specifies property mappings, we use those.
-        // Otherwise, we create new property mappings from the result columns.
-        // We do that only once, as each batch has the same columns.
-        Collection<String> propertyColumns = getPropertyColumns(queryResult);
-        if (!initializedFromResult) {
-
-            List<PropertyMapping> propertyMappings = propertyColumns
-                .stream()
-                .map(propertyColumn -> PropertyMapping.of(
-                    propertyColumn,
-                    propertyColumn,
-                    NO_PROPERTY_VALUE,
-                    Aggregation.NONE
-                ))
-                .collect(Collectors.toList());
-
-            initFromPropertyMappings(PropertyMappings.of(propertyMappings));
-
-            initializedFromResult = true;
-        }
+        return new BatchLoadResult(rows.sum(), -1L);
+    }
+
+    private Map<String, Object> partitionParameters(int partition, int partitionCount) {
+        Map<String, Object> parameters = new HashMap<>(cypherConfig.parameters());
+        parameters.put(PARTITION_PARAMETER, partition);
+        parameters.put(PARTITION_COUNT_PARAMETER, partitionCount);
+        return parameters;
+    }
+
+    private BatchLoadResult loadPartition(Transaction tx, Map<String, Object> parameters, int bufferSize) {
+        Result queryResult = runLoadingQuery(tx, parameters);
+
+        List<String> allColumns = queryResult.columns();
+        initializeFromResult(queryResult);
 
         boolean isAnyRelTypeQuery = !allColumns.contains(RelationshipRowVisitor.TYPE_COLUMN);
 
@@ -183,6 +193,29 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
         return new BatchLoadResult(visitor.rows(), -1L);
     }
 
+    // If the user specifies property mappings, we use those.
+    // Otherwise, we create new property mappings from the result columns.
+    // We do that only once, as each batch and partition has the same columns.
+    private synchronized void initializeFromResult(Result queryResult) {
+        if (initializedFromResult) {
+            return;
+        }
+
+        List<PropertyMapping> propertyMappings = getPropertyColumns(queryResult)
+            .stream()
+            .map(propertyColumn -> PropertyMapping.of(
+                propertyColumn,
+                propertyColumn,
+                NO_PROPERTY_VALUE,
+                Aggregation.NONE
+            ))
+            .collect(Collectors.toList());
+
+        initFromPropertyMappings(PropertyMappings.of(propertyMappings));
+
+        initializedFromResult = true;
+    }
+
     @Override
     void updateCounts(BatchLoadResult result) { }
 
@@ -255,12 +288,13 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
                 .builder()
                 .type(relationshipType.name)
                 .orientation(Orientation.NATURAL)
+                .adjacencyCodec(cypherConfig.adjacencyCodec())
                 .properties(propertyMappings)
                 .build();
 
             RelationshipsBuilder builder = new RelationshipsBuilder(
                 projection,
-                TransientAdjacencyListBuilder.builderFactory(loadingContext.tracker()),
+                TransientAdjacencyListBuilder.builderFactory(projection.adjacencyCodec(), loadingContext.tracker()),
                 TransientAdjacencyOffsets.forPageSize(pageSize)
             );
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.core.PropertyCompression;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.graphalgo.core.loading.construction.GraphFactory;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites the relationships of a {@link DeltaGraph} into new adjacency lists,
+ * so that the graph can be read again without the overhead of the delta.
+ */
+public final class DeltaCompaction {
+
+    private DeltaCompaction() {}
+
+    /**
+     * Compacts the given graphs, which must share the same delta and only differ in their property.
+     * Returns the relationships with each of the properties, all of them share the same topology.
+     */
+    public static List<Relationships> compact(List<DeltaGraph> graphs, int concurrency, AllocationTracker tracker) {
+        var firstGraph = graphs.get(0);
+        var baseGraph = firstGraph.baseGraph();
+        var topology = baseGraph.relationships().topology();
+        boolean hasProperties = firstGraph.hasRelationshipProperty();
+        var propertyCompressions = hasProperties
+            ? graphs
+                .stream()
+                .map(graph -> NodeReordering.propertyCompression(graph.baseGraph()))
+                .collect(Collectors.toList())
+            : List.<PropertyCompression>of();
+        var adjacencyCodec = topology.list() instanceof TransientAdjacencyList
+            ? ((TransientAdjacencyList) topology.list()).codec()
+            : AdjacencyCodec.defaultCodec();
+
+        // the delta already contains both directions of undirected relationships
+        var relationshipsBuilder = GraphFactory.initRelationshipsBuilder()
+            .nodes(baseGraph.idMap())
+            .propertyCompressions(propertyCompressions)
+            .indexInverse(topology.inverse().isPresent())
+            .adjacencyCodec(adjacencyCodec)
+            .concurrency(concurrency)
+            .tracker(tracker)
+            .build();
+
+        // every source node is handled by a single thread, which keeps the order of parallel relationships
+        var tasks = PartitionUtils
+            .rangePartition(concurrency, firstGraph.nodeCount())
+            .stream()
+            .map(partition -> (Runnable) () -> {
+                var relationshipIterator = hasProperties ? new MultiPropertyRelationshipIterator(graphs) : null;
+                var topologyIterator = firstGraph.concurrentCopy();
+                long end = partition.startNode() + partition.nodeCount();
+                for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                    long source = nodeId;
+                    if (hasProperties) {
+                        relationshipIterator.forEachRelationship(
+                            source,
+                            (target, propertyValues) -> relationshipsBuilder.addFromInternal(source, target, propertyValues)
+                        );
+                    } else {
+                        topologyIterator.forEachRelationship(source, (ignored, target) -> {
+                            relationshipsBuilder.addFromInternal(source, target);
+                            return true;
+                        });
+                    }
+                }
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, tasks, Pools.DEFAULT);
+
+        var compacted = relationshipsBuilder.buildAll();
+        List<Relationships> result = new ArrayList<>();
+        for (int i = 0; i < compacted.size(); i++) {
+            var graph = graphs.get(i);
+            var compactedRelationships = compacted.get(i);
+            var relationships = Relationships.of(
+                graph.relationshipCount(),
+                topology.orientation(),
+                graph.isMultiGraph(),
+                compactedRelationships.topology().list(),
+                compactedRelationships.topology().offsets(),
+                compactedRelationships.properties().map(Relationships.Properties::list).orElse(null),
+                compactedRelationships.properties().map(Relationships.Properties::offsets).orElse(null),
+                graph.baseGraph().relationships().properties().map(Relationships.Properties::defaultPropertyValue).orElse(Double.NaN)
+            );
+            result.add(compactedRelationships.inverse().map(relationships::withInverse).orElse(relationships));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.RelationshipType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Writes relationships of a single type in the binary edge list format read by the {@link FileFactory}.
+ * <p>
+ * All values are stored in little endian byte order. The file starts with a header
+ * <pre>
+ * int    magic ({@link #MAGIC})
+ * int    version ({@link #VERSION})
+ * int    length of the relationship type name, followed by its UTF-8 bytes
+ * int    number of relationship properties
+ * for every property key: int length, followed by its UTF-8 bytes
+ * </pre>
+ * followed by fixed size records of {@code long source, long target}
+ * and one {@code double} value per relationship property.
+ * Source and target are the original node ids.
+ */
+public final class EdgeListFileWriter implements AutoCloseable {
+
+    public static final int MAGIC = 0x47445345;
+    public static final int VERSION = 1;
+
+    private final SnapshotFileWriter writer;
+    private final int propertyCount;
+
+    public static EdgeListFileWriter create(Path file, List<String> propertyKeys) throws IOException {
+        return create(file, RelationshipType.ALL_RELATIONSHIPS, propertyKeys);
+    }
+
+    public static EdgeListFileWriter create(
+        Path file,
+        RelationshipType relationshipType,
+        List<String> propertyKeys
+    ) throws IOException {
+        var writer = SnapshotFileWriter.create(file);
+        writer.writeInt(MAGIC);
+        writer.writeInt(VERSION);
+        writeString(writer, relationshipType.name);
+        writer.writeInt(propertyKeys.size());
+        for (String propertyKey : propertyKeys) {
+            writeString(writer, propertyKey);
+        }
+        return new EdgeListFileWriter(writer, propertyKeys.size());
+    }
+
+    private EdgeListFileWriter(SnapshotFileWriter writer, int propertyCount) {
+        this.writer = writer;
+        this.propertyCount = propertyCount;
+    }
+
+    public void add(long source, long target, double... properties) throws IOException {
+        if (properties.length != propertyCount) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Expected %d relationship properties, but got %d.",
+                propertyCount,
+                properties.length
+            ));
+        }
+        writer.writeLong(source);
+        writer.writeLong(target);
+        writer.writeDoubles(properties, 0, propertyCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    static int headerSize(String relationshipType, List<String> propertyKeys) {
+        int size = 4 * Integer.BYTES + utf8Length(relationshipType);
+        for (String propertyKey : propertyKeys) {
+            size += Integer.BYTES + utf8Length(propertyKey);
+        }
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeString(SnapshotFileWriter writer, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writer.writeInt(bytes.length);
+        writer.writeBytes(bytes);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.neo4j.graphalgo.core.loading.EdgeListFileWriter.MAGIC;
+import static org.neo4j.graphalgo.core.loading.EdgeListFileWriter.VERSION;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * A binary edge list written by the {@link EdgeListFileWriter}.
+ * Records have a fixed size, chunks are therefore aligned without looking at the content.
+ */
+final class EdgeListGraphFile extends GraphFile {
+
+    private final String relationshipType;
+    private final List<String> propertyKeys;
+    private final long headerSize;
+    private final int recordSize;
+    private final long recordCount;
+
+    static EdgeListGraphFile open(Path path) throws IOException {
+        long fileSize = Files.size(path);
+        try (var reader = SnapshotFileReader.open(path)) {
+            if (fileSize < 2 * Integer.BYTES || reader.readInt() != MAGIC) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "File `%s` is neither a CSV file nor a binary edge list.",
+                    path
+                ));
+            }
+            int version = reader.readInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Unsupported version %d of binary edge list `%s`, expected version %d.",
+                    version,
+                    path,
+                    VERSION
+                ));
+            }
+            String relationshipType = readString(reader);
+            int propertyCount = reader.readInt();
+            List<String> propertyKeys = new ArrayList<>(propertyCount);
+            for (int i = 0; i < propertyCount; i++) {
+                propertyKeys.add(readString(reader));
+            }
+            return new EdgeListGraphFile(path, fileSize, relationshipType, propertyKeys);
+        }
+    }
+
+    private EdgeListGraphFile(Path path, long fileSize, String relationshipType, List<String> propertyKeys) {
+        super(path);
+        this.relationshipType = relationshipType;
+        this.propertyKeys = propertyKeys;
+        this.headerSize = EdgeListFileWriter.headerSize(relationshipType, propertyKeys);
+        this.recordSize = (2 + propertyKeys.size()) * Long.BYTES;
+
+        long dataSize = fileSize - headerSize;
+        if (dataSize % recordSize != 0) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Binary edge list `%s` is truncated, its size is not a multiple of the record size.",
+                path
+            ));
+        }
+        this.recordCount = dataSize / recordSize;
+    }
+
+    @Override
+    boolean containsNodes() {
+        return false;
+    }
+
+    @Override
+    boolean hasLabels() {
+        return false;
+    }
+
+    @Override
+    List<String> propertyKeys() {
+        return propertyKeys;
+    }
+
+    @Override
+    long estimatedRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    List<Chunk> chunks(long chunkSize) {
+        long recordsPerChunk = Math.max(1, chunkSize / recordSize);
+        List<Chunk> chunks = new ArrayList<>();
+        for (long record = 0; record < recordCount; record += recordsPerChunk) {
+            long records = Math.min(recordsPerChunk, recordCount - record);
+            chunks.add(new Chunk(headerSize + record * recordSize, records * recordSize));
+        }
+        return chunks;
+    }
+
+    @Override
+    Cursor cursor(Chunk chunk) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            var buffer = channel
+                .map(FileChannel.MapMode.READ_ONLY, chunk.offset, chunk.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            return new EdgeListCursor(buffer);
+        }
+    }
+
+    private static String readString(SnapshotFileReader reader) throws IOException {
+        byte[] bytes = new byte[reader.readInt()];
+        reader.readBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class EdgeListCursor implements Cursor {
+
+        private final ByteBuffer buffer;
+        private final double[] properties;
+        private long source;
+        private long target;
+
+        EdgeListCursor(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.properties = new double[propertyKeys.size()];
+        }
+
+        @Override
+        public boolean next() {
+            if (buffer.remaining() < recordSize) {
+                return false;
+            }
+            source = buffer.getLong();
+            target = buffer.getLong();
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = buffer.getDouble();
+            }
+            return true;
+        }
+
+        @Override
+        public long id() {
+            throw new UnsupportedOperationException("Binary edge lists contain no node records.");
+        }
+
+        @Override
+        public String[] labels() {
+            throw new UnsupportedOperationException("Binary edge lists contain no node records.");
+        }
+
+        @Override
+        public long source() {
+            return source;
+        }
+
+        @Override
+        public long target() {
+            return target;
+        }
+
+        @Override
+        public String type() {
+            return relationshipType;
+        }
+
+        @Override
+        public double property(int index) {
+            return properties[index];
+        }
+    }
+}
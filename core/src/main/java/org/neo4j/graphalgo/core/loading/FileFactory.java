@@ -0,0 +1,762 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.ObjectLongHashMap;
+import com.carrotsearch.hppc.ObjectLongMap;
+import org.neo4j.configuration.Config;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.NodeProjection;
+import org.neo4j.graphalgo.NodeProjections;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.RelationshipProjection;
+import org.neo4j.graphalgo.RelationshipProjections;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.CSRGraphStoreFactory;
+import org.neo4j.graphalgo.api.GraphLoaderContext;
+import org.neo4j.graphalgo.compat.GraphDatabaseApiProxy;
+import org.neo4j.graphalgo.config.GraphCreateFromFileConfig;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
+import org.neo4j.graphalgo.core.Settings;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
+import org.neo4j.graphalgo.core.utils.BatchingProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArrayBuilder;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.ElementProjection.PROJECT_ALL;
+import static org.neo4j.graphalgo.NodeLabel.ALL_NODES;
+import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
+import static org.neo4j.graphalgo.core.loading.CypherNodePropertyImporter.NO_PROPERTY_VALUE;
+import static org.neo4j.graphalgo.core.loading.RecordsBatchBuffer.DEFAULT_BUFFER_SIZE;
+import static org.neo4j.graphalgo.utils.ExceptionUtil.validateSourceNodeIsLoaded;
+import static org.neo4j.graphalgo.utils.ExceptionUtil.validateTargetNodeIsLoaded;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_PRE_AGGREGATION;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_PROPERTY_KEY;
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_RELATIONSHIP_TYPE;
+
+/**
+ * Loads a graph from node and relationship files instead of the database.
+ * <p>
+ * Node files are CSV files, relationship files are either CSV files or binary edge lists,
+ * see {@link CsvGraphFile} and {@link EdgeListFileWriter} for the formats. Every file is split
+ * into chunks which are memory mapped and parsed concurrently into thread-local batch buffers
+ * that are imported with the same importers as the database backed projections.
+ * If no node files are given, the nodes are the distinct ids that occur in the relationship files.
+ * <p>
+ * Relative paths are resolved against the import directory of the database
+ * and files outside of that directory are rejected.
+ */
+public final class FileFactory extends CSRGraphStoreFactory<GraphCreateFromFileConfig> {
+
+    private static final long[] NO_LABELS = new long[0];
+    private static final HugeNodeImporter.PropertyReader NO_PROPERTIES =
+        (nodeReference, labelIds, propertiesReference, internalId) -> 0;
+
+    private final List<GraphFile> nodeFiles;
+    private final List<GraphFile> relationshipFiles;
+    private final List<String> nodePropertyKeys;
+    private final List<String> relationshipPropertyKeys;
+
+    public FileFactory(GraphCreateFromFileConfig graphCreateConfig, GraphLoaderContext loadingContext) {
+        this(
+            graphCreateConfig,
+            loadingContext,
+            openFiles(graphCreateConfig.nodeFiles(), true, loadingContext),
+            openFiles(graphCreateConfig.relationshipFiles(), false, loadingContext)
+        );
+    }
+
+    private FileFactory(
+        GraphCreateFromFileConfig graphCreateConfig,
+        GraphLoaderContext loadingContext,
+        List<GraphFile> nodeFiles,
+        List<GraphFile> relationshipFiles
+    ) {
+        super(graphCreateConfig, loadingContext, estimateDimensions(nodeFiles, relationshipFiles));
+        this.nodeFiles = nodeFiles;
+        this.relationshipFiles = relationshipFiles;
+        this.nodePropertyKeys = propertyKeys(nodeFiles);
+        this.relationshipPropertyKeys = propertyKeys(relationshipFiles);
+
+        long filesWithLabels = nodeFiles.stream().filter(GraphFile::hasLabels).count();
+        if (filesWithLabels > 0 && filesWithLabels < nodeFiles.size()) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Either all or none of the node files must have a `%s` column.",
+                GraphFile.LABELS_COLUMN
+            ));
+        }
+    }
+
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        var nodeProjection = NodeProjection
+            .builder()
+            .label(PROJECT_ALL)
+            .addAllProperties(nodePropertyKeys.stream().map(PropertyMapping::of).collect(Collectors.toList()))
+            .build();
+
+        var relationshipProjection = RelationshipProjection
+            .builder()
+            .type(PROJECT_ALL)
+            .orientation(graphCreateConfig.orientation())
+            .aggregation(graphCreateConfig.aggregation())
+            .adjacencyCodec(graphCreateConfig.adjacencyCodec())
+            .properties(relationshipPropertyMappings())
+            .build();
+
+        return NativeFactory.getMemoryEstimation(
+            NodeProjections.single(ALL_NODES, nodeProjection),
+            RelationshipProjections.single(ALL_RELATIONSHIPS, relationshipProjection)
+        );
+    }
+
+    @Override
+    public ImportResult<CSRGraphStore> build() {
+        var nodes = nodeFiles.isEmpty() ? loadNodesFromRelationships() : loadNodes();
+        var relationships = loadRelationships(nodes);
+
+        CSRGraphStore graphStore = createGraphStore(
+            nodes.idsAndProperties,
+            relationships,
+            loadingContext.tracker(),
+            relationships.dimensions()
+        );
+
+        logLoadingSummary(graphStore, Optional.empty());
+
+        return ImportResult.of(relationships.dimensions(), graphStore);
+    }
+
+    @Override
+    protected ProgressLogger initProgressLogger() {
+        return new BatchingProgressLogger(
+            loadingContext.log(),
+            dimensions.nodeCount() + dimensions.maxRelCount(),
+            TASK_LOADING,
+            graphCreateConfig.readConcurrency()
+        );
+    }
+
+    private NodeLoadResult loadNodes() {
+        var chunks = chunks(nodeFiles);
+        var tracker = loadingContext.tracker();
+        boolean hasLabelInformation = nodeFiles.get(0).hasLabels();
+
+        // the first pass counts the nodes and collects the labels
+        var nodeCount = new LongAdder();
+        var maxNodeId = new LongAccumulator(Math::max, 0L);
+        Set<String> labels = ConcurrentHashMap.newKeySet();
+        run(chunks, (file, cursor) -> {
+            long count = 0;
+            long maxId = 0;
+            while (cursor.next()) {
+                maxId = Math.max(maxId, nodeId(file, cursor.id()));
+                if (hasLabelInformation) {
+                    Collections.addAll(labels, cursor.labels());
+                }
+                count++;
+            }
+            nodeCount.add(count);
+            maxNodeId.accumulate(maxId);
+        });
+
+        IntObjectMap<List<NodeLabel>> labelTokenNodeLabelMapping = new IntObjectHashMap<>();
+        Map<String, Long> labelTokens = new HashMap<>();
+        for (String label : new TreeSet<>(labels)) {
+            labelTokenNodeLabelMapping.put(labelTokens.size(), List.of(NodeLabel.of(label)));
+            labelTokens.put(label, (long) labelTokens.size());
+        }
+
+        // all labels are registered upfront, the importer is only read concurrently
+        var propertyImporter = new CypherNodePropertyImporter(
+            nodePropertyKeys,
+            labelTokenNodeLabelMapping,
+            nodeCount.sum(),
+            tracker
+        );
+        propertyImporter.registerPropertiesForLabels(hasLabelInformation
+            ? new ArrayList<>(new TreeSet<>(labels))
+            : List.of(ALL_NODES.name));
+
+        var idMapBuilder = HugeLongArrayBuilder.of(nodeCount.sum(), tracker);
+        var importer = new HugeNodeImporter(
+            idMapBuilder,
+            new ConcurrentHashMap<>(),
+            labelTokenNodeLabelMapping,
+            tracker
+        );
+
+        // the second pass imports the nodes and their properties
+        run(chunks, (file, cursor) -> {
+            var buffer = new NodesBatchBufferBuilder()
+                .capacity(DEFAULT_BUFFER_SIZE)
+                .hasLabelInformation(hasLabelInformation)
+                .readProperty(!nodePropertyKeys.isEmpty())
+                .build();
+            List<Map<String, Value>> properties = new ArrayList<>();
+            List<String> filePropertyKeys = file.propertyKeys();
+
+            while (cursor.next()) {
+                long nodeId = cursor.id();
+                long[] labelIds = hasLabelInformation
+                    ? labelIds(cursor.labels(), labelTokens, nodeId)
+                    : NO_LABELS;
+
+                Map<String, Value> nodeProperties = new HashMap<>();
+                for (int i = 0; i < filePropertyKeys.size(); i++) {
+                    double value = cursor.property(i);
+                    if (!Double.isNaN(value)) {
+                        nodeProperties.put(filePropertyKeys.get(i), Values.doubleValue(value));
+                    }
+                }
+                buffer.add(nodeId, properties.size(), labelIds);
+                properties.add(nodeProperties);
+
+                if (buffer.isFull()) {
+                    importNodes(importer, buffer, properties, propertyImporter);
+                    buffer.reset();
+                    properties.clear();
+                }
+            }
+            importNodes(importer, buffer, properties, propertyImporter);
+        });
+
+        final IdMap idMap;
+        try {
+            idMap = IdMapBuilder.buildChecked(
+                idMapBuilder,
+                importer.nodeLabelBitSetMapping,
+                maxNodeId.get(),
+                graphCreateConfig.readConcurrency(),
+                tracker
+            );
+        } catch (DuplicateNodeIdException e) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Node(%d) was added multiple times. Please make sure that the node files contain distinct ids.",
+                e.nodeId
+            ));
+        }
+
+        return new NodeLoadResult(
+            IdsAndProperties.of(idMap, propertyImporter.result()),
+            maxNodeId.get()
+        );
+    }
+
+    private void importNodes(
+        HugeNodeImporter importer,
+        NodesBatchBuffer buffer,
+        List<Map<String, Value>> properties,
+        CypherNodePropertyImporter propertyImporter
+    ) {
+        long imported = importer.importCypherNodes(buffer, properties, propertyImporter);
+        progressLogger.logProgress(RawValues.getHead(imported));
+    }
+
+    private NodeLoadResult loadNodesFromRelationships() {
+        var chunks = chunks(relationshipFiles);
+        var tracker = loadingContext.tracker();
+
+        var maxNodeId = new LongAccumulator(Math::max, 0L);
+        run(chunks, (file, cursor) -> {
+            long maxId = 0;
+            while (cursor.next()) {
+                maxId = Math.max(maxId, Math.max(nodeId(file, cursor.source()), nodeId(file, cursor.target())));
+            }
+            maxNodeId.accumulate(maxId);
+        });
+
+        long maxId = maxNodeId.get();
+        var nodeIds = HugeAtomicBitSet.create(maxId + 1, tracker);
+        run(chunks, (file, cursor) -> {
+            while (cursor.next()) {
+                nodeIds.set(cursor.source());
+                nodeIds.set(cursor.target());
+            }
+        });
+
+        var idMapBuilder = HugeLongArrayBuilder.of(nodeIds.cardinality(), tracker);
+        var importer = new HugeNodeImporter(
+            idMapBuilder,
+            new ConcurrentHashMap<>(),
+            new IntObjectHashMap<>(),
+            tracker
+        );
+
+        var tasks = PartitionUtils.rangePartition(graphCreateConfig.readConcurrency(), maxId + 1)
+            .stream()
+            .map(partition -> (Runnable) () -> {
+                var buffer = new NodesBatchBufferBuilder()
+                    .capacity(DEFAULT_BUFFER_SIZE)
+                    .hasLabelInformation(false)
+                    .readProperty(false)
+                    .build();
+                long end = partition.startNode() + partition.nodeCount();
+                for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                    if (nodeIds.get(nodeId)) {
+                        buffer.add(nodeId, -1L, NO_LABELS);
+                        if (buffer.isFull()) {
+                            progressLogger.logProgress(RawValues.getHead(importer.importNodes(buffer, NO_PROPERTIES)));
+                            buffer.reset();
+                        }
+                    }
+                }
+                progressLogger.logProgress(RawValues.getHead(importer.importNodes(buffer, NO_PROPERTIES)));
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(graphCreateConfig.readConcurrency(), tasks, loadingContext.executor());
+
+        var idMap = IdMapBuilder.build(
+            idMapBuilder,
+            importer.nodeLabelBitSetMapping,
+            maxId,
+            graphCreateConfig.readConcurrency(),
+            tracker
+        );
+
+        return new NodeLoadResult(IdsAndProperties.of(idMap, Collections.emptyMap()), maxId);
+    }
+
+    private RelationshipImportResult loadRelationships(NodeLoadResult nodes) {
+        var idMap = nodes.idsAndProperties.idMap();
+        var context = new RelationshipsContext(idMap.nodeCount());
+
+        run(chunks(relationshipFiles), (file, cursor) -> importRelationships(file, cursor, idMap, context));
+
+        List<Runnable> flushTasks = context.importerBuildersByType
+            .values()
+            .stream()
+            .flatMap(SingleTypeRelationshipImporter.Builder.WithImporter::flushTasks)
+            .collect(Collectors.toList());
+        ParallelUtil.run(flushTasks, loadingContext.executor());
+
+        ObjectLongMap<RelationshipType> relationshipCounts = new ObjectLongHashMap<>();
+        Map<RelationshipType, Long> relationshipCountsByType = new HashMap<>();
+        LongHashSet relationshipTypeTokens = new LongHashSet();
+        IntObjectMap<List<RelationshipType>> tokenRelationshipTypeMapping = new IntObjectHashMap<>();
+        context.relationshipCounters.forEach((relationshipType, counter) -> {
+            relationshipCounts.put(relationshipType, counter.sum());
+            relationshipCountsByType.put(relationshipType, counter.sum());
+            int typeToken = relationshipTypeTokens.size();
+            relationshipTypeTokens.add(typeToken);
+            tokenRelationshipTypeMapping.put(typeToken, List.of(relationshipType));
+        });
+
+        Map<String, Integer> relationshipPropertyTokens = new HashMap<>();
+        for (int i = 0; i < relationshipPropertyKeys.size(); i++) {
+            relationshipPropertyTokens.put(relationshipPropertyKeys.get(i), i);
+        }
+
+        GraphDimensions resultDimensions = ImmutableGraphDimensions.builder()
+            .nodeCount(idMap.nodeCount())
+            .highestNeoId(nodes.maxNodeId)
+            .maxRelCount(relationshipCountsByType.values().stream().mapToLong(Long::longValue).sum())
+            .relationshipCounts(relationshipCountsByType)
+            .relationshipTypeTokens(relationshipTypeTokens)
+            .tokenRelationshipTypeMapping(tokenRelationshipTypeMapping)
+            .nodePropertyTokens(nodePropertyKeys
+                .stream()
+                .collect(Collectors.toMap(key -> key, key -> NO_SUCH_PROPERTY_KEY)))
+            .relationshipPropertyTokens(relationshipPropertyTokens)
+            .build();
+
+        return RelationshipImportResult.of(context.allBuilders, relationshipCounts, resultDimensions);
+    }
+
+    private void importRelationships(
+        GraphFile file,
+        GraphFile.Cursor cursor,
+        IdMap idMap,
+        RelationshipsContext context
+    ) {
+        int propertyCount = relationshipPropertyKeys.size();
+        int[] filePropertyIndices = relationshipPropertyKeys
+            .stream()
+            .mapToInt(key -> file.propertyKeys().indexOf(key))
+            .toArray();
+        boolean validateRelationships = graphCreateConfig.validateRelationships();
+
+        Map<String, SingleTypeRelationshipImporter> importers = new HashMap<>();
+        Map<String, RelationshipPropertiesBatchBuffer> propertyBuffers = new HashMap<>();
+        Map<String, Integer> nextRelationshipIds = new HashMap<>();
+
+        while (cursor.next()) {
+            long neoSourceId = cursor.source();
+            long neoTargetId = cursor.target();
+            long sourceId = idMap.toMappedNodeId(neoSourceId);
+            long targetId = idMap.toMappedNodeId(neoTargetId);
+            if (validateRelationships) {
+                validateSourceNodeIsLoaded(sourceId, neoSourceId);
+                validateTargetNodeIsLoaded(targetId, neoTargetId);
+            } else if (sourceId == -1 || targetId == -1) {
+                continue;
+            }
+
+            String type = cursor.type();
+            var importer = importers.get(type);
+            if (importer == null) {
+                RelationshipImporter.PropertyReader propertyReader;
+                if (propertyCount > 1) {
+                    // properties are referenced by their position in the thread-local properties buffer
+                    var propertiesBuffer = new RelationshipPropertiesBatchBuffer(DEFAULT_BUFFER_SIZE, propertyCount);
+                    propertyBuffers.put(type, propertiesBuffer);
+                    propertyReader = propertiesBuffer;
+                } else {
+                    // a single property is in-lined in the relationship batch
+                    propertyReader = RelationshipImporter.preLoadedPropertyReader();
+                }
+                importer = context
+                    .getOrCreateImporterBuilder(RelationshipType.of(type))
+                    .withBuffer(idMap, DEFAULT_BUFFER_SIZE, propertyReader);
+                importers.put(type, importer);
+                nextRelationshipIds.put(type, 0);
+            }
+
+            if (propertyCount == 0) {
+                importer.buffer().add(sourceId, targetId, -1L);
+            } else if (propertyCount == 1) {
+                importer.buffer().add(
+                    sourceId,
+                    targetId,
+                    -1L,
+                    Double.doubleToLongBits(propertyValue(cursor, filePropertyIndices[0]))
+                );
+            } else {
+                int relationshipId = nextRelationshipIds.get(type);
+                importer.buffer().add(sourceId, targetId, -1L, relationshipId);
+                var propertiesBuffer = propertyBuffers.get(type);
+                for (int property = 0; property < propertyCount; property++) {
+                    propertiesBuffer.add(relationshipId, property, propertyValue(cursor, filePropertyIndices[property]));
+                }
+                nextRelationshipIds.put(type, relationshipId + 1);
+            }
+
+            if (importer.buffer().isFull()) {
+                progressLogger.logProgress(RawValues.getHead(importer.importRelationships()));
+                importer.buffer().reset();
+                nextRelationshipIds.put(type, 0);
+            }
+        }
+
+        for (var importer : importers.values()) {
+            progressLogger.logProgress(RawValues.getHead(importer.importRelationships()));
+        }
+    }
+
+    private static double propertyValue(GraphFile.Cursor cursor, int filePropertyIndex) {
+        return filePropertyIndex == -1
+            ? NO_PROPERTY_VALUE.doubleValue()
+            : cursor.property(filePropertyIndex);
+    }
+
+    private PropertyMappings relationshipPropertyMappings() {
+        return PropertyMappings.of(relationshipPropertyKeys
+            .stream()
+            .map(key -> PropertyMapping.of(key, key, NO_PROPERTY_VALUE, graphCreateConfig.aggregation()))
+            .collect(Collectors.toList()));
+    }
+
+    private static long[] labelIds(String[] labels, Map<String, Long> labelTokens, long nodeId) {
+        if (labels.length == 0) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Node(%d) does not specify a label, but the `%s` column was specified.",
+                nodeId,
+                GraphFile.LABELS_COLUMN
+            ));
+        }
+        long[] labelIds = new long[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            labelIds[i] = labelTokens.get(labels[i]);
+        }
+        return labelIds;
+    }
+
+    private static long nodeId(GraphFile file, long nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Node ids must not be negative, but found %d in file `%s`.",
+                nodeId,
+                file.path
+            ));
+        }
+        return nodeId;
+    }
+
+    private void run(List<FileChunk> chunks, ChunkConsumer consumer) {
+        var tasks = chunks
+            .stream()
+            .map(chunk -> (Runnable) () -> {
+                try {
+                    consumer.accept(chunk.file, chunk.file.cursor(chunk.chunk));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(graphCreateConfig.readConcurrency(), tasks, loadingContext.executor());
+    }
+
+    private static List<FileChunk> chunks(List<GraphFile> files) {
+        List<FileChunk> chunks = new ArrayList<>();
+        try {
+            for (GraphFile file : files) {
+                for (GraphFile.Chunk chunk : file.chunks(GraphFile.CHUNK_SIZE)) {
+                    chunks.add(new FileChunk(file, chunk));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return chunks;
+    }
+
+    private static List<GraphFile> openFiles(
+        List<String> fileNames,
+        boolean containsNodes,
+        GraphLoaderContext loadingContext
+    ) {
+        List<GraphFile> files = new ArrayList<>(fileNames.size());
+        Path importDirectory = importDirectory(loadingContext);
+        for (String fileName : fileNames) {
+            Path path = resolve(fileName, importDirectory);
+            try {
+                var file = GraphFile.open(path);
+                if (file.containsNodes() != containsNodes) {
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "File `%s` does not contain %s.",
+                        fileName,
+                        containsNodes ? "nodes" : "relationships"
+                    ));
+                }
+                files.add(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(formatWithLocale("Could not read file `%s`.", fileName), e);
+            }
+        }
+        return files;
+    }
+
+    private static Path importDirectory(GraphLoaderContext loadingContext) {
+        if (loadingContext.api() == null) {
+            throw new IllegalArgumentException("Graphs can only be loaded from files of a database import directory.");
+        }
+        return configuredImportDirectory(GraphDatabaseApiProxy.resolveDependency(loadingContext.api(), Config.class));
+    }
+
+    /**
+     * Files are read with the same restrictions as {@code LOAD CSV}: reading files must be allowed
+     * and all files must be located in the import directory.
+     */
+    static Path configuredImportDirectory(Config config) {
+        if (!config.get(Settings.allowFileUrls())) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Loading graphs from files is disabled, see the setting `%s`.",
+                Settings.allowFileUrls().name()
+            ));
+        }
+        Path importDirectory = config.get(Settings.loadCsvFileUrlRoot());
+        if (importDirectory == null) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Loading graphs from files requires an import directory, see the setting `%s`.",
+                Settings.loadCsvFileUrlRoot().name()
+            ));
+        }
+        return importDirectory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves relative file names against the import directory.
+     * Neither relative nor absolute file names may point outside of the import directory.
+     */
+    static Path resolve(String fileName, Path importDirectory) {
+        Path root = importDirectory.toAbsolutePath().normalize();
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "File `%s` is outside of the import directory `%s`.",
+                fileName,
+                root
+            ));
+        }
+        return path;
+    }
+
+    private static List<String> propertyKeys(List<GraphFile> files) {
+        Set<String> propertyKeys = new LinkedHashSet<>();
+        files.forEach(file -> propertyKeys.addAll(file.propertyKeys()));
+        return new ArrayList<>(propertyKeys);
+    }
+
+    private static GraphDimensions estimateDimensions(List<GraphFile> nodeFiles, List<GraphFile> relationshipFiles) {
+        long relationshipCount = relationshipFiles.stream().mapToLong(GraphFile::estimatedRecordCount).sum();
+        // without node files every relationship can introduce new nodes
+        long nodeCount = nodeFiles.isEmpty()
+            ? relationshipCount
+            : nodeFiles.stream().mapToLong(GraphFile::estimatedRecordCount).sum();
+
+        return ImmutableGraphDimensions.builder()
+            .nodeCount(nodeCount)
+            .highestNeoId(nodeCount)
+            .maxRelCount(relationshipCount)
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer {
+        void accept(GraphFile file, GraphFile.Cursor cursor);
+    }
+
+    private static final class FileChunk {
+        final GraphFile file;
+        final GraphFile.Chunk chunk;
+
+        FileChunk(GraphFile file, GraphFile.Chunk chunk) {
+            this.file = file;
+            this.chunk = chunk;
+        }
+    }
+
+    private static final class NodeLoadResult {
+        final IdsAndProperties idsAndProperties;
+        final long maxNodeId;
+
+        NodeLoadResult(IdsAndProperties idsAndProperties, long maxNodeId) {
+            this.idsAndProperties = idsAndProperties;
+            this.maxNodeId = maxNodeId;
+        }
+    }
+
+    private final class RelationshipsContext {
+
+        private final Map<RelationshipType, SingleTypeRelationshipImporter.Builder.WithImporter> importerBuildersByType;
+        private final Map<RelationshipType, RelationshipsBuilder> allBuilders;
+        private final Map<RelationshipType, LongAdder> relationshipCounters;
+        private final PropertyMappings propertyMappings;
+        private final int pageSize;
+        private final int numberOfPages;
+
+        RelationshipsContext(long nodeCount) {
+            this.importerBuildersByType = new HashMap<>();
+            this.allBuilders = new HashMap<>();
+            this.relationshipCounters = new HashMap<>();
+            this.propertyMappings = relationshipPropertyMappings();
+
+            ImportSizing importSizing = ImportSizing.of(graphCreateConfig.readConcurrency(), nodeCount);
+            this.pageSize = importSizing.pageSize();
+            this.numberOfPages = importSizing.numberOfPages();
+        }
+
+        synchronized SingleTypeRelationshipImporter.Builder.WithImporter getOrCreateImporterBuilder(
+            RelationshipType relationshipType
+        ) {
+            return importerBuildersByType.computeIfAbsent(relationshipType, this::createImporter);
+        }
+
+        private SingleTypeRelationshipImporter.Builder.WithImporter createImporter(RelationshipType relationshipType) {
+            AllocationTracker tracker = loadingContext.tracker();
+            RelationshipProjection projection = RelationshipProjection
+                .builder()
+                .type(relationshipType.name)
+                .orientation(graphCreateConfig.orientation())
+                .aggregation(graphCreateConfig.aggregation())
+                .adjacencyCodec(graphCreateConfig.adjacencyCodec())
+                .properties(propertyMappings)
+                .build();
+
+            RelationshipsBuilder builder = new RelationshipsBuilder(
+                projection,
+                TransientAdjacencyListBuilder.builderFactory(projection.adjacencyCodec(), tracker),
+                TransientAdjacencyOffsets.forPageSize(pageSize)
+            );
+            allBuilders.put(relationshipType, builder);
+
+            int[] propertyKeyIds = new int[propertyMappings.numberOfMappings()];
+            Arrays.setAll(propertyKeyIds, i -> i);
+            double[] defaultValues = propertyMappings
+                .mappings()
+                .stream()
+                .mapToDouble(mapping -> mapping.defaultValue().doubleValue())
+                .toArray();
+            Aggregation[] aggregations = propertyMappings.isEmpty()
+                ? new Aggregation[]{graphCreateConfig.aggregation()}
+                : propertyMappings.mappings().stream().map(PropertyMapping::aggregation).toArray(Aggregation[]::new);
+            for (int i = 0; i < aggregations.length; i++) {
+                aggregations[i] = Aggregation.resolve(aggregations[i]);
+            }
+
+            LongAdder relationshipCounter = new LongAdder();
+            AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+                builder,
+                numberOfPages,
+                pageSize,
+                tracker,
+                relationshipCounter,
+                propertyKeyIds,
+                defaultValues,
+                aggregations,
+                USE_PRE_AGGREGATION.isEnabled()
+            );
+            relationshipCounters.put(relationshipType, relationshipCounter);
+
+            return new SingleTypeRelationshipImporter.Builder(
+                relationshipType,
+                projection,
+                adjacencyBuilder.supportsProperties(),
+                NO_SUCH_RELATIONSHIP_TYPE,
+                new RelationshipImporter(tracker, adjacencyBuilder),
+                relationshipCounter,
+                graphCreateConfig.validateRelationships()
+            ).loadImporter(!propertyMappings.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the label filtered id maps of a {@link CSRGraphStore} in least recently used order.
+ * The memory of a filtered id map is tracked when it is built, the cache untracks it
+ * once the id map is evicted, invalidated or not cached at all.
+ * All id maps are dropped when nodes are added to the graph store.
+ */
+final class FilteredIdMapCache {
+
+    private final LongSupplier memoryBudget;
+    private final AllocationTracker tracker;
+    private final LinkedHashMap<Set<NodeLabel>, CachedIdMap> entries;
+
+    private long usedBytes;
+    private long generation;
+
+    FilteredIdMapCache(LongSupplier memoryBudget, AllocationTracker tracker) {
+        this.memoryBudget = memoryBudget;
+        this.tracker = tracker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    synchronized Optional<IdMap> get(Set<NodeLabel> nodeLabels) {
+        return Optional.ofNullable(entries.get(nodeLabels)).map(CachedIdMap::idMap);
+    }
+
+    /**
+     * Returns the current generation, which changes on every invalidation.
+     * An id map is only cached if it has been filtered within a single generation.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Takes over the tracked memory of the given id map,
+     * which is released right away if the id map cannot be cached.
+     */
+    synchronized void put(Set<NodeLabel> nodeLabels, long generation, IdMap idMap, long bytes) {
+        if (generation != this.generation || bytes > memoryBudget.getAsLong()) {
+            tracker.remove(bytes);
+            return;
+        }
+        var previous = entries.put(nodeLabels, ImmutableCachedIdMap.of(idMap, bytes));
+        if (previous != null) {
+            release(previous);
+        }
+        usedBytes += bytes;
+
+        Iterator<CachedIdMap> leastRecentlyUsed = entries.values().iterator();
+        while (usedBytes > memoryBudget.getAsLong() && leastRecentlyUsed.hasNext()) {
+            var evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            release(evicted);
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void release(CachedIdMap entry) {
+        // graphs that have been created from an evicted id map keep it alive until they are released
+        usedBytes -= entry.bytes();
+        tracker.remove(entry.bytes());
+    }
+
+    @ValueClass
+    interface CachedIdMap {
+        IdMap idMap();
+
+        long bytes();
+    }
+}
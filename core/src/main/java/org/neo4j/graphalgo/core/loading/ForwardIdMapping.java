@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+/**
+ * Maps original node ids, e.g. Neo4j node ids, to internal node ids.
+ * Original ids that are not part of the mapping resolve to {@link #NOT_FOUND}.
+ */
+public interface ForwardIdMapping {
+
+    long NOT_FOUND = -1L;
+
+    long toMappedNodeId(long originalNodeId);
+
+    boolean contains(long originalNodeId);
+
+    /**
+     * The memory that has been allocated for this mapping, which excludes arrays shared with the id map.
+     */
+    long sizeOf();
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.RelationshipType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of node and relationship inserts and deletes that can be applied to
+ * an existing graph with {@link CSRGraphStore#applyDelta(GraphDelta)}.
+ *
+ * Node ids are the original ids of the database. Inserted nodes are added first, so that relationships
+ * of the same batch can connect them. For every relationship type, the changes are applied
+ * in the order in which they have been added to the batch; node deletes are applied last.
+ * Deleting a node removes all of its relationships, the node itself stays part of the graph.
+ */
+public final class GraphDelta {
+
+    private final List<NodeInsert> insertedNodes;
+    private final Map<RelationshipType, List<RelationshipChange>> relationshipChanges;
+    private final LongArrayList deletedNodes;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private GraphDelta(
+        List<NodeInsert> insertedNodes,
+        Map<RelationshipType, List<RelationshipChange>> relationshipChanges,
+        LongArrayList deletedNodes
+    ) {
+        this.insertedNodes = insertedNodes;
+        this.relationshipChanges = relationshipChanges;
+        this.deletedNodes = deletedNodes;
+    }
+
+    public Set<RelationshipType> relationshipTypes() {
+        return relationshipChanges.keySet();
+    }
+
+    public boolean isEmpty() {
+        return insertedNodes.isEmpty() && relationshipChanges.isEmpty() && deletedNodes.isEmpty();
+    }
+
+    List<NodeInsert> insertedNodes() {
+        return insertedNodes;
+    }
+
+    List<RelationshipChange> relationshipChanges(RelationshipType relationshipType) {
+        return relationshipChanges.getOrDefault(relationshipType, Collections.emptyList());
+    }
+
+    long[] deletedNodes() {
+        return deletedNodes.toArray();
+    }
+
+    static final class NodeInsert {
+        final long nodeId;
+        final List<NodeLabel> nodeLabels;
+
+        NodeInsert(long nodeId, List<NodeLabel> nodeLabels) {
+            this.nodeId = nodeId;
+            this.nodeLabels = nodeLabels;
+        }
+    }
+
+    static final class RelationshipChange {
+        final boolean isInsert;
+        final long sourceNodeId;
+        final long targetNodeId;
+        final Map<String, Double> properties;
+
+        RelationshipChange(boolean isInsert, long sourceNodeId, long targetNodeId, Map<String, Double> properties) {
+            this.isInsert = isInsert;
+            this.sourceNodeId = sourceNodeId;
+            this.targetNodeId = targetNodeId;
+            this.properties = properties;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<NodeInsert> insertedNodes;
+        private final Map<RelationshipType, List<RelationshipChange>> relationshipChanges;
+        private final LongArrayList deletedNodes;
+
+        private Builder() {
+            this.insertedNodes = new ArrayList<>();
+            this.relationshipChanges = new LinkedHashMap<>();
+            this.deletedNodes = new LongArrayList();
+        }
+
+        /**
+         * Adds a node with the given labels, which need to be part of the graph.
+         * The node has no values for the node properties of the graph.
+         */
+        public Builder insertNode(long nodeId, NodeLabel... nodeLabels) {
+            insertedNodes.add(new NodeInsert(nodeId, Arrays.asList(nodeLabels)));
+            return this;
+        }
+
+        public Builder insertRelationship(RelationshipType relationshipType, long sourceNodeId, long targetNodeId) {
+            return insertRelationship(relationshipType, sourceNodeId, targetNodeId, Collections.emptyMap());
+        }
+
+        /**
+         * Missing relationship properties are set to the default value of the property.
+         */
+        public Builder insertRelationship(
+            RelationshipType relationshipType,
+            long sourceNodeId,
+            long targetNodeId,
+            Map<String, Double> properties
+        ) {
+            changes(relationshipType).add(new RelationshipChange(true, sourceNodeId, targetNodeId, properties));
+            return this;
+        }
+
+        /**
+         * Removes all relationships of the given type between the two nodes.
+         */
+        public Builder deleteRelationship(RelationshipType relationshipType, long sourceNodeId, long targetNodeId) {
+            changes(relationshipType).add(new RelationshipChange(false, sourceNodeId, targetNodeId, Collections.emptyMap()));
+            return this;
+        }
+
+        public Builder deleteNode(long nodeId) {
+            deletedNodes.add(nodeId);
+            return this;
+        }
+
+        public GraphDelta build() {
+            return new GraphDelta(insertedNodes, relationshipChanges, deletedNodes);
+        }
+
+        private List<RelationshipChange> changes(RelationshipType relationshipType) {
+            return relationshipChanges.computeIfAbsent(relationshipType, ignored -> new ArrayList<>());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An input file of the {@link FileFactory}.
+ * <p>
+ * The header is read when the file is opened. The remaining content is split into
+ * chunks of roughly {@link #CHUNK_SIZE} bytes that end at record boundaries,
+ * so that every chunk can be memory mapped and parsed independently of the others.
+ */
+abstract class GraphFile {
+
+    static final long CHUNK_SIZE = 1L << 26;
+
+    static final String ID_COLUMN = "id";
+    static final String LABELS_COLUMN = "labels";
+    static final String SOURCE_COLUMN = "source";
+    static final String TARGET_COLUMN = "target";
+    static final String TYPE_COLUMN = "type";
+
+    private static final String CSV_EXTENSION = ".csv";
+
+    final Path path;
+
+    GraphFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens CSV files by their {@code .csv} extension, every other file
+     * is expected to be a binary edge list written by the {@link EdgeListFileWriter}.
+     */
+    static GraphFile open(Path path) throws IOException {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
+        return fileName.endsWith(CSV_EXTENSION)
+            ? CsvGraphFile.open(path)
+            : EdgeListGraphFile.open(path);
+    }
+
+    abstract boolean containsNodes();
+
+    abstract boolean hasLabels();
+
+    abstract List<String> propertyKeys();
+
+    abstract long estimatedRecordCount();
+
+    abstract List<Chunk> chunks(long chunkSize) throws IOException;
+
+    abstract Cursor cursor(Chunk chunk) throws IOException;
+
+    static final class Chunk {
+        final long offset;
+        final long length;
+
+        Chunk(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Iterates the records of a single chunk.
+     * Node records provide {@link #id()} and {@link #labels()},
+     * relationship records provide {@link #source()}, {@link #target()} and {@link #type()}.
+     */
+    interface Cursor {
+
+        boolean next();
+
+        long id();
+
+        String[] labels();
+
+        long source();
+
+        long target();
+
+        String type();
+
+        /**
+         * Returns the value of the property at the given index of {@link #propertyKeys()}
+         * or {@code NaN} if the record has no value for that property.
+         */
+        double property(int index);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.api.CSRGraph;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeMapping;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.api.schema.GraphSchema;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.loading.construction.GraphFactory;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Copies a filtered view of a graph, e.g. a {@link org.neo4j.graphalgo.core.huge.NodeFilteredGraph}
+ * or a {@link org.neo4j.graphalgo.core.huge.DeltaGraph}, into new adjacency lists over the ids of the view.
+ * Traversing the copy does not translate ids or skip filtered neighbours anymore.
+ */
+final class GraphMaterialization {
+
+    private GraphMaterialization() {}
+
+    /**
+     * Creates an id map with the ids and labels of the given nodes.
+     */
+    static IdMap materializeNodes(NodeMapping nodes, int concurrency, AllocationTracker tracker) {
+        long nodeCount = nodes.nodeCount();
+        var graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        long highestNodeId = 0L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long originalId = nodes.toOriginalNodeId(nodeId);
+            highestNodeId = Math.max(highestNodeId, originalId);
+            graphIds.set(nodeId, originalId);
+        }
+
+        var nodeToGraphIds = IdMapBuilder.buildNodeMapping(graphIds, nodeCount, highestNodeId, concurrency, tracker);
+
+        Map<NodeLabel, BitSet> labelInformation = new HashMap<>();
+        if (!nodes.containsOnlyAllNodesLabel()) {
+            for (NodeLabel nodeLabel : nodes.availableNodeLabels()) {
+                var bitSet = new BitSet(nodeCount);
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    if (nodes.hasLabel(nodeId, nodeLabel)) {
+                        bitSet.set(nodeId);
+                    }
+                }
+                labelInformation.put(nodeLabel, bitSet);
+            }
+        }
+
+        return new IdMap(graphIds, nodeToGraphIds, labelInformation, nodeCount, tracker);
+    }
+
+    /**
+     * Copies the relationships of the given graph into a {@link HugeGraph} over {@code nodes},
+     * which must use the same ids as the graph.
+     */
+    static HugeGraph materialize(
+        CSRGraph graph,
+        IdMap nodes,
+        double defaultPropertyValue,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        return materialize(List.of(graph), new double[]{defaultPropertyValue}, nodes, false, concurrency, tracker);
+    }
+
+    /**
+     * Merges the relationships of the given graphs, e.g. one graph per relationship type,
+     * into the adjacency lists of a single {@link HugeGraph} over {@code nodes},
+     * which must use the same ids as all of the graphs.
+     * Traversing the merged graph does not compare the neighbours of several cursors anymore.
+     * <p>
+     * If {@code deduplicate} is set, only the first of all parallel relationships is kept,
+     * otherwise the merged graph is a multi graph as soon as it contains more than one graph.
+     */
+    static HugeGraph materialize(
+        List<? extends CSRGraph> graphs,
+        double[] defaultPropertyValues,
+        IdMap nodes,
+        boolean deduplicate,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        boolean hasProperty = graphs.stream().allMatch(Graph::hasRelationshipProperty);
+        boolean isUndirected = graphs.stream().allMatch(Graph::isUndirected);
+        boolean indexInverse = !isUndirected && graphs.stream().allMatch(Graph::isInverseIndexed);
+        boolean isMultiGraph = !deduplicate && (graphs.size() > 1 || graphs.stream().anyMatch(Graph::isMultiGraph));
+
+        // the graphs already contain both directions of undirected relationships
+        var relationshipsBuilder = GraphFactory.initRelationshipsBuilder()
+            .nodes(nodes)
+            .loadRelationshipProperty(hasProperty)
+            .aggregation(deduplicate ? Aggregation.SINGLE : Aggregation.NONE)
+            .indexInverse(indexInverse)
+            .concurrency(concurrency)
+            .tracker(tracker)
+            .build();
+
+        // every source node is handled by a single thread, which keeps the order of parallel relationships
+        var tasks = PartitionUtils
+            .rangePartition(concurrency, nodes.nodeCount())
+            .stream()
+            .map(partition -> (Runnable) () -> {
+                var relationshipIterators = graphs
+                    .stream()
+                    .map(CSRGraph::concurrentCopy)
+                    .collect(Collectors.toList());
+                long end = partition.startNode() + partition.nodeCount();
+                for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                    for (int i = 0; i < relationshipIterators.size(); i++) {
+                        var relationshipIterator = relationshipIterators.get(i);
+                        if (hasProperty) {
+                            relationshipIterator.forEachRelationship(nodeId, defaultPropertyValues[i], (source, target, property) -> {
+                                relationshipsBuilder.addFromInternal(source, target, property);
+                                return true;
+                            });
+                        } else {
+                            relationshipIterator.forEachRelationship(nodeId, (source, target) -> {
+                                relationshipsBuilder.addFromInternal(source, target);
+                                return true;
+                            });
+                        }
+                    }
+                }
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, tasks, Pools.DEFAULT);
+
+        var built = relationshipsBuilder.build();
+        var topology = built.topology();
+        // the builder counts relationships before they are aggregated
+        long relationshipCount = deduplicate
+            ? relationshipCount(topology, nodes.nodeCount())
+            : topology.elementCount();
+        var relationships = Relationships.of(
+            relationshipCount,
+            isUndirected ? Orientation.UNDIRECTED : Orientation.NATURAL,
+            isMultiGraph,
+            topology.list(),
+            topology.offsets(),
+            built.properties().map(Relationships.Properties::list).orElse(null),
+            built.properties().map(Relationships.Properties::offsets).orElse(null),
+            defaultPropertyValues[0]
+        );
+        relationships = built.inverse().map(relationships::withInverse).orElse(relationships);
+
+        var firstGraph = graphs.get(0);
+        Map<String, NodeProperties> nodeProperties = new HashMap<>();
+        firstGraph.availableNodeProperties().forEach(propertyKey -> nodeProperties.put(
+            propertyKey,
+            firstGraph.nodeProperties(propertyKey)
+        ));
+
+        var schema = graphs.stream().map(Graph::schema).reduce(GraphSchema::union).orElseThrow();
+
+        return HugeGraph.create(
+            nodes,
+            schema,
+            nodeProperties,
+            relationships.topology(),
+            relationships.properties(),
+            tracker
+        );
+    }
+
+    private static long relationshipCount(Relationships.Topology topology, long nodeCount) {
+        var adjacencyList = topology.list();
+        var adjacencyOffsets = topology.offsets();
+        long relationshipCount = 0L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long offset = adjacencyOffsets.get(nodeId);
+            if (offset != 0L) {
+                relationshipCount += adjacencyList.degree(offset);
+            }
+        }
+        return relationshipCount;
+    }
+}
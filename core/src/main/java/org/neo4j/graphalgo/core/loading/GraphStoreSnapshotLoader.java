@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.AdjacencyOffsets;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.api.nodeproperties.DoubleArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.FloatArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.LongArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.ValueType;
+import org.neo4j.graphalgo.config.GraphCreateConfig;
+import org.neo4j.graphalgo.core.PropertyCompression;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.PropertyValueFormat;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
+import org.neo4j.graphalgo.core.utils.ArrayUtil;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+import org.neo4j.graphalgo.core.utils.paged.OffHeapPages;
+import org.neo4j.graphalgo.core.utils.paged.PageUtil;
+import org.neo4j.kernel.database.NamedDatabaseId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.DICTIONARY_SUFFIX;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.INVERSE_SUFFIX;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.LABELS_FILE;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.LIST_SUFFIX;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.NODES_FILE;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.NO_ARRAY;
+import static org.neo4j.graphalgo.core.loading.GraphStoreSnapshotWriter.OFFSETS_SUFFIX;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.COUNT;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.HIGHEST_NODE_ID_KEY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.INVERSE;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_COUNT_KEY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_LABEL;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_PROPERTY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.PROPERTY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.RELATIONSHIP;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.key;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfByteArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_OFF_HEAP_ADJACENCY;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Loads a snapshot written by the {@link GraphStoreSnapshotWriter} into a {@link CSRGraphStore}.
+ * <p>
+ * The files are memory mapped and copied page-wise into the heap structures of the graph store,
+ * which is bounded by disk throughput instead of the decoding and compression work of a projection.
+ * If {@link org.neo4j.graphalgo.utils.GdsFeatureToggles#USE_OFF_HEAP_ADJACENCY} is enabled, adjacency lists are
+ * not copied at all but read from the mapped files, which must not be modified while the graph store is in use.
+ * All properties are restored as persistent properties of the graph store.
+ */
+public final class GraphStoreSnapshotLoader {
+
+    private final Path directory;
+    private final NamedDatabaseId databaseId;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+
+    public GraphStoreSnapshotLoader(
+        Path directory,
+        NamedDatabaseId databaseId,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        this.directory = directory;
+        this.databaseId = databaseId;
+        this.concurrency = concurrency;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Loads the snapshot and stores the graph store in the {@link GraphStoreCatalog}
+     * under the name and user of the given config.
+     */
+    public CSRGraphStore loadIntoCatalog(GraphCreateConfig config) {
+        var graphStore = load();
+        GraphStoreCatalog.set(config, graphStore);
+        return graphStore;
+    }
+
+    public CSRGraphStore load() {
+        try {
+            var manifest = SnapshotManifest.read(directory);
+            long nodeCount = manifest.getLong(NODE_COUNT_KEY);
+
+            var nodes = loadNodes(manifest, nodeCount);
+            var nodeProperties = loadNodeProperties(manifest, nodeCount);
+
+            Map<RelationshipType, Relationships.Topology> topologies = new HashMap<>();
+            Map<RelationshipType, Map<String, Relationships.Properties>> relationshipProperties = new HashMap<>();
+            loadRelationships(manifest, nodeCount, topologies, relationshipProperties);
+
+            return CSRGraphStore.of(
+                databaseId,
+                nodes,
+                nodeProperties,
+                topologies,
+                relationshipProperties,
+                concurrency,
+                tracker
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private IdMap loadNodes(SnapshotManifest manifest, long nodeCount) throws IOException {
+        var graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        try (var reader = SnapshotFileReader.open(directory.resolve(NODES_FILE))) {
+            readLongs(reader, graphIds);
+        }
+
+        ForwardIdMapping nodeToGraphIds = IdMapBuilder.buildNodeMapping(
+            graphIds,
+            nodeCount,
+            manifest.getLong(HIGHEST_NODE_ID_KEY),
+            concurrency,
+            tracker
+        );
+
+        Map<NodeLabel, BitSet> labelInformation = new HashMap<>();
+        int labelCount = manifest.getInt(key(NODE_LABEL, COUNT));
+        if (labelCount > 0) {
+            try (var reader = SnapshotFileReader.open(directory.resolve(LABELS_FILE))) {
+                for (int labelIndex = 0; labelIndex < labelCount; labelIndex++) {
+                    long[] words = new long[BitSet.bits2words(nodeCount)];
+                    reader.readLongs(words, 0, words.length);
+                    tracker.add(sizeOfLongArray(words.length));
+                    labelInformation.put(
+                        NodeLabel.of(manifest.get(key(NODE_LABEL, labelIndex))),
+                        new BitSet(words, words.length)
+                    );
+                }
+            }
+        }
+
+        return new IdMap(graphIds, nodeToGraphIds, labelInformation, nodeCount, tracker);
+    }
+
+    private Map<NodeLabel, Map<String, NodeProperties>> loadNodeProperties(
+        SnapshotManifest manifest,
+        long nodeCount
+    ) throws IOException {
+        Map<NodeLabel, Map<String, NodeProperties>> nodeProperties = new HashMap<>();
+        // files that are shared between labels are loaded only once
+        Map<String, NodeProperties> loadedFiles = new HashMap<>();
+
+        int propertyCount = manifest.getInt(key(NODE_PROPERTY, COUNT));
+        for (int propertyIndex = 0; propertyIndex < propertyCount; propertyIndex++) {
+            var nodeLabel = NodeLabel.of(manifest.get(key(NODE_PROPERTY, propertyIndex, "label")));
+            var propertyKey = manifest.get(key(NODE_PROPERTY, propertyIndex, "key"));
+            var valueType = manifest.getEnum(key(NODE_PROPERTY, propertyIndex, "valueType"), ValueType.class);
+            var file = manifest.get(key(NODE_PROPERTY, propertyIndex, "file"));
+
+            var values = loadedFiles.get(file);
+            if (values == null) {
+                values = loadNodeProperty(propertyKey, valueType, directory.resolve(file), nodeCount);
+                loadedFiles.put(file, values);
+            }
+            nodeProperties.computeIfAbsent(nodeLabel, ignored -> new HashMap<>()).put(propertyKey, values);
+        }
+        return nodeProperties;
+    }
+
+    private NodeProperties loadNodeProperty(
+        String propertyKey,
+        ValueType valueType,
+        Path file,
+        long nodeCount
+    ) throws IOException {
+        try (var reader = SnapshotFileReader.open(file)) {
+            switch (valueType) {
+                case LONG: {
+                    var values = HugeLongArray.newArray(nodeCount, tracker);
+                    readLongs(reader, values);
+                    return values.asNodeProperties();
+                }
+                case DOUBLE: {
+                    var values = HugeDoubleArray.newArray(nodeCount, tracker);
+                    readDoubles(reader, values);
+                    return values.asNodeProperties();
+                }
+                case LONG_ARRAY: {
+                    var values = HugeObjectArray.newArray(long[].class, nodeCount, tracker);
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        int length = reader.readInt();
+                        if (length != NO_ARRAY) {
+                            long[] array = new long[length];
+                            reader.readLongs(array, 0, length);
+                            values.set(nodeId, array);
+                        }
+                    }
+                    return new LongArrayNodeProperties() {
+                        @Override
+                        public long[] longArrayValue(long nodeId) {
+                            return values.get(nodeId);
+                        }
+
+                        @Override
+                        public long size() {
+                            return values.size();
+                        }
+                    };
+                }
+                case DOUBLE_ARRAY: {
+                    var values = HugeObjectArray.newArray(double[].class, nodeCount, tracker);
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        int length = reader.readInt();
+                        if (length != NO_ARRAY) {
+                            double[] array = new double[length];
+                            reader.readDoubles(array, 0, length);
+                            values.set(nodeId, array);
+                        }
+                    }
+                    return new DoubleArrayNodeProperties() {
+                        @Override
+                        public double[] doubleArrayValue(long nodeId) {
+                            return values.get(nodeId);
+                        }
+
+                        @Override
+                        public long size() {
+                            return values.size();
+                        }
+                    };
+                }
+                case FLOAT_ARRAY: {
+                    var values = HugeObjectArray.newArray(float[].class, nodeCount, tracker);
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        int length = reader.readInt();
+                        if (length != NO_ARRAY) {
+                            float[] array = new float[length];
+                            reader.readFloats(array);
+                            values.set(nodeId, array);
+                        }
+                    }
+                    return new FloatArrayNodeProperties() {
+                        @Override
+                        public float[] floatArrayValue(long nodeId) {
+                            return values.get(nodeId);
+                        }
+
+                        @Override
+                        public long size() {
+                            return values.size();
+                        }
+                    };
+                }
+                default:
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "Node property `%s` of type %s cannot be loaded from a snapshot.",
+                        propertyKey,
+                        valueType
+                    ));
+            }
+        }
+    }
+
+    private void loadRelationships(
+        SnapshotManifest manifest,
+        long nodeCount,
+        Map<RelationshipType, Relationships.Topology> topologies,
+        Map<RelationshipType, Map<String, Relationships.Properties>> relationshipProperties
+    ) throws IOException {
+        int typeCount = manifest.getInt(key(RELATIONSHIP, COUNT));
+        for (int typeIndex = 0; typeIndex < typeCount; typeIndex++) {
+            var typePrefix = key(RELATIONSHIP, typeIndex);
+            var relationshipType = RelationshipType.of(manifest.get(key(typePrefix, "type")));
+            var orientation = manifest.getEnum(key(typePrefix, "orientation"), Orientation.class);
+            var isMultiGraph = manifest.getBoolean(key(typePrefix, "multiGraph"));
+            var elementCount = manifest.getLong(key(typePrefix, "elementCount"));
+            var file = manifest.get(key(typePrefix, "file"));
+            var codec = manifest.getEnum(key(typePrefix, "codec"), AdjacencyCodec.class);
+
+            var adjacencyList = loadAdjacencyList(file, codec);
+            var adjacencyOffsets = loadAdjacencyOffsets(file, nodeCount);
+            var hasInverse = manifest.getBoolean(key(typePrefix, INVERSE));
+
+            TransientAdjacencyList inverseAdjacencyList = null;
+            AdjacencyOffsets inverseAdjacencyOffsets = null;
+            if (hasInverse) {
+                var inverseCodec = manifest.getEnum(key(typePrefix, INVERSE, "codec"), AdjacencyCodec.class);
+                inverseAdjacencyList = loadAdjacencyList(file + INVERSE_SUFFIX, inverseCodec);
+                inverseAdjacencyOffsets = loadAdjacencyOffsets(file + INVERSE_SUFFIX, nodeCount);
+            }
+
+            var topology = Relationships.of(
+                elementCount,
+                orientation,
+                isMultiGraph,
+                adjacencyList,
+                adjacencyOffsets,
+                null,
+                null,
+                Double.NaN
+            );
+            if (hasInverse) {
+                topology = topology.withInverse(Relationships.of(
+                    elementCount,
+                    orientation,
+                    isMultiGraph,
+                    inverseAdjacencyList,
+                    inverseAdjacencyOffsets,
+                    null,
+                    null,
+                    Double.NaN
+                ));
+            }
+            topologies.put(relationshipType, topology.topology());
+
+            int propertyCount = manifest.getInt(key(typePrefix, PROPERTY, COUNT));
+            for (int propertyIndex = 0; propertyIndex < propertyCount; propertyIndex++) {
+                var propertyPrefix = key(typePrefix, PROPERTY, propertyIndex);
+                var propertyFile = manifest.get(key(propertyPrefix, "file"));
+                var compression = manifest.getEnum(key(propertyPrefix, "compression"), PropertyCompression.class);
+                var defaultValue = manifest.getDouble(key(propertyPrefix, "defaultValue"));
+
+                var relationships = Relationships.of(
+                    elementCount,
+                    orientation,
+                    isMultiGraph,
+                    adjacencyList,
+                    adjacencyOffsets,
+                    loadPropertyList(propertyFile, compression),
+                    loadAdjacencyOffsets(propertyFile, nodeCount),
+                    defaultValue
+                );
+                if (hasInverse) {
+                    var inverseCompression = manifest.getEnum(
+                        key(propertyPrefix, INVERSE, "compression"),
+                        PropertyCompression.class
+                    );
+                    relationships = relationships.withInverse(Relationships.of(
+                        elementCount,
+                        orientation,
+                        isMultiGraph,
+                        inverseAdjacencyList,
+                        inverseAdjacencyOffsets,
+                        loadPropertyList(propertyFile + INVERSE_SUFFIX, inverseCompression),
+                        loadAdjacencyOffsets(propertyFile + INVERSE_SUFFIX, nodeCount),
+                        defaultValue
+                    ));
+                }
+
+                relationshipProperties
+                    .computeIfAbsent(relationshipType, ignored -> new HashMap<>())
+                    // .get() is safe, since we passed property lists
+                    .put(manifest.get(key(propertyPrefix, "key")), relationships.properties().get());
+            }
+        }
+    }
+
+    private TransientAdjacencyList loadPropertyList(String file, PropertyCompression compression) throws IOException {
+        PropertyValueFormat valueFormat;
+        switch (compression) {
+            case FLOAT:
+                valueFormat = PropertyValueFormat.FLOAT;
+                break;
+            case DICTIONARY:
+                try (var reader = SnapshotFileReader.open(directory.resolve(file + DICTIONARY_SUFFIX))) {
+                    long[] dictionary = new long[reader.readInt()];
+                    reader.readLongs(dictionary, 0, dictionary.length);
+                    tracker.add(sizeOfLongArray(dictionary.length));
+                    valueFormat = PropertyValueFormat.dictionary(dictionary);
+                }
+                break;
+            default:
+                valueFormat = PropertyValueFormat.DOUBLE;
+        }
+        // property lists are not compressed, the codec is irrelevant
+        return loadAdjacencyList(file, AdjacencyCodec.VAR_LONG, valueFormat);
+    }
+
+    private TransientAdjacencyList loadAdjacencyList(String file, AdjacencyCodec codec) throws IOException {
+        return loadAdjacencyList(file, codec, PropertyValueFormat.DOUBLE);
+    }
+
+    private TransientAdjacencyList loadAdjacencyList(
+        String file,
+        AdjacencyCodec codec,
+        PropertyValueFormat valueFormat
+    ) throws IOException {
+        try (var reader = SnapshotFileReader.open(directory.resolve(file + LIST_SUFFIX))) {
+            int pageCount = reader.readInt();
+            tracker.add(sizeOfObjectArray(pageCount));
+            if (USE_OFF_HEAP_ADJACENCY.isEnabled()) {
+                return mappedAdjacencyList(reader, pageCount, codec, valueFormat);
+            }
+            byte[][] pages = new byte[pageCount][];
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                int length = reader.readInt();
+                if (length != NO_ARRAY) {
+                    byte[] page = new byte[length];
+                    reader.readBytes(page);
+                    tracker.add(sizeOfByteArray(length));
+                    pages[pageIndex] = page;
+                }
+            }
+            return new TransientAdjacencyList(pages, codec, valueFormat);
+        }
+    }
+
+    // the pages point into the mapped file, which stays mapped until the adjacency list and its cursors are closed
+    private static TransientAdjacencyList mappedAdjacencyList(
+        SnapshotFileReader reader,
+        int pageCount,
+        AdjacencyCodec codec,
+        PropertyValueFormat valueFormat
+    ) throws IOException {
+        long[] addresses = new long[pageCount];
+        int[] sizes = new int[pageCount];
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            int length = reader.readInt();
+            if (length != NO_ARRAY) {
+                addresses[pageIndex] = reader.mapBytes(length);
+                sizes[pageIndex] = length;
+            }
+        }
+        var pages = OffHeapPages.mapped(addresses, sizes, reader.retainedWindows());
+        return new TransientAdjacencyList(pages, codec, valueFormat);
+    }
+
+    private AdjacencyOffsets loadAdjacencyOffsets(String file, long nodeCount) throws IOException {
+        try (var reader = SnapshotFileReader.open(directory.resolve(file + OFFSETS_SUFFIX))) {
+            if (nodeCount <= ArrayUtil.MAX_ARRAY_LENGTH) {
+                long[] page = new long[(int) nodeCount];
+                reader.readLongs(page, 0, page.length);
+                tracker.add(sizeOfLongArray(page.length));
+                return TransientAdjacencyOffsets.of(page);
+            }
+
+            int pageSize = PageUtil.pageSizeFor(Long.BYTES);
+            int pageCount = PageUtil.numPagesFor(nodeCount, pageSize);
+            long[][] pages = new long[pageCount][];
+            tracker.add(sizeOfObjectArray(pageCount));
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                int length = (int) Math.min(pageSize, nodeCount - (long) pageIndex * pageSize);
+                long[] page = new long[length];
+                reader.readLongs(page, 0, length);
+                tracker.add(sizeOfLongArray(length));
+                pages[pageIndex] = page;
+            }
+            return TransientAdjacencyOffsets.forPageSize(pageSize).newOffsets(pages);
+        }
+    }
+
+    private static void readLongs(SnapshotFileReader reader, HugeLongArray array) throws IOException {
+        try (var cursor = array.initCursor(array.newCursor())) {
+            while (cursor.next()) {
+                reader.readLongs(cursor.array, cursor.offset, cursor.limit - cursor.offset);
+            }
+        }
+    }
+
+    private static void readDoubles(SnapshotFileReader reader, HugeDoubleArray array) throws IOException {
+        try (var cursor = array.initCursor(array.newCursor())) {
+            while (cursor.next()) {
+                reader.readDoubles(cursor.array, cursor.offset, cursor.limit - cursor.offset);
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.AdjacencyList;
+import org.neo4j.graphalgo.api.AdjacencyOffsets;
+import org.neo4j.graphalgo.api.GraphStore;
+import org.neo4j.graphalgo.api.NodeMapping;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.COUNT;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.HIGHEST_NODE_ID_KEY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.INVERSE;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_COUNT_KEY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_LABEL;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.NODE_PROPERTY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.PROPERTY;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.RELATIONSHIP;
+import static org.neo4j.graphalgo.core.loading.SnapshotManifest.key;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Writes a {@link GraphStore} as a snapshot into a directory, which can be
+ * loaded with the {@link GraphStoreSnapshotLoader}.
+ * <p>
+ * The snapshot consists of flat files in little endian byte order:
+ * <ul>
+ *     <li>{@code nodes.bin}: the original id of every node</li>
+ *     <li>{@code labels.bin}: one bit set per node label</li>
+ *     <li>{@code node_property_<i>.bin}: the values of a node property, arrays are prefixed by their length</li>
+ *     <li>{@code <relationships>.list}: the compressed adjacency list pages of a relationship type or property</li>
+ *     <li>{@code <relationships>.offsets}: the offset into the adjacency list of every node</li>
+ * </ul>
+ * Relationships with an inverse index store it in the same format, in files with an {@code _inverse} suffix.
+ * The {@link SnapshotManifest} describes the schema and refers to the files. It is written last,
+ * so that an interrupted write does not leave a loadable snapshot behind.
+ */
+public final class GraphStoreSnapshotWriter {
+
+    static final String NODES_FILE = "nodes.bin";
+    static final String LABELS_FILE = "labels.bin";
+    static final String LIST_SUFFIX = ".list";
+    static final String OFFSETS_SUFFIX = ".offsets";
+    static final String DICTIONARY_SUFFIX = ".dictionary";
+    static final String INVERSE_SUFFIX = "_inverse";
+    static final int NO_ARRAY = -1;
+
+    private final GraphStore graphStore;
+    private final Path directory;
+
+    public GraphStoreSnapshotWriter(GraphStore graphStore, Path directory) {
+        this.graphStore = graphStore;
+        this.directory = directory;
+    }
+
+    public void write() {
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(directory.resolve(SnapshotManifest.FILE_NAME))) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "The directory `%s` already contains a graph store snapshot.",
+                    directory
+                ));
+            }
+
+            var manifest = new SnapshotManifest();
+            // nodes and relationships are written from the same state, pending deltas are part of the snapshot
+            try (var snapshot = relationshipsSnapshot()) {
+                var nodes = snapshot.nodes();
+                writeNodes(manifest, nodes);
+                writeNodeLabels(manifest, nodes);
+                writeNodeProperties(manifest, nodes.nodeCount());
+                writeRelationships(manifest, snapshot);
+            }
+            manifest.write(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNodes(SnapshotManifest manifest, NodeMapping nodes) throws IOException {
+        long nodeCount = nodes.nodeCount();
+        long highestNodeId = 0L;
+
+        try (var writer = SnapshotFileWriter.create(directory.resolve(NODES_FILE))) {
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                long originalId = nodes.toOriginalNodeId(nodeId);
+                highestNodeId = Math.max(highestNodeId, originalId);
+                writer.writeLong(originalId);
+            }
+        }
+
+        manifest.set(NODE_COUNT_KEY, nodeCount);
+        manifest.set(HIGHEST_NODE_ID_KEY, highestNodeId);
+    }
+
+    private void writeNodeLabels(SnapshotManifest manifest, NodeMapping nodes) throws IOException {
+        if (nodes.containsOnlyAllNodesLabel()) {
+            manifest.set(key(NODE_LABEL, COUNT), 0);
+            return;
+        }
+
+        long nodeCount = nodes.nodeCount();
+        var nodeLabels = new ArrayList<>(nodes.availableNodeLabels());
+        long[] words = new long[BitSet.bits2words(nodeCount)];
+
+        try (var writer = SnapshotFileWriter.create(directory.resolve(LABELS_FILE))) {
+            for (int labelIndex = 0; labelIndex < nodeLabels.size(); labelIndex++) {
+                NodeLabel nodeLabel = nodeLabels.get(labelIndex);
+                Arrays.fill(words, 0L);
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    if (nodes.hasLabel(nodeId, nodeLabel)) {
+                        words[(int) (nodeId >>> 6)] |= 1L << nodeId;
+                    }
+                }
+                writer.writeLongs(words, 0, words.length);
+                manifest.set(key(NODE_LABEL, labelIndex), nodeLabel.name);
+            }
+        }
+        manifest.set(key(NODE_LABEL, COUNT), nodeLabels.size());
+    }
+
+    private void writeNodeProperties(SnapshotManifest manifest, long nodeCount) throws IOException {
+        // properties are usually shared between labels, those are written only once
+        Map<NodeProperties, String> writtenFiles = new IdentityHashMap<>();
+        int propertyIndex = 0;
+
+        for (var labelAndKeys : graphStore.nodePropertyKeys().entrySet()) {
+            NodeLabel nodeLabel = labelAndKeys.getKey();
+            for (String propertyKey : labelAndKeys.getValue()) {
+                var values = graphStore.nodePropertyValues(nodeLabel, propertyKey);
+                var file = writtenFiles.get(values);
+                if (file == null) {
+                    file = formatWithLocale("node_property_%d.bin", writtenFiles.size());
+                    writeNodeProperty(propertyKey, values, nodeCount, directory.resolve(file));
+                    writtenFiles.put(values, file);
+                }
+
+                manifest.set(key(NODE_PROPERTY, propertyIndex, "label"), nodeLabel.name);
+                manifest.set(key(NODE_PROPERTY, propertyIndex, "key"), propertyKey);
+                manifest.set(key(NODE_PROPERTY, propertyIndex, "valueType"), values.valueType());
+                manifest.set(key(NODE_PROPERTY, propertyIndex, "file"), file);
+                propertyIndex++;
+            }
+        }
+        manifest.set(key(NODE_PROPERTY, COUNT), propertyIndex);
+    }
+
+    private void writeNodeProperty(
+        String propertyKey,
+        NodeProperties values,
+        long nodeCount,
+        Path file
+    ) throws IOException {
+        try (var writer = SnapshotFileWriter.create(file)) {
+            switch (values.valueType()) {
+                case LONG:
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        writer.writeLong(values.longValue(nodeId));
+                    }
+                    break;
+                case DOUBLE:
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        writer.writeLong(Double.doubleToRawLongBits(values.doubleValue(nodeId)));
+                    }
+                    break;
+                case LONG_ARRAY:
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        long[] array = values.longArrayValue(nodeId);
+                        writer.writeInt(array == null ? NO_ARRAY : array.length);
+                        if (array != null) {
+                            writer.writeLongs(array, 0, array.length);
+                        }
+                    }
+                    break;
+                case DOUBLE_ARRAY:
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        double[] array = values.doubleArrayValue(nodeId);
+                        writer.writeInt(array == null ? NO_ARRAY : array.length);
+                        if (array != null) {
+                            writer.writeDoubles(array, 0, array.length);
+                        }
+                    }
+                    break;
+                case FLOAT_ARRAY:
+                    for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                        float[] array = values.floatArrayValue(nodeId);
+                        writer.writeInt(array == null ? NO_ARRAY : array.length);
+                        if (array != null) {
+                            writer.writeFloats(array);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException(formatWithLocale(
+                        "Node property `%s` of type %s cannot be written to a snapshot.",
+                        propertyKey,
+                        values.valueType()
+                    ));
+            }
+        }
+    }
+
+    /**
+     * The graph store does not change while writing, pending deltas are compacted into the snapshot only.
+     */
+    private RelationshipsSnapshot relationshipsSnapshot() {
+        if (graphStore instanceof CSRGraphStore) {
+            return ((CSRGraphStore) graphStore).relationshipsSnapshot();
+        }
+        Map<RelationshipType, List<String>> propertyKeys = new LinkedHashMap<>();
+        Map<RelationshipType, List<Relationships>> relationships = new LinkedHashMap<>();
+        for (RelationshipType relationshipType : graphStore.relationshipTypes()) {
+            var typePropertyKeys = new ArrayList<>(graphStore.relationshipPropertyKeys(relationshipType));
+            propertyKeys.put(relationshipType, typePropertyKeys);
+            relationships.put(relationshipType, typePropertyKeys.isEmpty()
+                ? List.of(graph(relationshipType, Optional.empty()).relationships())
+                : typePropertyKeys
+                    .stream()
+                    .map(propertyKey -> graph(relationshipType, Optional.of(propertyKey)).relationships())
+                    .collect(Collectors.toList()));
+        }
+        return new RelationshipsSnapshot(graphStore.nodes(), propertyKeys, relationships, () -> {});
+    }
+
+    private void writeRelationships(SnapshotManifest manifest, RelationshipsSnapshot snapshot) throws IOException {
+        long nodeCount = snapshot.nodes().nodeCount();
+        int typeIndex = 0;
+        for (RelationshipType relationshipType : snapshot.relationshipTypes()) {
+            var propertyKeys = snapshot.propertyKeys(relationshipType);
+            var relationships = snapshot.relationships(relationshipType);
+            var typePrefix = key(RELATIONSHIP, typeIndex);
+
+            // the relationships of all properties share the same topology
+            var topology = relationships.get(0).topology();
+
+            for (int propertyIndex = 0; propertyIndex < propertyKeys.size(); propertyIndex++) {
+                var propertyKey = propertyKeys.get(propertyIndex);
+                // .get() is safe, since we have a property key
+                Relationships.Properties properties = relationships.get(propertyIndex).properties().get();
+
+                var file = formatWithLocale("relationship_%d_property_%d", typeIndex, propertyIndex);
+                var propertyPrefix = key(typePrefix, PROPERTY, propertyIndex);
+                manifest.set(key(propertyPrefix, "key"), propertyKey);
+                manifest.set(key(propertyPrefix, "defaultValue"), properties.defaultPropertyValue());
+                manifest.set(key(propertyPrefix, "file"), file);
+                writePropertyList(properties, file, propertyPrefix, nodeCount, manifest);
+
+                var maybeInverseProperties = properties.inverse();
+                if (maybeInverseProperties.isPresent()) {
+                    writePropertyList(
+                        maybeInverseProperties.get(),
+                        file + INVERSE_SUFFIX,
+                        key(propertyPrefix, INVERSE),
+                        nodeCount,
+                        manifest
+                    );
+                }
+            }
+
+            var file = formatWithLocale("relationship_%d", typeIndex);
+            writeAdjacency(topology.list(), topology.offsets(), nodeCount, file);
+
+            manifest.set(key(typePrefix, "type"), relationshipType.name);
+            manifest.set(key(typePrefix, "orientation"), topology.orientation());
+            manifest.set(key(typePrefix, "multiGraph"), topology.isMultiGraph());
+            manifest.set(key(typePrefix, "elementCount"), topology.elementCount());
+            manifest.set(key(typePrefix, "file"), file);
+            manifest.set(key(typePrefix, "codec"), ((TransientAdjacencyList) topology.list()).codec());
+
+            var maybeInverseTopology = topology.inverse();
+            manifest.set(key(typePrefix, INVERSE), maybeInverseTopology.isPresent());
+            if (maybeInverseTopology.isPresent()) {
+                var inverseTopology = maybeInverseTopology.get();
+                writeAdjacency(inverseTopology.list(), inverseTopology.offsets(), nodeCount, file + INVERSE_SUFFIX);
+                manifest.set(key(typePrefix, INVERSE, "codec"), ((TransientAdjacencyList) inverseTopology.list()).codec());
+            }
+            manifest.set(key(typePrefix, PROPERTY, COUNT), propertyKeys.size());
+            typeIndex++;
+        }
+        manifest.set(key(RELATIONSHIP, COUNT), typeIndex);
+    }
+
+    private void writePropertyList(
+        Relationships.Topology properties,
+        String file,
+        String propertyPrefix,
+        long nodeCount,
+        SnapshotManifest manifest
+    ) throws IOException {
+        writeAdjacency(properties.list(), properties.offsets(), nodeCount, file);
+
+        var valueFormat = ((TransientAdjacencyList) properties.list()).valueFormat();
+        manifest.set(key(propertyPrefix, "compression"), valueFormat.compression());
+        if (valueFormat.dictionary() != null) {
+            writeDictionary(valueFormat.dictionary(), file);
+        }
+    }
+
+    private void writeDictionary(long[] dictionary, String file) throws IOException {
+        try (var writer = SnapshotFileWriter.create(directory.resolve(file + DICTIONARY_SUFFIX))) {
+            writer.writeInt(dictionary.length);
+            writer.writeLongs(dictionary, 0, dictionary.length);
+        }
+    }
+
+    private HugeGraph graph(RelationshipType relationshipType, Optional<String> maybePropertyKey) {
+        var graph = graphStore.getGraph(relationshipType, maybePropertyKey);
+        if (!(graph instanceof HugeGraph)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Graphs of type %s cannot be written to a snapshot, relationship type `%s` is not backed by adjacency lists.",
+                graph.getClass().getSimpleName(),
+                relationshipType.name
+            ));
+        }
+        return (HugeGraph) graph;
+    }
+
+    private void writeAdjacency(
+        AdjacencyList list,
+        AdjacencyOffsets offsets,
+        long nodeCount,
+        String file
+    ) throws IOException {
+        if (!(list instanceof TransientAdjacencyList)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Adjacency lists of type %s cannot be written to a snapshot.",
+                list.getClass().getSimpleName()
+            ));
+        }
+
+        var adjacencyList = (TransientAdjacencyList) list;
+        try (var writer = SnapshotFileWriter.create(directory.resolve(file + LIST_SUFFIX))) {
+            int pageCount = adjacencyList.pageCount();
+            writer.writeInt(pageCount);
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                byte[] page = adjacencyList.page(pageIndex);
+                writer.writeInt(page == null ? NO_ARRAY : page.length);
+                if (page != null) {
+                    writer.writeBytes(page);
+                }
+            }
+        }
+
+        try (var writer = SnapshotFileWriter.create(directory.resolve(file + OFFSETS_SUFFIX))) {
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                writer.writeLong(offsets.get(nodeId));
+            }
+        }
+    }
+}
@@ -33,11 +33,11 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.CompressedBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeSparseLongArray;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -57,7 +57,7 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
         .perNode("Neo4j identifiers", HugeLongArray::memoryEstimation)
         .rangePerGraphDimension(
             "Mapping from Neo4j identifiers to internal identifiers",
-            (dimensions, concurrency) -> HugeSparseLongArray.memoryEstimation(
+            (dimensions, concurrency) -> IdMapBuilder.nodeMappingMemoryEstimation(
                 dimensions.highestNeoId(),
                 dimensions.nodeCount()
             )
@@ -74,10 +74,10 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
     private final long nodeCount;
     private final AllocationTracker tracker;
 
-    private final Map<NodeLabel, BitSet> labelInformation;
+    private final NodeLabelIndex labelIndex;
 
     private final HugeLongArray graphIds;
-    private final HugeSparseLongArray nodeToGraphIds;
+    private final ForwardIdMapping nodeToGraphIds;
 
     public static MemoryEstimation memoryEstimation() {
         return ESTIMATION;
@@ -92,10 +92,30 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
         Map<NodeLabel, BitSet> labelInformation,
         long nodeCount,
         AllocationTracker tracker
+    ) {
+        this(graphIds, new SparseIdMapping(nodeToGraphIds), labelInformation, nodeCount, tracker);
+    }
+
+    public IdMap(
+        HugeLongArray graphIds,
+        ForwardIdMapping nodeToGraphIds,
+        Map<NodeLabel, BitSet> labelInformation,
+        long nodeCount,
+        AllocationTracker tracker
+    ) {
+        this(graphIds, nodeToGraphIds, NodeLabelIndex.of(labelInformation, nodeCount), nodeCount, tracker);
+    }
+
+    IdMap(
+        HugeLongArray graphIds,
+        ForwardIdMapping nodeToGraphIds,
+        NodeLabelIndex labelIndex,
+        long nodeCount,
+        AllocationTracker tracker
     ) {
         this.graphIds = graphIds;
         this.nodeToGraphIds = nodeToGraphIds;
-        this.labelInformation = labelInformation;
+        this.labelIndex = labelIndex;
         this.nodeCount = nodeCount;
         this.tracker = tracker;
     }
@@ -145,44 +165,44 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
 
     @Override
     public Set<NodeLabel> availableNodeLabels() {
-        return labelInformation.isEmpty()
+        return labelIndex.isEmpty()
             ? ALL_NODES_LABELS
-            : labelInformation.keySet();
+            : labelIndex.nodeLabels();
     }
 
     @Override
     public Set<NodeLabel> nodeLabels(long nodeId) {
-        if (labelInformation.isEmpty()) {
+        if (labelIndex.isEmpty()) {
             return ALL_NODES_LABELS;
         } else {
-            Set<NodeLabel> set = new HashSet<>();
-            for (var labelAndBitSet : labelInformation.entrySet()) {
-                if (labelAndBitSet.getValue().get(nodeId)) {
-                    set.add(labelAndBitSet.getKey());
-                }
-            }
-            return set;
+            return labelIndex.nodeLabels(nodeId);
         }
     }
 
     @Override
     public boolean hasLabel(long nodeId, NodeLabel label) {
-        if (labelInformation.isEmpty() && label.equals(NodeLabel.ALL_NODES)) {
+        if (labelIndex.isEmpty() && label.equals(NodeLabel.ALL_NODES)) {
             return true;
         }
-        BitSet bitSet = labelInformation.get(label);
-        return bitSet != null && bitSet.get(nodeId);
+        return labelIndex.hasLabel(nodeId, label);
+    }
+
+    /**
+     * The memory that has been allocated for the ids of this map. The label index is not included,
+     * since a filtered map shares its bit sets with the map it has been filtered from.
+     */
+    long sizeOfIds() {
+        return graphIds.sizeOf() + nodeToGraphIds.sizeOf();
     }
 
     IdMap withFilteredLabels(Collection<NodeLabel> nodeLabels, int concurrency) {
-        validateNodeLabelFilter(nodeLabels, labelInformation);
+        validateNodeLabelFilter(nodeLabels, labelIndex.nodeLabels());
 
-        if (labelInformation.isEmpty()) {
+        if (labelIndex.isEmpty()) {
             return this;
         }
 
-        BitSet unionBitSet = new BitSet(nodeCount());
-        nodeLabels.forEach(label -> unionBitSet.union(labelInformation.get(label)));
+        CompressedBitSet unionBitSet = labelIndex.union(nodeLabels);
 
         if (unionBitSet.cardinality() == nodeCount()) {
             return this;
@@ -193,36 +213,71 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
         long newNodeCount = unionBitSet.cardinality();
         HugeLongArray newGraphIds = HugeLongArray.newArray(newNodeCount, tracker);
 
-        while ((nodeId = unionBitSet.nextSetBit(nodeId + 1)) != -1) {
+        while ((nodeId = unionBitSet.nextSetBit(nodeId + 1)) != -1L) {
             newGraphIds.set(cursor, nodeId);
             cursor++;
         }
 
-        HugeSparseLongArray newNodeToGraphIds = IdMapBuilder.buildSparseNodeMapping(
+        ForwardIdMapping newNodeToGraphIds = IdMapBuilder.buildNodeMapping(
+            newGraphIds,
             newNodeCount,
-            nodeToGraphIds.getCapacity(),
+            nodeCount() - 1,
             concurrency,
-            IdMapBuilder.add(newGraphIds),
             tracker
         );
 
-        Map<NodeLabel, BitSet> newLabelInformation = nodeLabels
-            .stream()
-            .collect(Collectors.toMap(nodeLabel -> nodeLabel, labelInformation::get));
+        return new FilteredIdMap(
+            newGraphIds,
+            newNodeToGraphIds,
+            labelIndex.filter(nodeLabels),
+            newNodeCount,
+            tracker
+        );
+    }
+
+    /**
+     * Returns a copy of this id map with the given nodes appended, the existing nodes keep their ids.
+     * The nodes must not be part of this id map and their labels must be available.
+     */
+    IdMap withAddedNodes(long[] originalNodeIds, List<? extends Collection<NodeLabel>> nodeLabels, int concurrency) {
+        long newNodeCount = nodeCount + originalNodeIds.length;
+        HugeLongArray newGraphIds = graphIds.copyOf(newNodeCount, tracker);
+        long highestNodeId = -1L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            highestNodeId = Math.max(highestNodeId, graphIds.get(nodeId));
+        }
+        for (int i = 0; i < originalNodeIds.length; i++) {
+            newGraphIds.set(nodeCount + i, originalNodeIds[i]);
+            highestNodeId = Math.max(highestNodeId, originalNodeIds[i]);
+        }
 
-        return new FilteredIdMap(newGraphIds, newNodeToGraphIds, newLabelInformation, newNodeCount, tracker);
+        ForwardIdMapping newNodeToGraphIds = IdMapBuilder.buildNodeMapping(
+            newGraphIds,
+            newNodeCount,
+            highestNodeId,
+            concurrency,
+            tracker
+        );
+
+        return new IdMap(
+            newGraphIds,
+            newNodeToGraphIds,
+            labelIndex.isEmpty() ? labelIndex : labelIndex.withAddedNodes(nodeCount, nodeLabels),
+            newNodeCount,
+            tracker
+        );
     }
 
-    private void validateNodeLabelFilter(Collection<NodeLabel> nodeLabels, Map<NodeLabel, BitSet> labelInformation) {
+    private void validateNodeLabelFilter(Collection<NodeLabel> nodeLabels, Set<NodeLabel> availableLabels) {
         List<ElementIdentifier> invalidLabels = nodeLabels
             .stream()
-            .filter(label -> !new HashSet<>(labelInformation.keySet()).contains(label))
+            .filter(label -> !availableLabels.contains(label))
             .collect(Collectors.toList());
         if (!invalidLabels.isEmpty()) {
             throw new IllegalArgumentException(formatWithLocale(
                 "Specified labels %s do not correspond to any of the node projections %s.",
                 invalidLabels,
-                labelInformation.keySet()
+                availableLabels
             ));
         }
     }
@@ -231,12 +286,12 @@ public class IdMap implements NodeMapping, NodeIterator, BatchNodeIterable {
 
         FilteredIdMap(
             HugeLongArray graphIds,
-            HugeSparseLongArray nodeToGraphIds,
-            Map<NodeLabel, BitSet> filteredLabelMap,
+            ForwardIdMapping nodeToGraphIds,
+            NodeLabelIndex filteredLabelIndex,
             long nodeCount,
             AllocationTracker tracker
         ) {
-            super(graphIds, nodeToGraphIds, filteredLabelMap, nodeCount, tracker);
+            super(graphIds, nodeToGraphIds, filteredLabelIndex, nodeCount, tracker);
         }
 
         @Override
@@ -19,12 +19,14 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import com.carrotsearch.hppc.BitSet;
 import org.jetbrains.annotations.NotNull;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.concurrency.Pools;
 import org.neo4j.graphalgo.core.utils.BiLongConsumer;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
 import org.neo4j.graphalgo.core.utils.paged.HugeCursor;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
@@ -37,6 +39,10 @@ import java.util.stream.Collectors;
 
 public final class IdMapBuilder {
 
+    static final long SPARSE_OVERHEAD_FACTOR = 4L;
+    // Small mappings keep constant time lookups regardless of how sparse the ids are.
+    static final long MIN_SPARSE_MAPPING_BUDGET = 1L << 20;
+
     public static IdMap build(
         HugeLongArrayBuilder idMapBuilder,
         Map<NodeLabel, HugeAtomicBitSet> labelInformation,
@@ -45,11 +51,12 @@ public final class IdMapBuilder {
         AllocationTracker tracker
     ) {
         HugeLongArray graphIds = idMapBuilder.build();
-        HugeSparseLongArray nodeToGraphIds = buildSparseNodeMapping(
+        ForwardIdMapping nodeToGraphIds = buildNodeMapping(
+            graphIds,
             idMapBuilder.size(),
             highestNodeId,
             concurrency,
-            add(graphIds),
+            false,
             tracker
         );
 
@@ -69,11 +76,12 @@ public final class IdMapBuilder {
         AllocationTracker tracker
     ) throws DuplicateNodeIdException {
         HugeLongArray graphIds = idMapBuilder.build();
-        HugeSparseLongArray nodeToGraphIds = buildSparseNodeMapping(
+        ForwardIdMapping nodeToGraphIds = buildNodeMapping(
+            graphIds,
             idMapBuilder.size(),
             highestNodeId,
             concurrency,
-            addChecked(graphIds),
+            true,
             tracker
         );
 
@@ -85,6 +93,96 @@ public final class IdMapBuilder {
         return new IdMap(graphIds, nodeToGraphIds, convertedLabelInformation, idMapBuilder.size(), tracker);
     }
 
+    static ForwardIdMapping buildNodeMapping(
+        HugeLongArray graphIds,
+        long nodeCount,
+        long highestNodeId,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        return buildNodeMapping(graphIds, nodeCount, highestNodeId, concurrency, false, tracker);
+    }
+
+    /**
+     * Builds the mapping from original to internal ids. A {@link HugeSparseLongArray}
+     * is used unless the original ids are so sparse that its pages would take more than
+     * {@link #SPARSE_OVERHEAD_FACTOR} times the memory of a {@link SortedIdMapping}
+     * and more than {@link #MIN_SPARSE_MAPPING_BUDGET} bytes.
+     */
+    static ForwardIdMapping buildNodeMapping(
+        HugeLongArray graphIds,
+        long nodeCount,
+        long highestNodeId,
+        int concurrency,
+        boolean checkDuplicates,
+        AllocationTracker tracker
+    ) throws DuplicateNodeIdException {
+        if (preferSortedMapping(graphIds, nodeCount, highestNodeId)) {
+            return SortedIdMapping.of(graphIds, nodeCount, checkDuplicates, tracker);
+        }
+        return new SparseIdMapping(buildSparseNodeMapping(
+            nodeCount,
+            highestNodeId,
+            concurrency,
+            checkDuplicates ? addChecked(graphIds) : add(graphIds),
+            tracker
+        ));
+    }
+
+    static MemoryRange nodeMappingMemoryEstimation(long highestNodeId, long nodeCount) {
+        MemoryRange sparse = HugeSparseLongArray.memoryEstimation(highestNodeId, nodeCount);
+        long limit = sparseMappingLimit(nodeCount);
+        // The sparse array is only used while it stays within the limit,
+        // otherwise the sorted mapping is built, which peaks while its ids are sorted.
+        if (sparse.max <= limit) {
+            return sparse;
+        }
+        long sorted = SortedIdMapping.peakMemoryEstimation(nodeCount);
+        if (sparse.min > limit) {
+            return MemoryRange.of(sorted);
+        }
+        return MemoryRange.of(Math.min(sparse.min, sorted), Math.max(limit, sorted));
+    }
+
+    private static long sparseMappingLimit(long nodeCount) {
+        return Math.max(
+            SPARSE_OVERHEAD_FACTOR * SortedIdMapping.memoryEstimation(nodeCount),
+            MIN_SPARSE_MAPPING_BUDGET
+        );
+    }
+
+    private static boolean preferSortedMapping(HugeLongArray graphIds, long nodeCount, long highestNodeId) {
+        if (nodeCount == 0) {
+            return false;
+        }
+
+        long sortedLimit = sparseMappingLimit(nodeCount);
+        long capacity = highestNodeId + 1;
+        long numPages = HugeSparseLongArray.pageIndexOf(highestNodeId) + 1;
+
+        // Decide on the bounds for the number of allocated pages first
+        // and only look at the actual ids if the bounds are inconclusive.
+        long maxPagesInUse = Math.min(numPages, nodeCount);
+        long minPagesInUse = HugeSparseLongArray.pageIndexOf(nodeCount - 1) + 1;
+        if (HugeSparseLongArray.memoryUsage(capacity, maxPagesInUse) <= sortedLimit) {
+            return false;
+        }
+        if (HugeSparseLongArray.memoryUsage(capacity, minPagesInUse) > sortedLimit) {
+            return true;
+        }
+
+        BitSet pagesInUse = new BitSet(numPages);
+        try (HugeCursor<long[]> cursor = graphIds.initCursor(graphIds.newCursor(), 0, nodeCount)) {
+            while (cursor.next()) {
+                long[] array = cursor.array;
+                for (int i = cursor.offset; i < cursor.limit; ++i) {
+                    pagesInUse.set(HugeSparseLongArray.pageIndexOf(array[i]));
+                }
+            }
+        }
+        return HugeSparseLongArray.memoryUsage(capacity, pagesInUse.cardinality()) > sortedLimit;
+    }
+
     @NotNull
     static HugeSparseLongArray buildSparseNodeMapping(
         long nodeCount,
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.CSRGraph;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the materialized graphs of a {@link CSRGraphStore} in least recently used order.
+ * Graphs are evicted once their total size exceeds the memory budget,
+ * all graphs are dropped when the graph store is modified.
+ */
+final class MaterializedGraphCache {
+
+    private final LongSupplier memoryBudget;
+    private final AllocationTracker tracker;
+    private final LinkedHashMap<GraphKey, CachedGraph> entries;
+
+    private long usedBytes;
+    private long generation;
+
+    MaterializedGraphCache(LongSupplier memoryBudget, AllocationTracker tracker) {
+        this.memoryBudget = memoryBudget;
+        this.tracker = tracker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    synchronized Optional<CSRGraph> get(GraphKey key) {
+        return Optional.ofNullable(entries.get(key)).map(CachedGraph::graph);
+    }
+
+    /**
+     * Returns the current generation, which changes on every invalidation.
+     * A graph is only cached if it has been materialized within a single generation.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized void put(GraphKey key, long generation, CSRGraph graph, long bytes) {
+        if (generation != this.generation || bytes > memoryBudget.getAsLong()) {
+            return;
+        }
+        var previous = entries.put(key, ImmutableCachedGraph.of(graph, bytes));
+        if (previous != null) {
+            release(previous);
+        }
+        usedBytes += bytes;
+        tracker.add(bytes);
+
+        Iterator<CachedGraph> leastRecentlyUsed = entries.values().iterator();
+        while (usedBytes > memoryBudget.getAsLong() && leastRecentlyUsed.hasNext()) {
+            var evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            release(evicted);
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void release(CachedGraph entry) {
+        // algorithms that still run on an evicted graph keep it alive until they finish
+        usedBytes -= entry.bytes();
+        tracker.remove(entry.bytes());
+    }
+
+    @ValueClass
+    interface GraphKey {
+        Set<NodeLabel> nodeLabels();
+
+        Set<RelationshipType> relationshipTypes();
+
+        Optional<String> relationshipProperty();
+
+        boolean deduplicateRelationships();
+    }
+
+    @ValueClass
+    interface CachedGraph {
+        CSRGraph graph();
+
+        long bytes();
+    }
+}
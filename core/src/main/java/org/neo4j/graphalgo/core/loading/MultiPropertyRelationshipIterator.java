@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+
+import java.util.List;
+
+/**
+ * Visits the relationships of a node together with the values of several relationship properties.
+ * The given graphs must contain the same relationships in the same order and only differ in their property,
+ * which is the case for graphs of a single relationship type that are created by the same graph store.
+ * Not thread-safe, every thread needs its own iterator.
+ */
+final class MultiPropertyRelationshipIterator {
+
+    interface RelationshipWithPropertiesConsumer {
+        /**
+         * The property values are only valid during the call.
+         */
+        void accept(long targetNodeId, double[] propertyValues);
+    }
+
+    private final RelationshipIterator[] graphs;
+    private final LongArrayList targets;
+    private final DoubleArrayList[] values;
+    private final double[] relationshipValues;
+
+    MultiPropertyRelationshipIterator(List<? extends RelationshipIterator> graphs) {
+        this.graphs = graphs.stream().map(RelationshipIterator::concurrentCopy).toArray(RelationshipIterator[]::new);
+        this.targets = new LongArrayList();
+        this.values = new DoubleArrayList[graphs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new DoubleArrayList();
+        }
+        this.relationshipValues = new double[graphs.size()];
+    }
+
+    void forEachRelationship(long nodeId, RelationshipWithPropertiesConsumer consumer) {
+        targets.clear();
+        for (int i = 0; i < graphs.length; i++) {
+            // the targets are the same for all graphs
+            boolean collectTargets = i == 0;
+            var propertyValues = values[i];
+            propertyValues.clear();
+            graphs[i].forEachRelationship(nodeId, Double.NaN, (source, target, property) -> {
+                if (collectTargets) {
+                    targets.add(target);
+                }
+                propertyValues.add(property);
+                return true;
+            });
+        }
+
+        for (int relationship = 0; relationship < targets.size(); relationship++) {
+            for (int i = 0; i < graphs.length; i++) {
+                relationshipValues[i] = values[i].get(relationship);
+            }
+            consumer.accept(targets.get(relationship), relationshipValues);
+        }
+    }
+}
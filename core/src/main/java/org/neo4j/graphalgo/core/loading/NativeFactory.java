@@ -96,7 +96,11 @@ public final class NativeFactory extends CSRGraphStoreFactory<GraphCreateFromSto
             // adjacency list
             builder.add(
                 formatWithLocale("adjacency list for '%s'", relationshipType),
-                TransientAdjacencyList.compressedMemoryEstimation(relationshipType, undirected)
+                TransientAdjacencyList.compressedMemoryEstimation(
+                    relationshipType,
+                    undirected,
+                    relationshipProjection.adjacencyCodec()
+                )
             );
             builder.add(
                 formatWithLocale("adjacency offsets for '%s'", relationshipType),
@@ -106,13 +110,47 @@ public final class NativeFactory extends CSRGraphStoreFactory<GraphCreateFromSto
             relationshipProjection.properties().mappings().forEach(resolvedPropertyMapping -> {
                 builder.add(
                     formatWithLocale("property '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
-                    TransientAdjacencyList.uncompressedMemoryEstimation(relationshipType, undirected)
+                    TransientAdjacencyList.uncompressedMemoryEstimation(
+                        relationshipType,
+                        undirected,
+                        resolvedPropertyMapping.compression()
+                    )
                 );
                 builder.add(
                     formatWithLocale("property offset '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
                     TransientAdjacencyOffsets.memoryEstimation()
                 );
             });
+
+            // the inverse index duplicates the adjacency and property lists, but shares the id map
+            if (relationshipProjection.indexInverse() && !undirected) {
+                builder.add(
+                    formatWithLocale("inverse adjacency list for '%s'", relationshipType),
+                    TransientAdjacencyList.compressedMemoryEstimation(
+                        relationshipType,
+                        false,
+                        relationshipProjection.adjacencyCodec()
+                    )
+                );
+                builder.add(
+                    formatWithLocale("inverse adjacency offsets for '%s'", relationshipType),
+                    TransientAdjacencyOffsets.memoryEstimation()
+                );
+                relationshipProjection.properties().mappings().forEach(resolvedPropertyMapping -> {
+                    builder.add(
+                        formatWithLocale("inverse property '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
+                        TransientAdjacencyList.uncompressedMemoryEstimation(
+                            relationshipType,
+                            false,
+                            resolvedPropertyMapping.compression()
+                        )
+                    );
+                    builder.add(
+                        formatWithLocale("inverse property offset '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
+                        TransientAdjacencyOffsets.memoryEstimation()
+                    );
+                });
+            }
         });
 
         return builder.build();
@@ -189,7 +227,7 @@ public final class NativeFactory extends CSRGraphStoreFactory<GraphCreateFromSto
                 Map.Entry::getKey,
                 projectionEntry -> new RelationshipsBuilder(
                     projectionEntry.getValue(),
-                    TransientAdjacencyListBuilder.builderFactory(tracker),
+                    TransientAdjacencyListBuilder.builderFactory(projectionEntry.getValue().adjacencyCodec(), tracker),
                     TransientAdjacencyOffsets.forPageSize(pageSize)
                 )
             ));
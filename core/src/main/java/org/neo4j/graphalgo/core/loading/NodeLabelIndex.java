@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.core.utils.paged.CompressedBitSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the nodes of every label in a {@link CompressedBitSet}.
+ * For every chunk of the bit sets, the index remembers which labels have
+ * nodes in it, so that looking up the labels of a node only checks those.
+ */
+final class NodeLabelIndex {
+
+    private static final NodeLabel[] NO_LABELS = new NodeLabel[0];
+
+    private final Map<NodeLabel, CompressedBitSet> bitSets;
+    private final NodeLabel[][] labelsPerChunk;
+
+    static NodeLabelIndex of(Map<NodeLabel, BitSet> labelInformation, long nodeCount) {
+        Map<NodeLabel, CompressedBitSet> bitSets = new HashMap<>();
+        labelInformation.forEach((nodeLabel, bitSet) -> bitSets.put(
+            nodeLabel,
+            CompressedBitSet.of(bitSet, nodeCount)
+        ));
+        return new NodeLabelIndex(bitSets);
+    }
+
+    private NodeLabelIndex(Map<NodeLabel, CompressedBitSet> bitSets) {
+        this.bitSets = bitSets;
+        this.labelsPerChunk = labelsPerChunk(bitSets);
+    }
+
+    boolean isEmpty() {
+        return bitSets.isEmpty();
+    }
+
+    Set<NodeLabel> nodeLabels() {
+        return bitSets.keySet();
+    }
+
+    Set<NodeLabel> nodeLabels(long nodeId) {
+        Set<NodeLabel> set = new HashSet<>();
+        int chunk = CompressedBitSet.chunkOf(nodeId);
+        if (chunk < labelsPerChunk.length) {
+            for (NodeLabel nodeLabel : labelsPerChunk[chunk]) {
+                if (bitSets.get(nodeLabel).get(nodeId)) {
+                    set.add(nodeLabel);
+                }
+            }
+        }
+        return set;
+    }
+
+    boolean hasLabel(long nodeId, NodeLabel nodeLabel) {
+        CompressedBitSet bitSet = bitSets.get(nodeLabel);
+        return bitSet != null && bitSet.get(nodeId);
+    }
+
+    /**
+     * Returns the nodes that have at least one of the given labels.
+     */
+    CompressedBitSet union(Collection<NodeLabel> nodeLabels) {
+        return CompressedBitSet.union(nodeLabels.stream().map(bitSets::get).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns an index that only contains the given labels and shares their bit sets with this index.
+     */
+    NodeLabelIndex filter(Collection<NodeLabel> nodeLabels) {
+        Map<NodeLabel, CompressedBitSet> filteredBitSets = new HashMap<>();
+        nodeLabels.forEach(nodeLabel -> filteredBitSets.put(nodeLabel, bitSets.get(nodeLabel)));
+        return new NodeLabelIndex(filteredBitSets);
+    }
+
+    /**
+     * Returns an index for the given number of nodes appended to the {@code nodeCount} nodes of this index.
+     * The labels of the appended nodes need to be part of this index.
+     */
+    NodeLabelIndex withAddedNodes(long nodeCount, List<? extends Collection<NodeLabel>> addedNodeLabels) {
+        long newNodeCount = nodeCount + addedNodeLabels.size();
+        Map<NodeLabel, BitSet> labelInformation = new HashMap<>();
+        bitSets.forEach((nodeLabel, bitSet) -> {
+            var extendedBitSet = new BitSet(newNodeCount);
+            for (long nodeId = bitSet.nextSetBit(0); nodeId != -1L; nodeId = bitSet.nextSetBit(nodeId + 1)) {
+                extendedBitSet.set(nodeId);
+            }
+            labelInformation.put(nodeLabel, extendedBitSet);
+        });
+        for (int i = 0; i < addedNodeLabels.size(); i++) {
+            long nodeId = nodeCount + i;
+            addedNodeLabels.get(i).forEach(nodeLabel -> labelInformation.get(nodeLabel).set(nodeId));
+        }
+        return of(labelInformation, newNodeCount);
+    }
+
+    private static NodeLabel[][] labelsPerChunk(Map<NodeLabel, CompressedBitSet> bitSets) {
+        int chunkCount = bitSets.values().stream().mapToInt(CompressedBitSet::chunkCount).max().orElse(0);
+        NodeLabel[][] labelsPerChunk = new NodeLabel[chunkCount][];
+        List<NodeLabel> chunkLabels = new ArrayList<>();
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunkLabels.clear();
+            for (var labelAndBitSet : bitSets.entrySet()) {
+                if (!labelAndBitSet.getValue().isEmpty(chunk)) {
+                    chunkLabels.add(labelAndBitSet.getKey());
+                }
+            }
+            labelsPerChunk[chunk] = chunkLabels.isEmpty() ? NO_LABELS : chunkLabels.toArray(NO_LABELS);
+        }
+        return labelsPerChunk;
+    }
+}
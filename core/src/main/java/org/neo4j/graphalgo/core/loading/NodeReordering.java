@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntLongHashMap;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.cursors.LongIntCursor;
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeMapping;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.Relationships;
+import org.neo4j.graphalgo.api.nodeproperties.DoubleArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.FloatArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.LongArrayNodeProperties;
+import org.neo4j.graphalgo.core.NodeOrder;
+import org.neo4j.graphalgo.core.PropertyCompression;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.graphalgo.core.loading.construction.GraphFactory;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicBitSet;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+import org.neo4j.graphalgo.core.utils.partition.PartitionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Renumbers the nodes of a {@link CSRGraphStore} according to a {@link NodeOrder}.
+ * <p>
+ * The scan order of the store assigns effectively random ids to neighbouring nodes.
+ * Reordering places nodes that are accessed together into close id ranges, which improves
+ * the cache locality of node property and algorithm state lookups and shrinks the gaps
+ * that are encoded in the adjacency lists.
+ * The id map, the node properties and the relationships of all types are rewritten,
+ * {@link IdMap#toOriginalNodeId(long)} keeps returning the ids of the database.
+ */
+public final class NodeReordering {
+
+    private static final int MAX_COMMUNITY_ITERATIONS = 10;
+
+    private NodeReordering() {}
+
+    public static CSRGraphStore reorder(
+        CSRGraphStore graphStore,
+        NodeOrder nodeOrder,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        if (nodeOrder == NodeOrder.NONE || graphStore.relationshipTypes().isEmpty()) {
+            return graphStore;
+        }
+
+        // the union of all topologies, properties are irrelevant for the order
+        var topology = graphStore.getGraph(graphStore.relationshipTypes(), Optional.empty());
+        HugeLongArray newToOld = computeOrder(topology, nodeOrder, tracker);
+
+        long nodeCount = graphStore.nodeCount();
+        HugeLongArray oldToNew = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            oldToNew.set(newToOld.get(nodeId), nodeId);
+        }
+
+        var nodes = reorderNodes(graphStore.nodes(), newToOld, concurrency, tracker);
+        var nodeProperties = reorderNodeProperties(graphStore, newToOld, tracker);
+
+        Map<RelationshipType, Relationships.Topology> topologies = new HashMap<>();
+        Map<RelationshipType, Map<String, Relationships.Properties>> relationshipProperties = new HashMap<>();
+        for (RelationshipType relationshipType : graphStore.relationshipTypes()) {
+            var propertyKeys = new ArrayList<>(graphStore.relationshipPropertyKeys(relationshipType));
+            List<HugeGraph> graphs = propertyKeys.isEmpty()
+                ? List.of((HugeGraph) graphStore.getGraph(relationshipType, Optional.empty()))
+                : propertyKeys
+                    .stream()
+                    .map(propertyKey -> (HugeGraph) graphStore.getGraph(relationshipType, Optional.of(propertyKey)))
+                    .collect(Collectors.toList());
+            // the topology is built once, together with the lists of all properties
+            var relationships = reorderRelationships(graphs, nodes, newToOld, oldToNew, concurrency, tracker);
+            topologies.put(relationshipType, relationships.get(0).topology());
+            for (int i = 0; i < propertyKeys.size(); i++) {
+                relationshipProperties
+                    .computeIfAbsent(relationshipType, ignored -> new HashMap<>())
+                    // .get() is safe, since the graph has a property
+                    .put(propertyKeys.get(i), relationships.get(i).properties().get());
+            }
+        }
+
+        return CSRGraphStore.of(
+            graphStore.databaseId(),
+            nodes,
+            nodeProperties,
+            topologies,
+            relationshipProperties,
+            concurrency,
+            tracker
+        );
+    }
+
+    /**
+     * Returns the new order of the nodes, i.e. the original id for every new id.
+     */
+    static HugeLongArray computeOrder(Graph graph, NodeOrder nodeOrder, AllocationTracker tracker) {
+        switch (nodeOrder) {
+            case DEGREE:
+                return degreeOrder(graph, true, tracker);
+            case CUTHILL_MCKEE:
+                return cuthillMcKeeOrder(graph, tracker);
+            case COMMUNITY:
+                return communityOrder(graph, tracker);
+            default:
+                throw new IllegalArgumentException(formatWithLocale("Unsupported node order %s.", nodeOrder));
+        }
+    }
+
+    /**
+     * Counting sort over the distinct degrees, nodes with equal degree keep their relative order.
+     */
+    private static HugeLongArray degreeOrder(Graph graph, boolean descending, AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        var degreeCounts = new IntLongHashMap();
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            degreeCounts.addTo(graph.degree(nodeId), 1L);
+        }
+
+        int[] degrees = degreeCounts.keys().toArray();
+        Arrays.sort(degrees);
+        long offset = 0L;
+        for (int i = 0; i < degrees.length; i++) {
+            int degree = descending ? degrees[degrees.length - 1 - i] : degrees[i];
+            long count = degreeCounts.get(degree);
+            degreeCounts.put(degree, offset);
+            offset += count;
+        }
+
+        var order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int degree = graph.degree(nodeId);
+            order.set(degreeCounts.addTo(degree, 1L) - 1L, nodeId);
+        }
+        return order;
+    }
+
+    private static HugeLongArray cuthillMcKeeOrder(Graph graph, AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        // every component is started from one of its nodes with minimum degree
+        var startNodes = degreeOrder(graph, false, tracker);
+        var order = HugeLongArray.newArray(nodeCount, tracker);
+        var visited = HugeAtomicBitSet.create(nodeCount, tracker);
+
+        var neighbours = new LongArrayList();
+        var neighbourDegrees = new IntArrayList();
+        long head = 0L;
+        long tail = 0L;
+
+        for (long i = 0; i < nodeCount; i++) {
+            long startNode = startNodes.get(i);
+            if (visited.getAndSet(startNode)) {
+                continue;
+            }
+            order.set(tail++, startNode);
+
+            while (head < tail) {
+                long nodeId = order.get(head++);
+                neighbours.clear();
+                neighbourDegrees.clear();
+                graph.forEachRelationship(nodeId, (source, target) -> {
+                    if (!visited.getAndSet(target)) {
+                        neighbours.add(target);
+                        neighbourDegrees.add(graph.degree(target));
+                    }
+                    return true;
+                });
+
+                long[] targets = neighbours.buffer;
+                int[] targetDegrees = neighbourDegrees.buffer;
+                int[] byDegree = IndirectSort.mergesort(
+                    0,
+                    neighbours.size(),
+                    (a, b) -> targetDegrees[a] != targetDegrees[b]
+                        ? Integer.compare(targetDegrees[a], targetDegrees[b])
+                        : Long.compare(targets[a], targets[b])
+                );
+                for (int index : byDegree) {
+                    order.set(tail++, targets[index]);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Orders the communities by their first node in the Cuthill-McKee order and
+     * keeps the Cuthill-McKee order for the nodes of a community.
+     */
+    private static HugeLongArray communityOrder(Graph graph, AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        var bfsOrder = cuthillMcKeeOrder(graph, tracker);
+        var communities = modularityCommunities(graph, bfsOrder, tracker);
+
+        // ranks the communities and counts their nodes at offset rank + 1
+        var ranks = HugeLongArray.newArray(nodeCount, tracker);
+        ranks.fill(-1L);
+        var offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        long rankCount = 0L;
+        for (long i = 0; i < nodeCount; i++) {
+            long community = communities.get(bfsOrder.get(i));
+            long rank = ranks.get(community);
+            if (rank == -1L) {
+                rank = rankCount++;
+                ranks.set(community, rank);
+            }
+            offsets.addTo(rank + 1, 1L);
+        }
+        for (long rank = 1; rank <= rankCount; rank++) {
+            offsets.addTo(rank, offsets.get(rank - 1));
+        }
+
+        var order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long i = 0; i < nodeCount; i++) {
+            long nodeId = bfsOrder.get(i);
+            long rank = ranks.get(communities.get(nodeId));
+            long position = offsets.get(rank);
+            offsets.set(rank, position + 1);
+            order.set(position, nodeId);
+        }
+        return order;
+    }
+
+    /**
+     * Sequentially moves every node into the neighbouring community with the largest modularity gain,
+     * similar to the local moving phase of Louvain, until no node changes its community.
+     */
+    private static HugeLongArray modularityCommunities(
+        Graph graph,
+        HugeLongArray visitOrder,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = graph.nodeCount();
+        var communities = HugeLongArray.newArray(nodeCount, tracker);
+        communities.setAll(nodeId -> nodeId);
+        var communityDegrees = HugeLongArray.newArray(nodeCount, tracker);
+        communityDegrees.setAll(graph::degree);
+        double totalDegree = 0D;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            totalDegree += graph.degree(nodeId);
+        }
+
+        var communityWeights = new LongIntHashMap();
+        for (int iteration = 0; iteration < MAX_COMMUNITY_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (long i = 0; i < nodeCount; i++) {
+                long nodeId = visitOrder.get(i);
+                communityWeights.clear();
+                graph.forEachRelationship(nodeId, (source, target) -> {
+                    if (source != target) {
+                        communityWeights.addTo(communities.get(target), 1);
+                    }
+                    return true;
+                });
+
+                int degree = graph.degree(nodeId);
+                long currentCommunity = communities.get(nodeId);
+                communityDegrees.addTo(currentCommunity, -degree);
+
+                long bestCommunity = currentCommunity;
+                double bestGain = communityWeights.getOrDefault(currentCommunity, 0)
+                                  - degree * communityDegrees.get(currentCommunity) / totalDegree;
+                for (LongIntCursor cursor : communityWeights) {
+                    double gain = cursor.value - degree * communityDegrees.get(cursor.key) / totalDegree;
+                    if (gain > bestGain || (gain == bestGain && bestCommunity != currentCommunity && cursor.key < bestCommunity)) {
+                        bestCommunity = cursor.key;
+                        bestGain = gain;
+                    }
+                }
+
+                communityDegrees.addTo(bestCommunity, degree);
+                if (bestCommunity != currentCommunity) {
+                    communities.set(nodeId, bestCommunity);
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return communities;
+    }
+
+    private static IdMap reorderNodes(
+        NodeMapping nodes,
+        HugeLongArray newToOld,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = nodes.nodeCount();
+        var graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        long highestNodeId = 0L;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long originalId = nodes.toOriginalNodeId(newToOld.get(nodeId));
+            highestNodeId = Math.max(highestNodeId, originalId);
+            graphIds.set(nodeId, originalId);
+        }
+
+        var nodeToGraphIds = IdMapBuilder.buildNodeMapping(
+            graphIds,
+            nodeCount,
+            highestNodeId,
+            concurrency,
+            tracker
+        );
+
+        Map<NodeLabel, BitSet> labelInformation = new HashMap<>();
+        if (!nodes.containsOnlyAllNodesLabel()) {
+            for (NodeLabel nodeLabel : nodes.availableNodeLabels()) {
+                var bitSet = new BitSet(nodeCount);
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    if (nodes.hasLabel(newToOld.get(nodeId), nodeLabel)) {
+                        bitSet.set(nodeId);
+                    }
+                }
+                labelInformation.put(nodeLabel, bitSet);
+            }
+        }
+
+        return new IdMap(graphIds, nodeToGraphIds, labelInformation, nodeCount, tracker);
+    }
+
+    private static Map<NodeLabel, Map<String, NodeProperties>> reorderNodeProperties(
+        CSRGraphStore graphStore,
+        HugeLongArray newToOld,
+        AllocationTracker tracker
+    ) {
+        Map<NodeLabel, Map<String, NodeProperties>> nodeProperties = new HashMap<>();
+        // properties are usually shared between labels, those are reordered only once
+        Map<NodeProperties, NodeProperties> reorderedProperties = new IdentityHashMap<>();
+
+        graphStore.nodePropertyKeys().forEach((nodeLabel, propertyKeys) -> propertyKeys.forEach(propertyKey -> {
+            var values = graphStore.nodePropertyValues(nodeLabel, propertyKey);
+            var reordered = reorderedProperties.computeIfAbsent(
+                values,
+                ignored -> reorderNodeProperty(propertyKey, values, newToOld, tracker)
+            );
+            nodeProperties.computeIfAbsent(nodeLabel, ignored -> new HashMap<>()).put(propertyKey, reordered);
+        }));
+        return nodeProperties;
+    }
+
+    private static NodeProperties reorderNodeProperty(
+        String propertyKey,
+        NodeProperties values,
+        HugeLongArray newToOld,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = newToOld.size();
+        switch (values.valueType()) {
+            case LONG: {
+                var reordered = HugeLongArray.newArray(nodeCount, tracker);
+                reordered.setAll(nodeId -> values.longValue(newToOld.get(nodeId)));
+                return reordered.asNodeProperties();
+            }
+            case DOUBLE: {
+                var reordered = HugeDoubleArray.newArray(nodeCount, tracker);
+                reordered.setAll(nodeId -> values.doubleValue(newToOld.get(nodeId)));
+                return reordered.asNodeProperties();
+            }
+            case LONG_ARRAY: {
+                var reordered = HugeObjectArray.newArray(long[].class, nodeCount, tracker);
+                reordered.setAll(nodeId -> values.longArrayValue(newToOld.get(nodeId)));
+                return new LongArrayNodeProperties() {
+                    @Override
+                    public long[] longArrayValue(long nodeId) {
+                        return reordered.get(nodeId);
+                    }
+
+                    @Override
+                    public long size() {
+                        return reordered.size();
+                    }
+                };
+            }
+            case DOUBLE_ARRAY: {
+                var reordered = HugeObjectArray.newArray(double[].class, nodeCount, tracker);
+                reordered.setAll(nodeId -> values.doubleArrayValue(newToOld.get(nodeId)));
+                return new DoubleArrayNodeProperties() {
+                    @Override
+                    public double[] doubleArrayValue(long nodeId) {
+                        return reordered.get(nodeId);
+                    }
+
+                    @Override
+                    public long size() {
+                        return reordered.size();
+                    }
+                };
+            }
+            case FLOAT_ARRAY: {
+                var reordered = HugeObjectArray.newArray(float[].class, nodeCount, tracker);
+                reordered.setAll(nodeId -> values.floatArrayValue(newToOld.get(nodeId)));
+                return new FloatArrayNodeProperties() {
+                    @Override
+                    public float[] floatArrayValue(long nodeId) {
+                        return reordered.get(nodeId);
+                    }
+
+                    @Override
+                    public long size() {
+                        return reordered.size();
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Node property `%s` of type %s cannot be reordered.",
+                    propertyKey,
+                    values.valueType()
+                ));
+        }
+    }
+
+    /**
+     * Rewrites the relationships of the given graphs, which only differ in their property.
+     * Returns the relationships with each of the properties, all of them share the same topology.
+     */
+    private static List<Relationships> reorderRelationships(
+        List<HugeGraph> graphs,
+        IdMap nodes,
+        HugeLongArray newToOld,
+        HugeLongArray oldToNew,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        var firstGraph = graphs.get(0);
+        var topology = firstGraph.relationshipTopology();
+        boolean hasProperties = firstGraph.relationships().properties().isPresent();
+        var propertyCompressions = hasProperties
+            ? graphs.stream().map(NodeReordering::propertyCompression).collect(Collectors.toList())
+            : List.<PropertyCompression>of();
+        var adjacencyCodec = topology.list() instanceof TransientAdjacencyList
+            ? ((TransientAdjacencyList) topology.list()).codec()
+            : AdjacencyCodec.defaultCodec();
+
+        // the stored relationships already contain both directions of undirected relationships
+        var relationshipsBuilder = GraphFactory.initRelationshipsBuilder()
+            .nodes(nodes)
+            .propertyCompressions(propertyCompressions)
+            .indexInverse(topology.inverse().isPresent())
+            .adjacencyCodec(adjacencyCodec)
+            .concurrency(concurrency)
+            .tracker(tracker)
+            .build();
+
+        // every source node is handled by a single thread, which keeps the order of parallel relationships
+        var tasks = PartitionUtils
+            .rangePartition(concurrency, nodes.nodeCount())
+            .stream()
+            .map(partition -> (Runnable) () -> {
+                var relationshipIterator = hasProperties ? new MultiPropertyRelationshipIterator(graphs) : null;
+                var topologyIterator = firstGraph.concurrentCopy();
+                long end = partition.startNode() + partition.nodeCount();
+                for (long nodeId = partition.startNode(); nodeId < end; nodeId++) {
+                    long source = nodeId;
+                    if (hasProperties) {
+                        relationshipIterator.forEachRelationship(
+                            newToOld.get(source),
+                            (target, propertyValues) -> relationshipsBuilder.addFromInternal(
+                                source,
+                                oldToNew.get(target),
+                                propertyValues
+                            )
+                        );
+                    } else {
+                        topologyIterator.forEachRelationship(newToOld.get(source), (ignored, target) -> {
+                            relationshipsBuilder.addFromInternal(source, oldToNew.get(target));
+                            return true;
+                        });
+                    }
+                }
+            })
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, tasks, Pools.DEFAULT);
+
+        var reordered = relationshipsBuilder.buildAll();
+        List<Relationships> result = new ArrayList<>();
+        for (int i = 0; i < reordered.size(); i++) {
+            var maybeProperties = graphs.get(i).relationships().properties();
+            var reorderedRelationships = reordered.get(i);
+            var relationships = Relationships.of(
+                topology.elementCount(),
+                topology.orientation(),
+                topology.isMultiGraph(),
+                reorderedRelationships.topology().list(),
+                reorderedRelationships.topology().offsets(),
+                reorderedRelationships.properties().map(Relationships.Properties::list).orElse(null),
+                reorderedRelationships.properties().map(Relationships.Properties::offsets).orElse(null),
+                maybeProperties.map(Relationships.Properties::defaultPropertyValue).orElse(Double.NaN)
+            );
+            result.add(reorderedRelationships.inverse().map(relationships::withInverse).orElse(relationships));
+        }
+        return result;
+    }
+
+    static PropertyCompression propertyCompression(HugeGraph graph) {
+        return graph
+            .relationships()
+            .properties()
+            .map(Relationships.Properties::list)
+            .filter(TransientAdjacencyList.class::isInstance)
+            .map(list -> ((TransientAdjacencyList) list).valueFormat().compression())
+            .orElse(PropertyCompression.NONE);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+
+/**
+ * Encodes values in blocks of {@link #BLOCK_SIZE} values.
+ * Each block starts with a single byte containing the number of bits {@code b}
+ * that are required to store the largest value of the block, followed by all
+ * values of the block, using exactly {@code b} bits each, packed in little endian order.
+ * <p>
+ * The block size matches the chunk size of the adjacency cursors,
+ * so that a cursor can always decode a full block at once without branching per byte.
+ */
+public final class PackedBlockEncoding {
+
+    public static final int BLOCK_SIZE = 64;
+
+    public static int encodePackedBlocks(long[] values, int length, byte[] out, int into) {
+        for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(length, blockStart + BLOCK_SIZE);
+            int bits = bitsRequired(values, blockStart, blockEnd);
+            out[into++] = (byte) bits;
+            into = pack(values, blockStart, blockEnd, bits, out, into);
+        }
+        return into;
+    }
+
+    public static int encodedPackedBlocksSize(long[] values, int length) {
+        int size = 0;
+        for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(length, blockStart + BLOCK_SIZE);
+            int bits = bitsRequired(values, blockStart, blockEnd);
+            size += 1 + packedSize(blockEnd - blockStart, bits);
+        }
+        return size;
+    }
+
+    static int packedSize(int count, int bits) {
+        return (int) ceilDiv((long) count * bits, Byte.SIZE);
+    }
+
+    private static int bitsRequired(long[] values, int start, int end) {
+        long mask = 0L;
+        for (int i = start; i < end; i++) {
+            mask |= values[i];
+        }
+        return Long.SIZE - Long.numberOfLeadingZeros(mask);
+    }
+
+    private static int pack(long[] values, int start, int end, int bits, byte[] out, int into) {
+        if (bits == 0) {
+            return into;
+        }
+        long buffer = 0L;
+        int bufferedBits = 0;
+        for (int i = start; i < end; i++) {
+            long value = values[i];
+            int remainingBits = bits;
+            // the buffer holds less than 8 bits here, so at most 56 value bits are added at once
+            while (remainingBits > 0) {
+                int take = Math.min(remainingBits, Long.SIZE - Byte.SIZE);
+                buffer |= (value & ((1L << take) - 1)) << bufferedBits;
+                value >>>= take;
+                remainingBits -= take;
+                bufferedBits += take;
+                while (bufferedBits >= Byte.SIZE) {
+                    out[into++] = (byte) buffer;
+                    buffer >>>= Byte.SIZE;
+                    bufferedBits -= Byte.SIZE;
+                }
+            }
+        }
+        if (bufferedBits > 0) {
+            out[into++] = (byte) buffer;
+        }
+        return into;
+    }
+
+    private PackedBlockEncoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
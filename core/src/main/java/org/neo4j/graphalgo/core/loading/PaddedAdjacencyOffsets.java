@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
+
+/**
+ * The offsets of an adjacency list after nodes have been appended to the graph.
+ * The appended nodes have no relationships in the adjacency list, their offset is {@code 0}.
+ */
+final class PaddedAdjacencyOffsets extends TransientAdjacencyOffsets {
+
+    private final AdjacencyOffsets offsets;
+    private final long nodeCount;
+
+    /**
+     * @param nodeCount the number of nodes the offsets have been created for
+     */
+    static AdjacencyOffsets of(AdjacencyOffsets offsets, long nodeCount) {
+        // nodes that are appended again are outside the original offsets as well
+        if (offsets instanceof PaddedAdjacencyOffsets) {
+            return offsets;
+        }
+        return new PaddedAdjacencyOffsets(offsets, nodeCount);
+    }
+
+    private PaddedAdjacencyOffsets(AdjacencyOffsets offsets, long nodeCount) {
+        this.offsets = offsets;
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public long get(long index) {
+        return index < nodeCount ? offsets.get(index) : 0L;
+    }
+
+    @Override
+    public long memoryUsage() {
+        return offsets instanceof TransientAdjacencyOffsets
+            ? ((TransientAdjacencyOffsets) offsets).memoryUsage()
+            : 0L;
+    }
+
+    @Override
+    public void close() {
+        offsets.close();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.DoubleArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.DoubleNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.FloatArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.LongArrayNodeProperties;
+import org.neo4j.graphalgo.api.nodeproperties.LongNodeProperties;
+
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import static org.neo4j.graphalgo.api.DefaultValue.DOUBLE_DEFAULT_FALLBACK;
+import static org.neo4j.graphalgo.api.DefaultValue.LONG_DEFAULT_FALLBACK;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * The values of a node property after nodes have been appended to the graph.
+ * The appended nodes have no value, they return the fallback value of the property type.
+ */
+abstract class PaddedNodeProperties {
+
+    final NodeProperties properties;
+    final long nodeCount;
+
+    /**
+     * @param nodeCount the number of nodes the properties have been created for
+     */
+    static NodeProperties of(NodeProperties properties, long nodeCount) {
+        // nodes that are appended again are outside the original properties as well
+        if (properties instanceof PaddedNodeProperties) {
+            return properties;
+        }
+        switch (properties.valueType()) {
+            case LONG:
+                return new PaddedLongProperties(properties, nodeCount);
+            case DOUBLE:
+                return new PaddedDoubleProperties(properties, nodeCount);
+            case DOUBLE_ARRAY:
+                return new PaddedDoubleArrayProperties(properties, nodeCount);
+            case FLOAT_ARRAY:
+                return new PaddedFloatArrayProperties(properties, nodeCount);
+            case LONG_ARRAY:
+                return new PaddedLongArrayProperties(properties, nodeCount);
+            default:
+                throw new IllegalArgumentException(formatWithLocale(
+                    "Nodes cannot be added to a graph with node properties of type %s.",
+                    properties.valueType()
+                ));
+        }
+    }
+
+    private PaddedNodeProperties(NodeProperties properties, long nodeCount) {
+        this.properties = properties;
+        this.nodeCount = nodeCount;
+    }
+
+    public long size() {
+        return properties.size();
+    }
+
+    public long release() {
+        return properties.release();
+    }
+
+    private static final class PaddedLongProperties extends PaddedNodeProperties implements LongNodeProperties {
+
+        PaddedLongProperties(NodeProperties properties, long nodeCount) {
+            super(properties, nodeCount);
+        }
+
+        @Override
+        public long longValue(long nodeId) {
+            return nodeId < nodeCount ? properties.longValue(nodeId) : LONG_DEFAULT_FALLBACK;
+        }
+
+        @Override
+        public OptionalLong getMaxLongPropertyValue() {
+            return properties.getMaxLongPropertyValue();
+        }
+    }
+
+    private static final class PaddedDoubleProperties extends PaddedNodeProperties implements DoubleNodeProperties {
+
+        PaddedDoubleProperties(NodeProperties properties, long nodeCount) {
+            super(properties, nodeCount);
+        }
+
+        @Override
+        public double doubleValue(long nodeId) {
+            return nodeId < nodeCount ? properties.doubleValue(nodeId) : DOUBLE_DEFAULT_FALLBACK;
+        }
+
+        @Override
+        public OptionalDouble getMaxDoublePropertyValue() {
+            return properties.getMaxDoublePropertyValue();
+        }
+    }
+
+    private static final class PaddedDoubleArrayProperties extends PaddedNodeProperties implements DoubleArrayNodeProperties {
+
+        PaddedDoubleArrayProperties(NodeProperties properties, long nodeCount) {
+            super(properties, nodeCount);
+        }
+
+        @Override
+        public double[] doubleArrayValue(long nodeId) {
+            return nodeId < nodeCount ? properties.doubleArrayValue(nodeId) : null;
+        }
+    }
+
+    private static final class PaddedFloatArrayProperties extends PaddedNodeProperties implements FloatArrayNodeProperties {
+
+        PaddedFloatArrayProperties(NodeProperties properties, long nodeCount) {
+            super(properties, nodeCount);
+        }
+
+        @Override
+        public float[] floatArrayValue(long nodeId) {
+            return nodeId < nodeCount ? properties.floatArrayValue(nodeId) : null;
+        }
+    }
+
+    private static final class PaddedLongArrayProperties extends PaddedNodeProperties implements LongArrayNodeProperties {
+
+        PaddedLongArrayProperties(NodeProperties properties, long nodeCount) {
+            super(properties, nodeCount);
+        }
+
+        @Override
+        public long[] longArrayValue(long nodeId) {
+            return nodeId < nodeCount ? properties.longArrayValue(nodeId) : null;
+        }
+    }
+}
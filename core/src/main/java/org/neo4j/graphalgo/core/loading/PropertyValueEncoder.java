@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongIntHashMap;
+import org.neo4j.graphalgo.core.PropertyCompression;
+import org.neo4j.graphalgo.core.huge.PropertyValueFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Writes relationship property values in the format of a {@link PropertyCompression}.
+ * One encoder is shared by all threads that import the same relationship property.
+ */
+final class PropertyValueEncoder {
+
+    private final PropertyCompression compression;
+    private final LongIntHashMap codes;
+    private final LongArrayList dictionary;
+
+    PropertyValueEncoder(PropertyCompression compression) {
+        this.compression = compression;
+        this.codes = new LongIntHashMap();
+        this.dictionary = new LongArrayList();
+    }
+
+    int bytesPerValue() {
+        return compression.bytesPerValue();
+    }
+
+    /**
+     * Encodes the given double bits into the page, starting at the given offset.
+     *
+     * @param localCodes a thread local cache of dictionary codes
+     */
+    void encode(long[] values, int degree, byte[] page, int offset, LongIntHashMap localCodes) {
+        var buffer = ByteBuffer
+            .wrap(page, offset, degree * bytesPerValue())
+            .order(ByteOrder.LITTLE_ENDIAN);
+        switch (compression) {
+            case FLOAT:
+                for (int i = 0; i < degree; i++) {
+                    buffer.putFloat((float) Double.longBitsToDouble(values[i]));
+                }
+                break;
+            case DICTIONARY:
+                for (int i = 0; i < degree; i++) {
+                    long value = values[i];
+                    int code = localCodes.getOrDefault(value, -1);
+                    if (code == -1) {
+                        code = globalCode(value);
+                        localCodes.put(value, code);
+                    }
+                    buffer.putShort((short) code);
+                }
+                break;
+            default:
+                buffer.asLongBuffer().put(values, 0, degree);
+        }
+    }
+
+    private synchronized int globalCode(long value) {
+        int code = codes.getOrDefault(value, -1);
+        if (code == -1) {
+            code = dictionary.size();
+            if (code == PropertyCompression.MAX_DICTIONARY_SIZE) {
+                throw new IllegalArgumentException(formatWithLocale(
+                    "The relationship property has more than %d distinct values and cannot use the `%s` compression.",
+                    PropertyCompression.MAX_DICTIONARY_SIZE,
+                    PropertyCompression.DICTIONARY
+                ));
+            }
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    synchronized PropertyValueFormat format() {
+        switch (compression) {
+            case FLOAT:
+                return PropertyValueFormat.FLOAT;
+            case DICTIONARY:
+                return PropertyValueFormat.dictionary(dictionary.toArray());
+            default:
+                return PropertyValueFormat.DOUBLE;
+        }
+    }
+}
@@ -52,21 +52,57 @@ public class RelationshipImporter {
     }
 
     public Imports imports(Orientation orientation, boolean loadProperties) {
+        Imports imports;
         if (orientation == Orientation.UNDIRECTED) {
             return loadProperties
                 ? this::importUndirectedWithProperties
                 : this::importUndirected;
         } else if (orientation == Orientation.NATURAL) {
-            return loadProperties
+            imports = loadProperties
                 ? this::importNaturalWithProperties
                 : this::importNatural;
         } else if (orientation == Orientation.REVERSE) {
-            return loadProperties
+            imports = loadProperties
                 ? this::importReverseWithProperties
                 : this::importReverse;
         } else {
             throw new IllegalArgumentException(formatWithLocale("Unexpected orientation: %s", orientation));
         }
+        var inverseAdjacencyBuilder = adjacencyBuilder.inverse();
+        return inverseAdjacencyBuilder == null
+            ? imports
+            : withInverse(imports, inverseAdjacencyBuilder, orientation == Orientation.REVERSE, loadProperties);
+    }
+
+    /**
+     * Imports every batch a second time, grouped by the opposite node, into the inverse index.
+     * Only the relationships of the primary index are counted.
+     */
+    private Imports withInverse(
+        Imports imports,
+        AdjacencyBuilder inverseAdjacencyBuilder,
+        boolean groupBySource,
+        boolean loadProperties
+    ) {
+        return (buffer, propertyReader) -> {
+            long imported = imports.importRelationships(buffer, propertyReader);
+
+            int batchLength = buffer.length();
+            long[] batch = groupBySource ? buffer.sortBySource() : buffer.sortByTarget();
+            long[][] properties = loadProperties
+                ? propertyReader.readProperty(
+                    batch,
+                    batchLength,
+                    inverseAdjacencyBuilder.getPropertyKeyIds(),
+                    inverseAdjacencyBuilder.getDefaultValues(),
+                    inverseAdjacencyBuilder.getAggregations(),
+                    inverseAdjacencyBuilder.atLeastOnePropertyToLoad()
+                )
+                : null;
+            importRelationships(buffer, batch, properties, inverseAdjacencyBuilder, tracker);
+
+            return imported;
+        };
     }
 
     private long importUndirected(RelationshipsBatchBuffer buffer, PropertyReader propertyReader) {
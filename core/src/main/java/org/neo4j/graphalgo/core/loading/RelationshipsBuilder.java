@@ -20,12 +20,16 @@
 package org.neo4j.graphalgo.core.loading;
 
 
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipProjection;
 import org.neo4j.graphalgo.api.AdjacencyList;
 import org.neo4j.graphalgo.api.AdjacencyOffsets;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
@@ -38,15 +42,31 @@ public class RelationshipsBuilder {
     private final AdjacencyListBuilder adjacencyListBuilder;
     private final AdjacencyOffsetsFactory offsetsFactory;
     private final AdjacencyListBuilder[] propertyBuilders;
+    private final PropertyValueEncoder[] propertyEncoders;
     private long[][] globalAdjacencyOffsetsPages;
     private AdjacencyOffsets globalAdjacencyOffsets;
     private long[][][] globalPropertyOffsetsPages;
     private AdjacencyOffsets[] globalPropertyOffsets;
+    private final @Nullable RelationshipsBuilder inverse;
 
     public RelationshipsBuilder(
         RelationshipProjection projection,
         AdjacencyListBuilderFactory listBuilderFactory,
         AdjacencyOffsetsFactory offsetsFactory
+    ) {
+        this(
+            projection,
+            listBuilderFactory,
+            offsetsFactory,
+            projection.indexInverse() && projection.orientation() != Orientation.UNDIRECTED
+        );
+    }
+
+    private RelationshipsBuilder(
+        RelationshipProjection projection,
+        AdjacencyListBuilderFactory listBuilderFactory,
+        AdjacencyOffsetsFactory offsetsFactory,
+        boolean indexInverse
     ) {
         this.projection = projection;
         this.adjacencyListBuilder = listBuilderFactory.newAdjacencyListBuilder();
@@ -54,10 +74,26 @@ public class RelationshipsBuilder {
 
         if (projection.properties().isEmpty()) {
             this.propertyBuilders = EMPTY_PROPERTY_BUILDERS;
+            this.propertyEncoders = new PropertyValueEncoder[0];
         } else {
             this.propertyBuilders = new AdjacencyListBuilder[projection.properties().numberOfMappings()];
             Arrays.setAll(propertyBuilders, i -> listBuilderFactory.newAdjacencyListBuilder());
+            var mappings = projection.properties().mappings();
+            this.propertyEncoders = new PropertyValueEncoder[mappings.size()];
+            Arrays.setAll(propertyEncoders, i -> new PropertyValueEncoder(mappings.get(i).compression()));
         }
+
+        this.inverse = indexInverse
+            ? new RelationshipsBuilder(projection, listBuilderFactory, offsetsFactory, false)
+            : null;
+    }
+
+    /**
+     * The builder for the inverse index, i.e. the same relationships indexed by their target node.
+     * Only present if the projection requested one and is not undirected.
+     */
+    public Optional<RelationshipsBuilder> inverse() {
+        return Optional.ofNullable(inverse);
     }
 
     final ThreadLocalRelationshipsBuilder threadLocalRelationshipsBuilder(
@@ -70,12 +106,20 @@ public class RelationshipsBuilder {
             Arrays.stream(propertyBuilders)
                 .map(AdjacencyListBuilder::newAllocator)
                 .toArray(AdjacencyListAllocator[]::new),
+            propertyEncoders,
             adjacencyOffsets,
             propertyOffsets,
-            aggregations
+            aggregations,
+            adjacencyCodec()
         );
     }
 
+    private AdjacencyCodec adjacencyCodec() {
+        return adjacencyListBuilder instanceof TransientAdjacencyListBuilder
+            ? ((TransientAdjacencyListBuilder) adjacencyListBuilder).codec()
+            : AdjacencyCodec.VAR_LONG;
+    }
+
     final void setGlobalAdjacencyOffsets(long[][] pages) {
         this.globalAdjacencyOffsetsPages = pages;
     }
@@ -106,11 +150,17 @@ public class RelationshipsBuilder {
 
     // TODO: This returns only the first of possibly multiple properties
     public AdjacencyList properties() {
-        return propertyBuilders.length > 0 ? propertyBuilders[0].build() : null;
+        return properties(0);
     }
 
     public AdjacencyList properties(int propertyIndex) {
-        return propertyBuilders.length > 0 ? propertyBuilders[propertyIndex].build() : null;
+        if (propertyBuilders.length == 0) {
+            return null;
+        }
+        var propertyBuilder = propertyBuilders[propertyIndex];
+        return propertyBuilder instanceof TransientAdjacencyListBuilder
+            ? ((TransientAdjacencyListBuilder) propertyBuilder).build(propertyEncoders[propertyIndex].format())
+            : propertyBuilder.build();
     }
 
     public RelationshipProjection projection() {
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.NodeMapping;
+import org.neo4j.graphalgo.api.Relationships;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The relationships of all types of a graph store, read together with its nodes from a single state of the graph store.
+ * Every type holds one {@link Relationships} per property key, in the order of the property keys,
+ * or a single one without properties. All of them share the same topology.
+ * <p>
+ * Relationships that have been compacted from a pending delta only belong to the snapshot,
+ * they are released when the snapshot is closed.
+ */
+final class RelationshipsSnapshot implements AutoCloseable {
+
+    private final NodeMapping nodes;
+    private final Map<RelationshipType, List<String>> propertyKeys;
+    private final Map<RelationshipType, List<Relationships>> relationships;
+    private final Runnable release;
+
+    RelationshipsSnapshot(
+        NodeMapping nodes,
+        Map<RelationshipType, List<String>> propertyKeys,
+        Map<RelationshipType, List<Relationships>> relationships,
+        Runnable release
+    ) {
+        this.nodes = nodes;
+        this.propertyKeys = propertyKeys;
+        this.relationships = relationships;
+        this.release = release;
+    }
+
+    NodeMapping nodes() {
+        return nodes;
+    }
+
+    /**
+     * The relationship types in the order in which they should be written.
+     */
+    Iterable<RelationshipType> relationshipTypes() {
+        return relationships.keySet();
+    }
+
+    List<String> propertyKeys(RelationshipType relationshipType) {
+        return propertyKeys.get(relationshipType);
+    }
+
+    List<Relationships> relationships(RelationshipType relationshipType) {
+        return relationships.get(relationshipType);
+    }
+
+    @Override
+    public void close() {
+        release.run();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.neo4j.graphalgo.core.utils.mem.OffHeapMemory.address;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Reads a file written by {@link SnapshotFileWriter} through memory mapped windows.
+ * <p>
+ * Array reads are bulk copies from the mapped region, which are served
+ * from the OS page cache and avoid any per-value decoding on the heap.
+ * A window maps at most {@link #WINDOW_SIZE} bytes, reads that cross the
+ * end of a window map the next one starting at the current position.
+ * Byte ranges can also be used in place, see {@link #mapBytes(int)}.
+ */
+final class SnapshotFileReader implements AutoCloseable {
+
+    static final long WINDOW_SIZE = 1L << 28;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long fileSize;
+
+    private ByteBuffer window;
+    private long windowStart;
+    // windows that contain byte ranges that are used in place, they stay mapped until they are unreachable
+    private final List<ByteBuffer> retainedWindows;
+
+    static SnapshotFileReader open(Path file) throws IOException {
+        var channel = FileChannel.open(file, READ);
+        return new SnapshotFileReader(file, channel, channel.size());
+    }
+
+    private SnapshotFileReader(Path file, FileChannel channel, long fileSize) {
+        this.file = file;
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.window = ByteBuffer.allocate(0);
+        this.windowStart = 0L;
+        this.retainedWindows = new ArrayList<>();
+    }
+
+    int readInt() throws IOException {
+        return window(Integer.BYTES).getInt();
+    }
+
+    long readLong() throws IOException {
+        return window(Long.BYTES).getLong();
+    }
+
+    void readBytes(byte[] target) throws IOException {
+        int offset = 0;
+        while (offset < target.length) {
+            var buffer = window(1);
+            int count = Math.min(target.length - offset, buffer.remaining());
+            buffer.get(target, offset, count);
+            offset += count;
+        }
+    }
+
+    /**
+     * Skips the next {@code length} bytes and returns the off-heap address of the first of them.
+     * The bytes are not copied, the address stays valid as long as the {@link #retainedWindows()} are mapped,
+     * also after this reader has been closed.
+     */
+    long mapBytes(int length) throws IOException {
+        var buffer = window(length);
+        if (retainedWindows.isEmpty() || retainedWindows.get(retainedWindows.size() - 1) != buffer) {
+            retainedWindows.add(buffer);
+        }
+        long byteAddress = address(buffer) + buffer.position();
+        buffer.position(buffer.position() + length);
+        return byteAddress;
+    }
+
+    /**
+     * The mapped windows that contain the byte ranges returned by {@link #mapBytes(int)}.
+     */
+    List<ByteBuffer> retainedWindows() {
+        return retainedWindows;
+    }
+
+    void readLongs(long[] target, int offset, int length) throws IOException {
+        while (length > 0) {
+            var buffer = window(Long.BYTES);
+            int count = Math.min(length, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    void readDoubles(double[] target, int offset, int length) throws IOException {
+        while (length > 0) {
+            var buffer = window(Double.BYTES);
+            int count = Math.min(length, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    void readFloats(float[] target) throws IOException {
+        int offset = 0;
+        while (offset < target.length) {
+            var buffer = window(Float.BYTES);
+            int count = Math.min(target.length - offset, buffer.remaining() / Float.BYTES);
+            buffer.asFloatBuffer().get(target, offset, count);
+            buffer.position(buffer.position() + count * Float.BYTES);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private ByteBuffer window(int requiredBytes) throws IOException {
+        if (window.remaining() < requiredBytes) {
+            long position = windowStart + window.position();
+            // a window contains at least the required bytes, which can be larger than the default window size
+            long length = Math.min(Math.max(WINDOW_SIZE, requiredBytes), fileSize - position);
+            if (length < requiredBytes) {
+                throw new EOFException(formatWithLocale("Unexpected end of snapshot file `%s`.", file));
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = position;
+        }
+        return window;
+    }
+}
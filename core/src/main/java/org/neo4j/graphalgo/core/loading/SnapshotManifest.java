@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * The manifest of a graph store snapshot, which describes the schema of the
+ * snapshot and the files that hold its data. It is written as the last file
+ * of a snapshot, a directory without a manifest is not a valid snapshot.
+ */
+final class SnapshotManifest {
+
+    static final String FILE_NAME = "manifest.properties";
+    static final int VERSION = 2;
+
+    static final String VERSION_KEY = "version";
+    static final String NODE_COUNT_KEY = "nodeCount";
+    static final String HIGHEST_NODE_ID_KEY = "highestNodeId";
+    static final String NODE_LABEL = "nodeLabel";
+    static final String NODE_PROPERTY = "nodeProperty";
+    static final String RELATIONSHIP = "relationship";
+    static final String PROPERTY = "property";
+    static final String INVERSE = "inverse";
+    static final String COUNT = "count";
+
+    private final Properties properties;
+
+    SnapshotManifest() {
+        this(new Properties());
+        set(VERSION_KEY, VERSION);
+    }
+
+    private SnapshotManifest(Properties properties) {
+        this.properties = properties;
+    }
+
+    static SnapshotManifest read(Path directory) throws IOException {
+        var file = directory.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "The directory `%s` does not contain a graph store snapshot.",
+                directory
+            ));
+        }
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        var manifest = new SnapshotManifest(properties);
+        int version = manifest.getInt(VERSION_KEY);
+        if (version != VERSION) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "Unsupported graph store snapshot version %d, expected version %d.",
+                version,
+                VERSION
+            ));
+        }
+        return manifest;
+    }
+
+    void write(Path directory) throws IOException {
+        var file = directory.resolve(FILE_NAME);
+        var tempFile = directory.resolve(FILE_NAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Graph store snapshot");
+        }
+        Files.move(tempFile, file, ATOMIC_MOVE);
+    }
+
+    static String key(Object... parts) {
+        var key = new StringBuilder();
+        for (Object part : parts) {
+            if (key.length() > 0) {
+                key.append('.');
+            }
+            key.append(part);
+        }
+        return key.toString();
+    }
+
+    void set(String key, Object value) {
+        properties.setProperty(key, String.valueOf(value));
+    }
+
+    String get(String key) {
+        var value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException(formatWithLocale(
+                "The graph store snapshot manifest is missing the entry `%s`.",
+                key
+            ));
+        }
+        return value;
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    long getLong(String key) {
+        return Long.parseLong(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    <E extends Enum<E>> E getEnum(String key, Class<E> enumClass) {
+        return Enum.valueOf(enumClass, get(key));
+    }
+}
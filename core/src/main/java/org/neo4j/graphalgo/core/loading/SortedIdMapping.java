@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.HugeCursor;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.Arrays;
+
+/**
+ * Lookup of internal ids through a sorted array of original node ids.
+ * The memory usage only depends on the node count, which makes this mapping
+ * a better fit than a {@link SparseIdMapping} if the original ids are spread
+ * thinly over a large id space.
+ *
+ * Lookups start with interpolation search, which takes few probes on
+ * evenly distributed ids, and fall back to binary search after
+ * {@link #MAX_INTERPOLATION_PROBES} probes to bound skewed distributions.
+ */
+final class SortedIdMapping implements ForwardIdMapping {
+
+    private static final int MAX_INTERPOLATION_PROBES = 8;
+
+    private static final int RADIX = 8;
+    private static final int HIST_SIZE = 1 << RADIX;
+    private static final long RADIX_MASK = HIST_SIZE - 1;
+
+    private final HugeLongArray sortedIds;
+    // `null` if the internal ids are already in ascending order of their original ids
+    private final @Nullable HugeLongArray internalIds;
+    private final long nodeCount;
+
+    /**
+     * The memory of a built mapping.
+     */
+    static long memoryEstimation(long nodeCount) {
+        return MemoryUsage.sizeOfInstance(SortedIdMapping.class) + 2 * HugeLongArray.memoryEstimation(nodeCount);
+    }
+
+    /**
+     * The memory while the mapping is built. The radix sort scatters the sorted
+     * and the internal ids into copies of both arrays, which doubles the memory.
+     */
+    static long peakMemoryEstimation(long nodeCount) {
+        return memoryEstimation(nodeCount) + 2 * HugeLongArray.memoryEstimation(nodeCount);
+    }
+
+    static SortedIdMapping of(
+        HugeLongArray graphIds,
+        long nodeCount,
+        boolean checkDuplicates,
+        AllocationTracker tracker
+    ) throws DuplicateNodeIdException {
+        if (isStrictlyAscending(graphIds, nodeCount)) {
+            // The original ids can be searched in place
+            // and every position already is the internal id.
+            return new SortedIdMapping(graphIds, null, nodeCount);
+        }
+
+        HugeLongArray sortedIds = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray internalIds = HugeLongArray.newArray(nodeCount, tracker);
+        long maxId = 0L;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            long originalId = graphIds.get(nodeId);
+            maxId = Math.max(maxId, originalId);
+            sortedIds.set(nodeId, originalId);
+            internalIds.set(nodeId, nodeId);
+        }
+
+        SortedIdMapping mapping = radixSort(sortedIds, internalIds, nodeCount, maxId, tracker);
+
+        if (checkDuplicates) {
+            mapping.checkDuplicates();
+        }
+
+        return mapping;
+    }
+
+    private SortedIdMapping(HugeLongArray sortedIds, @Nullable HugeLongArray internalIds, long nodeCount) {
+        this.sortedIds = sortedIds;
+        this.internalIds = internalIds;
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public long toMappedNodeId(long originalNodeId) {
+        long index = indexOf(originalNodeId);
+        if (index == NOT_FOUND || internalIds == null) {
+            return index;
+        }
+        return internalIds.get(index);
+    }
+
+    @Override
+    public boolean contains(long originalNodeId) {
+        return indexOf(originalNodeId) != NOT_FOUND;
+    }
+
+    @Override
+    public long sizeOf() {
+        // without internal ids, the original ids are searched in the id map's array
+        return internalIds == null ? 0L : sortedIds.sizeOf() + internalIds.sizeOf();
+    }
+
+    private long indexOf(long originalNodeId) {
+        if (nodeCount == 0) {
+            return NOT_FOUND;
+        }
+
+        long low = 0L;
+        long high = nodeCount - 1;
+        long lowValue = sortedIds.get(low);
+        long highValue = sortedIds.get(high);
+        int probes = 0;
+
+        while (originalNodeId >= lowValue && originalNodeId <= highValue) {
+            long mid;
+            if (lowValue == highValue) {
+                mid = low;
+            } else if (probes++ < MAX_INTERPOLATION_PROBES) {
+                double fraction = (double) (originalNodeId - lowValue) / (double) (highValue - lowValue);
+                mid = low + (long) (fraction * (high - low));
+            } else {
+                mid = (low + high) >>> 1;
+            }
+
+            long midValue = sortedIds.get(mid);
+            if (midValue == originalNodeId) {
+                return mid;
+            } else if (midValue < originalNodeId) {
+                low = mid + 1;
+                if (low > high) {
+                    break;
+                }
+                lowValue = sortedIds.get(low);
+            } else {
+                high = mid - 1;
+                if (high < low) {
+                    break;
+                }
+                highValue = sortedIds.get(high);
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private void checkDuplicates() throws DuplicateNodeIdException {
+        long previousId = -1L;
+        try (HugeCursor<long[]> cursor = sortedIds.initCursor(sortedIds.newCursor(), 0, nodeCount)) {
+            while (cursor.next()) {
+                long[] array = cursor.array;
+                for (int i = cursor.offset; i < cursor.limit; i++) {
+                    if (array[i] == previousId) {
+                        throw new DuplicateNodeIdException(previousId);
+                    }
+                    previousId = array[i];
+                }
+            }
+        }
+    }
+
+    private static boolean isStrictlyAscending(HugeLongArray graphIds, long nodeCount) {
+        long previousId = -1L;
+        try (HugeCursor<long[]> cursor = graphIds.initCursor(graphIds.newCursor(), 0, nodeCount)) {
+            while (cursor.next()) {
+                long[] array = cursor.array;
+                for (int i = cursor.offset; i < cursor.limit; i++) {
+                    if (array[i] <= previousId) {
+                        return false;
+                    }
+                    previousId = array[i];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * LSD radix sort of the original ids that moves the internal ids along.
+     * Only the bytes up to the highest set bit of {@code maxId} are sorted.
+     */
+    private static SortedIdMapping radixSort(
+        HugeLongArray keys,
+        HugeLongArray values,
+        long nodeCount,
+        long maxId,
+        AllocationTracker tracker
+    ) {
+        HugeLongArray keysCopy = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray valuesCopy = HugeLongArray.newArray(nodeCount, tracker);
+        long[] histogram = new long[HIST_SIZE];
+
+        for (int shift = 0; shift < Long.SIZE && (maxId >>> shift) != 0L; shift += RADIX) {
+            Arrays.fill(histogram, 0L);
+            for (long i = 0L; i < nodeCount; i++) {
+                histogram[(int) ((keys.get(i) >>> shift) & RADIX_MASK)]++;
+            }
+
+            long offset = 0L;
+            for (int bucket = 0; bucket < HIST_SIZE; bucket++) {
+                long count = histogram[bucket];
+                histogram[bucket] = offset;
+                offset += count;
+            }
+
+            for (long i = 0L; i < nodeCount; i++) {
+                long key = keys.get(i);
+                long out = histogram[(int) ((key >>> shift) & RADIX_MASK)]++;
+                keysCopy.set(out, key);
+                valuesCopy.set(out, values.get(i));
+            }
+
+            HugeLongArray swap = keys;
+            keys = keysCopy;
+            keysCopy = swap;
+            swap = values;
+            values = valuesCopy;
+            valuesCopy = swap;
+        }
+
+        tracker.remove(keysCopy.release());
+        tracker.remove(valuesCopy.release());
+
+        return new SortedIdMapping(keys, values, nodeCount);
+    }
+}
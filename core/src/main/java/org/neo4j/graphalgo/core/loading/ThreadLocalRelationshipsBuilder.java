@@ -19,11 +19,11 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import com.carrotsearch.hppc.LongIntHashMap;
 import org.apache.lucene.util.LongsRef;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
@@ -32,23 +32,35 @@ class ThreadLocalRelationshipsBuilder {
     private final ReentrantLock lock;
     private final AdjacencyListAllocator adjacencyAllocator;
     private final AdjacencyListAllocator[] propertiesAllocators;
+    private final PropertyValueEncoder[] propertyEncoders;
+    private final LongIntHashMap[] dictionaryCodes;
     private final long[] adjacencyOffsets;
     private final long[][] propertyOffsets;
     private final boolean noAggregation;
     private final Aggregation[] aggregations;
+    private final AdjacencyCodec codec;
+    private byte[] packedBlocksBuffer;
+    private byte[] propertiesBuffer;
 
     ThreadLocalRelationshipsBuilder(
         AdjacencyListAllocator adjacencyAllocator,
         AdjacencyListAllocator[] propertiesAllocators,
+        PropertyValueEncoder[] propertyEncoders,
         long[] adjacencyOffsets,
         long[][] propertyOffsets,
-        Aggregation[] aggregations
+        Aggregation[] aggregations,
+        AdjacencyCodec codec
     ) {
         this.adjacencyAllocator = adjacencyAllocator;
         this.propertiesAllocators = propertiesAllocators;
+        this.propertyEncoders = propertyEncoders;
+        this.dictionaryCodes = new LongIntHashMap[propertyEncoders.length];
         this.adjacencyOffsets = adjacencyOffsets;
         this.propertyOffsets = propertyOffsets;
         this.aggregations = aggregations;
+        this.codec = codec;
+        this.packedBlocksBuffer = new byte[0];
+        this.propertiesBuffer = new byte[0];
         this.lock = new ReentrantLock();
         this.noAggregation = Stream.of(aggregations).allMatch(aggregation -> aggregation == Aggregation.NONE);
     }
@@ -103,8 +115,7 @@ class ThreadLocalRelationshipsBuilder {
         byte[] storage = array.storage();
         AdjacencyCompression.copyFrom(buffer, array);
         int degree = AdjacencyCompression.applyDeltaEncoding(buffer, aggregations[0]);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
-        long address = copyIds(storage, requiredBytes, degree);
+        long address = compressAndCopyIds(buffer, storage, degree);
         adjacencyOffsets[localId] = address;
         array.release();
         return degree;
@@ -119,14 +130,27 @@ class ThreadLocalRelationshipsBuilder {
         long[][] weights = array.weights();
         AdjacencyCompression.copyFrom(buffer, array);
         int degree = AdjacencyCompression.applyDeltaEncoding(buffer, weights, aggregations, noAggregation);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
-        adjacencyOffsets[localId] = copyIds(storage, requiredBytes, degree);
+        adjacencyOffsets[localId] = compressAndCopyIds(buffer, storage, degree);
         copyProperties(weights, degree, localId, propertyOffsets);
 
         array.release();
         return degree;
     }
 
+    private long compressAndCopyIds(LongsRef buffer, byte[] storage, int degree) {
+        if (codec == AdjacencyCodec.PACKED_BLOCKS) {
+            // packed blocks might need more space than the var-long encoded storage
+            int requiredBytes = PackedBlockEncoding.encodedPackedBlocksSize(buffer.longs, buffer.length);
+            if (packedBlocksBuffer.length < requiredBytes) {
+                packedBlocksBuffer = new byte[requiredBytes];
+            }
+            AdjacencyCompression.compressPackedBlocks(buffer, packedBlocksBuffer);
+            return copyIds(packedBlocksBuffer, requiredBytes, degree);
+        }
+        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
+        return copyIds(storage, requiredBytes, degree);
+    }
+
     private long copyIds(byte[] targets, int requiredBytes, int degree) {
         // sizeOf(degree) + compression bytes
         var slice = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
@@ -138,23 +162,30 @@ class ThreadLocalRelationshipsBuilder {
     private void copyProperties(long[][] properties, int degree, int localId, long[][] offsets) {
         for (int i = 0; i < properties.length; i++) {
             long[] property = properties[i];
-            var propertiesAllocator = propertiesAllocators[i];
-            long address = copyProperties(property, degree, propertiesAllocator);
+            long address = copyProperties(property, degree, i);
             offsets[i][localId] = address;
         }
     }
 
-    private long copyProperties(long[] properties, int degree, AdjacencyListAllocator propertiesAllocator) {
-        int requiredBytes = degree * Long.BYTES;
-        var slice = propertiesAllocator.allocate(Integer.BYTES /* degree */ + requiredBytes);
+    private long copyProperties(long[] properties, int degree, int propertyIndex) {
+        var encoder = propertyEncoders[propertyIndex];
+        int requiredBytes = degree * encoder.bytesPerValue();
+        var slice = propertiesAllocators[propertyIndex].allocate(Integer.BYTES /* degree */ + requiredBytes);
         slice.writeInt(degree);
-        int offset = slice.offset();
-        ByteBuffer
-            .wrap(slice.page(), offset, requiredBytes)
-            .order(ByteOrder.LITTLE_ENDIAN)
-            .asLongBuffer()
-            .put(properties, 0, degree);
-        slice.bytesWritten(requiredBytes);
+        if (dictionaryCodes[propertyIndex] == null) {
+            dictionaryCodes[propertyIndex] = new LongIntHashMap();
+        }
+        if (slice.page() != null) {
+            encoder.encode(properties, degree, slice.page(), slice.offset(), dictionaryCodes[propertyIndex]);
+            slice.bytesWritten(requiredBytes);
+        } else {
+            // off-heap slices can only be written to by copying
+            if (propertiesBuffer.length < requiredBytes) {
+                propertiesBuffer = new byte[requiredBytes];
+            }
+            encoder.encode(properties, degree, propertiesBuffer, 0, dictionaryCodes[propertyIndex]);
+            slice.insert(propertiesBuffer, 0, requiredBytes);
+        }
         return slice.address();
     }
 }
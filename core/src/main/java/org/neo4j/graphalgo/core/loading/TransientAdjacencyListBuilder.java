@@ -19,8 +19,13 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.PropertyValueFormat;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.OffHeapMemory;
+import org.neo4j.graphalgo.core.utils.paged.OffHeapPages;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
 import java.util.Arrays;
@@ -34,6 +39,7 @@ import static org.neo4j.graphalgo.core.huge.TransientAdjacencyList.PAGE_SIZE;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfByteArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArrayElements;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_OFF_HEAP_ADJACENCY;
 
 public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder {
 
@@ -43,20 +49,32 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
     private static final int NO_SKIP = -1;
 
     private final AllocationTracker tracker;
+    private final AdjacencyCodec codec;
     private final ReentrantLock growLock;
     private final AtomicInteger allocatedPages;
+    // pages are written directly off-heap if this is set, the heap pages stay empty
+    private final @Nullable OffHeapPages offHeapPages;
 
     @SuppressWarnings("FieldMayBeFinal")
     private volatile byte[][] pages;
 
     public static AdjacencyListBuilderFactory builderFactory(AllocationTracker tracker){
-        return () -> new TransientAdjacencyListBuilder(tracker);
+        return builderFactory(AdjacencyCodec.defaultCodec(), tracker);
     }
 
-    private TransientAdjacencyListBuilder(AllocationTracker tracker) {
+    /**
+     * @param codec the codec of the adjacency lists, usually configured by the relationship projection
+     */
+    public static AdjacencyListBuilderFactory builderFactory(AdjacencyCodec codec, AllocationTracker tracker){
+        return () -> new TransientAdjacencyListBuilder(codec, tracker);
+    }
+
+    private TransientAdjacencyListBuilder(AdjacencyCodec codec, AllocationTracker tracker) {
         this.tracker = tracker;
+        this.codec = codec;
         growLock = new ReentrantLock(true);
         allocatedPages = new AtomicInteger();
+        offHeapPages = USE_OFF_HEAP_ADJACENCY.isEnabled() ? OffHeapPages.create(tracker) : null;
         pages = new byte[0][];
         tracker.add(sizeOfObjectArray(0));
     }
@@ -65,8 +83,24 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
         return new Allocator(this);
     }
 
+    /**
+     * The codec that must be used to compress target ids written into this builder.
+     */
+    public AdjacencyCodec codec() {
+        return codec;
+    }
+
     public TransientAdjacencyList build() {
-        return new TransientAdjacencyList(pages);
+        return build(PropertyValueFormat.DOUBLE);
+    }
+
+    /**
+     * Builds a list of relationship properties that have been written in the given format.
+     */
+    public TransientAdjacencyList build(PropertyValueFormat valueFormat) {
+        return offHeapPages != null
+            ? new TransientAdjacencyList(offHeapPages, codec, valueFormat)
+            : new TransientAdjacencyList(pages, codec, valueFormat);
     }
 
     @Override
@@ -75,14 +109,23 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
 
     private long insertDefaultSizedPage(Allocator into) {
         int pageIndex = allocatedPages.getAndIncrement();
-        grow(pageIndex + 1, NO_SKIP);
         long intoIndex = PageUtil.capacityFor(pageIndex, PAGE_SHIFT);
+        if (offHeapPages != null) {
+            into.setNewOffHeapPage(offHeapPages.allocatePage(pageIndex, PAGE_SIZE), intoIndex);
+            return intoIndex;
+        }
+        grow(pageIndex + 1, NO_SKIP);
         into.setNewPages(pages, intoIndex);
         return intoIndex;
     }
 
-    private long insertOversizedPage(byte[] page, Allocator into) {
+    private long insertOversizedPage(int size, Allocator into) {
         int pageIndex = allocatedPages.getAndIncrement();
+        if (offHeapPages != null) {
+            into.insertOffHeapPage(offHeapPages.allocatePage(pageIndex, size));
+            return PageUtil.capacityFor(pageIndex, PAGE_SHIFT);
+        }
+        byte[] page = new byte[size];
         grow(pageIndex + 1, pageIndex);
 
         // We already increased `pages` for the oversize page in `grow()`.
@@ -149,6 +192,7 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
     static final class Allocator implements AdjacencyListAllocator, AdjacencyListPageSlice {
 
         private final TransientAdjacencyListBuilder builder;
+        private final @Nullable OffHeapPages offHeapPages;
 
         private long top;
 
@@ -157,13 +201,15 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
         private int toPageIndex;
         private int currentPageIndex;
 
+        // either the heap page or the address of the off-heap page is set
         private byte[] page;
+        private long pageAddress;
         private int offset;
         private long address;
 
-
         private Allocator(TransientAdjacencyListBuilder builder) {
             this.builder = builder;
+            this.offHeapPages = builder.offHeapPages;
             prevOffset = -1;
         }
 
@@ -173,7 +219,31 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
         }
 
         @Override
-        public byte[] page() {
+        public void writeInt(int value) {
+            if (offHeapPages == null) {
+                AdjacencyCompression.writeDegree(page, offset, value);
+            } else {
+                long intoAddress = pageAddress + offset;
+                OffHeapMemory.putByte(intoAddress, (byte) (value));
+                OffHeapMemory.putByte(1 + intoAddress, (byte) (value >>> 8));
+                OffHeapMemory.putByte(2 + intoAddress, (byte) (value >>> 16));
+                OffHeapMemory.putByte(3 + intoAddress, (byte) (value >>> 24));
+            }
+            offset += Integer.BYTES;
+        }
+
+        @Override
+        public void insert(byte[] bytes, int arrayOffset, int length) {
+            if (offHeapPages == null) {
+                System.arraycopy(bytes, arrayOffset, page, offset, length);
+            } else {
+                OffHeapMemory.copyToOffHeap(bytes, arrayOffset, pageAddress + offset, length);
+            }
+            offset += length;
+        }
+
+        @Override
+        public @Nullable byte[] page() {
             return page;
         }
 
@@ -239,8 +309,7 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
          * and keep the offsets as if this page would be of the correct size, we might just get by.
          */
         private long oversizingAllocate(int size) {
-            byte[] largePage = new byte[size];
-            return builder.insertOversizedPage(largePage, this);
+            return builder.insertOversizedPage(size, this);
         }
 
         private long prefetchAllocate(int size) {
@@ -251,7 +320,7 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
 
         private boolean reset() {
             if (prevOffset != -1) {
-                page = pages[currentPageIndex];
+                setCurrentPage(currentPageIndex);
                 offset = prevOffset;
                 prevOffset = -1;
                 return true;
@@ -261,14 +330,23 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
 
         private boolean next() {
             if (++currentPageIndex <= toPageIndex) {
-                page = pages[currentPageIndex];
+                setCurrentPage(currentPageIndex);
                 offset = 0;
                 return true;
             }
             page = null;
+            pageAddress = 0L;
             return false;
         }
 
+        private void setCurrentPage(int pageIndex) {
+            if (offHeapPages == null) {
+                page = pages[pageIndex];
+            } else {
+                pageAddress = offHeapPages.address(pageIndex);
+            }
+        }
+
         private void setNewPages(byte[][] pages, long fromIndex) {
             assert PageUtil.indexInPage(fromIndex, PAGE_MASK) == 0;
             this.pages = pages;
@@ -278,6 +356,14 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
             offset = 0;
         }
 
+        private void setNewOffHeapPage(long pageAddress, long fromIndex) {
+            assert PageUtil.indexInPage(fromIndex, PAGE_MASK) == 0;
+            currentPageIndex = PageUtil.pageIndex(fromIndex, PAGE_SHIFT);
+            toPageIndex = currentPageIndex;
+            this.pageAddress = pageAddress;
+            offset = 0;
+        }
+
         private void insertPage(byte[] page) {
             if (prevOffset == -1) {
                 prevOffset = offset;
@@ -285,5 +371,13 @@ public final class TransientAdjacencyListBuilder implements AdjacencyListBuilder
             this.page = page;
             offset = 0;
         }
+
+        private void insertOffHeapPage(long pageAddress) {
+            if (prevOffset == -1) {
+                prevOffset = offset;
+            }
+            this.pageAddress = pageAddress;
+            offset = 0;
+        }
     }
 }
@@ -30,12 +30,15 @@ import org.neo4j.graphalgo.api.schema.GraphSchema;
 import org.neo4j.graphalgo.api.schema.NodeSchema;
 import org.neo4j.graphalgo.api.schema.RelationshipSchema;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyCompression;
 import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.loading.IdMap;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
@@ -80,16 +83,26 @@ public final class GraphFactory {
         Optional<Orientation> orientation,
         Optional<Boolean> loadRelationshipProperty,
         Optional<Aggregation> aggregation,
+        Optional<PropertyCompression> propertyCompression,
+        Optional<List<PropertyCompression>> propertyCompressions,
+        Optional<Boolean> indexInverse,
+        Optional<AdjacencyCodec> adjacencyCodec,
         Optional<Boolean> preAggregate,
         Optional<Integer> concurrency,
         Optional<ExecutorService> executorService,
         Optional<AllocationTracker> tracker
     ) {
+        // several properties are given by their compressions, a single one by whether it should be loaded
+        List<PropertyCompression> compressions = propertyCompressions.orElseGet(() -> loadRelationshipProperty.orElse(false)
+            ? List.of(propertyCompression.orElse(PropertyCompression.NONE))
+            : List.of());
         return new RelationshipsBuilder(
             nodes,
             orientation.orElse(Orientation.NATURAL),
-            loadRelationshipProperty.orElse(false),
+            compressions,
             aggregation.orElse(Aggregation.NONE),
+            indexInverse.orElse(false),
+            adjacencyCodec.orElseGet(AdjacencyCodec::defaultCodec),
             preAggregate.orElse(false),
             concurrency.orElse(1),
             executorService.orElse(Pools.DEFAULT),
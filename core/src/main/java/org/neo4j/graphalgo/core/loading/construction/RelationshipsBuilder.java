@@ -19,25 +19,36 @@
  */
 package org.neo4j.graphalgo.core.loading.construction;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.AbstractRelationshipProjection;
+import org.neo4j.graphalgo.ImmutablePropertyMapping;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipProjection;
+import org.neo4j.graphalgo.api.AdjacencyList;
+import org.neo4j.graphalgo.api.AdjacencyOffsets;
 import org.neo4j.graphalgo.api.DefaultValue;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.Relationships;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyCompression;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
 import org.neo4j.graphalgo.core.loading.AdjacencyBuilder;
 import org.neo4j.graphalgo.core.loading.ImportSizing;
 import org.neo4j.graphalgo.core.loading.RelationshipImporter;
+import org.neo4j.graphalgo.core.loading.RelationshipPropertiesBatchBuffer;
 import org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer;
 import org.neo4j.graphalgo.core.loading.TransientAdjacencyListBuilder;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.utils.AutoCloseableThreadLocal;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.neo4j.graphalgo.api.DefaultValue.DOUBLE_DEFAULT_FALLBACK;
@@ -53,7 +64,7 @@ public class RelationshipsBuilder {
     private final RelationshipImporter.Imports imports;
     private final IdMapping idMapping;
     private final Orientation orientation;
-    private final boolean loadRelationshipProperty;
+    private final int propertyCount;
     private final int concurrency;
     private final ExecutorService executorService;
     private final Aggregation aggregation;
@@ -69,10 +80,40 @@ public class RelationshipsBuilder {
         int concurrency,
         ExecutorService executorService,
         AllocationTracker tracker
+    ) {
+        this(
+            idMapping,
+            orientation,
+            loadRelationshipProperty ? List.of(PropertyCompression.NONE) : List.of(),
+            aggregation,
+            false,
+            AdjacencyCodec.defaultCodec(),
+            preAggregate,
+            concurrency,
+            executorService,
+            tracker
+        );
+    }
+
+    /**
+     * Creates a builder for relationships with one property per given compression.
+     * Relationships with more than one property are added with {@link #addFromInternal(long, long, double[])}.
+     */
+    public RelationshipsBuilder(
+        IdMapping idMapping,
+        Orientation orientation,
+        List<PropertyCompression> propertyCompressions,
+        Aggregation aggregation,
+        boolean indexInverse,
+        AdjacencyCodec adjacencyCodec,
+        boolean preAggregate,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
     ) {
         this.idMapping = idMapping;
         this.orientation = orientation;
-        this.loadRelationshipProperty = loadRelationshipProperty;
+        this.propertyCount = propertyCompressions.size();
         this.aggregation = aggregation;
         this.concurrency = concurrency;
         this.executorService = executorService;
@@ -83,21 +124,35 @@ public class RelationshipsBuilder {
         int pageSize = importSizing.pageSize();
         int numberOfPages = importSizing.numberOfPages();
 
-        int[] propertyKeyIds = loadRelationshipProperty ? new int[]{DUMMY_PROPERTY_ID} : new int[0];
-        double[] defaultValues = loadRelationshipProperty ? new double[]{Double.NaN} : new double[0];
+        int[] propertyKeyIds = new int[propertyCount];
+        Arrays.fill(propertyKeyIds, DUMMY_PROPERTY_ID);
+        double[] defaultValues = new double[propertyCount];
+        Arrays.fill(defaultValues, Double.NaN);
+        Aggregation[] aggregations = new Aggregation[Math.max(1, propertyCount)];
+        Arrays.fill(aggregations, aggregation);
 
         AbstractRelationshipProjection.Builder projectionBuilder = RelationshipProjection
             .builder()
             .type("*")
-            .orientation(orientation);
-
-        if (loadRelationshipProperty) {
-            projectionBuilder.addProperty(GraphFactory.DUMMY_PROPERTY, GraphFactory.DUMMY_PROPERTY, DefaultValue.DEFAULT, aggregation);
+            .orientation(orientation)
+            .indexInverse(indexInverse)
+            .adjacencyCodec(adjacencyCodec);
+
+        for (int i = 0; i < propertyCount; i++) {
+            String propertyKey = i == 0 ? GraphFactory.DUMMY_PROPERTY : GraphFactory.DUMMY_PROPERTY + i;
+            projectionBuilder.addProperty(ImmutablePropertyMapping
+                .builder()
+                .propertyKey(propertyKey)
+                .neoPropertyKey(propertyKey)
+                .defaultValue(DefaultValue.DEFAULT)
+                .aggregation(aggregation)
+                .compression(propertyCompressions.get(i))
+                .build());
         }
 
         this.relationshipsBuilder = new org.neo4j.graphalgo.core.loading.RelationshipsBuilder(
             projectionBuilder.build(),
-            TransientAdjacencyListBuilder.builderFactory(tracker),
+            TransientAdjacencyListBuilder.builderFactory(adjacencyCodec, tracker),
             TransientAdjacencyOffsets.forPageSize(pageSize)
         );
 
@@ -109,17 +164,17 @@ public class RelationshipsBuilder {
             relationshipCounter,
             propertyKeyIds,
             defaultValues,
-            new Aggregation[]{aggregation},
+            aggregations,
             preAggregate
         );
 
         this.relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder);
-        this.imports = relationshipImporter.imports(orientation, loadRelationshipProperty);
+        this.imports = relationshipImporter.imports(orientation, propertyCount > 0);
 
         this.threadLocalBuilders = AutoCloseableThreadLocal.withInitial(() -> new ThreadLocalBuilder(
             idMapping,
             imports,
-            loadRelationshipProperty
+            propertyCount
         ));
     }
 
@@ -159,18 +214,71 @@ public class RelationshipsBuilder {
         threadLocalBuilders.get().addRelationship(source, target, relationshipPropertyValue);
     }
 
+    /**
+     * Adds a relationship with one value per property, in the order of the property compressions.
+     */
+    public void addFromInternal(long source, long target, double[] relationshipPropertyValues) {
+        assert relationshipPropertyValues.length == propertyCount;
+        threadLocalBuilders.get().addRelationship(source, target, relationshipPropertyValues);
+    }
+
+    /**
+     * Builds the relationships with the first property, if any.
+     */
     public Relationships build() {
+        return buildAll().get(0);
+    }
+
+    /**
+     * Builds the relationships once for every property, all of them share the same topology.
+     * Without properties, the relationships are returned as single element.
+     */
+    public List<Relationships> buildAll() {
         threadLocalBuilders.close();
 
         ParallelUtil.runWithConcurrency(concurrency, relationshipImporter.flushTasks(), executorService);
+        var relationships = relationships(relationshipsBuilder);
+        var maybeInverse = relationshipsBuilder.inverse().map(this::relationships);
+        return IntStream
+            .range(0, relationships.size())
+            .mapToObj(index -> maybeInverse
+                .map(inverse -> relationships.get(index).withInverse(inverse.get(index)))
+                .orElse(relationships.get(index)))
+            .collect(Collectors.toList());
+    }
+
+    private List<Relationships> relationships(org.neo4j.graphalgo.core.loading.RelationshipsBuilder builder) {
+        // the adjacency list is built only once, since building may move its pages
+        var adjacencyList = builder.adjacencyList();
+        var adjacencyOffsets = builder.globalAdjacencyOffsets();
+        if (propertyCount == 0) {
+            return List.of(relationships(adjacencyList, adjacencyOffsets, null, null));
+        }
+        return IntStream
+            .range(0, propertyCount)
+            .mapToObj(propertyIndex -> relationships(
+                adjacencyList,
+                adjacencyOffsets,
+                builder.properties(propertyIndex),
+                builder.globalPropertyOffsets(propertyIndex)
+            ))
+            .collect(Collectors.toList());
+    }
+
+    private Relationships relationships(
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        @Nullable AdjacencyList properties,
+        @Nullable AdjacencyOffsets propertyOffsets
+    ) {
         return Relationships.of(
             relationshipCounter.longValue(),
             orientation,
             Aggregation.equivalentToNone(aggregation),
-            relationshipsBuilder.adjacencyList(),
-            relationshipsBuilder.globalAdjacencyOffsets(),
-            loadRelationshipProperty ? relationshipsBuilder.properties() : null,
-            loadRelationshipProperty ? relationshipsBuilder.globalPropertyOffsets() : null,
+            adjacencyList,
+            adjacencyOffsets,
+            properties,
+            propertyOffsets,
             DOUBLE_DEFAULT_FALLBACK
         );
     }
@@ -179,16 +287,25 @@ public class RelationshipsBuilder {
 
         private final RelationshipsBatchBuffer relationshipBuffer;
         private final RelationshipImporter.Imports imports;
-        private final boolean loadRelationshipProperty;
+        private final RelationshipImporter.PropertyReader propertyReader;
+        // multiple properties are stored next to the batch and referenced by their position in it
+        private final @Nullable RelationshipPropertiesBatchBuffer propertiesBuffer;
+        private int nextRelationshipId;
 
         ThreadLocalBuilder(
             IdMapping idMap,
             RelationshipImporter.Imports imports,
-            boolean loadRelationshipProperty
+            int propertyCount
         ) {
             this.relationshipBuffer = new RelationshipsBatchBuffer(idMap, NO_SUCH_RELATIONSHIP_TYPE, ParallelUtil.DEFAULT_BATCH_SIZE);
             this.imports = imports;
-            this.loadRelationshipProperty = loadRelationshipProperty;
+            if (propertyCount > 1) {
+                this.propertiesBuffer = new RelationshipPropertiesBatchBuffer(ParallelUtil.DEFAULT_BATCH_SIZE, propertyCount);
+                this.propertyReader = propertiesBuffer;
+            } else {
+                this.propertiesBuffer = null;
+                this.propertyReader = propertyCount == 1 ? RelationshipImporter.preLoadedPropertyReader() : null;
+            }
         }
 
         void addRelationship(long source, long target) {
@@ -207,11 +324,26 @@ public class RelationshipsBuilder {
             }
         }
 
-        private void flushBuffer() {
-            RelationshipImporter.PropertyReader propertyReader = loadRelationshipProperty ? RelationshipImporter.preLoadedPropertyReader() : null;
+        void addRelationship(long source, long target, double[] relationshipPropertyValues) {
+            if (propertiesBuffer == null) {
+                addRelationship(source, target, relationshipPropertyValues[0]);
+                return;
+            }
+            relationshipBuffer.add(source, target, NO_SUCH_PROPERTY_KEY, nextRelationshipId);
+            for (int i = 0; i < relationshipPropertyValues.length; i++) {
+                propertiesBuffer.add(nextRelationshipId, i, relationshipPropertyValues[i]);
+            }
+            nextRelationshipId++;
+            if (relationshipBuffer.isFull()) {
+                flushBuffer();
+                relationshipBuffer.reset();
+            }
+        }
 
+        private void flushBuffer() {
             imports.importRelationships(relationshipBuffer, propertyReader);
             relationshipBuffer.reset();
+            nextRelationshipId = 0;
         }
 
         @Override
@@ -143,12 +143,54 @@ public class Intersections {
     }
 
     public static double sumSquareDelta(double[] vector1, double[] vector2, int len) {
-        double result = 0;
-        for (int i = 0; i < len; i++) {
+        // four independent sums let the JIT pipeline and vectorize the loop
+        double result0 = 0D, result1 = 0D, result2 = 0D, result3 = 0D;
+        int i = 0;
+        for (int limit = len - 3; i < limit; i += 4) {
+            double delta0 = vector1[i] - vector2[i];
+            double delta1 = vector1[i + 1] - vector2[i + 1];
+            double delta2 = vector1[i + 2] - vector2[i + 2];
+            double delta3 = vector1[i + 3] - vector2[i + 3];
+            result0 += delta0 * delta0;
+            result1 += delta1 * delta1;
+            result2 += delta2 * delta2;
+            result3 += delta3 * delta3;
+        }
+        for (; i < len; i++) {
             double delta = vector1[i] - vector2[i];
-            result += delta * delta;
+            result0 += delta * delta;
         }
-        return result;
+        return (result0 + result1) + (result2 + result3);
+    }
+
+    public static double dotProduct(double[] vector1, double[] vector2, int len) {
+        double result0 = 0D, result1 = 0D, result2 = 0D, result3 = 0D;
+        int i = 0;
+        for (int limit = len - 3; i < limit; i += 4) {
+            result0 += vector1[i] * vector2[i];
+            result1 += vector1[i + 1] * vector2[i + 1];
+            result2 += vector1[i + 2] * vector2[i + 2];
+            result3 += vector1[i + 3] * vector2[i + 3];
+        }
+        for (; i < len; i++) {
+            result0 += vector1[i] * vector2[i];
+        }
+        return (result0 + result1) + (result2 + result3);
+    }
+
+    public static float dotProduct(float[] vector1, float[] vector2, int len) {
+        float result0 = 0F, result1 = 0F, result2 = 0F, result3 = 0F;
+        int i = 0;
+        for (int limit = len - 3; i < limit; i += 4) {
+            result0 += vector1[i] * vector2[i];
+            result1 += vector1[i + 1] * vector2[i + 1];
+            result2 += vector1[i + 2] * vector2[i + 2];
+            result3 += vector1[i + 3] * vector2[i + 3];
+        }
+        for (; i < len; i++) {
+            result0 += vector1[i] * vector2[i];
+        }
+        return (result0 + result1) + (result2 + result3);
     }
 
     public static double[] sumSquareDeltas(double[] vector1, double[][] vector2, int len) {
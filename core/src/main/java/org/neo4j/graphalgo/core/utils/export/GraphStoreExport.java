@@ -35,6 +35,7 @@ import org.neo4j.graphalgo.core.Settings;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
+import org.neo4j.graphalgo.core.loading.CSRGraphStore;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
 import org.neo4j.internal.batchimport.AdditionalInitialIds;
@@ -333,6 +334,10 @@ public class GraphStoreExport {
         }
 
         static RelationshipStore of(GraphStore graphStore, String defaultRelationshipType) {
+            if (graphStore instanceof CSRGraphStore) {
+                // the adjacency lists are exported as they are, pending deltas need to be part of them
+                ((CSRGraphStore) graphStore).compactDeltas();
+            }
             Map<RelationshipType, Relationships.Topology> topologies = new HashMap<>();
             Map<RelationshipType, Map<String, Relationships.Properties>> properties = new HashMap<>();
 
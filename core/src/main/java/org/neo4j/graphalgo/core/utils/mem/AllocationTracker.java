@@ -60,6 +60,21 @@ public interface AllocationTracker extends Supplier<String> {
      */
     void remove(long bytes);
 
+    /**
+     * Add the given number of bytes of memory allocated outside of the Java heap.
+     * By default, native memory is added to the total tracked amount.
+     */
+    default void addNative(long bytes) {
+        add(bytes);
+    }
+
+    /**
+     * Remove the given number of bytes of memory allocated outside of the Java heap.
+     */
+    default void removeNative(long bytes) {
+        remove(bytes);
+    }
+
     /**
      * Return the current total of tracked bytes.
      */
@@ -39,6 +39,16 @@ public final class KernelAllocationTracker implements AllocationTracker {
         tracker.remove(bytes);
     }
 
+    @Override
+    public void addNative(long bytes) {
+        tracker.addNative(bytes);
+    }
+
+    @Override
+    public void removeNative(long bytes) {
+        tracker.removeNative(bytes);
+    }
+
     @Override
     public long trackedBytes() {
         return tracker.trackedBytes();
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Raw access to memory outside of the Java heap, based on {@link sun.misc.Unsafe}.
+ * <p>
+ * There are no bounds checks, callers are responsible for valid addresses.
+ * Heap arrays are only accessed to copy them from and to off-heap memory.
+ */
+public final class OffHeapMemory {
+
+    private static final Unsafe UNSAFE = unsafe();
+
+    private static final long BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+    private static final long BUFFER_ADDRESS_OFFSET = bufferAddressOffset();
+
+    /**
+     * Allocates the given number of bytes outside of the Java heap.
+     * The memory is not initialized and must be released with {@link #free(long)}.
+     */
+    public static long allocate(long bytes) {
+        return UNSAFE.allocateMemory(bytes);
+    }
+
+    public static void free(long address) {
+        UNSAFE.freeMemory(address);
+    }
+
+    public static void zero(long address, long bytes) {
+        UNSAFE.setMemory(address, bytes, (byte) 0);
+    }
+
+    public static byte getByte(long address) {
+        return UNSAFE.getByte(address);
+    }
+
+    public static void putByte(long address, byte value) {
+        UNSAFE.putByte(address, value);
+    }
+
+    public static void copyToOffHeap(byte[] source, long address, int length) {
+        copyToOffHeap(source, 0, address, length);
+    }
+
+    public static void copyToOffHeap(byte[] source, int sourceOffset, long address, int length) {
+        UNSAFE.copyMemory(source, BYTE_ARRAY_BASE_OFFSET + sourceOffset, null, address, length);
+    }
+
+    public static void copyToHeap(long address, byte[] target, int length) {
+        UNSAFE.copyMemory(null, address, target, BYTE_ARRAY_BASE_OFFSET, length);
+    }
+
+    /**
+     * Returns the address of the first byte of a direct or memory mapped buffer, independent of its position.
+     * The address is only valid as long as the buffer is reachable and has not been {@link #unmap(ByteBuffer) unmapped}.
+     */
+    public static long address(ByteBuffer directBuffer) {
+        if (!directBuffer.isDirect()) {
+            throw new IllegalArgumentException("Only direct buffers have an off-heap address.");
+        }
+        return UNSAFE.getLong(directBuffer, BUFFER_ADDRESS_OFFSET);
+    }
+
+    /**
+     * Releases the memory of a direct or memory mapped buffer, which must not be accessed afterwards.
+     */
+    public static void unmap(ByteBuffer directBuffer) {
+        UNSAFE.invokeCleaner(directBuffer);
+    }
+
+    private static long bufferAddressOffset() {
+        try {
+            return UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Unsafe unsafe() {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private OffHeapMemory() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
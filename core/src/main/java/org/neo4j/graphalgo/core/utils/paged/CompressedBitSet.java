@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import com.carrotsearch.hppc.BitSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable bit set that is compressed in the style of Roaring bitmaps.
+ * <p>
+ * The index space is divided into chunks of {@code 2^16} bits and every chunk
+ * is stored in the most compact of three container types:
+ * <ul>
+ * <li>a single range of set bits, e.g. nodes of a label that were imported together,</li>
+ * <li>a sorted array of the set bits if there are at most {@value #MAX_ARRAY_CONTAINER_SIZE} of them,</li>
+ * <li>a plain bitmap otherwise.</li>
+ * </ul>
+ * Empty chunks take no space besides their slot in the chunk array.
+ * Unions and intersections are computed chunk by chunk.
+ */
+public final class CompressedBitSet {
+
+    public static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+    private static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+
+    private final Container[] chunks;
+    private final long size;
+    private final long cardinality;
+
+    public static CompressedBitSet of(BitSet bitSet, long size) {
+        Container[] chunks = new Container[numChunks(size)];
+        long[] words = new long[WORDS_PER_CHUNK];
+        long cardinality = 0L;
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int fromWord = chunk * WORDS_PER_CHUNK;
+            int toWord = Math.min(fromWord + WORDS_PER_CHUNK, bitSet.wlen);
+            Arrays.fill(words, 0L);
+            if (fromWord < toWord) {
+                System.arraycopy(bitSet.bits, fromWord, words, 0, toWord - fromWord);
+            }
+            chunks[chunk] = Container.of(words);
+            cardinality += cardinality(chunks[chunk]);
+        }
+        return new CompressedBitSet(chunks, size, cardinality);
+    }
+
+    public static CompressedBitSet union(Collection<CompressedBitSet> bitSets) {
+        long size = bitSets.stream().mapToLong(CompressedBitSet::size).max().orElse(0L);
+        Container[] chunks = new Container[numChunks(size)];
+        long[] words = new long[WORDS_PER_CHUNK];
+        long cardinality = 0L;
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            Arrays.fill(words, 0L);
+            for (CompressedBitSet bitSet : bitSets) {
+                Container container = bitSet.chunk(chunk);
+                if (container != null) {
+                    container.or(words);
+                }
+            }
+            chunks[chunk] = Container.of(words);
+            cardinality += cardinality(chunks[chunk]);
+        }
+        return new CompressedBitSet(chunks, size, cardinality);
+    }
+
+    public static int chunkOf(long index) {
+        return (int) (index >>> CHUNK_SHIFT);
+    }
+
+    private CompressedBitSet(Container[] chunks, long size, long cardinality) {
+        this.chunks = chunks;
+        this.size = size;
+        this.cardinality = cardinality;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public int chunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * Returns true iff no bit in the given chunk is set.
+     */
+    public boolean isEmpty(int chunk) {
+        return chunk(chunk) == null;
+    }
+
+    public boolean get(long index) {
+        Container container = chunk(chunkOf(index));
+        return container != null && container.contains((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Returns the index of the first set bit that is greater or equal to {@code index}, or -1 if there is none.
+     */
+    public long nextSetBit(long index) {
+        int chunk = chunkOf(index);
+        int low = (int) (index & CHUNK_MASK);
+        for (; chunk < chunks.length; chunk++, low = 0) {
+            Container container = chunks[chunk];
+            if (container != null) {
+                int next = container.nextSetBit(low);
+                if (next != -1) {
+                    return ((long) chunk << CHUNK_SHIFT) | next;
+                }
+            }
+        }
+        return -1L;
+    }
+
+    public CompressedBitSet intersection(CompressedBitSet other) {
+        Container[] intersectedChunks = new Container[Math.min(chunks.length, other.chunks.length)];
+        long[] words = new long[WORDS_PER_CHUNK];
+        long[] otherWords = new long[WORDS_PER_CHUNK];
+        long intersectedCardinality = 0L;
+        for (int chunk = 0; chunk < intersectedChunks.length; chunk++) {
+            Container container = chunks[chunk];
+            Container otherContainer = other.chunks[chunk];
+            if (container == null || otherContainer == null) {
+                continue;
+            }
+            Arrays.fill(words, 0L);
+            Arrays.fill(otherWords, 0L);
+            container.or(words);
+            otherContainer.or(otherWords);
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                words[i] &= otherWords[i];
+            }
+            intersectedChunks[chunk] = Container.of(words);
+            intersectedCardinality += cardinality(intersectedChunks[chunk]);
+        }
+        return new CompressedBitSet(intersectedChunks, Math.min(size, other.size), intersectedCardinality);
+    }
+
+    private Container chunk(int chunk) {
+        return chunk < chunks.length ? chunks[chunk] : null;
+    }
+
+    private static int numChunks(long size) {
+        return Math.toIntExact((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    private static int cardinality(Container container) {
+        return container == null ? 0 : container.cardinality();
+    }
+
+    private abstract static class Container {
+
+        static Container of(long[] words) {
+            int cardinality = 0;
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                long word = words[i];
+                if (word != 0L) {
+                    cardinality += Long.bitCount(word);
+                    if (first == -1) {
+                        first = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    }
+                    last = i * Long.SIZE + (Long.SIZE - 1 - Long.numberOfLeadingZeros(word));
+                }
+            }
+
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality == last - first + 1) {
+                return new RangeContainer(first, last + 1);
+            }
+            if (cardinality <= MAX_ARRAY_CONTAINER_SIZE) {
+                char[] values = new char[cardinality];
+                int index = 0;
+                for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                    long word = words[i];
+                    while (word != 0L) {
+                        values[index++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+                return new ArrayContainer(values);
+            }
+            return new BitmapContainer(Arrays.copyOf(words, WORDS_PER_CHUNK), cardinality);
+        }
+
+        abstract boolean contains(int low);
+
+        abstract int nextSetBit(int low);
+
+        abstract int cardinality();
+
+        /**
+         * Sets the bits of this container in the given chunk sized bitmap.
+         */
+        abstract void or(long[] words);
+    }
+
+    private static final class RangeContainer extends Container {
+        private final int start;
+        private final int end;
+
+        RangeContainer(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return low >= start && low < end;
+        }
+
+        @Override
+        int nextSetBit(int low) {
+            return low < end ? Math.max(low, start) : -1;
+        }
+
+        @Override
+        int cardinality() {
+            return end - start;
+        }
+
+        @Override
+        void or(long[] words) {
+            int startWord = start >>> 6;
+            int endWord = (end - 1) >>> 6;
+            long startMask = -1L << start;
+            // shifts are mod 64, this keeps the bits below `end` of the last word
+            long endMask = -1L >>> -end;
+            if (startWord == endWord) {
+                words[startWord] |= startMask & endMask;
+                return;
+            }
+            words[startWord] |= startMask;
+            Arrays.fill(words, startWord + 1, endWord, -1L);
+            words[endWord] |= endMask;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, (char) low) >= 0;
+        }
+
+        @Override
+        int nextSetBit(int low) {
+            int index = Arrays.binarySearch(values, (char) low);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < values.length ? values[index] : -1;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        void or(long[] words) {
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0L;
+        }
+
+        @Override
+        int nextSetBit(int low) {
+            int wordIndex = low >>> 6;
+            long word = words[wordIndex] & (-1L << low);
+            while (word == 0L) {
+                if (++wordIndex == WORDS_PER_CHUNK) {
+                    return -1;
+                }
+                word = words[wordIndex];
+            }
+            return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void or(long[] words) {
+            for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+                words[i] |= this.words[i];
+            }
+        }
+    }
+}
@@ -56,6 +56,14 @@ public final class HugeAtomicBitSet {
         return (bits.get(wordIndex) & bitmask) != 0;
     }
 
+    /**
+     * Returns the 64-bit word at the given word index.
+     * Bit {@code i} of the word represents the bit at index {@code wordIndex * 64 + i}.
+     */
+    public long word(long wordIndex) {
+        return bits.get(wordIndex);
+    }
+
     /**
      * Sets the bit at the given index to true.
      */
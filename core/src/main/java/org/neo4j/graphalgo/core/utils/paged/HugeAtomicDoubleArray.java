@@ -26,6 +26,7 @@ import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
 
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
@@ -138,6 +139,12 @@ public abstract class HugeAtomicDoubleArray {
      */
     public abstract long sizeOf();
 
+    /**
+     * Set all entries in the array to the given value.
+     * This method is not atomic!
+     */
+    public abstract void setAll(double value);
+
     /**
      * Destroys the data, allowing the underlying storage arrays to be collected as garbage.
      * The array is unusable after calling this method and will throw {@link NullPointerException}s on virtually every method invocation.
@@ -275,6 +282,12 @@ public abstract class HugeAtomicDoubleArray {
             return sizeOfLongArray(size);
         }
 
+        @Override
+        public void setAll(double value) {
+            Arrays.fill(page, value);
+            VarHandle.storeStoreFence();
+        }
+
         @Override
         public long release() {
             if (page != null) {
@@ -373,6 +386,14 @@ public abstract class HugeAtomicDoubleArray {
             return memoryUsed;
         }
 
+        @Override
+        public void setAll(double value) {
+            for (double[] page : pages) {
+                Arrays.fill(page, value);
+            }
+            VarHandle.storeStoreFence();
+        }
+
         @Override
         public long release() {
             if (pages != null) {
@@ -80,6 +80,15 @@ public abstract class HugeAtomicLongArray {
      */
     public abstract void set(long index, long value);
 
+    /**
+     * Atomically adds the given delta to the value at the given index.
+     *
+     * @param index the index
+     * @param delta the value to add
+     * @return the previous value at index
+     */
+    public abstract long getAndAdd(long index, long delta);
+
     /**
      * Atomically sets the element at position {@code index} to the given
      * updated value if the current value {@code ==} the expected value.
@@ -277,6 +286,11 @@ public abstract class HugeAtomicLongArray {
             ARRAY_HANDLE.setVolatile(page, (int) index, value);
         }
 
+        @Override
+        public long getAndAdd(long index, long delta) {
+            return (long) ARRAY_HANDLE.getAndAdd(page, (int) index, delta);
+        }
+
         @Override
         public boolean compareAndSet(long index, long expect, long update) {
             return ARRAY_HANDLE.compareAndSet(page, (int) index, expect, update);
@@ -374,6 +388,13 @@ public abstract class HugeAtomicLongArray {
             ARRAY_HANDLE.setVolatile(pages[pageIndex], indexInPage, value);
         }
 
+        @Override
+        public long getAndAdd(long index, long delta) {
+            int pageIndex = pageIndex(index);
+            int indexInPage = indexInPage(index);
+            return (long) ARRAY_HANDLE.getAndAdd(pages[pageIndex], indexInPage, delta);
+        }
+
         @Override
         public boolean compareAndSet(long index, long expect, long update) {
             int pageIndex = pageIndex(index);
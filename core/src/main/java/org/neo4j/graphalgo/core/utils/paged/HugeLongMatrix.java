@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 public class HugeLongMatrix {
 
     private final HugeLongArray array;
+    private final AllocationTracker tracker;
 
     private final long rows;
     private final long cols;
@@ -31,6 +32,7 @@ public class HugeLongMatrix {
     public HugeLongMatrix(long rows, long cols, AllocationTracker tracker) {
         this.rows = rows;
         this.cols = cols;
+        this.tracker = tracker;
         this.array = HugeLongArray.newArray(Math.multiplyExact(rows, cols), tracker);
     }
 
@@ -46,7 +48,15 @@ public class HugeLongMatrix {
         return array.get(indexOf(x, y));
     }
 
+    /**
+     * Releases the values of this matrix and removes them from the tracker it has been allocated against.
+     * The matrix is not usable afterwards.
+     */
+    public void release() {
+        tracker.remove(array.release());
+    }
+
     private long indexOf(long x, long y) {
-        return x * rows + y;
+        return x * cols + y;
     }
 }
@@ -71,6 +71,37 @@ public final class HugeSparseLongArray {
         return MemoryRange.of(classSize + pagesSize).add(MemoryRange.of(minRequirements, maxRequirements));
     }
 
+    /**
+     * Returns the memory usage of an array that can hold {@code maxId} entries
+     * of which only {@code numPagesInUse} pages have been allocated.
+     */
+    public static long memoryUsage(long maxId, long numPagesInUse) {
+        long numPagesForSize = (maxId + PAGE_MASK) >>> PAGE_SHIFT;
+        return MemoryUsage.sizeOfInstance(HugeSparseLongArray.class) +
+               MemoryUsage.sizeOfObjectArray(numPagesForSize) +
+               numPagesInUse * PAGE_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Returns the index of the page that stores the entry at {@code index}.
+     */
+    public static long pageIndexOf(long index) {
+        return index >>> PAGE_SHIFT;
+    }
+
+    /**
+     * Returns the memory of the allocated pages, as tracked by the builders.
+     */
+    public long sizeOf() {
+        long memoryUsed = MemoryUsage.sizeOfObjectArray(pages.length);
+        for (long[] page : pages) {
+            if (page != null) {
+                memoryUsed += PAGE_SIZE_IN_BYTES;
+            }
+        }
+        return memoryUsed;
+    }
+
     public long getCapacity() {
         return capacity;
     }
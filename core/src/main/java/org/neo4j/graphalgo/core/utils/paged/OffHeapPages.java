@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.OffHeapMemory;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+/**
+ * Byte pages that are stored outside of the Java heap.
+ * <p>
+ * The memory is tracked as native memory. The pages are reference counted: they are created with a single
+ * reference that belongs to the owner, e.g. an adjacency list, and every reader that outlives a single call,
+ * e.g. a cursor, {@link #retain() retains} another reference and {@link #release() releases} it once it is done.
+ * The memory is freed when the last reference is released, so that releasing the owner does not free pages
+ * that are still read. Pages that are not released explicitly are freed once this object is no longer reachable,
+ * readers must therefore hold on to it, not only to the addresses read from it.
+ * <p>
+ * Pages are either allocated while they are written, in which case the {@link #addresses()} must only be read
+ * once all pages exist, or they point into memory mapped buffers, see {@link #mapped(long[], int[], List)}.
+ * Once the last reference has been released, accessing the pages throws an {@link IllegalStateException}.
+ */
+public final class OffHeapPages {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final long NO_PAGE = 0L;
+
+    private final Memory memory;
+    private final AtomicInteger references;
+    private final Cleaner.Cleanable cleanable;
+
+    public static OffHeapPages create(AllocationTracker tracker) {
+        return new OffHeapPages(new Memory(tracker, null));
+    }
+
+    /**
+     * Creates read-only pages at the given addresses and sizes, which point into the given memory mapped buffers.
+     * Pages with a {@code 0} address do not exist. The buffers are unmapped once the last reference is released.
+     * Mapped memory belongs to the page cache of the operating system and is not tracked.
+     */
+    public static OffHeapPages mapped(long[] addresses, int[] sizes, List<ByteBuffer> mappings) {
+        var memory = new Memory(AllocationTracker.empty(), mappings);
+        memory.addresses = addresses;
+        memory.sizes = sizes;
+        memory.pageCount = addresses.length;
+        return new OffHeapPages(memory);
+    }
+
+    /**
+     * Copies the given pages off-heap. Each page is removed from the given array once it has been copied,
+     * so that the heap memory can be reclaimed before all pages are copied.
+     * Untracking the heap memory of the pages is up to the caller.
+     */
+    public static OffHeapPages moveOf(byte[][] pages, AllocationTracker tracker) {
+        var offHeapPages = create(tracker);
+        offHeapPages.memory.ensureCapacity(pages.length);
+        for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+            byte[] page = pages[pageIndex];
+            if (page == null) {
+                continue;
+            }
+            long address = offHeapPages.allocatePage(pageIndex, page.length);
+            OffHeapMemory.copyToOffHeap(page, address, page.length);
+            pages[pageIndex] = null;
+        }
+        return offHeapPages;
+    }
+
+    private OffHeapPages(Memory memory) {
+        this.memory = memory;
+        this.references = new AtomicInteger(1);
+        // the cleaner must not reference this object, otherwise it would never become unreachable
+        this.cleanable = CLEANER.register(this, memory);
+    }
+
+    /**
+     * Allocates the zeroed page at the given index, which must not exist yet, and returns its address.
+     * Pages can be allocated concurrently.
+     */
+    public long allocatePage(int pageIndex, int size) {
+        checkNotReleased();
+        return memory.allocate(pageIndex, size);
+    }
+
+    public int pageCount() {
+        return memory.pageCount();
+    }
+
+    /**
+     * Returns the addresses of the pages, {@code 0} for pages that do not exist.
+     * The memory is kept alive as long as this object is reachable and not released.
+     */
+    public long[] addresses() {
+        checkNotReleased();
+        return memory.addresses();
+    }
+
+    /**
+     * Returns the address of the given page or {@code 0} if the page does not exist.
+     */
+    public long address(int pageIndex) {
+        checkNotReleased();
+        return memory.address(pageIndex);
+    }
+
+    /**
+     * Adds a reference to the pages, which needs to be {@link #release() released} once the pages are no longer read.
+     *
+     * @throws IllegalStateException if the pages have been released
+     */
+    public void retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                throw releasedException();
+            }
+        } while (!references.compareAndSet(count, count + 1));
+    }
+
+    /**
+     * Removes a reference and frees the memory of all pages once the last reference is removed.
+     * Releasing pages that have already been freed has no effect.
+     */
+    public void release() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return;
+            }
+        } while (!references.compareAndSet(count, count - 1));
+        if (count == 1) {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the pages have been released
+     */
+    public void checkNotReleased() {
+        if (references.get() == 0) {
+            throw releasedException();
+        }
+    }
+
+    /**
+     * Returns a heap copy of the given page or {@code null} if the page does not exist.
+     */
+    public byte[] copyPage(int pageIndex) {
+        checkNotReleased();
+        return memory.copyPage(pageIndex);
+    }
+
+    private static IllegalStateException releasedException() {
+        return new IllegalStateException("The off-heap pages have already been released.");
+    }
+
+    private static final class Memory implements Runnable {
+
+        private final AllocationTracker tracker;
+        // the buffers that mapped pages point into or null for allocated pages
+        private final @Nullable List<ByteBuffer> mappings;
+        private long[] addresses;
+        private int[] sizes;
+        private int pageCount;
+
+        private Memory(AllocationTracker tracker, @Nullable List<ByteBuffer> mappings) {
+            this.tracker = tracker;
+            this.mappings = mappings;
+            this.addresses = new long[0];
+            this.sizes = new int[0];
+        }
+
+        synchronized long allocate(int pageIndex, int size) {
+            if (mappings != null) {
+                throw new UnsupportedOperationException("Pages cannot be allocated in mapped memory.");
+            }
+            ensureCapacity(pageIndex + 1);
+            if (addresses[pageIndex] != NO_PAGE) {
+                throw new IllegalStateException(formatWithLocale("The page %d has already been allocated.", pageIndex));
+            }
+            long address = OffHeapMemory.allocate(size);
+            tracker.addNative(size);
+            OffHeapMemory.zero(address, size);
+            addresses[pageIndex] = address;
+            sizes[pageIndex] = size;
+            return address;
+        }
+
+        synchronized void ensureCapacity(int newPageCount) {
+            if (newPageCount > addresses.length) {
+                int capacity = Math.max(newPageCount, addresses.length + (addresses.length >> 1));
+                addresses = Arrays.copyOf(addresses, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            pageCount = Math.max(pageCount, newPageCount);
+        }
+
+        synchronized int pageCount() {
+            return pageCount;
+        }
+
+        synchronized long[] addresses() {
+            return Arrays.copyOf(addresses, pageCount);
+        }
+
+        synchronized long address(int pageIndex) {
+            return pageIndex < pageCount ? addresses[pageIndex] : NO_PAGE;
+        }
+
+        synchronized byte[] copyPage(int pageIndex) {
+            if (addresses[pageIndex] == NO_PAGE) {
+                return null;
+            }
+            byte[] page = new byte[sizes[pageIndex]];
+            OffHeapMemory.copyToHeap(addresses[pageIndex], page, page.length);
+            return page;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (mappings != null) {
+                mappings.forEach(OffHeapMemory::unmap);
+                Arrays.fill(addresses, NO_PAGE);
+                return;
+            }
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                if (addresses[pageIndex] != NO_PAGE) {
+                    OffHeapMemory.free(addresses[pageIndex]);
+                    tracker.removeNative(sizes[pageIndex]);
+                    addresses[pageIndex] = NO_PAGE;
+                }
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.neo4j.util.FeatureToggles;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public enum GdsFeatureToggles {
 
@@ -32,7 +33,10 @@ public enum GdsFeatureToggles {
     SKIP_ORPHANS(false),
     USE_KERNEL_TRACKER(false),
     USE_PROPERTY_VALUE_INDEX(false),
-    USE_PARALLEL_PROPERTY_VALUE_INDEX(false);
+    USE_PARALLEL_PROPERTY_VALUE_INDEX(false),
+    USE_OFF_HEAP_ADJACENCY(false),
+    USE_PACKED_ADJACENCY_BLOCKS(false),
+    USE_ADJACENCY_SKIP_INDEX(false);
 
     public boolean isEnabled() {
         return current.get();
@@ -81,4 +85,24 @@ public enum GdsFeatureToggles {
     );
     public static final AtomicInteger MAX_ARRAY_LENGTH_SHIFT = new AtomicInteger(MAX_ARRAY_LENGTH_SHIFT_FLAG);
 
+    // Upper bound for the memory of the materialized subgraphs that are cached per graph store,
+    // the least recently used subgraphs are evicted once it is exceeded.
+    public static final long MATERIALIZED_GRAPH_CACHE_BYTES_DEFAULT_SETTING = 1L << 30;
+    private static final long MATERIALIZED_GRAPH_CACHE_BYTES_FLAG = FeatureToggles.getLong(
+        GdsFeatureToggles.class,
+        "materializedGraphCacheBytes",
+        MATERIALIZED_GRAPH_CACHE_BYTES_DEFAULT_SETTING
+    );
+    public static final AtomicLong MATERIALIZED_GRAPH_CACHE_BYTES = new AtomicLong(MATERIALIZED_GRAPH_CACHE_BYTES_FLAG);
+
+    // Upper bound for the memory of the id maps of label filtered graphs that are cached per graph store,
+    // the least recently used id maps are evicted once it is exceeded.
+    public static final long FILTERED_ID_MAP_CACHE_BYTES_DEFAULT_SETTING = 256L << 20;
+    private static final long FILTERED_ID_MAP_CACHE_BYTES_FLAG = FeatureToggles.getLong(
+        GdsFeatureToggles.class,
+        "filteredIdMapCacheBytes",
+        FILTERED_ID_MAP_CACHE_BYTES_DEFAULT_SETTING
+    );
+    public static final AtomicLong FILTERED_ID_MAP_CACHE_BYTES = new AtomicLong(FILTERED_ID_MAP_CACHE_BYTES_FLAG);
+
 }
@@ -23,6 +23,9 @@ import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.api.DefaultValue;
 import org.neo4j.graphalgo.compat.MapUtil;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyCompression;
+
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -68,6 +71,28 @@ class PropertyMappingTest {
         assertEquals(propertyMapping.defaultValue(), DefaultValue.of(42.0));
     }
 
+    @Test
+    void testFromObjectWithCompression() {
+        PropertyMapping propertyMapping = PropertyMapping.fromObject(
+            "weight",
+            MapUtil.map(
+                "property", "w",
+                "compression", "dictionary"
+        ));
+        assertEquals(PropertyCompression.DICTIONARY, propertyMapping.compression());
+        assertEquals("DICTIONARY", ((Map<?, ?>) propertyMapping.toObject(false).getValue()).get("compression"));
+        assertEquals(PropertyCompression.NONE, PropertyMapping.fromObject("foo", "bar").compression());
+    }
+
+    @Test
+    void failsOnUnknownCompression() {
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class, () -> PropertyMapping.fromObject("weight", MapUtil.map(
+                        "compression", "zip"
+                )));
+        assertThat(ex.getMessage(), containsString("Property compression `zip` is not supported."));
+    }
+
     @Test
     void failsOnWrongKeyType() {
         IllegalArgumentException ex = assertThrows(
@@ -25,6 +25,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.neo4j.graphalgo.api.DefaultValue;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -38,6 +39,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.graphalgo.AbstractRelationshipProjection.ADJACENCY_CODEC_KEY;
 import static org.neo4j.graphalgo.AbstractRelationshipProjection.ORIENTATION_KEY;
 import static org.neo4j.graphalgo.AbstractRelationshipProjection.TYPE_KEY;
 import static org.neo4j.graphalgo.ElementProjection.PROPERTIES_KEY;
@@ -175,6 +177,29 @@ class RelationshipProjectionsTest {
         assertThat(ex.getMessage(), matchesPattern("Cannot construct a relationship projection out of a java.lang.Integer"));
     }
 
+    @Test
+    void shouldParseAdjacencyCodec() {
+        RelationshipProjections projections = RelationshipProjections.fromObject(map(
+            "T", map(TYPE_KEY, "T", ADJACENCY_CODEC_KEY, "packed_blocks")
+        ));
+
+        RelationshipProjection projection = projections.getFilter(RelationshipType.of("T"));
+        assertThat(projection.adjacencyCodec(), equalTo(AdjacencyCodec.PACKED_BLOCKS));
+        assertThat(projection.toObject().get(ADJACENCY_CODEC_KEY), equalTo("PACKED_BLOCKS"));
+    }
+
+    @Test
+    void shouldFailOnUnsupportedAdjacencyCodec() {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> RelationshipProjections.fromObject(map("T", map(TYPE_KEY, "T", ADJACENCY_CODEC_KEY, "zip")))
+        );
+        assertThat(
+            ex.getMessage(),
+            equalTo("Adjacency codec `zip` is not supported. Must be one of: VAR_LONG, PACKED_BLOCKS.")
+        );
+    }
+
     static Stream<Arguments> syntacticSugarsSimple() {
         return Stream.of(
             Arguments.of(
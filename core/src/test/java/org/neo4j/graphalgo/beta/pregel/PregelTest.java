@@ -25,6 +25,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.nodeproperties.ValueType;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.concurrency.Pools;
@@ -35,17 +36,24 @@ import org.neo4j.graphalgo.extension.GdlGraph;
 import org.neo4j.graphalgo.extension.Inject;
 import org.neo4j.graphalgo.extension.TestGraph;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
 import static org.neo4j.graphalgo.beta.pregel.PregelTest.CompositeTestComputation.DOUBLE_ARRAY_KEY;
 import static org.neo4j.graphalgo.beta.pregel.PregelTest.CompositeTestComputation.DOUBLE_KEY;
 import static org.neo4j.graphalgo.beta.pregel.PregelTest.CompositeTestComputation.LONG_ARRAY_KEY;
 import static org.neo4j.graphalgo.beta.pregel.PregelTest.CompositeTestComputation.LONG_KEY;
 import static org.neo4j.graphalgo.beta.pregel.PregelTest.TestPregelComputation.KEY;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
 
 @GdlExtension
 class PregelTest {
@@ -98,6 +106,234 @@ class PregelTest {
         assertEquals(Double.NaN, nodeValues.doubleProperties(KEY).get(2L));
     }
 
+    @Test
+    void aggregatesValuesAndStopsInMasterCompute() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(10)
+            .concurrency(2)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestAggregatorComputation(),
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var result = pregelJob.run();
+
+        assertTrue(result.didConverge());
+        assertEquals(2, result.ranIterations());
+        assertArrayEquals(new double[]{3.0, 3.0, 3.0}, result.nodeValues().doubleProperties(KEY).toArray());
+    }
+
+    @Test
+    void failsOnUnknownAggregator() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(1)
+            .concurrency(1)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new PregelComputation<>() {
+                @Override
+                public PregelSchema schema() {
+                    return new PregelSchema.Builder().add(KEY, ValueType.DOUBLE).build();
+                }
+
+                @Override
+                public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+                    context.aggregate("unknown", 1.0);
+                }
+            },
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var ex = assertThrows(IllegalArgumentException.class, pregelJob::run);
+        assertEquals("Aggregator with name unknown does not exist. Available aggregators are: []", ex.getMessage());
+    }
+
+    @Test
+    void sendsLongMessagesWithoutPrecisionLoss() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2)
+            .concurrency(2)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestLongMessageComputation(),
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var nodeValues = pregelJob.run().nodeValues();
+        assertEquals(TestLongMessageComputation.BASE + 2, nodeValues.longProperties(KEY).get(0L));
+    }
+
+    @Test
+    void failsOnSendingMessagesOfUndeclaredType() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2)
+            .concurrency(1)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestLongMessageComputation() {
+                @Override
+                public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+                    context.sendTo(0L, 1.0);
+                }
+            },
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var ex = assertThrows(IllegalArgumentException.class, pregelJob::run);
+        assertEquals(
+            "Messages of type DOUBLE cannot be used, the message schema of the computation declares LONG.",
+            ex.getMessage()
+        );
+    }
+
+    @Test
+    void failsOnReadingMessagesOfUndeclaredType() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2)
+            .concurrency(1)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestLongMessageComputation() {
+                @Override
+                public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+                    if (context.isInitialSuperstep()) {
+                        context.sendLongTo(0L, BASE);
+                    } else {
+                        for (Double message : messages) {
+                            context.setNodeValue(KEY, message.longValue());
+                        }
+                    }
+                }
+            },
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var ex = assertThrows(IllegalArgumentException.class, pregelJob::run);
+        assertEquals(
+            "Messages of type DOUBLE cannot be used, the message schema of the computation declares LONG.",
+            ex.getMessage()
+        );
+    }
+
+    @Test
+    void sendsDoubleArrayMessages() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2)
+            .concurrency(2)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestDoubleArrayMessageComputation(),
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var nodeValues = pregelJob.run().nodeValues().doubleArrayProperties(KEY);
+        assertArrayEquals(new double[]{0.0, 0.0}, nodeValues.get(0L));
+        assertArrayEquals(new double[]{1.0, 2.0}, nodeValues.get(1L));
+        assertArrayEquals(new double[]{1.0, 2.0}, nodeValues.get(2L));
+    }
+
+    @Test
+    void failsOnReducerForLongMessages() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(1)
+            .concurrency(1)
+            .build();
+
+        var ex = assertThrows(IllegalArgumentException.class, () -> Pregel.create(
+            graph,
+            config,
+            new TestLongMessageComputation() {
+                @Override
+                public Optional<Reducer> reducer() {
+                    return Optional.of(new Reducer.Max());
+                }
+            },
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        ));
+        assertEquals("A reducer can only be applied to messages of type DOUBLE, got LONG.", ex.getMessage());
+    }
+
+    @Test
+    void sendsMessagesToIncomingNeighbors() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2)
+            .concurrency(2)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestIncomingNeighborsComputation(),
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var nodeValues = pregelJob.run().nodeValues();
+        assertArrayEquals(new double[]{2.0, 0.0, 0.0}, nodeValues.doubleProperties(KEY).toArray());
+        assertArrayEquals(
+            new long[]{0L, 1L, 1L},
+            nodeValues.longProperties(TestIncomingNeighborsComputation.DEGREE_KEY).toArray()
+        );
+        assertArrayEquals(
+            new long[]{-1L, 0L, 0L},
+            nodeValues.longProperties(TestIncomingNeighborsComputation.NEIGHBOR_KEY).toArray()
+        );
+        pregelJob.release();
+    }
+
+    @Test
+    void failsOnIncomingNeighborsIfNotRequired() {
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(1)
+            .concurrency(1)
+            .build();
+
+        var pregelJob = Pregel.create(
+            graph,
+            config,
+            new TestIncomingNeighborsComputation() {
+                @Override
+                public boolean requiresIncomingRelationships() {
+                    return false;
+                }
+            },
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+
+        var ex = assertThrows(UnsupportedOperationException.class, pregelJob::run);
+        assertEquals(
+            "Incoming relationships are not available, the computation must override `requiresIncomingRelationships`.",
+            ex.getMessage()
+        );
+    }
+
     @Test
     void compositeNodeValueTest() {
         var config = ImmutableCompositeTestComputationConfig.builder()
@@ -133,17 +369,59 @@ class PregelTest {
         assertArrayEquals(new double[]{88.0D}, result.doubleArrayValue(DOUBLE_ARRAY_KEY, graph.toOriginalNodeId("eve")));
     }
 
+    @Test
+    void computesSparseActiveNodesLikeAFullScan() {
+        // a path over several batches of active words, only a few nodes are active in each superstep
+        var nodeCount = 10_000;
+        var gdl = new StringBuilder("CREATE ");
+        for (int i = 0; i < nodeCount; i++) {
+            gdl.append(formatWithLocale(
+                "%s(n%d { seed: %d, stay: %d })",
+                i == 0 ? "" : ", ",
+                i,
+                i % 997 == 5 ? 1 : 0,
+                i % 1500 == 42 ? 1 : 0
+            ));
+        }
+        for (int i = 0; i < nodeCount - 1; i++) {
+            gdl.append(formatWithLocale(", (n%d)-->(n%d)", i, i + 1));
+        }
+        var pathGraph = fromGdl(gdl.toString());
+
+        var config = ImmutablePregelConfig.builder()
+            .maxIterations(2_000)
+            .concurrency(4)
+            .build();
+
+        var pregelJob = Pregel.create(
+            pathGraph,
+            config,
+            new TestSparseDistanceComputation(),
+            Pools.DEFAULT,
+            AllocationTracker.empty()
+        );
+        var result = pregelJob.run();
+
+        var expected = TestSparseDistanceComputation.fullScan(pathGraph, config.maxIterations());
+        assertTrue(result.didConverge());
+        assertEquals(expected.ranIterations(), result.ranIterations());
+        assertArrayEquals(expected.values, result.nodeValues().doubleProperties(KEY).toArray());
+        pregelJob.release();
+    }
+
     static Stream<Arguments> estimations() {
         return Stream.of(
-            Arguments.of(1, new PregelSchema.Builder().add("key", ValueType.LONG).build(), 4_884_096L),
-            Arguments.of(10, new PregelSchema.Builder().add("key", ValueType.LONG).build(), 4_884_816L),
+            Arguments.of(1, new PregelSchema.Builder().add("key", ValueType.LONG).build(), false, false, 2_683_776L),
+            Arguments.of(10, new PregelSchema.Builder().add("key", ValueType.LONG).build(), false, false, 2_685_000L),
             Arguments.of(1, new PregelSchema.Builder()
                     .add("key1", ValueType.LONG)
                     .add("key2", ValueType.DOUBLE)
                     .add("key3", ValueType.LONG_ARRAY)
                     .add("key4", ValueType.DOUBLE_ARRAY)
                     .build(),
-                6_884_168L
+                false,
+                false,
+                4_683_848L
             ),
             Arguments.of(10, new PregelSchema.Builder()
                     .add("key1", ValueType.LONG)
@@ -151,14 +429,26 @@ class PregelTest {
                     .add("key3", ValueType.LONG_ARRAY)
                     .add("key4", ValueType.DOUBLE_ARRAY)
                     .build(),
-                6_884_888L
-            )
+                false,
+                false,
+                4_685_072L
+            ),
+            Arguments.of(1, new PregelSchema.Builder().add("key", ValueType.LONG).build(), true, false, 4_884_136L),
+            Arguments.of(10, new PregelSchema.Builder().add("key", ValueType.LONG).build(), true, false, 4_885_000L),
+            Arguments.of(1, new PregelSchema.Builder().add("key", ValueType.LONG).build(), false, true, 244_208L),
+            Arguments.of(10, new PregelSchema.Builder().add("key", ValueType.LONG).build(), false, true, 245_072L)
         );
     }
 
     @ParameterizedTest
     @MethodSource("estimations")
-    void memoryEstimation(int concurrency, PregelSchema pregelSchema, long expectedBytes) {
+    void memoryEstimation(
+        int concurrency,
+        PregelSchema pregelSchema,
+        boolean isAsync,
+        boolean isReducing,
+        long expectedBytes
+    ) {
         var dimensions = ImmutableGraphDimensions.builder()
             .nodeCount(10_000)
             .maxRelCount(100_000)
@@ -166,7 +456,7 @@ class PregelTest {
 
         assertEquals(
             MemoryRange.of(expectedBytes).max,
-            Pregel.memoryEstimation(pregelSchema).estimate(dimensions, concurrency).memoryUsage().max
+            Pregel.memoryEstimation(pregelSchema, isAsync, isReducing).estimate(dimensions, concurrency).memoryUsage().max
         );
     }
 
@@ -177,6 +467,11 @@ class PregelTest {
                 new TestPregelComputation(),
                 new double[]{0.0, 1.0, 1.0}
             ),
+            Arguments.of(
+                ImmutablePregelConfig.builder().maxIterations(2).isAsynchronous(true).build(),
+                new TestPregelComputation(),
+                new double[]{0.0, 1.0, 1.0}
+            ),
             Arguments.of(
                 ImmutablePregelConfig.builder().maxIterations(2).relationshipWeightProperty("prop").build(),
                 new TestPregelComputation(),
@@ -186,6 +481,16 @@ class PregelTest {
                 ImmutablePregelConfig.builder().maxIterations(2).relationshipWeightProperty("prop").build(),
                 new TestWeightComputation(),
                 new double[]{0.0, 2.0, 1.0}
+            ),
+            Arguments.of(
+                ImmutablePregelConfig.builder().maxIterations(2).build(),
+                new TestReduciblePregelComputation(),
+                new double[]{0.0, 1.0, 1.0}
+            ),
+            Arguments.of(
+                ImmutablePregelConfig.builder().maxIterations(2).relationshipWeightProperty("prop").build(),
+                new TestReducibleWeightComputation(),
+                new double[]{0.0, 2.0, 1.0}
             )
         );
     }
@@ -254,6 +559,51 @@ class PregelTest {
         }
     }
 
+    public static class TestReduciblePregelComputation extends TestPregelComputation {
+
+        @Override
+        public Optional<Reducer> reducer() {
+            return Optional.of(new Reducer.Sum());
+        }
+    }
+
+    public static class TestReducibleWeightComputation extends TestWeightComputation {
+
+        @Override
+        public Optional<Reducer> reducer() {
+            return Optional.of(new Reducer.Sum());
+        }
+    }
+
+    public static class TestAggregatorComputation implements PregelComputation<PregelConfig> {
+
+        static final String COUNT = "count";
+
+        @Override
+        public PregelSchema schema() {
+            return new PregelSchema.Builder().add(KEY, ValueType.DOUBLE).build();
+        }
+
+        @Override
+        public Map<String, Reducer> aggregators() {
+            return Map.of(COUNT, new Reducer.Sum());
+        }
+
+        @Override
+        public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+            if (!context.isInitialSuperstep()) {
+                context.setNodeValue(KEY, context.aggregatedValue(COUNT));
+            }
+            context.aggregate(COUNT, 1.0);
+        }
+
+        @Override
+        public boolean masterCompute(MasterComputeContext<PregelConfig> context) {
+            assertEquals(context.nodeCount(), context.aggregatedValue(COUNT));
+            return context.superstep() == 2;
+        }
+    }
+
     public static class TestSendTo implements PregelComputation<PregelConfig> {
 
         static final String KEY = "value";
@@ -274,6 +624,102 @@ class PregelTest {
         }
     }
 
+    public static class TestLongMessageComputation implements PregelComputation<PregelConfig> {
+
+        // the smallest long that can not be represented as a double
+        static final long BASE = (1L << 53) + 1;
+
+        @Override
+        public PregelSchema schema() {
+            return new PregelSchema.Builder().add(KEY, ValueType.LONG).build();
+        }
+
+        @Override
+        public MessageSchema messageSchema() {
+            return MessageSchema.longs();
+        }
+
+        @Override
+        public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+            if (context.nodeId() == 0) {
+                var iterator = messages.iterator();
+                long max = 0;
+                while (iterator.hasNext()) {
+                    max = Math.max(max, iterator.nextLong());
+                }
+                context.setNodeValue(KEY, max);
+            } else {
+                context.sendLongTo(0L, BASE + context.nodeId());
+            }
+        }
+    }
+
+    public static class TestDoubleArrayMessageComputation implements PregelComputation<PregelConfig> {
+
+        @Override
+        public PregelSchema schema() {
+            return new PregelSchema.Builder().add(KEY, ValueType.DOUBLE_ARRAY).build();
+        }
+
+        @Override
+        public MessageSchema messageSchema() {
+            return MessageSchema.doubleArrays(2);
+        }
+
+        @Override
+        public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+            if (context.isInitialSuperstep()) {
+                context.setNodeValue(KEY, new double[2]);
+                if (context.nodeId() == 0) {
+                    context.sendToNeighbors(new double[]{1.0, 2.0});
+                }
+            } else {
+                var sum = new double[2];
+                var message = new double[2];
+                var iterator = messages.iterator();
+                while (iterator.hasNext()) {
+                    iterator.nextDoubleArray(message);
+                    sum[0] += message[0];
+                    sum[1] += message[1];
+                }
+                context.setNodeValue(KEY, sum);
+            }
+        }
+    }
+
+    public static class TestIncomingNeighborsComputation implements PregelComputation<PregelConfig> {
+
+        static final String DEGREE_KEY = "degree";
+        static final String NEIGHBOR_KEY = "neighbor";
+
+        @Override
+        public PregelSchema schema() {
+            return new PregelSchema.Builder()
+                .add(KEY, ValueType.DOUBLE)
+                .add(DEGREE_KEY, ValueType.LONG)
+                .add(NEIGHBOR_KEY, ValueType.LONG)
+                .build();
+        }
+
+        @Override
+        public boolean requiresIncomingRelationships() {
+            return true;
+        }
+
+        @Override
+        public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+            if (context.isInitialSuperstep()) {
+                context.setNodeValue(DEGREE_KEY, (long) context.incomingDegree());
+                context.setNodeValue(NEIGHBOR_KEY, -1L);
+                context.forEachIncomingNeighbor(neighbor -> context.setNodeValue(NEIGHBOR_KEY, neighbor));
+                context.sendToIncomingNeighbors(1.0);
+            } else {
+                var sum = StreamSupport.stream(messages.spliterator(), false).mapToDouble(d -> d).sum();
+                context.setNodeValue(KEY, sum);
+            }
+        }
+    }
+
     @ValueClass
     @Configuration
     @SuppressWarnings("immutables:subtype")
@@ -329,4 +775,131 @@ class PregelTest {
             context.sendToNeighbors(42.0);
         }
     }
+
+    /**
+     * Computes the distance from the closest preceding seed node. Only nodes that
+     * received a shorter distance are active, and a few nodes stay active for the
+     * first supersteps without receiving messages.
+     */
+    public static class TestSparseDistanceComputation implements PregelComputation<PregelConfig> {
+
+        static final String STAY_KEY = "stay";
+        static final int STAY_ACTIVE_SUPERSTEPS = 5;
+
+        @Override
+        public PregelSchema schema() {
+            return new PregelSchema.Builder()
+                .add(KEY, ValueType.DOUBLE)
+                .add(STAY_KEY, ValueType.LONG)
+                .build();
+        }
+
+        @Override
+        public void init(PregelContext.InitContext<PregelConfig> context) {
+            var isSeed = context.nodeProperties("seed").longValue(context.nodeId()) == 1;
+            context.setNodeValue(KEY, isSeed ? 0.0 : Double.POSITIVE_INFINITY);
+            context.setNodeValue(STAY_KEY, context.nodeProperties(STAY_KEY).longValue(context.nodeId()));
+        }
+
+        @Override
+        public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
+            var distance = context.doubleNodeValue(KEY);
+            if (context.isInitialSuperstep()) {
+                if (distance == 0.0) {
+                    context.sendToNeighbors(1.0);
+                }
+            } else {
+                var minDistance = distance;
+                for (Double message : messages) {
+                    minDistance = Math.min(minDistance, message);
+                }
+                if (minDistance < distance) {
+                    context.setNodeValue(KEY, minDistance);
+                    context.sendToNeighbors(minDistance + 1);
+                }
+            }
+            if (!staysActive(context.longNodeValue(STAY_KEY), context.superstep())) {
+                context.voteToHalt();
+            }
+        }
+
+        private static boolean staysActive(long stay, int superstep) {
+            return stay == 1 && superstep < STAY_ACTIVE_SUPERSTEPS;
+        }
+
+        /**
+         * The same computation, visiting every node in every superstep.
+         */
+        static FullScanResult fullScan(Graph graph, int maxIterations) {
+            var nodeCount = (int) graph.nodeCount();
+            var seeds = graph.nodeProperties("seed");
+            var stays = graph.nodeProperties(STAY_KEY);
+
+            var values = new double[nodeCount];
+            var votedToHalt = new boolean[nodeCount];
+            var messages = new double[nodeCount];
+            var nextMessages = new double[nodeCount];
+            Arrays.fill(messages, Double.NaN);
+
+            int iterations;
+            for (iterations = 0; iterations < maxIterations; iterations++) {
+                Arrays.fill(nextMessages, Double.NaN);
+                for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    if (iterations == 0) {
+                        values[nodeId] = seeds.longValue(nodeId) == 1 ? 0.0 : Double.POSITIVE_INFINITY;
+                    }
+                    var hasMessages = !Double.isNaN(messages[nodeId]);
+                    if (!hasMessages && votedToHalt[nodeId]) {
+                        continue;
+                    }
+                    votedToHalt[nodeId] = false;
+
+                    var message = Double.NaN;
+                    if (iterations == 0) {
+                        if (values[nodeId] == 0.0) {
+                            message = 1.0;
+                        }
+                    } else if (hasMessages && messages[nodeId] < values[nodeId]) {
+                        values[nodeId] = messages[nodeId];
+                        message = values[nodeId] + 1;
+                    }
+                    if (!Double.isNaN(message)) {
+                        var finalMessage = message;
+                        var targetMessages = nextMessages;
+                        graph.forEachRelationship(nodeId, (source, target) -> {
+                            var current = targetMessages[(int) target];
+                            targetMessages[(int) target] = Double.isNaN(current) ? finalMessage : Math.min(current, finalMessage);
+                            return true;
+                        });
+                    }
+                    votedToHalt[nodeId] = !staysActive(stays.longValue(nodeId), iterations);
+                }
+
+                var anyMessages = Arrays.stream(nextMessages).anyMatch(m -> !Double.isNaN(m));
+                var allHalted = IntStream.range(0, nodeCount).allMatch(nodeId -> votedToHalt[nodeId]);
+                if (anyMessages || !allHalted) {
+                    var tmp = messages;
+                    messages = nextMessages;
+                    nextMessages = tmp;
+                } else {
+                    break;
+                }
+            }
+            return new FullScanResult(values, iterations);
+        }
+
+        static final class FullScanResult {
+            final double[] values;
+            final int ranIterations;
+
+            FullScanResult(double[] values, int ranIterations) {
+                this.values = values;
+                this.ranIterations = ranIterations;
+            }
+
+            int ranIterations() {
+                return ranIterations;
+            }
+        }
+    }
 }
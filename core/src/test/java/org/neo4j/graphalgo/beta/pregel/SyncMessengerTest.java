@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.pregel;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.api.nodeproperties.ValueType;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncMessengerTest {
+
+    @Test
+    void deliversMessagesOfAllMailboxesInNextIteration() {
+        var messenger = new SyncMessenger(4, 1, 2, Pools.DEFAULT, AllocationTracker.empty());
+        var mailbox1 = messenger.newMailbox();
+        var mailbox2 = messenger.newMailbox();
+
+        messenger.initIteration(0);
+        mailbox1.sendTo(0, 1.0);
+        mailbox1.sendTo(2, 2.0);
+        mailbox2.sendTo(2, 3.0);
+        mailbox2.sendTo(3, 4.0);
+
+        messenger.initIteration(1);
+
+        assertThat(receive(mailbox1, 0)).containsExactly(1.0);
+        assertThat(receive(mailbox1, 1)).isEmpty();
+        assertThat(receive(mailbox2, 2)).containsExactlyInAnyOrder(2.0, 3.0);
+        assertThat(receive(mailbox2, 3)).containsExactly(4.0);
+
+        mailbox2.sendTo(1, 5.0);
+
+        messenger.initIteration(2);
+
+        assertThat(receive(mailbox1, 0)).isEmpty();
+        assertThat(receive(mailbox1, 1)).containsExactly(5.0);
+        assertThat(receive(mailbox2, 2)).isEmpty();
+
+        messenger.initIteration(3);
+
+        for (long nodeId = 0; nodeId < 4; nodeId++) {
+            assertThat(receive(mailbox1, nodeId)).isEmpty();
+        }
+    }
+
+    @Test
+    void growsOutboxBeyondSinglePage() {
+        var messenger = new SyncMessenger(2, 1, 1, Pools.DEFAULT, AllocationTracker.empty());
+        var mailbox = messenger.newMailbox();
+
+        int messageCount = 10_000;
+        for (int i = 0; i < messageCount; i++) {
+            mailbox.sendTo(i % 2, i);
+        }
+
+        messenger.initIteration(1);
+
+        mailbox.initMessageIterator(0);
+        var iterator = mailbox.messageIterator();
+        assertFalse(iterator.isEmpty());
+
+        double sum = 0;
+        int count = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.nextDouble();
+            count++;
+        }
+        assertTrue(iterator.isEmpty());
+        assertThat(count).isEqualTo(messageCount / 2);
+        assertThat(sum).isEqualTo(24_995_000.0);
+    }
+
+    @Test
+    void deliversLongMessages() {
+        var messenger = new SyncMessenger(2, 1, 1, Pools.DEFAULT, AllocationTracker.empty());
+        var mailbox = messenger.newMailbox();
+
+        mailbox.sendLongTo(1, Long.MAX_VALUE);
+        mailbox.sendLongTo(1, (1L << 53) + 1);
+
+        messenger.initIteration(1);
+
+        mailbox.initMessageIterator(1);
+        var iterator = new Pregel.Messages(mailbox.messageIterator(), ValueType.LONG).iterator();
+        assertThat(iterator.nextLong()).isEqualTo(Long.MAX_VALUE);
+        assertThat(iterator.nextLong()).isEqualTo((1L << 53) + 1);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void deliversDoubleArrayMessages() {
+        var messenger = new SyncMessenger(3, 3, 2, Pools.DEFAULT, AllocationTracker.empty());
+        var mailbox1 = messenger.newMailbox();
+        var mailbox2 = messenger.newMailbox();
+
+        mailbox1.sendTo(2, new double[]{1.0, 2.0, 3.0});
+        mailbox2.sendTo(0, new double[]{4.0, 5.0, 6.0});
+        mailbox2.sendTo(2, new double[]{1.0, 2.0, 3.0});
+
+        messenger.initIteration(1);
+
+        var message = new double[3];
+
+        mailbox1.initMessageIterator(0);
+        var iterator = new Pregel.Messages(mailbox1.messageIterator(), ValueType.DOUBLE_ARRAY).iterator();
+        iterator.nextDoubleArray(message);
+        assertThat(message).containsExactly(4.0, 5.0, 6.0);
+        assertTrue(iterator.isEmpty());
+
+        mailbox1.initMessageIterator(1);
+        assertTrue(iterator.isEmpty());
+
+        mailbox1.initMessageIterator(2);
+        for (int i = 0; i < 2; i++) {
+            iterator.nextDoubleArray(message);
+            assertThat(message).containsExactly(1.0, 2.0, 3.0);
+        }
+        assertTrue(iterator.isEmpty());
+    }
+
+    @Test
+    void failsOnMessageWithWrongDimension() {
+        var messenger = new SyncMessenger(1, 3, 1, Pools.DEFAULT, AllocationTracker.empty());
+        var mailbox = messenger.newMailbox();
+
+        assertThatThrownBy(() -> mailbox.sendTo(0, new double[]{1.0}))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Expected a message of dimension 3, got 1.");
+    }
+
+    private static List<Double> receive(Messenger.Mailbox mailbox, long nodeId) {
+        mailbox.initMessageIterator(nodeId);
+        var iterator = mailbox.messageIterator();
+        var messages = new ArrayList<Double>();
+        while (iterator.hasNext()) {
+            messages.add(iterator.nextDouble());
+        }
+        return messages;
+    }
+}
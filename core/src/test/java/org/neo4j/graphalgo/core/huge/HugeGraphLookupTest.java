@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.extension.TestGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_ADJACENCY_SKIP_INDEX;
+
+class HugeGraphLookupTest {
+
+    // larger than the minimum degree of the skip index and not a multiple of the chunk size
+    private static final int HUB_DEGREE = AdjacencySkipIndex.MIN_DEGREE + 42;
+
+    private TestGraph graph;
+
+    @BeforeEach
+    void setup() {
+        USE_ADJACENCY_SKIP_INDEX.enableAndRun(() -> graph = fromGdl(gdl()));
+    }
+
+    private static String gdl() {
+        var gdl = new StringBuilder("(hub), (leaf), (isolated)");
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            gdl.append(", (n").append(i).append(")");
+        }
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            gdl.append(", (hub)-[{w: ").append(i).append(".0}]->(n").append(i).append(")");
+        }
+        gdl.append(", (leaf)-[{w: 1337.0}]->(n0)");
+        return gdl.toString();
+    }
+
+    @Test
+    void shouldFindExistingRelationships() {
+        long hub = graph.toMappedNodeId("hub");
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            long target = graph.toMappedNodeId("n" + i);
+            assertTrue(graph.exists(hub, target), "missing relationship to n" + i);
+            assertEquals(i, graph.relationshipProperty(hub, target, Double.NaN));
+        }
+
+        long leaf = graph.toMappedNodeId("leaf");
+        long n0 = graph.toMappedNodeId("n0");
+        assertTrue(graph.exists(leaf, n0));
+        assertEquals(1337.0, graph.relationshipProperty(leaf, n0, Double.NaN));
+    }
+
+    @Test
+    void shouldNotFindMissingRelationships() {
+        long hub = graph.toMappedNodeId("hub");
+        long leaf = graph.toMappedNodeId("leaf");
+        long isolated = graph.toMappedNodeId("isolated");
+        long n1 = graph.toMappedNodeId("n1");
+
+        assertFalse(graph.exists(hub, leaf));
+        assertFalse(graph.exists(hub, hub));
+        assertFalse(graph.exists(leaf, n1));
+        assertFalse(graph.exists(isolated, n1));
+        assertEquals(42.0, graph.relationshipProperty(hub, leaf, 42.0));
+        assertEquals(42.0, graph.relationshipProperty(isolated, n1, 42.0));
+    }
+
+    @Test
+    void shouldGetTargetByPosition() {
+        long hub = graph.toMappedNodeId("hub");
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(hub, (source, target) -> targets.add(target));
+
+        assertEquals(HUB_DEGREE, targets.size());
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            assertEquals(targets.get(i), graph.getTarget(hub, i));
+        }
+        assertEquals(HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND, graph.getTarget(hub, HUB_DEGREE));
+
+        long leaf = graph.toMappedNodeId("leaf");
+        assertEquals(graph.toMappedNodeId("n0"), graph.getTarget(leaf, 0));
+        assertEquals(HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND, graph.getTarget(leaf, 1));
+    }
+
+    @Test
+    void shouldFindRelationshipsWithoutIndex() {
+        var graphWithoutIndex = fromGdl(gdl());
+        long hub = graphWithoutIndex.toMappedNodeId("hub");
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            long target = graphWithoutIndex.toMappedNodeId("n" + i);
+            assertTrue(graphWithoutIndex.exists(hub, target), "missing relationship to n" + i);
+            assertEquals(i, graphWithoutIndex.relationshipProperty(hub, target, Double.NaN));
+        }
+        assertFalse(graphWithoutIndex.exists(hub, graphWithoutIndex.toMappedNodeId("leaf")));
+        assertEquals(
+            graphWithoutIndex.toMappedNodeId("n" + (HUB_DEGREE - 1)),
+            graphWithoutIndex.getTarget(hub, HUB_DEGREE - 1)
+        );
+    }
+
+    @Test
+    void shouldShareTheIndexBetweenConcurrentCopies() {
+        long hub = graph.toMappedNodeId("hub");
+        var copy = graph.concurrentCopy();
+        for (int i = HUB_DEGREE - 1; i >= 0; i--) {
+            long target = graph.toMappedNodeId("n" + i);
+            assertTrue(copy.exists(hub, target));
+            assertTrue(graph.exists(hub, target));
+        }
+    }
+
+    @Test
+    void shouldIndexHubsInDifferentSegments() {
+        var gdl = new StringBuilder("(hub1)");
+        for (int i = 0; i < AdjacencySkipIndex.SEGMENT_SIZE; i++) {
+            gdl.append(", (n").append(i).append(")");
+        }
+        gdl.append(", (hub2)");
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            gdl.append(", (hub1)-->(n").append(i).append(")");
+            gdl.append(", (hub2)-->(n").append(i).append(")");
+        }
+        TestGraph[] graphs = new TestGraph[1];
+        USE_ADJACENCY_SKIP_INDEX.enableAndRun(() -> graphs[0] = fromGdl(gdl.toString()));
+        var segmentedGraph = graphs[0];
+
+        long hub1 = segmentedGraph.toMappedNodeId("hub1");
+        long hub2 = segmentedGraph.toMappedNodeId("hub2");
+        assertNotEquals(hub1 >>> AdjacencySkipIndex.SEGMENT_SHIFT, hub2 >>> AdjacencySkipIndex.SEGMENT_SHIFT);
+
+        var copy = segmentedGraph.concurrentCopy();
+        for (int i = 0; i < HUB_DEGREE; i++) {
+            long target = segmentedGraph.toMappedNodeId("n" + i);
+            assertTrue(segmentedGraph.exists(hub2, target), "missing relationship from hub2 to n" + i);
+            assertTrue(copy.exists(hub1, target), "missing relationship from hub1 to n" + i);
+        }
+        assertFalse(segmentedGraph.exists(hub1, hub2));
+        assertFalse(copy.exists(hub2, segmentedGraph.toMappedNodeId("n" + HUB_DEGREE)));
+    }
+}
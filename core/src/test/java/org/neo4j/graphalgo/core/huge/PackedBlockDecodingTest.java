@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.core.loading.PackedBlockEncoding;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.graphalgo.core.loading.PackedBlockEncoding.BLOCK_SIZE;
+
+class PackedBlockDecodingTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 13, 32, 56, 57, 64})
+    void shouldRoundTripBlocks(int bits) {
+        var random = new Random(bits);
+        int length = 2 * BLOCK_SIZE + 17;
+        long[] deltas = new long[length];
+        for (int i = 0; i < length; i++) {
+            deltas[i] = bits == 0 ? 0L : random.nextLong() >>> (Long.SIZE - bits);
+        }
+
+        byte[] page = new byte[PackedBlockEncoding.encodedPackedBlocksSize(deltas, length)];
+        int end = PackedBlockEncoding.encodePackedBlocks(deltas, length, page, 0);
+        assertThat(end).isEqualTo(page.length);
+
+        long[] block = new long[BLOCK_SIZE];
+        long address = 0L;
+        long expected = 0L;
+        for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - blockStart);
+            long startValue = expected;
+            address = PackedBlockDecoding.decodeDeltaBlock(startValue, page, address, count, block);
+            for (int i = 0; i < count; i++) {
+                expected += deltas[blockStart + i];
+                assertThat(block[i]).isEqualTo(expected);
+            }
+        }
+        assertThat(address).isEqualTo(page.length);
+    }
+}
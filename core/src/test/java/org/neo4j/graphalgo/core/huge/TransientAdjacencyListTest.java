@@ -35,17 +35,25 @@ import org.neo4j.graphalgo.core.utils.BitUtil;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.core.utils.paged.OffHeapPages;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
 import static org.neo4j.graphalgo.core.huge.AdjacencyDecompressingReader.CHUNK_SIZE;
 import static org.neo4j.graphalgo.core.huge.TransientAdjacencyList.PAGE_MASK;
 import static org.neo4j.graphalgo.core.huge.TransientAdjacencyList.PAGE_SHIFT;
 import static org.neo4j.graphalgo.core.huge.TransientAdjacencyList.computeAdjacencyByteSize;
 import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_OFF_HEAP_ADJACENCY;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_PACKED_ADJACENCY_BLOCKS;
 
 class TransientAdjacencyListTest {
 
@@ -90,6 +98,77 @@ class TransientAdjacencyListTest {
         assertEquals(64, adjacencyCursor.nextVLong());
     }
 
+    @Test
+    void shouldReadOffHeapAdjacencyList() {
+        var gdl = "(a)-[{w: 1.0}]->(b), (a)-[{w: 2.0}]->(c), (b)-[{w: 3.0}]->(c), (c)-[{w: 4.0}]->(a), (d)";
+        var heapGraph = fromGdl(gdl);
+
+        USE_OFF_HEAP_ADJACENCY.enableAndRun(() -> {
+            var offHeapGraph = fromGdl(gdl);
+            assertGraphEquals(heapGraph, offHeapGraph);
+            offHeapGraph.release();
+        });
+    }
+
+    @Test
+    void shouldFailOnReadingClosedOffHeapAdjacencyList() {
+        var pages = OffHeapPages.moveOf(new byte[][]{new byte[16]}, AllocationTracker.empty());
+        var adjacencyList = new TransientAdjacencyList(pages, AdjacencyCodec.VAR_LONG, PropertyValueFormat.DOUBLE);
+        assertEquals(0, adjacencyList.degree(0));
+
+        adjacencyList.close();
+
+        assertThrows(IllegalStateException.class, () -> adjacencyList.degree(0));
+        assertThrows(IllegalStateException.class, () -> adjacencyList.page(0));
+        assertThrows(IllegalStateException.class, adjacencyList::rawDecompressingCursor);
+        assertThrows(IllegalStateException.class, () -> adjacencyList.cursor(0));
+        assertThrows(IllegalStateException.class, pages::checkNotReleased);
+    }
+
+    @Test
+    void shouldFreeOffHeapPagesOnceAllCursorsAreClosed() {
+        var tracker = AllocationTracker.create();
+        var pages = OffHeapPages.moveOf(new byte[][]{new byte[16]}, tracker);
+        var adjacencyList = new TransientAdjacencyList(pages, AdjacencyCodec.VAR_LONG, PropertyValueFormat.DOUBLE);
+        var cursor = adjacencyList.rawDecompressingCursor();
+        var propertyCursor = adjacencyList.rawCursor();
+
+        adjacencyList.close();
+
+        assertEquals(0, cursor.init(0).size());
+        assertEquals(0, propertyCursor.init(0).length());
+        assertEquals(16, tracker.trackedBytes());
+
+        cursor.close();
+        cursor.close();
+        assertThrows(IllegalStateException.class, () -> cursor.init(0));
+        assertEquals(16, tracker.trackedBytes());
+
+        propertyCursor.close();
+        assertThrows(IllegalStateException.class, () -> propertyCursor.init(0));
+        assertEquals(0, tracker.trackedBytes());
+    }
+
+    @Test
+    void shouldReadPackedAdjacencyBlocks() {
+        var gdl = new StringBuilder("(hub), (a)-->(b), (b)-->(a)");
+        // more than three blocks, the last one is incomplete
+        for (int i = 0; i < 3 * CHUNK_SIZE + 5; i++) {
+            gdl.append(", (n").append(i).append(")");
+            gdl.append(", (hub)-[{w: ").append(i).append(".0}]->(n").append(i).append(")");
+        }
+        var heapGraph = fromGdl(gdl.toString());
+
+        USE_PACKED_ADJACENCY_BLOCKS.enableAndRun(() -> {
+            var packedGraph = fromGdl(gdl.toString());
+            assertGraphEquals(heapGraph, packedGraph);
+
+            long hub = packedGraph.toMappedNodeId("hub");
+            long last = packedGraph.toMappedNodeId("n" + (3 * CHUNK_SIZE + 4));
+            assertTrue(packedGraph.exists(hub, last));
+        });
+    }
+
     @Test
     void shouldComputeCompressedMemoryEstimationForSinglePage() {
         GraphDimensions dimensions = ImmutableGraphDimensions.builder()
@@ -114,6 +193,33 @@ class TransientAdjacencyListTest {
         assertEquals(expected, memRec.memoryUsage());
     }
 
+    @Test
+    void shouldComputePackedBlocksMemoryEstimationForMultiplePage() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder()
+            .nodeCount(100_000_000L)
+            .maxRelCount(100_000_000_000L)
+            .build();
+
+        MemoryTree memRec = TransientAdjacencyList
+            .compressedMemoryEstimation(ALL_RELATIONSHIPS, false, AdjacencyCodec.PACKED_BLOCKS)
+            .estimate(dimensions, 1);
+
+        long classSize = 24;
+        // degree, 16 block headers, a first block of 27 bit wide ids and 936 deltas of 1 or 17 bits
+        long bestCaseAdjacencySize = (4 + 16 + 216 + 14 * 8 + 5) * 100_000_000L;
+        long worstCaseAdjacencySize = (4 + 16 + 216 + 14 * 136 + 85) * 100_000_000L;
+
+        int minPages = PageUtil.numPagesFor(bestCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
+        int maxPages = PageUtil.numPagesFor(worstCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
+        long bytesPerPage = BitUtil.align(16 + 262144L, 8);
+        long minMemoryReqs = minPages * bytesPerPage + BitUtil.align(16 + minPages * 4, 8);
+        long maxMemoryReqs = maxPages * bytesPerPage + BitUtil.align(16 + maxPages * 4, 8);
+
+        MemoryRange expected = MemoryRange.of(minMemoryReqs + classSize, maxMemoryReqs + classSize);
+
+        assertEquals(expected, memRec.memoryUsage());
+    }
+
     @Test
     void shouldComputeUncompressedMemoryEstimationForSinglePage() {
         GraphDimensions dimensions = ImmutableGraphDimensions.builder()
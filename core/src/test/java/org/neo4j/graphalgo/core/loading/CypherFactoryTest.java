@@ -128,6 +128,48 @@ class CypherFactoryTest extends BaseTest {
         loadAndTestGraph(nodeStatement, relStatement);
     }
 
+    @Test
+    void testLoadPartitionedRelationshipsCypher() {
+        String nodeStatement = "MATCH (n) RETURN id(n) AS id";
+        String relStatement = "MATCH (n)-[r:REL]->(m) WHERE id(n) % $partitionCount = $partition " +
+                              "RETURN id(n) AS source, id(m) AS target, r.prop AS weight";
+
+        Graph graph = applyInTransaction(db, tx -> new CypherLoaderBuilder()
+            .api(db)
+            .nodeQuery(nodeStatement)
+            .relationshipQuery(relStatement)
+            .partitionCount(4)
+            .build()
+            .graph()
+        );
+
+        Graph expected = applyInTransaction(db, tx -> new CypherLoaderBuilder()
+            .api(db)
+            .nodeQuery(nodeStatement)
+            .relationshipQuery("MATCH (n)-[r:REL]->(m) RETURN id(n) AS source, id(m) AS target, r.prop AS weight")
+            .build()
+            .graph()
+        );
+
+        assertEquals(COUNT, graph.relationshipCount());
+        assertGraphEquals(expected, graph);
+    }
+
+    @Test
+    void testPartitionedRelationshipQueryMustUsePartitionParameter() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new CypherLoaderBuilder()
+                .api(db)
+                .nodeQuery("MATCH (n) RETURN id(n) AS id")
+                .relationshipQuery("MATCH (n)-->(m) RETURN id(n) AS source, id(m) AS target")
+                .partitionCount(4)
+                .build()
+        );
+
+        assertTrue(exception.getMessage().contains("must use the `$partition` parameter"));
+    }
+
     @Test
     void testMultipleNodeProperties() {
         clearDb();
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.configuration.Config;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.GraphStore;
+import org.neo4j.graphalgo.api.ImmutableGraphLoaderContext;
+import org.neo4j.graphalgo.config.GraphCreateFromFileConfig;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.ImmutableGraphLoader;
+import org.neo4j.graphalgo.core.Settings;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.ExtensionCallback;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
+
+class FileFactoryTest extends BaseTest {
+
+    // static, so that it exists when the database is configured
+    @TempDir
+    static Path directory;
+
+    @Override
+    @ExtensionCallback
+    protected void configuration(TestDatabaseManagementServiceBuilder builder) {
+        super.configuration(builder);
+        builder.setConfig(Settings.loadCsvFileUrlRoot(), directory);
+        builder.setConfig(Settings.allowFileUrls(), true);
+    }
+
+    @Test
+    void shouldLoadCsvFiles() throws IOException {
+        var nodes = write("nodes.csv",
+            "id,labels,age",
+            "0,A,42",
+            "1,\"A;B\",23",
+            "2,B,1.5"
+        );
+        var relationships = write("relationships.csv",
+            "source,target,type,weight",
+            "0,1,REL,1.0",
+            "1,2,REL,2.5",
+            "0,2,OTHER,",
+            "2,0,OTHER,4"
+        );
+
+        var graphStore = load(List.of(nodes), List.of(relationships), Map.of());
+
+        assertEquals(3, graphStore.nodeCount());
+        assertEquals(Set.of(NodeLabel.of("A"), NodeLabel.of("B")), graphStore.nodeLabels());
+        assertEquals(Set.of(RelationshipType.of("REL"), RelationshipType.of("OTHER")), graphStore.relationshipTypes());
+
+        assertGraphEquals(
+            fromGdl(
+                "  (a:A {age: 42.0}), (b:A:B {age: 23.0}), (c:B {age: 1.5})" +
+                ", (a)-[{weight: 1.0}]->(b)" +
+                ", (b)-[{weight: 2.5}]->(c)"
+            ),
+            graphStore.getGraph(RelationshipType.of("REL"), Optional.of("weight"))
+        );
+        assertGraphEquals(
+            fromGdl(
+                "  (a:A {age: 42.0}), (b:A:B {age: 23.0}), (c:B {age: 1.5})" +
+                ", (a)-->(b), (b)-->(c), (a)-->(c), (c)-->(a)"
+            ),
+            graphStore.getGraph(RelationshipType.of("REL"), RelationshipType.of("OTHER"))
+        );
+
+        var other = graphStore.getGraph(RelationshipType.of("OTHER"), Optional.of("weight"));
+        long source = other.toMappedNodeId(0);
+        long target = other.toMappedNodeId(2);
+        assertThat(other.relationshipProperty(source, target, 0.0)).isNaN();
+        assertEquals(4.0, other.relationshipProperty(target, source, 0.0));
+    }
+
+    @Test
+    void shouldLoadBinaryEdgeListsWithoutNodeFiles() throws IOException {
+        var knows = directory.resolve("knows.bin");
+        try (var writer = EdgeListFileWriter.create(knows, RelationshipType.of("KNOWS"), List.of("w"))) {
+            writer.add(10, 20, 1.0);
+            writer.add(20, 30, 2.0);
+        }
+        var likes = write("likes.csv",
+            "target,source",
+            "40,30"
+        );
+
+        var graphStore = load(
+            List.of(),
+            List.of(knows.toString(), likes),
+            Map.of("orientation", "UNDIRECTED")
+        );
+
+        assertEquals(4, graphStore.nodeCount());
+        assertEquals(6, graphStore.relationshipCount());
+        assertGraphEquals(
+            fromGdl("(a)-[{w: 1.0}]->(b), (b)-[{w: 2.0}]->(c), (d)", Orientation.UNDIRECTED),
+            graphStore.getGraph(RelationshipType.of("KNOWS"), Optional.of("w"))
+        );
+        assertGraphEquals(
+            fromGdl("(a), (b), (c)-->(d)", Orientation.UNDIRECTED),
+            graphStore.getGraph(RelationshipType.ALL_RELATIONSHIPS)
+        );
+    }
+
+    @Test
+    void shouldAggregateParallelRelationships() throws IOException {
+        var relationships = write("relationships.csv",
+            "source,target,weight",
+            "0,1,1.0",
+            "0,1,2.0",
+            "1,0,4.0"
+        );
+
+        var graphStore = load(List.of(), List.of(relationships), Map.of("aggregation", "SUM"));
+
+        assertGraphEquals(
+            fromGdl("(a)-[{weight: 3.0}]->(b), (b)-[{weight: 4.0}]->(a)"),
+            graphStore.getUnion()
+        );
+    }
+
+    @Test
+    void shouldUseConfiguredAdjacencyCodec() throws IOException {
+        var relationships = write("relationships.csv",
+            "source,target",
+            "0,1",
+            "1,2",
+            "2,0"
+        );
+
+        var graphStore = load(List.of(), List.of(relationships), Map.of("adjacencyCodec", "packed_blocks"));
+
+        var graph = (HugeGraph) graphStore.getGraph(RelationshipType.ALL_RELATIONSHIPS);
+        assertEquals(AdjacencyCodec.PACKED_BLOCKS, ((TransientAdjacencyList) graph.relationshipTopology().list()).codec());
+        assertGraphEquals(fromGdl("(a)-->(b), (b)-->(c), (c)-->(a)"), graph);
+    }
+
+    @Test
+    void shouldSplitFilesIntoRecordAlignedChunks() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("source,target,weight");
+        for (int i = 0; i < 1000; i++) {
+            lines.add(i + "," + (i + 1) + "," + (i % 7 == 0 ? "" : i * 0.5));
+        }
+        var csv = write("chain.csv", lines.toArray(String[]::new));
+        var binary = directory.resolve("chain.bin");
+        try (var writer = EdgeListFileWriter.create(binary, List.of("weight"))) {
+            for (int i = 0; i < 1000; i++) {
+                writer.add(i, i + 1, i * 0.5);
+            }
+        }
+
+        for (var path : List.of(Path.of(csv), binary)) {
+            var file = GraphFile.open(path);
+            var chunks = file.chunks(100);
+            assertThat(chunks).hasSizeGreaterThan(1);
+
+            long expectedSource = 0;
+            for (var chunk : chunks) {
+                var cursor = file.cursor(chunk);
+                while (cursor.next()) {
+                    assertEquals(expectedSource, cursor.source());
+                    assertEquals(expectedSource + 1, cursor.target());
+                    expectedSource++;
+                }
+            }
+            assertEquals(1000, expectedSource);
+        }
+    }
+
+    @Test
+    void shouldFailOnDuplicateNodes() throws IOException {
+        var nodes = write("nodes.csv", "id", "0", "1", "0");
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> load(List.of(nodes), List.of(), Map.of())
+        );
+
+        assertThat(exception).hasMessageContaining("Node(0) was added multiple times");
+    }
+
+    @Test
+    void shouldValidateRelationships() throws IOException {
+        var nodes = write("nodes.csv", "id", "0", "1");
+        var relationships = write("relationships.csv", "source,target", "0,1", "1,2");
+
+        var graphStore = load(List.of(nodes), List.of(relationships), Map.of());
+        assertEquals(1, graphStore.relationshipCount());
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> load(List.of(nodes), List.of(relationships), Map.of("validateRelationships", true))
+        );
+        assertThat(exception).hasMessageContaining("Failed to load a relationship");
+    }
+
+    @Test
+    void shouldRejectFilesOutsideOfImportDirectory() throws IOException {
+        write("nodes.csv", "id", "0");
+
+        assertEquals(directory.resolve("nodes.csv"), FileFactory.resolve("nodes.csv", directory));
+        assertEquals(directory.resolve("nodes.csv"), FileFactory.resolve("sub/../nodes.csv", directory));
+
+        var outside = directory.getParent().resolve("nodes.csv").toString();
+        for (var fileName : List.of("../nodes.csv", "sub/../../nodes.csv", outside)) {
+            var exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> FileFactory.resolve(fileName, directory)
+            );
+            assertThat(exception).hasMessageContaining("is outside of the import directory");
+        }
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> load(List.of("../nodes.csv"), List.of(), Map.of())
+        );
+        assertThat(exception).hasMessageContaining("is outside of the import directory");
+    }
+
+    @Test
+    void shouldRequireFileUrlsToBeAllowed() {
+        var config = Config.newBuilder()
+            .set(Settings.loadCsvFileUrlRoot(), directory)
+            .set(Settings.allowFileUrls(), false)
+            .build();
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> FileFactory.configuredImportDirectory(config));
+        assertThat(exception).hasMessageContaining("Loading graphs from files is disabled");
+    }
+
+    private String write(String fileName, String... lines) throws IOException {
+        var path = directory.resolve(fileName);
+        Files.write(path, List.of(lines));
+        return path.toString();
+    }
+
+    private GraphStore load(List<String> nodeFiles, List<String> relationshipFiles, Map<String, Object> config) {
+        var createConfig = GraphCreateFromFileConfig.of(
+            "",
+            "graph",
+            nodeFiles,
+            relationshipFiles,
+            CypherMapWrapper.create(config)
+        );
+        return ImmutableGraphLoader.builder()
+            .context(ImmutableGraphLoaderContext.builder()
+                .api(db)
+                .log(NullLog.getInstance())
+                .build())
+            .createConfig(createConfig)
+            .build()
+            .graphStore();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.gdl.GdlFactory;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilteredIdMapCacheTest {
+
+    private static final Set<NodeLabel> A = Set.of(NodeLabel.of("A"));
+    private static final Set<NodeLabel> B = Set.of(NodeLabel.of("B"));
+    private static final Set<NodeLabel> AB = Set.of(NodeLabel.of("A"), NodeLabel.of("B"));
+
+    private final IdMap idMap = (IdMap) GdlFactory.of("(a:A), (b:B)").build().graphStore().nodes();
+
+    @Test
+    void shouldEvictLeastRecentlyUsedIdMaps() {
+        var tracker = AllocationTracker.create();
+        var cache = new FilteredIdMapCache(() -> 100L, tracker);
+
+        put(cache, A, 40L, tracker);
+        put(cache, B, 40L, tracker);
+        cache.get(A);
+        put(cache, AB, 40L, tracker);
+
+        assertTrue(cache.get(A).isPresent());
+        assertFalse(cache.get(B).isPresent());
+        assertTrue(cache.get(AB).isPresent());
+        assertEquals(80L, cache.usedBytes());
+        assertEquals(80L, tracker.trackedBytes());
+    }
+
+    @Test
+    void shouldUntrackIdMapsThatAreNotCached() {
+        var tracker = AllocationTracker.create();
+        var cache = new FilteredIdMapCache(() -> 100L, tracker);
+
+        put(cache, A, 200L, tracker);
+
+        long staleGeneration = cache.generation();
+        cache.invalidate();
+        tracker.add(40L);
+        cache.put(B, staleGeneration, idMap, 40L);
+
+        assertEquals(0, cache.size());
+        assertEquals(0L, tracker.trackedBytes());
+    }
+
+    @Test
+    void shouldUntrackIdMapsOnInvalidation() {
+        var tracker = AllocationTracker.create();
+        var cache = new FilteredIdMapCache(() -> 100L, tracker);
+
+        put(cache, A, 40L, tracker);
+        put(cache, B, 40L, tracker);
+        cache.invalidate();
+
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.usedBytes());
+        assertEquals(0L, tracker.trackedBytes());
+    }
+
+    private void put(FilteredIdMapCache cache, Set<NodeLabel> nodeLabels, long bytes, AllocationTracker tracker) {
+        // the memory is tracked while the filtered id map is built
+        tracker.add(bytes);
+        cache.put(nodeLabels, cache.generation(), idMap, bytes);
+    }
+}
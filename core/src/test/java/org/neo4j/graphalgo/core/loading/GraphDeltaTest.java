@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.DefaultValue;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.gdl.GdlFactory;
+import org.neo4j.graphalgo.gdl.ImmutableGraphCreateFromGdlConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
+import static org.neo4j.graphalgo.extension.GdlSupportExtension.DATABASE_ID;
+
+class GraphDeltaTest {
+
+    private static final String GDL =
+        "  (a), (b), (c), (d)" +
+        ", (a)-[:REL {w: 1.0}]->(b)" +
+        ", (a)-[:REL {w: 2.0}]->(c)" +
+        ", (b)-[:REL {w: 3.0}]->(c)" +
+        ", (c)-[:REL {w: 4.0}]->(d)";
+
+    private static final RelationshipType REL = RelationshipType.of("REL");
+
+    @Test
+    void shouldApplyInsertsAndDeletes() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("a"), factory.nodeId("d"), Map.of("w", 5.0))
+            .insertRelationship(REL, factory.nodeId("d"), factory.nodeId("a"), Map.of("w", 6.0))
+            .deleteRelationship(REL, factory.nodeId("a"), factory.nodeId("c"))
+            .build());
+
+        var expected = fromGdl(
+            "  (a), (b), (c), (d)" +
+            ", (a)-[{w: 1.0}]->(b)" +
+            ", (a)-[{w: 5.0}]->(d)" +
+            ", (b)-[{w: 3.0}]->(c)" +
+            ", (c)-[{w: 4.0}]->(d)" +
+            ", (d)-[{w: 6.0}]->(a)"
+        );
+        var graph = graphStore.getGraph(REL, Optional.of("w"));
+
+        assertThat(graph).isInstanceOf(DeltaGraph.class);
+        assertGraphEquals(expected, graph);
+        assertEquals(5, graphStore.relationshipCount());
+        assertEquals(5, graph.relationshipCount());
+
+        long a = graphStore.nodes().toMappedNodeId(factory.nodeId("a"));
+        long c = graphStore.nodes().toMappedNodeId(factory.nodeId("c"));
+        long d = graphStore.nodes().toMappedNodeId(factory.nodeId("d"));
+        assertEquals(2, graph.degree(a));
+        assertTrue(graph.exists(a, d));
+        assertFalse(graph.exists(a, c));
+        assertEquals(5.0, graph.relationshipProperty(a, d, Double.NaN));
+        assertEquals(Double.NaN, graph.relationshipProperty(a, c, Double.NaN));
+    }
+
+    @Test
+    void shouldKeepGraphsOfEarlierSnapshots() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+        var graph = graphStore.getGraph(REL, Optional.of("w"));
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .deleteRelationship(REL, factory.nodeId("a"), factory.nodeId("b"))
+            .build());
+        var firstSnapshot = graphStore.getGraph(REL, Optional.of("w"));
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("b"), factory.nodeId("a"), Map.of("w", 7.0))
+            .build());
+        var secondSnapshot = graphStore.getGraph(REL, Optional.of("w"));
+
+        assertGraphEquals(fromGdl(GDL), graph);
+        assertGraphEquals(
+            fromGdl("(a), (b), (c), (d), (a)-[{w: 2.0}]->(c), (b)-[{w: 3.0}]->(c), (c)-[{w: 4.0}]->(d)"),
+            firstSnapshot
+        );
+        assertGraphEquals(
+            fromGdl("(a), (b), (c), (d), (a)-[{w: 2.0}]->(c), (b)-[{w: 7.0}]->(a), (b)-[{w: 3.0}]->(c), (c)-[{w: 4.0}]->(d)"),
+            secondSnapshot
+        );
+    }
+
+    @Test
+    void shouldDetachDeletedNodes() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("d"), factory.nodeId("b"), Map.of("w", 5.0))
+            .deleteNode(factory.nodeId("c"))
+            .build());
+
+        assertGraphEquals(
+            fromGdl("(a), (b), (c), (d), (a)-[{w: 1.0}]->(b), (d)-[{w: 5.0}]->(b)"),
+            graphStore.getGraph(REL, Optional.of("w"))
+        );
+        assertEquals(4, graphStore.nodeCount());
+        assertEquals(2, graphStore.relationshipCount());
+    }
+
+    @Test
+    void shouldTrackParallelRelationships() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("a"), factory.nodeId("b"), Map.of("w", 8.0))
+            .build());
+
+        var graph = graphStore.getGraph(REL, Optional.of("w"));
+        long a = graphStore.nodes().toMappedNodeId(factory.nodeId("a"));
+        long b = graphStore.nodes().toMappedNodeId(factory.nodeId("b"));
+
+        assertTrue(graph.isMultiGraph());
+        assertEquals(3, graph.degree(a));
+        assertEquals(2, graph.degreeWithoutParallelRelationships(a));
+        // the loaded relationship comes before the inserted one
+        assertEquals(1.0, graph.relationshipProperty(a, b, Double.NaN));
+        List<Double> properties = new ArrayList<>();
+        graph.forEachRelationship(a, Double.NaN, (source, target, property) -> {
+            if (target == b) {
+                properties.add(property);
+            }
+            return true;
+        });
+        assertThat(properties).containsExactly(1.0, 8.0);
+    }
+
+    @Test
+    void shouldIntersectUndirectedRelationships() {
+        var config = ImmutableGraphCreateFromGdlConfig.builder()
+            .username("")
+            .graphName("graph")
+            .gdlGraph("(a), (b), (c), (d), (a)-[:REL]->(b), (b)-[:REL]->(c), (c)-[:REL]->(d)")
+            .orientation(Orientation.UNDIRECTED)
+            .build();
+        var factory = GdlFactory.of(config, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("a"), factory.nodeId("c"))
+            .insertRelationship(REL, factory.nodeId("b"), factory.nodeId("d"))
+            .deleteRelationship(REL, factory.nodeId("d"), factory.nodeId("c"))
+            .build());
+
+        var graph = graphStore.getGraph(REL);
+        assertGraphEquals(
+            fromGdl("(a), (b), (c), (d), (a)-->(b), (a)-->(c), (b)-->(c), (b)-->(d)", Orientation.UNDIRECTED),
+            graph
+        );
+
+        long[] triangleCount = {0};
+        var intersect = graph.intersection();
+        graph.forEachNode(nodeId -> {
+            intersect.intersectAll(nodeId, (x, y, z) -> triangleCount[0]++);
+            return true;
+        });
+        assertEquals(1, triangleCount[0]);
+    }
+
+    @Test
+    void shouldCompactDelta() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("d"), factory.nodeId("a"), Map.of("w", 5.0))
+            .deleteRelationship(REL, factory.nodeId("b"), factory.nodeId("c"))
+            .build());
+        var deltaGraph = graphStore.getGraph(REL, Optional.of("w"));
+
+        graphStore.compactDeltas();
+        var compactedGraph = graphStore.getGraph(REL, Optional.of("w"));
+
+        assertThat(compactedGraph).isInstanceOf(HugeGraph.class);
+        assertGraphEquals(deltaGraph, compactedGraph);
+        assertEquals(4, compactedGraph.relationshipCount());
+        assertEquals(4, graphStore.relationshipCount());
+    }
+
+    @Test
+    void shouldApplyDeltaToInverseIndex() {
+        var config = ImmutableGraphCreateFromGdlConfig.builder()
+            .username("")
+            .graphName("graph")
+            .gdlGraph(GDL)
+            .indexInverse(true)
+            .build();
+        var factory = GdlFactory.of(config, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+        long a = factory.nodeId("a");
+        long b = factory.nodeId("b");
+        long c = factory.nodeId("c");
+        long d = factory.nodeId("d");
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, d, c, Map.of("w", 5.0))
+            .deleteRelationship(REL, a, c)
+            .build());
+
+        var deltaGraph = graphStore.getGraph(REL, Optional.of("w"));
+        assertThat(deltaGraph).isInstanceOf(DeltaGraph.class);
+        assertTrue(deltaGraph.isInverseIndexed());
+        assertInverseRelationships(deltaGraph, c, Map.of(b, 3.0, d, 5.0));
+        assertInverseRelationships(deltaGraph, b, Map.of(a, 1.0));
+
+        graphStore.compactDeltas();
+        var compactedGraph = graphStore.getGraph(REL, Optional.of("w"));
+        assertThat(compactedGraph).isInstanceOf(HugeGraph.class);
+        assertTrue(compactedGraph.isInverseIndexed());
+        assertInverseRelationships(compactedGraph, c, Map.of(b, 3.0, d, 5.0));
+        assertInverseRelationships(compactedGraph, b, Map.of(a, 1.0));
+    }
+
+    private static void assertInverseRelationships(Graph graph, long nodeId, Map<Long, Double> expected) {
+        var actual = new HashMap<Long, Double>();
+        graph.forEachInverseRelationship(nodeId, Double.NaN, (target, source, property) -> {
+            actual.put(source, property);
+            return true;
+        });
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), graph.degreeInverse(nodeId));
+    }
+
+    @Test
+    void shouldInsertNodes() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+        var graph = graphStore.getGraph(REL, Optional.of("w"));
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertNode(42)
+            .insertRelationship(REL, 42, factory.nodeId("a"), Map.of("w", 5.0))
+            .insertRelationship(REL, factory.nodeId("d"), 42, Map.of("w", 6.0))
+            .build());
+
+        var expected = fromGdl(
+            "  (a), (b), (c), (d), (e)" +
+            ", (a)-[{w: 1.0}]->(b)" +
+            ", (a)-[{w: 2.0}]->(c)" +
+            ", (b)-[{w: 3.0}]->(c)" +
+            ", (c)-[{w: 4.0}]->(d)" +
+            ", (d)-[{w: 6.0}]->(e)" +
+            ", (e)-[{w: 5.0}]->(a)"
+        );
+        assertEquals(5, graphStore.nodeCount());
+        assertEquals(6, graphStore.relationshipCount());
+        assertGraphEquals(expected, graphStore.getGraph(REL, Optional.of("w")));
+        assertGraphEquals(fromGdl(GDL), graph);
+
+        graphStore.compactDeltas();
+        assertGraphEquals(expected, graphStore.getGraph(REL, Optional.of("w")));
+    }
+
+    @Test
+    void shouldInsertNodesWithLabels() {
+        var factory = GdlFactory.of("(a:A {p: 1}), (b:B {p: 2}), (a)-[:REL]->(b)", DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+        var labelB = NodeLabel.of("B");
+
+        graphStore.applyDelta(GraphDelta.builder()
+            .insertNode(42, labelB)
+            .insertRelationship(REL, factory.nodeId("a"), 42)
+            .build());
+
+        long insertedNode = graphStore.nodes().toMappedNodeId(42);
+        assertEquals(2, insertedNode);
+        assertTrue(graphStore.nodes().hasLabel(insertedNode, labelB));
+        assertFalse(graphStore.nodes().hasLabel(insertedNode, NodeLabel.of("A")));
+        assertEquals(2, graphStore.getGraph(List.of(labelB), List.of(REL), Optional.empty()).nodeCount());
+        assertEquals(
+            DefaultValue.LONG_DEFAULT_FALLBACK,
+            graphStore.nodePropertyValues(labelB, "p").longValue(insertedNode)
+        );
+        assertEquals(2, graphStore.getGraph(REL).degree(graphStore.nodes().toMappedNodeId(factory.nodeId("a"))));
+    }
+
+    @Test
+    void shouldRejectNodesThatAlreadyExist() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var graphStore = factory.build().graphStore();
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> graphStore.applyDelta(GraphDelta.builder()
+                .insertNode(42)
+                .insertNode(factory.nodeId("a"))
+                .build())
+        );
+
+        assertThat(exception).hasMessageContaining("it is already part of the graph");
+        assertEquals(4, graphStore.nodeCount());
+    }
+
+    @Test
+    void shouldRejectUnknownNodes() {
+        var graphStore = GdlFactory.of(GDL, DATABASE_ID).build().graphStore();
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> graphStore.applyDelta(GraphDelta.builder().insertRelationship(REL, 0, 42).build())
+        );
+
+        assertThat(exception).hasMessageContaining("Node with id 42 is not part of the graph");
+    }
+}
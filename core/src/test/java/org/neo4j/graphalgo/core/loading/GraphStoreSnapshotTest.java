@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.GraphStore;
+import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.gdl.GdlFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.extension.GdlSupportExtension.DATABASE_ID;
+import static org.neo4j.graphalgo.utils.GdsFeatureToggles.USE_OFF_HEAP_ADJACENCY;
+import static org.neo4j.graphalgo.utils.StringFormatting.formatWithLocale;
+
+class GraphStoreSnapshotTest {
+
+    private static final String GDL =
+        "  (a:A {p: 1, arr: [1.0, 2.0]})" +
+        ", (b:A:B {p: 2, arr: [3.0]})" +
+        ", (c:B {p: 3, arr: [4.0, 5.0, 6.0]})" +
+        ", (a)-[:REL {w: 1.5}]->(b)" +
+        ", (a)-[:REL {w: 2.5}]->(c)" +
+        ", (b)-[:OTHER]->(c)" +
+        ", (c)-[:OTHER]->(a)";
+
+    private static final RelationshipType REL = RelationshipType.of("REL");
+    private static final RelationshipType OTHER = RelationshipType.of("OTHER");
+
+    @TempDir
+    Path directory;
+
+    private GraphStore graphStore;
+
+    @BeforeEach
+    void setup() {
+        graphStore = GdlFactory.of(GDL, DATABASE_ID).build().graphStore();
+    }
+
+    @AfterEach
+    void teardown() {
+        GraphStoreCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldRestoreGraphStore() {
+        new GraphStoreSnapshotWriter(graphStore, directory).write();
+        var loadedGraphStore = load();
+
+        assertEquals(graphStore.nodeCount(), loadedGraphStore.nodeCount());
+        assertEquals(graphStore.relationshipCount(), loadedGraphStore.relationshipCount());
+        assertEquals(graphStore.nodeLabels(), loadedGraphStore.nodeLabels());
+        assertEquals(graphStore.nodePropertyKeys(), loadedGraphStore.nodePropertyKeys());
+        assertEquals(graphStore.relationshipTypes(), loadedGraphStore.relationshipTypes());
+        assertEquals(graphStore.schema(), loadedGraphStore.schema());
+
+        for (long nodeId = 0; nodeId < graphStore.nodeCount(); nodeId++) {
+            assertEquals(graphStore.nodes().toOriginalNodeId(nodeId), loadedGraphStore.nodes().toOriginalNodeId(nodeId));
+            assertEquals(graphStore.nodes().nodeLabels(nodeId), loadedGraphStore.nodes().nodeLabels(nodeId));
+            assertArrayEquals(
+                graphStore.nodePropertyValues("arr").doubleArrayValue(nodeId),
+                loadedGraphStore.nodePropertyValues("arr").doubleArrayValue(nodeId)
+            );
+        }
+
+        assertGraphEquals(
+            graphStore.getGraph(REL, Optional.of("w")),
+            loadedGraphStore.getGraph(REL, Optional.of("w"))
+        );
+        assertGraphEquals(
+            graphStore.getGraph(OTHER, Optional.empty()),
+            loadedGraphStore.getGraph(OTHER, Optional.empty())
+        );
+        assertGraphEquals(
+            graphStore.getGraph(NodeLabel.of("B"), OTHER, Optional.empty()),
+            loadedGraphStore.getGraph(NodeLabel.of("B"), OTHER, Optional.empty())
+        );
+    }
+
+    @Test
+    void shouldWritePendingDeltaWithoutCompactingIt() {
+        var factory = GdlFactory.of(GDL, DATABASE_ID);
+        var deltaGraphStore = factory.build().graphStore();
+        deltaGraphStore.applyDelta(GraphDelta.builder()
+            .insertRelationship(REL, factory.nodeId("c"), factory.nodeId("a"), Map.of("w", 3.5))
+            .deleteRelationship(REL, factory.nodeId("a"), factory.nodeId("b"))
+            .build());
+
+        new GraphStoreSnapshotWriter(deltaGraphStore, directory).write();
+        var loadedGraphStore = load();
+
+        var deltaGraph = deltaGraphStore.getGraph(REL, Optional.of("w"));
+        assertThat(deltaGraph).isInstanceOf(DeltaGraph.class);
+        assertGraphEquals(deltaGraph, loadedGraphStore.getGraph(REL, Optional.of("w")));
+        assertEquals(deltaGraphStore.relationshipCount(), loadedGraphStore.relationshipCount());
+    }
+
+    @Test
+    void shouldLoadMappedAdjacencyLists() {
+        new GraphStoreSnapshotWriter(graphStore, directory).write();
+
+        USE_OFF_HEAP_ADJACENCY.enableAndRun(() -> {
+            var loadedGraphStore = load();
+            var loadedGraph = loadedGraphStore.getGraph(REL, Optional.of("w"));
+
+            assertThat(((HugeGraph) loadedGraph).relationships().topology().list())
+                .isInstanceOf(TransientAdjacencyList.class)
+                .matches(list -> ((TransientAdjacencyList) list).isOffHeap());
+            assertGraphEquals(graphStore.getGraph(REL, Optional.of("w")), loadedGraph);
+            assertGraphEquals(
+                graphStore.getGraph(OTHER, Optional.empty()),
+                loadedGraphStore.getGraph(OTHER, Optional.empty())
+            );
+            loadedGraphStore.release();
+        });
+    }
+
+    @Test
+    void shouldLoadIntoCatalog() {
+        new GraphStoreSnapshotWriter(graphStore, directory).write();
+
+        var config = GraphCreateFromStoreConfig.emptyWithName("user", "snapshot");
+        var loadedGraphStore = new GraphStoreSnapshotLoader(directory, DATABASE_ID, 4, AllocationTracker.empty())
+            .loadIntoCatalog(config);
+
+        assertSame(loadedGraphStore, GraphStoreCatalog.get("user", DATABASE_ID, "snapshot").graphStore());
+    }
+
+    @Test
+    void shouldNotOverwriteSnapshot() {
+        new GraphStoreSnapshotWriter(graphStore, directory).write();
+
+        var exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new GraphStoreSnapshotWriter(graphStore, directory).write()
+        );
+        assertThat(exception).hasMessageContaining("already contains a graph store snapshot");
+    }
+
+    @Test
+    void shouldFailOnMissingManifest() {
+        var exception = assertThrows(IllegalArgumentException.class, this::load);
+        assertThat(exception).hasMessageContaining("does not contain a graph store snapshot");
+    }
+
+    @Test
+    void shouldRestoreInverseIndex() {
+        var inverseGraphStore = GdlFactory.of(
+            "  (a:A {p: 1, arr: [1.0, 2.0]})" +
+            ", (b:A:B {p: 2, arr: [3.0]})" +
+            ", (c:B {p: 3, arr: [4.0, 5.0, 6.0]})" +
+            ", (b)-[:REL {w: 1.5}]->(a)" +
+            ", (c)-[:REL {w: 2.5}]->(a)",
+            DATABASE_ID
+        ).build().graphStore();
+
+        var graph = (HugeGraph) graphStore.getGraph(REL, Optional.of("w"));
+        var inverseGraph = (HugeGraph) inverseGraphStore.getGraph(REL, Optional.of("w"));
+        var relationships = graph.relationships().withInverse(inverseGraph.relationships());
+        var indexedGraphStore = CSRGraphStore.of(
+            DATABASE_ID,
+            graph.idMap(),
+            Map.of(),
+            Map.of(REL, relationships.topology()),
+            Map.of(REL, Map.of("w", relationships.properties().get())),
+            1,
+            AllocationTracker.empty()
+        );
+
+        new GraphStoreSnapshotWriter(indexedGraphStore, directory).write();
+        var loadedGraph = load().getGraph(REL, Optional.of("w"));
+
+        assertTrue(loadedGraph.isInverseIndexed());
+        assertEquals(2, loadedGraph.degreeInverse(0));
+        assertEquals(0, loadedGraph.degreeInverse(1));
+
+        var inverseWeights = new ArrayList<Double>();
+        loadedGraph.forEachInverseRelationship(0, Double.NaN, (source, target, weight) -> {
+            inverseWeights.add(weight);
+            return true;
+        });
+        assertThat(inverseWeights).containsExactlyInAnyOrder(1.5, 2.5);
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() throws IOException {
+        new GraphStoreSnapshotWriter(graphStore, directory).write();
+
+        var manifestFile = directory.resolve(SnapshotManifest.FILE_NAME);
+        var manifest = Files.readString(manifestFile).replace(
+            SnapshotManifest.VERSION_KEY + "=" + SnapshotManifest.VERSION,
+            SnapshotManifest.VERSION_KEY + "=" + (SnapshotManifest.VERSION + 1)
+        );
+        Files.writeString(manifestFile, manifest);
+
+        var exception = assertThrows(IllegalArgumentException.class, this::load);
+        assertThat(exception).hasMessageContaining(formatWithLocale(
+            "Unsupported graph store snapshot version %d, expected version %d.",
+            SnapshotManifest.VERSION + 1,
+            SnapshotManifest.VERSION
+        ));
+    }
+
+    private CSRGraphStore load() {
+        return new GraphStoreSnapshotLoader(directory, DATABASE_ID, 4, AllocationTracker.empty()).load();
+    }
+}
@@ -41,6 +41,7 @@ import org.neo4j.graphalgo.api.Relationships;
 import org.neo4j.graphalgo.api.schema.RelationshipSchema;
 import org.neo4j.graphalgo.core.Aggregation;
 import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyList;
 import org.neo4j.graphalgo.core.huge.TransientAdjacencyOffsets;
 import org.neo4j.graphalgo.core.loading.NullPropertyMap.DoubleNullPropertyMap;
@@ -113,6 +114,79 @@ class GraphStoreTest extends BaseTest {
         assertEquals(expectedRelationshipSchema, filteredGraph.schema().relationshipSchema());
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("validRelationshipFilterParameters")
+    void testMaterializingGraphsByRelationships(
+        String desc,
+        List<RelationshipType> relTypes,
+        Optional<String> relProperty,
+        String expectedGraph
+    ) {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .addNodeProjection(NodeProjection.of("A"))
+            .addNodeProjection(NodeProjection.of("B"))
+            .relationshipProjections(relationshipProjections())
+            .build()
+            .graphStore();
+
+        Graph filteredGraph = graphStore.getGraph(relTypes, relProperty);
+        Graph materializedGraph = graphStore.getMaterializedGraph(graphStore.nodeLabels(), relTypes, relProperty);
+
+        assertThat(materializedGraph).isInstanceOf(HugeGraph.class);
+        assertGraphEquals(fromGdl(expectedGraph), materializedGraph);
+        assertEquals(filteredGraph.schema(), materializedGraph.schema());
+        assertThat(graphStore.getGraph(relTypes, relProperty)).isSameAs(materializedGraph);
+    }
+
+    @Test
+    void testMaterializingDeduplicatedGraphs() {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .addNodeProjection(NodeProjection.of("A"))
+            .addNodeProjection(NodeProjection.of("B"))
+            .relationshipProjections(relationshipProjections())
+            .build()
+            .graphStore();
+
+        Graph deduplicatedGraph = graphStore.getMaterializedGraph(
+            graphStore.nodeLabels(),
+            graphStore.relationshipTypes(),
+            Optional.empty(),
+            true
+        );
+
+        assertThat(deduplicatedGraph.relationshipCount()).isEqualTo(1L);
+        assertFalse(deduplicatedGraph.isMultiGraph());
+        assertGraphEquals(fromGdl("(a:A), (b:B), (a)-->(b)"), deduplicatedGraph);
+        assertThat(graphStore.getGraph(graphStore.relationshipTypes(), Optional.empty()))
+            .isNotSameAs(deduplicatedGraph);
+    }
+
+    @Test
+    void testUnionReturnsMaterializedGraph() {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .addNodeProjection(NodeProjection.of("A"))
+            .addNodeProjection(NodeProjection.of("B"))
+            .addRelationshipProjection(RelationshipProjection.of("T1", Orientation.NATURAL))
+            .addRelationshipProjection(RelationshipProjection.of("T2", Orientation.NATURAL))
+            .build()
+            .graphStore();
+
+        Graph materializedGraph = graphStore.getMaterializedGraph(
+            graphStore.nodeLabels(),
+            graphStore.relationshipTypes(),
+            Optional.empty()
+        );
+
+        assertThat(graphStore.getUnion()).isSameAs(materializedGraph);
+        assertGraphEquals(fromGdl("(a:A), (b:B), (a)-->(b), (a)-->(b)"), materializedGraph);
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("validNodeFilterParameters")
     void testFilteringGraphsByNodeLabels(String desc, List<NodeLabel> labels, String expectedGraph) {
@@ -132,6 +206,45 @@ class GraphStoreTest extends BaseTest {
         assertEquals(graphStore.schema().filterNodeLabels(new HashSet<>(labels)), filteredGraph.schema());
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("validNodeFilterParameters")
+    void testMaterializingGraphsByNodeLabels(String desc, List<NodeLabel> labels, String expectedGraph) {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .nodeProjections(nodeProjections())
+            .addRelationshipProjection(RelationshipProjection.of("T1", Orientation.NATURAL))
+            .build()
+            .graphStore();
+
+        Graph materializedGraph = graphStore.getMaterializedGraph(labels, graphStore.relationshipTypes(), Optional.empty());
+
+        assertThat(materializedGraph).isInstanceOf(HugeGraph.class);
+        assertGraphEquals(fromGdl(expectedGraph), materializedGraph);
+        assertEquals(graphStore.schema().filterNodeLabels(new HashSet<>(labels)), materializedGraph.schema());
+        assertThat(graphStore.getMaterializedGraph(labels, graphStore.relationshipTypes(), Optional.empty()))
+            .isSameAs(materializedGraph);
+    }
+
+    @Test
+    void testMaterializedGraphsAreDroppedOnModification() {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .nodeProjections(nodeProjections())
+            .addRelationshipProjection(RelationshipProjection.of("T1", Orientation.NATURAL))
+            .build()
+            .graphStore();
+
+        var labels = singletonList(LABEL_A);
+        Graph materializedGraph = graphStore.getMaterializedGraph(labels, graphStore.relationshipTypes(), Optional.empty());
+        graphStore.removeNodeProperty(LABEL_A, "a");
+        Graph rematerializedGraph = graphStore.getMaterializedGraph(labels, graphStore.relationshipTypes(), Optional.empty());
+
+        assertThat(rematerializedGraph).isNotSameAs(materializedGraph);
+        assertGraphEquals(fromGdl("(a:A {nodeProperty: 33})"), rematerializedGraph);
+    }
+
     @Test
     void testFilterNodesWithAllProjectionIncluded() {
         GraphLoader graphLoader = new StoreLoaderBuilder()
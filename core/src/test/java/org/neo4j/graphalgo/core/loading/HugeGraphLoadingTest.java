@@ -35,10 +35,13 @@ import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
 import static org.neo4j.graphalgo.TestSupport.fromGdl;
@@ -197,6 +200,63 @@ final class HugeGraphLoadingTest extends BaseTest {
         assertGraphEquals(fromGdl("(a {id: 0})-->(b {id: 1.0}), (a)<--(b), (a)<--(b), (a)-->(b)"), union);
     }
 
+    @Test
+    void shouldIndexInverseRelationships() {
+        runQuery("CREATE" +
+                 "  (a:Node {id: 0})" +
+                 ", (b:Node {id: 1})" +
+                 ", (c:Node {id: 2})" +
+                 ", (a)-[:TYPE {w: 1.0}]->(b)" +
+                 ", (a)-[:TYPE {w: 2.0}]->(c)" +
+                 ", (b)-[:TYPE {w: 3.0}]->(c)");
+
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .addRelationshipProjection(RelationshipProjection.builder()
+                .type("TYPE")
+                .indexInverse(true)
+                .addProperty(PropertyMapping.of("w", 0.0))
+                .build())
+            .addNodeProperty(PropertyMapping.of("id", 42.0))
+            .build()
+            .graphStore();
+
+        Graph graph = graphStore.getGraph(RelationshipType.of("TYPE"), Optional.of("w"));
+        assertTrue(graph.isInverseIndexed());
+        assertEquals(3, graph.relationshipCount());
+        assertGraphEquals(
+            fromGdl("(a {id: 0}), (b {id: 1}), (c {id: 2}), (a)-[{w: 1.0}]->(b), (a)-[{w: 2.0}]->(c), (b)-[{w: 3.0}]->(c)"),
+            graph
+        );
+
+        NodeProperties ids = graph.nodeProperties("id");
+        long[] nodes = new long[3];
+        graph.forEachNode(nodeId -> {
+            nodes[(int) ids.doubleValue(nodeId)] = nodeId;
+            return true;
+        });
+
+        assertEquals(0, graph.degreeInverse(nodes[0]));
+        assertEquals(1, graph.degreeInverse(nodes[1]));
+        assertEquals(2, graph.degreeInverse(nodes[2]));
+
+        Map<Long, Double> incoming = new HashMap<>();
+        graph.forEachInverseRelationship(nodes[2], Double.NaN, (nodeId, source, weight) -> {
+            assertEquals(nodes[2], nodeId);
+            incoming.put(source, weight);
+            return true;
+        });
+        assertEquals(Map.of(nodes[0], 2.0, nodes[1], 3.0), incoming);
+
+        Graph withoutIndex = new StoreLoaderBuilder()
+            .api(db)
+            .addRelationshipType("TYPE")
+            .build()
+            .graph();
+        assertFalse(withoutIndex.isInverseIndexed());
+        assertThrows(UnsupportedOperationException.class, () -> withoutIndex.degreeInverse(0));
+    }
+
     @Test
     void canIdentifyMultigraph() {
         runQuery("CREATE (a)-[:TYPE {t: 1}]->(b), (a)-[:TYPE {t: 2}]->(b), (a)-[:TYPE2]->(b)");
@@ -21,7 +21,13 @@ package org.neo4j.graphalgo.core.loading;
 
 import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeSparseLongArray;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IdMapBuilderTest {
@@ -39,4 +45,72 @@ class IdMapBuilderTest {
 
         assertTrue(hugeSparseLongArray.contains(nodeId));
     }
+
+    @Test
+    void useSparseArrayForDenseIds() {
+        var graphIds = HugeLongArray.of(3, 0, 2, 1);
+        var mapping = IdMapBuilder.buildNodeMapping(graphIds, 4, 3, 1, AllocationTracker.empty());
+
+        assertThat(mapping).isInstanceOf(SparseIdMapping.class);
+        assertEquals(1, mapping.toMappedNodeId(0));
+        assertEquals(0, mapping.toMappedNodeId(3));
+    }
+
+    @Test
+    void useSortedMappingForSparseIds() {
+        long[] originalIds = {1L << 40, 42, 1L << 33, 7, (1L << 40) + 4096, 1L << 20};
+        var graphIds = HugeLongArray.of(originalIds);
+        var mapping = IdMapBuilder.buildNodeMapping(
+            graphIds,
+            originalIds.length,
+            (1L << 40) + 4096,
+            1,
+            AllocationTracker.empty()
+        );
+
+        assertThat(mapping).isInstanceOf(SortedIdMapping.class);
+        for (int internalId = 0; internalId < originalIds.length; internalId++) {
+            assertTrue(mapping.contains(originalIds[internalId]));
+            assertEquals(internalId, mapping.toMappedNodeId(originalIds[internalId]));
+        }
+        assertFalse(mapping.contains(0));
+        assertFalse(mapping.contains(43));
+        assertFalse(mapping.contains(Long.MAX_VALUE));
+        assertEquals(ForwardIdMapping.NOT_FOUND, mapping.toMappedNodeId((1L << 40) + 1));
+    }
+
+    @Test
+    void searchAscendingSparseIdsInPlace() {
+        int nodeCount = 10_000;
+        var graphIds = HugeLongArray.newArray(nodeCount, AllocationTracker.empty());
+        graphIds.setAll(nodeId -> nodeId * nodeId * 1_000L);
+        var mapping = SortedIdMapping.of(graphIds, nodeCount, true, AllocationTracker.empty());
+
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            assertEquals(nodeId, mapping.toMappedNodeId(nodeId * nodeId * 1_000L));
+            assertFalse(mapping.contains(nodeId * nodeId * 1_000L + 1));
+        }
+    }
+
+    @Test
+    void detectDuplicatesInSortedMapping() {
+        var graphIds = HugeLongArray.of(1L << 40, 1L << 20, 1L << 40);
+        var exception = assertThrows(
+            DuplicateNodeIdException.class,
+            () -> IdMapBuilder.buildNodeMapping(graphIds, 3, 1L << 40, 1, true, AllocationTracker.empty())
+        );
+        assertEquals(1L << 40, exception.nodeId);
+    }
+
+    @Test
+    void estimateSortedMappingForSparseIds() {
+        long nodeCount = 1_000_000L;
+        long highestNodeId = 1L << 36;
+        var sparseEstimation = HugeSparseLongArray.memoryEstimation(highestNodeId, nodeCount);
+        var estimation = IdMapBuilder.nodeMappingMemoryEstimation(highestNodeId, nodeCount);
+
+        assertEquals(SortedIdMapping.peakMemoryEstimation(nodeCount), estimation.min);
+        assertThat(estimation.max).isLessThan(sparseEstimation.max);
+        assertThat(estimation.max).isGreaterThanOrEqualTo(SortedIdMapping.peakMemoryEstimation(nodeCount));
+    }
 }
@@ -48,15 +48,16 @@ class IdMapTest {
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(1L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(48L + 48L + 97_689_080L), memRec.memoryUsage());
+        // the sparse array would exceed its limit, ids are mapped through a sorted array
+        assertEquals(MemoryRange.of(48L + 48L + 224L), memRec.memoryUsage());
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(10_000_000L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(48L + 80_000_040L + 177_714_824L, 48L + 80_000_040L + 327_937_656_296L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(48L + 80_000_040L + 177_714_824L, 48L + 80_000_040L + 640_000_448L), memRec.memoryUsage());
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(100_000_000L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(48L + 800_000_040L + 898_077_656L, 48L + 800_000_040L + 800_488_297_688L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(48L + 800_000_040L + 898_077_656L, 48L + 800_000_040L + 6_400_000_448L), memRec.memoryUsage());
 
 
         IntObjectMap<List<NodeLabel>> labelTokenNodeLabelMappings = new IntObjectHashMap<List<NodeLabel>>();
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.NodeOrder;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.gdl.GdlFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.TestSupport.fromGdl;
+import static org.neo4j.graphalgo.extension.GdlSupportExtension.DATABASE_ID;
+
+class NodeReorderingTest {
+
+    private static final String GDL =
+        "  (a:A {p: 1, arr: [1.0, 2.0]})" +
+        ", (b:A:B {p: 2, arr: [3.0]})" +
+        ", (c:B {p: 3, arr: [4.0, 5.0, 6.0]})" +
+        ", (d:A {p: 4, arr: [7.0]})" +
+        ", (e:B {p: 5, arr: [8.0]})" +
+        ", (a)-[:REL {w: 1.5, v: 10.0}]->(b)" +
+        ", (a)-[:REL {w: 2.5, v: 20.0}]->(c)" +
+        ", (a)-[:REL {w: 3.5, v: 30.0}]->(c)" +
+        ", (e)-[:REL {w: 4.5, v: 40.0}]->(a)" +
+        ", (b)-[:OTHER]->(c)" +
+        ", (c)-[:OTHER]->(a)" +
+        ", (d)-[:OTHER]->(e)" +
+        ", (e)-[:OTHER]->(e)";
+
+    private static final RelationshipType REL = RelationshipType.of("REL");
+    private static final RelationshipType OTHER = RelationshipType.of("OTHER");
+
+    @ParameterizedTest
+    @EnumSource(value = NodeOrder.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+    void shouldPreserveGraphStore(NodeOrder nodeOrder) {
+        var graphStore = GdlFactory.of(GDL, DATABASE_ID).build().graphStore();
+        var reordered = NodeReordering.reorder(graphStore, nodeOrder, 4, AllocationTracker.empty());
+
+        assertEquals(graphStore.nodeCount(), reordered.nodeCount());
+        assertEquals(graphStore.relationshipCount(), reordered.relationshipCount());
+        assertEquals(graphStore.schema(), reordered.schema());
+
+        var nodes = graphStore.nodes();
+        var reorderedNodes = reordered.nodes();
+        for (long nodeId = 0; nodeId < reordered.nodeCount(); nodeId++) {
+            long originalId = reorderedNodes.toOriginalNodeId(nodeId);
+            long oldId = nodes.toMappedNodeId(originalId);
+            assertEquals(nodeId, reorderedNodes.toMappedNodeId(originalId));
+            assertEquals(nodes.nodeLabels(oldId), reorderedNodes.nodeLabels(nodeId));
+            assertEquals(
+                graphStore.nodePropertyValues("p").longValue(oldId),
+                reordered.nodePropertyValues("p").longValue(nodeId)
+            );
+            assertArrayEquals(
+                graphStore.nodePropertyValues("arr").doubleArrayValue(oldId),
+                reordered.nodePropertyValues("arr").doubleArrayValue(nodeId)
+            );
+        }
+
+        for (String propertyKey : new String[]{"w", "v"}) {
+            var graph = graphStore.getGraph(REL, Optional.of(propertyKey));
+            var reorderedGraph = reordered.getGraph(REL, Optional.of(propertyKey));
+            assertGraphEquals(graph, reorderedGraph);
+            assertEquals(relationshipsByOriginalIds(graph), relationshipsByOriginalIds(reorderedGraph));
+        }
+        assertGraphEquals(
+            graphStore.getGraph(OTHER, Optional.empty()),
+            reordered.getGraph(OTHER, Optional.empty())
+        );
+        assertGraphEquals(
+            graphStore.getGraph(NodeLabel.of("B"), OTHER, Optional.empty()),
+            reordered.getGraph(NodeLabel.of("B"), OTHER, Optional.empty())
+        );
+    }
+
+    @Test
+    void shouldOrderByDescendingDegree() {
+        var graph = GdlFactory.of("(a), (b), (c), (d), (b)-->(a), (c)-->(a), (c)-->(b), (c)-->(d)").build().graphStore().getUnion();
+
+        var order = NodeReordering.computeOrder(graph, NodeOrder.DEGREE, AllocationTracker.empty());
+
+        assertThat(order.toArray()).containsExactly(2L, 1L, 0L, 3L);
+    }
+
+    @Test
+    void shouldOrderByCuthillMcKee() {
+        var graph = GdlFactory
+            .of("(a)-->(b), (b)-->(a), (b)-->(c), (b)-->(d), (d)-->(b), (d)-->(c), (c)-->(b), (c)-->(d), (c)-->(e), (e)-->(c)")
+            .build()
+            .graphStore()
+            .getUnion();
+
+        var order = NodeReordering.computeOrder(graph, NodeOrder.CUTHILL_MCKEE, AllocationTracker.empty());
+
+        // starts at the node with minimum degree and visits the neighbours by ascending degree
+        assertThat(order.toArray()).containsExactly(0L, 1L, 3L, 2L, 4L);
+    }
+
+    @Test
+    void shouldPlaceCommunitiesInConsecutiveRanges() {
+        // two cliques that are connected through node i, breadth-first order alternates between them
+        var graph = fromGdl(
+            "  (a), (b), (c), (d), (e), (f), (g), (h), (i)" +
+            ", (a)-->(b), (a)-->(c), (a)-->(d), (b)-->(c), (b)-->(d), (c)-->(d)" +
+            ", (e)-->(f), (e)-->(g), (e)-->(h), (f)-->(g), (f)-->(h), (g)-->(h)" +
+            ", (i)-->(a), (i)-->(e)",
+            Orientation.UNDIRECTED
+        );
+
+        var bfsOrder = NodeReordering.computeOrder(graph, NodeOrder.CUTHILL_MCKEE, AllocationTracker.empty());
+        var communityOrder = NodeReordering.computeOrder(graph, NodeOrder.COMMUNITY, AllocationTracker.empty());
+
+        assertThat(bfsOrder.toArray()).containsExactly(8L, 0L, 4L, 1L, 2L, 3L, 5L, 6L, 7L);
+        assertThat(communityOrder.toArray()).containsExactly(8L, 0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void shouldNotReorderWithoutOrder() {
+        var graphStore = GdlFactory.of(GDL, DATABASE_ID).build().graphStore();
+        assertSame(graphStore, NodeReordering.reorder(graphStore, NodeOrder.NONE, 4, AllocationTracker.empty()));
+    }
+
+    private static Map<String, Double> relationshipsByOriginalIds(Graph graph) {
+        Map<String, Double> relationships = new HashMap<>();
+        graph.forEachNode(nodeId -> {
+            graph.forEachRelationship(nodeId, Double.NaN, (source, target, property) -> {
+                relationships.merge(
+                    graph.toOriginalNodeId(source) + "->" + graph.toOriginalNodeId(target),
+                    property,
+                    Double::sum
+                );
+                return true;
+            });
+            return true;
+        });
+        return relationships;
+    }
+}
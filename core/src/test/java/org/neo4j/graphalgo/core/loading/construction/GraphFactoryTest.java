@@ -21,11 +21,13 @@ package org.neo4j.graphalgo.core.loading.construction;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyCompression;
 import org.neo4j.graphalgo.core.loading.IdMap;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 
@@ -125,9 +127,21 @@ class GraphFactoryTest {
         assertGraphEquals(expectedWithoutAggregation(Orientation.UNDIRECTED), graph);
     }
 
+    @ParameterizedTest
+    @EnumSource(PropertyCompression.class)
+    void weightedWithPropertyCompression(PropertyCompression compression) {
+        Graph graph = generateGraph(Orientation.NATURAL, Aggregation.SUM, compression);
+        assertGraphEquals(expectedWithAggregation(Orientation.NATURAL), graph);
+        assertEquals(4.0, graph.relationshipProperty(2, 3, Double.NaN));
+        assertEquals(42.0, graph.relationshipProperty(2, 0, 42.0));
+    }
 
 
     private Graph generateGraph(Orientation orientation, Aggregation aggregation) {
+        return generateGraph(orientation, aggregation, PropertyCompression.NONE);
+    }
+
+    private Graph generateGraph(Orientation orientation, Aggregation aggregation, PropertyCompression compression) {
         int nodeCount = 4;
         var nodesBuilder = GraphFactory.initNodesBuilder().maxOriginalId(nodeCount).build();
 
@@ -140,6 +154,7 @@ class GraphFactoryTest {
             .nodes(idMap)
             .orientation(orientation)
             .aggregation(aggregation)
+            .propertyCompression(compression)
             .loadRelationshipProperty(true)
             .build();
 
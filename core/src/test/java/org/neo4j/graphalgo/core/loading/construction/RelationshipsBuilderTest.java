@@ -19,16 +19,21 @@
  */
 package org.neo4j.graphalgo.core.loading.construction;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.core.PropertyCompression;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.loading.IdMap;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class RelationshipsBuilderTest {
 
@@ -81,6 +86,60 @@ class RelationshipsBuilderTest {
         });
     }
 
+    @Test
+    void parallelRelationshipImportWithMultipleProperties() {
+        var concurrency = 4;
+        var nodeCount = 100;
+        var relationshipCount = 1000;
+
+        var idMap = createIdMap(nodeCount);
+
+        var relationshipsBuilder = GraphFactory.initRelationshipsBuilder()
+            .nodes(idMap)
+            .orientation(Orientation.NATURAL)
+            .propertyCompressions(List.of(PropertyCompression.NONE, PropertyCompression.FLOAT))
+            .concurrency(concurrency)
+            .build();
+
+        ParallelUtil.parallelStreamConsume(
+            LongStream.range(0, relationshipCount),
+            concurrency,
+            stream -> stream.forEach(relId -> relationshipsBuilder.addFromInternal(
+                relId % nodeCount,
+                relId % nodeCount + 1,
+                new double[]{relId, -relId}
+            ))
+        );
+
+        var allRelationships = relationshipsBuilder.buildAll();
+        assertEquals(2, allRelationships.size());
+        // the topology is built once and shared by all properties
+        assertSame(allRelationships.get(0).topology().list(), allRelationships.get(1).topology().list());
+
+        var graph = GraphFactory.create(idMap, allRelationships.get(0), AllocationTracker.empty());
+        var otherGraph = GraphFactory.create(idMap, allRelationships.get(1), AllocationTracker.empty());
+
+        graph.forEachNode(nodeId -> {
+            assertEquals(10, graph.degree(nodeId));
+
+            var weights = new ArrayList<Double>();
+            graph.forEachRelationship(nodeId, Double.NaN, (sourceNodeId, targetNodeId, weight) -> {
+                assertEquals(sourceNodeId, targetNodeId - 1, "Incorrect source, target combination");
+                assertEquals(sourceNodeId, weight % nodeCount, "Incorrect weight");
+                weights.add(weight);
+                return true;
+            });
+            var otherWeights = new ArrayList<Double>();
+            otherGraph.forEachRelationship(nodeId, Double.NaN, (sourceNodeId, targetNodeId, weight) -> {
+                otherWeights.add(-weight);
+                return true;
+            });
+            // both properties of a relationship are stored at the same position
+            assertEquals(weights, otherWeights);
+
+            return true;
+        });
+    }
 
     private IdMap createIdMap(long nodeCount) {
         var nodesBuilder = GraphFactory.initNodesBuilder().maxOriginalId(nodeCount).build();
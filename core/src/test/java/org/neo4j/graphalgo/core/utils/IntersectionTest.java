@@ -23,6 +23,7 @@ import com.carrotsearch.hppc.LongHashSet;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -75,4 +76,48 @@ class IntersectionTest {
             assertEquals(row[2][0], Intersections.intersection4(row[0],row[1]), Arrays.toString(row));
         }
     }
+
+    @Test
+    void dotProduct() {
+        var random = new Random(42);
+        for (int len = 0; len < 10; len++) {
+            double[] vector1 = random.doubles(len).toArray();
+            double[] vector2 = random.doubles(len).toArray();
+            double expected = 0D;
+            for (int i = 0; i < len; i++) {
+                expected += vector1[i] * vector2[i];
+            }
+            assertEquals(expected, Intersections.dotProduct(vector1, vector2, len), 1E-9);
+        }
+    }
+
+    @Test
+    void floatDotProduct() {
+        var random = new Random(42);
+        for (int len = 0; len < 10; len++) {
+            float[] vector1 = new float[len];
+            float[] vector2 = new float[len];
+            float expected = 0F;
+            for (int i = 0; i < len; i++) {
+                vector1[i] = random.nextFloat();
+                vector2[i] = random.nextFloat();
+                expected += vector1[i] * vector2[i];
+            }
+            assertEquals(expected, Intersections.dotProduct(vector1, vector2, len), 1E-5);
+        }
+    }
+
+    @Test
+    void sumSquareDelta() {
+        var random = new Random(42);
+        for (int len = 0; len < 10; len++) {
+            double[] vector1 = random.doubles(len).toArray();
+            double[] vector2 = random.doubles(len).toArray();
+            double expected = 0D;
+            for (int i = 0; i < len; i++) {
+                expected += (vector1[i] - vector2[i]) * (vector1[i] - vector2[i]);
+            }
+            assertEquals(expected, Intersections.sumSquareDelta(vector1, vector2, len), 1E-9);
+        }
+    }
 }
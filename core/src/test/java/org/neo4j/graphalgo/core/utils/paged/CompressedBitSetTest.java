@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import com.carrotsearch.hppc.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitSetTest {
+
+    // spans a sparse, a dense, a full and an empty chunk as well as a partial last chunk
+    private static final long SIZE = 4 * (1L << CompressedBitSet.CHUNK_SHIFT) + 1000;
+
+    @Test
+    void testGet() {
+        var bitSet = randomBitSet(42);
+        var compressed = CompressedBitSet.of(bitSet, SIZE);
+
+        assertEquals(bitSet.cardinality(), compressed.cardinality());
+        for (long index = 0; index < SIZE; index++) {
+            assertEquals(bitSet.get(index), compressed.get(index), "index " + index);
+        }
+        assertFalse(compressed.get(SIZE + 1));
+        assertTrue(compressed.isEmpty(3));
+    }
+
+    @Test
+    void testNextSetBit() {
+        var bitSet = randomBitSet(1337);
+        var compressed = CompressedBitSet.of(bitSet, SIZE);
+
+        long index = -1L;
+        long expected = -1L;
+        do {
+            expected = bitSet.nextSetBit(expected + 1);
+            index = compressed.nextSetBit(index + 1);
+            assertEquals(expected, index);
+        } while (index != -1L);
+    }
+
+    @Test
+    void testUnionAndIntersection() {
+        var left = randomBitSet(1);
+        var right = randomBitSet(2);
+        var compressedLeft = CompressedBitSet.of(left, SIZE);
+        var compressedRight = CompressedBitSet.of(right, SIZE);
+
+        var union = CompressedBitSet.union(List.of(compressedLeft, compressedRight));
+        var intersection = compressedLeft.intersection(compressedRight);
+
+        assertEquals(BitSet.unionCount(left, right), union.cardinality());
+        assertEquals(BitSet.intersectionCount(left, right), intersection.cardinality());
+        for (long index = 0; index < SIZE; index++) {
+            assertEquals(left.get(index) || right.get(index), union.get(index));
+            assertEquals(left.get(index) && right.get(index), intersection.get(index));
+        }
+    }
+
+    @Test
+    void testUnionOfRangesAcrossWordBoundaries() {
+        long chunkSize = 1L << CompressedBitSet.CHUNK_SHIFT;
+        long[][] ranges = {{0, 1}, {5, 10}, {63, 64}, {63, 65}, {0, 64}, {64, 128}, {60, 200}, {1, chunkSize - 1}, {100, chunkSize}};
+        for (long[] leftRange : ranges) {
+            for (long[] rightRange : ranges) {
+                var left = new BitSet(chunkSize);
+                left.set(leftRange[0], leftRange[1]);
+                var right = new BitSet(chunkSize);
+                right.set(rightRange[0] + 1, rightRange[1]);
+                right.set(chunkSize - 1);
+
+                var union = CompressedBitSet.union(List.of(
+                    CompressedBitSet.of(left, chunkSize),
+                    CompressedBitSet.of(right, chunkSize)
+                ));
+
+                assertEquals(BitSet.unionCount(left, right), union.cardinality());
+                for (long index = 0; index < chunkSize; index++) {
+                    assertEquals(left.get(index) || right.get(index), union.get(index), "index " + index);
+                }
+            }
+        }
+    }
+
+    private static BitSet randomBitSet(long seed) {
+        var random = new Random(seed);
+        long chunkSize = 1L << CompressedBitSet.CHUNK_SHIFT;
+        var bitSet = new BitSet(SIZE);
+        for (int i = 0; i < 100; i++) {
+            bitSet.set((long) random.nextInt((int) chunkSize));
+        }
+        for (long index = chunkSize; index < 2 * chunkSize; index++) {
+            if (random.nextBoolean()) {
+                bitSet.set(index);
+            }
+        }
+        long rangeStart = 2 * chunkSize + random.nextInt(1000);
+        bitSet.set(rangeStart, 3 * chunkSize);
+        for (long index = 4 * chunkSize; index < SIZE; index++) {
+            bitSet.set(index);
+        }
+        return bitSet;
+    }
+}
@@ -202,4 +202,16 @@ class HugeAtomicBitSetTest {
         atomicBitSet.flip(23);
         assertFalse(atomicBitSet.allSet());
     }
+
+    @Test
+    void testWord() {
+        var atomicBitSet = HugeAtomicBitSet.create(142, AllocationTracker.empty());
+        atomicBitSet.set(1);
+        atomicBitSet.set(63);
+        atomicBitSet.set(64);
+        atomicBitSet.set(141);
+        assertEquals((1L << 1) | (1L << 63), atomicBitSet.word(0));
+        assertEquals(1L, atomicBitSet.word(1));
+        assertEquals(1L << (141 - 128), atomicBitSet.word(2));
+    }
 }
@@ -22,7 +22,9 @@ package org.neo4j.graphalgo.core.utils.paged;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 import net.jqwik.api.constraints.LongRange;
+import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -37,4 +39,14 @@ class HugeLongMatrixTest {
         array.set(x, y, v);
         assertEquals(v, array.get(x, y));
     }
+
+    @Test
+    void testReleaseRemovesFromTracker() {
+        var tracker = AllocationTracker.create();
+        HugeLongMatrix array = new HugeLongMatrix(100, 10, tracker);
+        assertEquals(MemoryUsage.sizeOfLongArray(1000), tracker.trackedBytes());
+
+        array.release();
+        assertEquals(0L, tracker.trackedBytes());
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.core.utils.mem.AllocationTracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapPagesTest {
+
+    @Test
+    void shouldMovePagesOffHeap() {
+        var tracker = AllocationTracker.create();
+        byte[][] pages = {new byte[]{1, 2, 3}, null, new byte[]{4, 5}};
+
+        var offHeapPages = OffHeapPages.moveOf(pages, tracker);
+
+        assertThat(pages).containsOnlyNulls();
+        assertThat(offHeapPages.pageCount()).isEqualTo(3);
+        assertThat(offHeapPages.copyPage(0)).containsExactly(1, 2, 3);
+        assertThat(offHeapPages.copyPage(1)).isNull();
+        assertThat(offHeapPages.copyPage(2)).containsExactly(4, 5);
+        assertThat(offHeapPages.addresses()[1]).isZero();
+        assertThat(tracker.trackedBytes()).isEqualTo(5);
+
+        offHeapPages.release();
+    }
+
+    @Test
+    void shouldReleaseMemoryOnce() {
+        var tracker = AllocationTracker.create();
+        var offHeapPages = OffHeapPages.moveOf(new byte[][]{new byte[42]}, tracker);
+
+        offHeapPages.release();
+        offHeapPages.release();
+
+        assertThat(tracker.trackedBytes()).isZero();
+    }
+
+    @Test
+    void shouldAllocateZeroedPages() {
+        var tracker = AllocationTracker.create();
+        var offHeapPages = OffHeapPages.create(tracker);
+
+        long address = offHeapPages.allocatePage(1, 8);
+
+        assertThat(offHeapPages.pageCount()).isEqualTo(2);
+        assertThat(offHeapPages.address(1)).isEqualTo(address);
+        assertThat(offHeapPages.address(0)).isZero();
+        assertThat(offHeapPages.copyPage(1)).containsOnly(0);
+        assertThat(tracker.trackedBytes()).isEqualTo(8);
+        assertThatThrownBy(() -> offHeapPages.allocatePage(1, 8))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("The page 1 has already been allocated.");
+
+        offHeapPages.release();
+    }
+
+    @Test
+    void shouldFreeMemoryWithLastReference() {
+        var tracker = AllocationTracker.create();
+        var offHeapPages = OffHeapPages.moveOf(new byte[][]{new byte[42]}, tracker);
+
+        offHeapPages.retain();
+        offHeapPages.release();
+
+        assertThat(tracker.trackedBytes()).isEqualTo(42);
+        assertThat(offHeapPages.copyPage(0)).hasSize(42);
+
+        offHeapPages.release();
+
+        assertThat(tracker.trackedBytes()).isZero();
+        assertThatThrownBy(offHeapPages::retain)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("The off-heap pages have already been released.");
+    }
+
+    @Test
+    void shouldFailOnAccessAfterRelease() {
+        var offHeapPages = OffHeapPages.moveOf(new byte[][]{new byte[42]}, AllocationTracker.empty());
+
+        offHeapPages.release();
+
+        assertThatThrownBy(offHeapPages::checkNotReleased)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("The off-heap pages have already been released.");
+        assertThatThrownBy(offHeapPages::addresses).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> offHeapPages.copyPage(0)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -24,8 +24,11 @@ import org.neo4j.graphalgo.beta.pregel.Pregel;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelContext;
 import org.neo4j.graphalgo.beta.pregel.PregelSchema;
+import org.neo4j.graphalgo.beta.pregel.Reducer;
 import org.neo4j.graphalgo.beta.pregel.annotation.PregelProcedure;
 
+import java.util.Optional;
+
 import static org.neo4j.graphalgo.beta.pregel.annotation.GDSMode.MUTATE;
 import static org.neo4j.graphalgo.beta.pregel.annotation.GDSMode.STATS;
 import static org.neo4j.graphalgo.beta.pregel.annotation.GDSMode.STREAM;
@@ -71,4 +74,9 @@ public class ConnectedComponentsPregel implements PregelComputation<ConnectedCom
 
         context.voteToHalt();
     }
+
+    @Override
+    public Optional<Reducer> reducer() {
+        return Optional.of(new Reducer.Min());
+    }
 }
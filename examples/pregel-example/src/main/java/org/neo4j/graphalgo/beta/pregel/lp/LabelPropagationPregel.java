@@ -20,6 +20,7 @@
 package org.neo4j.graphalgo.beta.pregel.lp;
 
 import org.neo4j.graphalgo.api.nodeproperties.ValueType;
+import org.neo4j.graphalgo.beta.pregel.MessageSchema;
 import org.neo4j.graphalgo.beta.pregel.Pregel;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelConfig;
@@ -43,6 +44,11 @@ public class LabelPropagationPregel implements PregelComputation<PregelConfig> {
         return new PregelSchema.Builder().add(LABEL_KEY, ValueType.LONG).build();
     }
 
+    @Override
+    public MessageSchema messageSchema() {
+        return MessageSchema.longs();
+    }
+
     @Override
     public void init(PregelContext.InitContext<PregelConfig> context) {
         context.setNodeValue(LABEL_KEY, context.nodeId());
@@ -51,7 +57,7 @@ public class LabelPropagationPregel implements PregelComputation<PregelConfig> {
     @Override
     public void compute(PregelContext.ComputeContext<PregelConfig> context, Pregel.Messages messages) {
         if (context.isInitialSuperstep()) {
-            context.sendToNeighbors(context.nodeId());
+            context.sendLongToNeighbors(context.nodeId());
         } else {
             if (messages != null) {
                 long oldValue = context.longNodeValue(LABEL_KEY);
@@ -63,8 +69,9 @@ public class LabelPropagationPregel implements PregelComputation<PregelConfig> {
 
                 int messageCount = 0;
 
-                for (var message : messages) {
-                    buffer[messageCount++] = message.longValue();
+                var iterator = messages.iterator();
+                while (iterator.hasNext()) {
+                    buffer[messageCount++] = iterator.nextLong();
                 }
 
                 int maxOccurences = 1;
@@ -92,7 +99,7 @@ public class LabelPropagationPregel implements PregelComputation<PregelConfig> {
 
                 if (newValue != oldValue) {
                     context.setNodeValue(LABEL_KEY, newValue);
-                    context.sendToNeighbors(newValue);
+                    context.sendLongToNeighbors(newValue);
                 }
             }
         }
@@ -23,17 +23,21 @@ import org.immutables.value.Value;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.api.nodeproperties.ValueType;
+import org.neo4j.graphalgo.beta.pregel.MasterComputeContext;
 import org.neo4j.graphalgo.beta.pregel.Pregel;
 import org.neo4j.graphalgo.beta.pregel.PregelComputation;
 import org.neo4j.graphalgo.beta.pregel.PregelConfig;
 import org.neo4j.graphalgo.beta.pregel.PregelContext;
 import org.neo4j.graphalgo.beta.pregel.PregelSchema;
+import org.neo4j.graphalgo.beta.pregel.Reducer;
 import org.neo4j.graphalgo.beta.pregel.annotation.GDSMode;
 import org.neo4j.graphalgo.beta.pregel.annotation.PregelProcedure;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.config.SeedConfig;
+import org.neo4j.graphalgo.config.ToleranceConfig;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 
+import java.util.Map;
 import java.util.Optional;
 
 @PregelProcedure(name = "example.pregel.pr", modes = {GDSMode.STREAM, GDSMode.MUTATE})
@@ -41,6 +45,8 @@ public class PageRankPregel implements PregelComputation<PageRankPregel.PageRank
 
     static final String PAGE_RANK = "pagerank";
 
+    static final String DELTA = "delta";
+
     private static boolean weighted;
 
     @Override
@@ -74,6 +80,7 @@ public class PageRankPregel implements PregelComputation<PageRankPregel.PageRank
 
             newRank = (jumpProbability / context.nodeCount()) + dampingFactor * sum;
 
+            context.aggregate(DELTA, Math.abs(newRank - context.doubleNodeValue(PAGE_RANK)));
             context.setNodeValue(PAGE_RANK, newRank);
         }
 
@@ -92,15 +99,37 @@ public class PageRankPregel implements PregelComputation<PageRankPregel.PageRank
         return nodeValue * relationshipWeight;
     }
 
+    @Override
+    public Optional<Reducer> reducer() {
+        return Optional.of(new Reducer.Sum());
+    }
+
+    @Override
+    public Map<String, Reducer> aggregators() {
+        return Map.of(DELTA, new Reducer.Sum());
+    }
+
+    @Override
+    public boolean masterCompute(MasterComputeContext<PageRankPregelConfig> context) {
+        // stop if the ranks have not changed by more than the tolerance in total
+        return !context.isInitialSuperstep() && context.aggregatedValue(DELTA) < context.config().tolerance();
+    }
+
     @ValueClass
     @Configuration("PageRankPregelConfigImpl")
     @SuppressWarnings("immutables:subtype")
-    public interface PageRankPregelConfig extends PregelConfig, SeedConfig {
+    public interface PageRankPregelConfig extends PregelConfig, SeedConfig, ToleranceConfig {
         @Value.Default
         default double dampingFactor() {
             return 0.85;
         }
 
+        @Value.Default
+        @Override
+        default double tolerance() {
+            return 1E-7;
+        }
+
         static PageRankPregelConfig of(
             String username,
             Optional<String> graphName,
@@ -25,6 +25,7 @@ import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.api.GraphStore;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
+import org.neo4j.graphalgo.config.GraphCreateFromFileConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
 import org.neo4j.graphalgo.core.GraphLoader;
@@ -38,6 +39,7 @@ import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -147,6 +149,36 @@ public class GraphCreateProc extends CatalogProc {
         return estimateGraph(config);
     }
 
+    @Procedure(name = "gds.graph.create.file", mode = READ)
+    @Description(DESCRIPTION)
+    public Stream<GraphCreateFileResult> create(
+        @Name(value = "graphName") String graphName,
+        @Name(value = "nodeFiles") @Nullable List<String> nodeFiles,
+        @Name(value = "relationshipFiles") @Nullable List<String> relationshipFiles,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        validateGraphName(username(), graphName);
+
+        // input
+        CypherMapWrapper cypherConfig = CypherMapWrapper.create(configuration);
+        GraphCreateFromFileConfig config = GraphCreateFromFileConfig.of(
+            username(),
+            graphName,
+            nodeFiles == null ? List.of() : nodeFiles,
+            relationshipFiles == null ? List.of() : relationshipFiles,
+            cypherConfig
+        );
+        validateConfig(cypherConfig, config);
+
+        // computation
+        GraphCreateFileResult result = runWithExceptionLogging(
+            "Graph creation failed",
+            () -> (GraphCreateFileResult) createGraph(config)
+        );
+        // result
+        return Stream.of(result);
+    }
+
     /**
      * This is (temporarily) overridden due to a performance regression
      * caused by tracking memory allocation during graph creation.
@@ -159,9 +191,14 @@ public class GraphCreateProc extends CatalogProc {
     private GraphCreateResult createGraph(GraphCreateConfig config) {
         tryValidateMemoryUsage(config, this::memoryTreeWithDimensions);
 
-        GraphCreateResult.Builder builder = config instanceof GraphCreateFromCypherConfig
-            ? new GraphCreateCypherResult.Builder((GraphCreateFromCypherConfig) config)
-            : new GraphCreateNativeResult.Builder((GraphCreateFromStoreConfig) config);
+        GraphCreateResult.Builder builder;
+        if (config instanceof GraphCreateFromCypherConfig) {
+            builder = new GraphCreateCypherResult.Builder((GraphCreateFromCypherConfig) config);
+        } else if (config instanceof GraphCreateFromFileConfig) {
+            builder = new GraphCreateFileResult.Builder((GraphCreateFromFileConfig) config);
+        } else {
+            builder = new GraphCreateNativeResult.Builder((GraphCreateFromStoreConfig) config);
+        }
 
         try (ProgressTimer ignored = ProgressTimer.start(builder::withCreateMillis)) {
             GraphLoader loader = newLoader(config, allocationTracker());
@@ -314,4 +351,44 @@ public class GraphCreateProc extends CatalogProc {
             }
         }
     }
+
+    public static class GraphCreateFileResult extends GraphCreateResult {
+        public final List<String> nodeFiles;
+        public final List<String> relationshipFiles;
+
+        GraphCreateFileResult(
+            String graphName,
+            List<String> nodeFiles,
+            List<String> relationshipFiles,
+            long nodeCount,
+            long relationshipCount,
+            long createMillis
+        ) {
+            super(graphName, nodeCount, relationshipCount, createMillis);
+            this.nodeFiles = nodeFiles;
+            this.relationshipFiles = relationshipFiles;
+        }
+
+        protected static final class Builder extends GraphCreateResult.Builder {
+            private final List<String> nodeFiles;
+            private final List<String> relationshipFiles;
+
+            Builder(GraphCreateFromFileConfig config) {
+                super(config);
+                this.nodeFiles = config.nodeFiles();
+                this.relationshipFiles = config.relationshipFiles();
+            }
+
+            GraphCreateFileResult build() {
+                return new GraphCreateFileResult(
+                    graphName,
+                    nodeFiles,
+                    relationshipFiles,
+                    nodeCount,
+                    relationshipCount,
+                    createMillis
+                );
+            }
+        }
+    }
 }
@@ -301,7 +301,14 @@ public abstract class AlgoBaseProc<
         Collection<NodeLabel> nodeLabels = config.nodeLabelIdentifiers(graphStore);
         Collection<RelationshipType> relationshipTypes = config.internalRelationshipTypes(graphStore);
 
-        return graphStore.getGraph(nodeLabels, relationshipTypes, weightProperty);
+        return config.materializeSubgraph() || config.deduplicateRelationships()
+            ? graphStore.getMaterializedGraph(
+                nodeLabels,
+                relationshipTypes,
+                weightProperty,
+                config.deduplicateRelationships()
+            )
+            : graphStore.getGraph(nodeLabels, relationshipTypes, weightProperty);
     }
 
     protected GraphStore getOrCreateGraphStore(Pair<CONFIG, Optional<String>> configAndName) {
@@ -26,6 +26,10 @@ import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
@@ -82,19 +86,30 @@ class KnnFactoryTest {
         long topKNeighborList = /* NL */ 24 + sizeOfLongArray(boundedK * 2);
         long topKNeighborsList = /* HOA */ sizeOfHugeArrayInstance + sizeOfHugeArray + nodeCount * topKNeighborList;
 
-        long tempNeighborsListMin = /* HOA */ sizeOfHugeArrayInstance + sizeOfHugeArray;
-        long tempNeighborsListMax = tempNeighborsListMin + nodeCount * (/* LAL */ 24 + sizeOfLongArray(sampledK));
+        long oldNeighborLists = neighborLists(nodeCount, boundedK);
+        long newNeighborLists = neighborLists(nodeCount, sampledK);
 
         long randomList = sizeOfLongArray(sizeOfOpenHashContainer(boundedK));
         long sampledList = sizeOfIntArray(sizeOfOpenHashContainer(sampledK));
 
-        long expectedMin = knnAlgo + topKNeighborsList + 4 * tempNeighborsListMin + randomList + sampledList;
-        long expectedMax = knnAlgo + topKNeighborsList + 4 * tempNeighborsListMax + randomList + sampledList;
+        // only array properties need the norms of their vectors
+        long squaredVectorNorms = HugeDoubleArray.memoryEstimation(nodeCount);
+
+        long expectedMin = knnAlgo + topKNeighborsList + oldNeighborLists + newNeighborLists + randomList + sampledList;
+        long expectedMax = expectedMin + squaredVectorNorms;
 
         assertEquals(expectedMin, actual.min);
         assertEquals(expectedMax, actual.max);
     }
 
+    private long neighborLists(long nodeCount, int capacity) {
+        return /* NLS */ 32 +
+               /* neighbors */ HugeLongArray.memoryEstimation(nodeCount * capacity) +
+               /* neighbor counts */ HugeIntArray.memoryEstimation(nodeCount) +
+               /* reverse offsets */ HugeAtomicLongArray.memoryEstimation(nodeCount + 1) +
+               /* reverse neighbors */ HugeLongArray.memoryEstimation(nodeCount * capacity);
+    }
+
     private KnnBaseConfig knnConfig() {
         return ImmutableKnnBaseConfig.builder().nodeWeightProperty("knn").build();
     }
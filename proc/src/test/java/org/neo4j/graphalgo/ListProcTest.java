@@ -167,6 +167,7 @@ class ListProcTest extends BaseProcTest {
         "gds.graph.create.cypher",
         "gds.graph.create.cypher.estimate",
         "gds.graph.create.estimate",
+        "gds.graph.create.file",
         "gds.graph.deleteRelationships",
         "gds.graph.drop",
         "gds.graph.exists",
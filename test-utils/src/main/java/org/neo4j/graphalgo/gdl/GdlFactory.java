@@ -261,6 +261,7 @@ public final class GdlFactory extends CSRGraphStoreFactory<GraphCreateFromGdlCon
                     .nodes(nodes)
                     .orientation(graphCreateConfig.orientation())
                     .aggregation(graphCreateConfig.aggregation())
+                    .indexInverse(graphCreateConfig.indexInverse())
                     .loadRelationshipProperty(relTypeAndProperty.getValue().isPresent())
                     .executorService(loadingContext.executor())
                     .tracker(loadingContext.tracker())
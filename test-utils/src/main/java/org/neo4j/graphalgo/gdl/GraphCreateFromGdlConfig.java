@@ -43,6 +43,11 @@ public interface GraphCreateFromGdlConfig extends GraphCreateConfig {
         return Aggregation.NONE;
     }
 
+    @Value.Default
+    default boolean indexInverse() {
+        return false;
+    }
+
     @Override
     default GraphStoreFactory.Supplier graphStoreFactory() {
         return loaderContext -> GdlFactory.of(this, loaderContext.api().databaseId());